@@ -99,7 +99,8 @@ public class ExampleMultiServiceResource {
           .customize(builder, Optional.of(frameworkConfig.getFrameworkName()), scenarios)
           .build();
     };
-    this.serviceStore = new ServiceStore(persister, serviceFactory);
+    this.serviceStore =
+        new ServiceStore(persister, serviceFactory, schedulerConfig.getServiceRecoveryParallelism());
   }
 
   /**
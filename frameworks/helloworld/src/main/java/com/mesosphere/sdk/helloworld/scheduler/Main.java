@@ -21,10 +21,12 @@ import com.mesosphere.sdk.specification.GoalState;
 import com.mesosphere.sdk.specification.ReplacementFailurePolicy;
 import com.mesosphere.sdk.specification.ServiceSpec;
 import com.mesosphere.sdk.specification.yaml.RawServiceSpec;
+import com.mesosphere.sdk.storage.CompressingPersister;
 import com.mesosphere.sdk.storage.Persister;
 import com.mesosphere.sdk.storage.PersisterCache;
 import com.mesosphere.sdk.storage.PersisterException;
 import com.mesosphere.sdk.storage.PersisterUtils;
+import com.mesosphere.sdk.storage.WatchingPersisterCache;
 
 import com.google.common.base.Splitter;
 import org.slf4j.Logger;
@@ -235,13 +237,18 @@ public final class Main {
       SchedulerConfig schedulerConfig,
       FrameworkConfig frameworkConfig)
   {
-    Persister persister = CuratorPersister
-        .newBuilder(frameworkConfig.getFrameworkName(), frameworkConfig.getZookeeperHostPort())
-        .build();
+    CuratorPersister.Builder builder = CuratorPersister
+        .newBuilder(frameworkConfig.getFrameworkName(), frameworkConfig.getZookeeperHostPort());
+    schedulerConfig.getPersisterWriteBatchWindow().ifPresent(builder::setWriteBatchWindow);
+    CuratorPersister curatorPersister = builder.build();
+    Persister persister = curatorPersister;
     if (schedulerConfig.isStateCacheEnabled()) {
-      persister = new PersisterCache(persister, schedulerConfig);
+      persister = schedulerConfig.isStateCacheWatchEnabled()
+          ? new WatchingPersisterCache(curatorPersister, schedulerConfig)
+          : new PersisterCache(curatorPersister, schedulerConfig);
     }
-    return persister;
+    // Always installed, so that any previously compressed values can still be read when compression is disabled:
+    return new CompressingPersister(persister, schedulerConfig.getPersisterCompressionThreshold());
   }
 
   private static Collection<File> getYamlFiles(String[] args) {
@@ -0,0 +1,304 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.dcos.Capabilities;
+import com.mesosphere.sdk.http.queries.ArtifactQueries;
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.offer.ResourceBuilder;
+import com.mesosphere.sdk.offer.evaluate.placement.PlacementRule;
+import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.scheduler.plan.DefaultPodInstance;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.specification.DefaultCommandSpec;
+import com.mesosphere.sdk.specification.DefaultPodSpec;
+import com.mesosphere.sdk.specification.DefaultResourceSet;
+import com.mesosphere.sdk.specification.DefaultServiceSpec;
+import com.mesosphere.sdk.specification.DefaultTaskSpec;
+import com.mesosphere.sdk.specification.GoalState;
+import com.mesosphere.sdk.specification.PodInstance;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.specification.PortSpec;
+import com.mesosphere.sdk.specification.ResourceSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.specification.TaskSpec;
+import com.mesosphere.sdk.state.ConfigStore;
+import com.mesosphere.sdk.state.FrameworkStore;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.Persister;
+
+import org.apache.mesos.Protos;
+import org.json.JSONObject;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Generates the synthetic services, offers, and deployed tasks which are used across benchmarks.
+ * <p>
+ * Each "agent" in the synthetic cluster has a hostname of {@code host-N}, lives in one of {@link #ZONE_COUNT} zones,
+ * and offers enough resources to launch a pod along with a wide range of ports.
+ */
+final class BenchmarkFixtures {
+
+  static final String SERVICE_NAME = "benchmark";
+
+  static final String ROLE = "benchmark-role";
+
+  static final String PRINCIPAL = "benchmark-principal";
+
+  static final String POD_TYPE = "node";
+
+  static final String TASK_NAME = "server";
+
+  static final Protos.FrameworkID FRAMEWORK_ID =
+      Protos.FrameworkID.newBuilder().setValue("benchmark-framework").build();
+
+  static final UUID TARGET_CONFIG_ID = UUID.fromString("6e5a1b5c-2b0e-4b7a-9a55-3f4f0e3c1d2a");
+
+  static final ArtifactQueries.TemplateUrlFactory TEMPLATE_URL_FACTORY =
+      (configId, podType, taskName, configName) -> String.format(
+          "http://benchmark-template/%s/%s/%s/%s", podType, taskName, configName, configId);
+
+  static final int ZONE_COUNT = 3;
+
+  /**
+   * The ports offered by each agent are split into this many separate ranges, to exercise range arithmetic.
+   */
+  static final int PORT_RANGE_COUNT = 16;
+
+  static final int PORTS_BEGIN = 1025;
+
+  static final int PORTS_END = 32000;
+
+  private static final double TASK_CPUS = 0.5;
+
+  private static final double TASK_MEM = 256;
+
+  private BenchmarkFixtures() {
+    // do not instantiate
+  }
+
+  /**
+   * Stubs out the DC/OS feature detection, which would otherwise query the cluster.
+   */
+  static void overrideCapabilities() {
+    Capabilities capabilities = Mockito.mock(Capabilities.class);
+    Mockito.when(capabilities.supportsGpuResource()).thenReturn(true);
+    Mockito.when(capabilities.supportsCNINetworking()).thenReturn(true);
+    Mockito.when(capabilities.supportsNamedVips()).thenReturn(true);
+    Mockito.when(capabilities.supportsRLimits()).thenReturn(true);
+    Mockito.when(capabilities.supportsPreReservedResources()).thenReturn(true);
+    Mockito.when(capabilities.supportsFileBasedSecrets()).thenReturn(true);
+    Mockito.when(capabilities.supportsEnvBasedSecretsProtobuf()).thenReturn(true);
+    Mockito.when(capabilities.supportsEnvBasedSecretsDirectiveLabel()).thenReturn(true);
+    Mockito.when(capabilities.supportsDomains()).thenReturn(true);
+    Capabilities.overrideCapabilities(capabilities);
+  }
+
+  /**
+   * Returns a stubbed scheduler configuration, as the real one is read from the scheduler's environment.
+   */
+  @SuppressWarnings("PMD.AvoidUsingHardCodedIP")
+  static SchedulerConfig getSchedulerConfig(int offerEvaluationParallelism) {
+    SchedulerConfig schedulerConfig = Mockito.mock(SchedulerConfig.class);
+    Mockito.when(schedulerConfig.getApiServerPort()).thenReturn(8080);
+    Mockito.when(schedulerConfig.getJavaURI()).thenReturn("benchmark-java-uri");
+    Mockito.when(schedulerConfig.getBootstrapURI()).thenReturn("benchmark-bootstrap-uri");
+    Mockito.when(schedulerConfig.getLibmesosURI()).thenReturn("benchmark-libmesos-uri");
+    Mockito.when(schedulerConfig.getDcosSpace()).thenReturn("/");
+    Mockito.when(schedulerConfig.getApiServerInitTimeout()).thenReturn(Duration.ofSeconds(10));
+    Mockito.when(schedulerConfig.getAutoipTLD()).thenReturn("autoip.tld");
+    Mockito.when(schedulerConfig.getVipTLD()).thenReturn("vip.tld");
+    Mockito.when(schedulerConfig.getMarathonName()).thenReturn("benchmark-marathon");
+    Mockito.when(schedulerConfig.getSchedulerRegion()).thenReturn(Optional.empty());
+    Mockito.when(schedulerConfig.getMultiServiceRemovalTimeout()).thenReturn(Duration.ofSeconds(60));
+    Mockito.when(schedulerConfig.getSchedulerIP()).thenReturn("127.0.0.1");
+    Mockito.when(schedulerConfig.getBuildInfo()).thenReturn(new JSONObject());
+    Mockito.when(schedulerConfig.getConfigCacheSize()).thenReturn(ConfigStore.DEFAULT_CACHE_SIZE);
+    Mockito.when(schedulerConfig.getOfferEvaluationParallelism()).thenReturn(offerEvaluationParallelism);
+    Map<String, Protos.Value> executorResources = new TreeMap<>();
+    executorResources.put(Constants.CPUS_RESOURCE_TYPE, getScalar(0.1));
+    executorResources.put(Constants.DISK_RESOURCE_TYPE, getScalar(256));
+    executorResources.put(Constants.MEMORY_RESOURCE_TYPE, getScalar(32));
+    Mockito.when(schedulerConfig.getExecutorResources()).thenReturn(executorResources);
+    return schedulerConfig;
+  }
+
+  /**
+   * Returns a pod with a single task which uses cpus, mem, and the requested number of dynamic ports.
+   */
+  static PodSpec getPodSpec(int count, int dynamicPortCount, Optional<PlacementRule> placementRule) {
+    DefaultResourceSet.Builder resourceSetBuilder = DefaultResourceSet.newBuilder(ROLE, Constants.ANY_ROLE, PRINCIPAL)
+        .id("benchmark-resources")
+        .cpus(TASK_CPUS)
+        .memory(TASK_MEM);
+    for (int i = 0; i < dynamicPortCount; ++i) {
+      resourceSetBuilder.addResource(getDynamicPortSpec("port-" + i));
+    }
+
+    TaskSpec taskSpec = DefaultTaskSpec.newBuilder()
+        .name(TASK_NAME)
+        .goalState(GoalState.RUNNING)
+        .commandSpec(DefaultCommandSpec.newBuilder(Collections.emptyMap()).value("./benchmark").build())
+        .resourceSet(resourceSetBuilder.build())
+        .build();
+
+    DefaultPodSpec.Builder podBuilder = DefaultPodSpec.newBuilder(POD_TYPE, count, Collections.singletonList(taskSpec))
+        .preReservedRole(Constants.ANY_ROLE);
+    placementRule.ifPresent(podBuilder::placementRule);
+    return podBuilder.build();
+  }
+
+  static PortSpec getDynamicPortSpec(String name) {
+    PortSpec.Builder builder = PortSpec.newBuilder()
+        .envKey(name.toUpperCase().replace('-', '_'))
+        .portName(name)
+        .visibility(Protos.DiscoveryInfo.Visibility.CLUSTER)
+        .networkNames(Collections.emptyList());
+    builder
+        .value(getPorts(0, 0))
+        .role(ROLE)
+        .preReservedRole(Constants.ANY_ROLE)
+        .principal(PRINCIPAL);
+    return builder.build();
+  }
+
+  static ServiceSpec getServiceSpec(PodSpec podSpec) {
+    return DefaultServiceSpec.newBuilder()
+        .name(SERVICE_NAME)
+        .role(ROLE)
+        .principal(PRINCIPAL)
+        .zookeeperConnection("master.mesos:2181")
+        .addPod(podSpec)
+        .build();
+  }
+
+  /**
+   * Returns a requirement to launch a new instance of the pod at the provided index.
+   */
+  static PodInstanceRequirement getRequirement(PodSpec podSpec, int index) {
+    PodInstance podInstance = new DefaultPodInstance(podSpec, index);
+    return PodInstanceRequirement.newBuilder(podInstance, Collections.singletonList(TASK_NAME)).build();
+  }
+
+  static List<Protos.Offer> getOffers(int count) {
+    List<Protos.Offer> offers = new ArrayList<>();
+    for (int i = 0; i < count; ++i) {
+      offers.add(getOffer(i));
+    }
+    return offers;
+  }
+
+  /**
+   * Returns an offer from agent {@code host-<index>}, containing enough unreserved resources to launch several pods.
+   */
+  static Protos.Offer getOffer(int index) {
+    return getOffer(index, PORT_RANGE_COUNT);
+  }
+
+  /**
+   * Returns an offer from agent {@code host-<index>}, with its ports split across the requested number of ranges.
+   */
+  static Protos.Offer getOffer(int index, int portRangeCount) {
+    Protos.Offer.Builder builder = Protos.Offer.newBuilder()
+        .setId(Protos.OfferID.newBuilder().setValue("offer-" + index))
+        .setFrameworkId(FRAMEWORK_ID)
+        .setSlaveId(Protos.SlaveID.newBuilder().setValue("agent-" + index))
+        .setHostname("host-" + index);
+    builder.getDomainBuilder().getFaultDomainBuilder()
+        .setRegion(Protos.DomainInfo.FaultDomain.RegionInfo.newBuilder().setName("region"))
+        .setZone(Protos.DomainInfo.FaultDomain.ZoneInfo.newBuilder().setName("zone-" + (index % ZONE_COUNT)));
+
+    builder.addResources(getUnreserved(Constants.CPUS_RESOURCE_TYPE, getScalar(16)));
+    builder.addResources(getUnreserved(Constants.MEMORY_RESOURCE_TYPE, getScalar(65536)));
+    builder.addResources(getUnreserved(Constants.DISK_RESOURCE_TYPE, getScalar(1024 * 1024)));
+    builder.addResources(getUnreserved(Constants.PORTS_RESOURCE_TYPE, getPortRanges(portRangeCount)));
+    return builder.build();
+  }
+
+  /**
+   * Returns the span of {@link #PORTS_BEGIN} to {@link #PORTS_END}, split into separate ranges with a gap after each,
+   * as is common for agents where some ports were previously reserved.
+   */
+  static Protos.Value getPortRanges(int rangeCount) {
+    Protos.Value.Builder builder = Protos.Value.newBuilder().setType(Protos.Value.Type.RANGES);
+    int rangeWidth = (PORTS_END - PORTS_BEGIN) / rangeCount;
+    for (int i = 0; i < rangeCount; ++i) {
+      long begin = PORTS_BEGIN + (long) i * rangeWidth;
+      builder.getRangesBuilder().addRangeBuilder().setBegin(begin).setEnd(begin + rangeWidth - 2);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Stores {@code taskCount} launched instances of the provided pod, spread round-robin across {@code agentCount}
+   * agents. Each task has reserved resources, so that its resource IDs are known to the state store.
+   */
+  static StateStore getStateStore(Persister persister, PodSpec podSpec, int taskCount, int agentCount)
+      throws Exception
+  {
+    new FrameworkStore(persister).storeFrameworkId(FRAMEWORK_ID);
+    StateStore stateStore = new StateStore(persister);
+    stateStore.storeTasks(getDeployedTasks(podSpec, taskCount, agentCount));
+    return stateStore;
+  }
+
+  static Collection<Protos.TaskInfo> getDeployedTasks(PodSpec podSpec, int taskCount, int agentCount)
+      throws Exception
+  {
+    List<Protos.TaskInfo> tasks = new ArrayList<>();
+    for (int i = 0; i < taskCount; ++i) {
+      tasks.add(getDeployedTask(podSpec, i, getOffer(i % Math.max(agentCount, 1))));
+    }
+    return tasks;
+  }
+
+  private static Protos.TaskInfo getDeployedTask(PodSpec podSpec, int index, Protos.Offer offer) throws Exception {
+    String taskName = String.format("%s-%d-%s", POD_TYPE, index, TASK_NAME);
+    Protos.TaskInfo.Builder taskBuilder = Protos.TaskInfo.newBuilder()
+        .setName(taskName)
+        .setTaskId(Protos.TaskID.newBuilder().setValue(taskName + "__" + UUID.randomUUID()))
+        .setSlaveId(offer.getSlaveId());
+    for (ResourceSpec resourceSpec : podSpec.getTasks().get(0).getResourceSet().getResources()) {
+      taskBuilder.addResources(ResourceBuilder.fromSpec(
+          resourceSpec,
+          Optional.of(UUID.randomUUID().toString()),
+          Optional.empty(),
+          Optional.of(FRAMEWORK_ID.getValue()))
+          .build());
+    }
+    taskBuilder.setLabels(new TaskLabelWriter(taskBuilder)
+        .setType(POD_TYPE)
+        .setIndex(index)
+        .setTargetConfiguration(TARGET_CONFIG_ID)
+        .setHostname(offer)
+        .setZone(offer.getDomain().getFaultDomain().getZone())
+        .setRegion(offer.getDomain().getFaultDomain().getRegion())
+        .toProto());
+    return taskBuilder.build();
+  }
+
+  static Protos.Value getScalar(double value) {
+    Protos.Value.Builder builder = Protos.Value.newBuilder().setType(Protos.Value.Type.SCALAR);
+    builder.getScalarBuilder().setValue(value);
+    return builder.build();
+  }
+
+  static Protos.Value getPorts(long begin, long end) {
+    Protos.Value.Builder builder = Protos.Value.newBuilder().setType(Protos.Value.Type.RANGES);
+    builder.getRangesBuilder().addRangeBuilder().setBegin(begin).setEnd(end);
+    return builder.build();
+  }
+
+  private static Protos.Resource getUnreserved(String name, Protos.Value value) {
+    return ResourceBuilder.fromUnreservedValue(name, value).build();
+  }
+}
@@ -0,0 +1,68 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.config.ConfigurationComparator;
+import com.mesosphere.sdk.specification.DefaultPodSpec;
+import com.mesosphere.sdk.specification.DefaultServiceSpec;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Benchmarks comparing a stored service config against a new target config, as is done on every scheduler startup
+ * when checking for a config update. The stored config is deserialized from its bytes, so that the two configs don't
+ * share any objects.
+ */
+@State(Scope.Benchmark)
+public class ConfigComparisonBenchmark {
+
+  @Param({"1", "50"})
+  public int podCount;
+
+  @Param({"10"})
+  public int portCount;
+
+  private final ConfigurationComparator<ServiceSpec> comparator = DefaultServiceSpec.getComparatorInstance();
+
+  private ServiceSpec storedSpec;
+
+  private ServiceSpec unchangedSpec;
+
+  private ServiceSpec changedSpec;
+
+  @Setup
+  public void setup() throws Exception {
+    BenchmarkFixtures.overrideCapabilities();
+    PodSpec podSpec = BenchmarkFixtures.getPodSpec(3, portCount, Optional.empty());
+    DefaultServiceSpec.Builder builder = DefaultServiceSpec.newBuilder(BenchmarkFixtures.getServiceSpec(podSpec));
+    for (int i = 1; i < podCount; ++i) {
+      builder.addPod(DefaultPodSpec.newBuilder(podSpec).type(BenchmarkFixtures.POD_TYPE + "-" + i).build());
+    }
+    unchangedSpec = builder.build();
+    storedSpec = DefaultServiceSpec.getConfigurationFactory(unchangedSpec).parse(unchangedSpec.getBytes());
+
+    // Scale out the last pod, as a typical config update would:
+    List<PodSpec> changedPods = new ArrayList<>(unchangedSpec.getPods());
+    PodSpec lastPod = changedPods.get(podCount - 1);
+    changedPods.set(podCount - 1, DefaultPodSpec.newBuilder(lastPod).count(lastPod.getCount() + 1).build());
+    changedSpec = builder.pods(changedPods).build();
+  }
+
+  @Benchmark
+  public boolean compareUnchanged() {
+    return comparator.equals(storedSpec, unchangedSpec);
+  }
+
+  @Benchmark
+  public boolean compareChanged() {
+    return comparator.equals(storedSpec, changedSpec);
+  }
+}
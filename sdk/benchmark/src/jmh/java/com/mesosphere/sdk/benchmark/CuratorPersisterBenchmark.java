@@ -0,0 +1,104 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.curator.CuratorPersister;
+import com.mesosphere.sdk.storage.Persister;
+
+import org.apache.curator.test.TestingServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures write throughput/latency and bulk read latency of {@link CuratorPersister} against an in-process
+ * ZooKeeper, with write batching disabled ({@code writeBatchWindowMs = -1}) or enabled with the given window.
+ */
+@State(Scope.Benchmark)
+public class CuratorPersisterBenchmark {
+
+  private static final int PATH_COUNT = 100;
+
+  private static final byte[] DATA = new byte[1024];
+
+  @Param({"-1", "0", "2"})
+  public int writeBatchWindowMs;
+
+  private final AtomicInteger writeCounter = new AtomicInteger();
+
+  private TestingServer testingServer;
+
+  private Persister persister;
+
+  private Collection<String> paths;
+
+  @Setup
+  public void setup() throws Exception {
+    testingServer = new TestingServer();
+    CuratorPersister.Builder builder = CuratorPersister
+        .newBuilder(BenchmarkFixtures.SERVICE_NAME, testingServer.getConnectString())
+        .disableLock();
+    if (writeBatchWindowMs >= 0) {
+      builder.setWriteBatchWindow(Duration.ofMillis(writeBatchWindowMs));
+    }
+    persister = builder.build();
+
+    paths = new ArrayList<>();
+    for (int i = 0; i < PATH_COUNT; ++i) {
+      String path = String.format("/Tasks/task-%d/TaskStatus", i);
+      persister.set(path, String.valueOf(i).getBytes(StandardCharsets.UTF_8));
+      paths.add(path);
+    }
+  }
+
+  @TearDown
+  public void teardown() throws Exception {
+    persister.close();
+    testingServer.close();
+  }
+
+  /**
+   * A single writer, as with the scheduler's offer processing thread.
+   */
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(1)
+  public void setSingleWriter() throws Exception {
+    set();
+  }
+
+  /**
+   * Several concurrent writers, as with status updates being stored while offers are processed.
+   */
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(8)
+  public void setConcurrentWriters() throws Exception {
+    set();
+  }
+
+  @Benchmark
+  public Map<String, byte[]> getMany() throws Exception {
+    return persister.getMany(paths);
+  }
+
+  private void set() throws Exception {
+    int index = writeCounter.getAndIncrement() % PATH_COUNT;
+    persister.set(String.format("/Tasks/task-%d/TaskStatus", index), DATA);
+  }
+}
@@ -0,0 +1,74 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.offer.MesosResource;
+import com.mesosphere.sdk.offer.MesosResourcePool;
+
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Benchmarks constructing a {@link MesosResourcePool} from an offer, and consuming resources from the pool as a
+ * port-heavy pod would.
+ */
+@State(Scope.Benchmark)
+public class MesosResourcePoolBenchmark {
+
+  private static final Protos.Value CPUS = BenchmarkFixtures.getScalar(0.5);
+
+  private static final Protos.Value MEM = BenchmarkFixtures.getScalar(256);
+
+  @Param({"1", "16", "256"})
+  public int portRangeCount;
+
+  @Param({"1", "32"})
+  public int portCount;
+
+  private Protos.Offer offer;
+
+  private List<Protos.Value> ports;
+
+  @Setup
+  public void setup() {
+    BenchmarkFixtures.overrideCapabilities();
+    offer = BenchmarkFixtures.getOffer(0, portRangeCount);
+
+    // Consume ports spread across the offered ranges, so that ranges get split.
+    ports = new ArrayList<>();
+    List<Protos.Value.Range> offeredRanges = BenchmarkFixtures.getPortRanges(portRangeCount).getRanges().getRangeList();
+    for (int i = 0; i < portCount; ++i) {
+      Protos.Value.Range range = offeredRanges.get(i % offeredRanges.size());
+      long port = range.getBegin() + (i / offeredRanges.size()) * 2 + 1;
+      ports.add(BenchmarkFixtures.getPorts(port, port));
+    }
+  }
+
+  @Benchmark
+  public MesosResourcePool construct() {
+    return new MesosResourcePool(offer, Optional.of(Constants.ANY_ROLE));
+  }
+
+  @Benchmark
+  public void constructAndConsume(Blackhole blackhole) {
+    MesosResourcePool pool = new MesosResourcePool(offer, Optional.of(Constants.ANY_ROLE));
+    blackhole.consume(consume(pool, Constants.CPUS_RESOURCE_TYPE, CPUS));
+    blackhole.consume(consume(pool, Constants.MEMORY_RESOURCE_TYPE, MEM));
+    for (Protos.Value port : ports) {
+      blackhole.consume(consume(pool, Constants.PORTS_RESOURCE_TYPE, port));
+    }
+  }
+
+  private static MesosResource consume(MesosResourcePool pool, String name, Protos.Value value) {
+    return pool.consumeReservableMerged(name, value, Constants.ANY_ROLE)
+        .orElseThrow(() -> new IllegalStateException("Insufficient " + name));
+  }
+}
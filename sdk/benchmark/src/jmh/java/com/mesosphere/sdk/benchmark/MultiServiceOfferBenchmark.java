@@ -0,0 +1,202 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.http.types.EndpointProducer;
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.offer.InvalidRequirementException;
+import com.mesosphere.sdk.offer.evaluate.OfferEvaluator;
+import com.mesosphere.sdk.offer.taskdata.AuxLabelAccess;
+import com.mesosphere.sdk.scheduler.AbstractScheduler;
+import com.mesosphere.sdk.scheduler.MesosEventClient.OfferResponse;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.scheduler.multi.MultiServiceEventClient;
+import com.mesosphere.sdk.scheduler.multi.MultiServiceManager;
+import com.mesosphere.sdk.scheduler.plan.DefaultPlan;
+import com.mesosphere.sdk.scheduler.plan.DefaultPlanCoordinator;
+import com.mesosphere.sdk.scheduler.plan.DefaultPlanManager;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.scheduler.plan.Step;
+import com.mesosphere.sdk.specification.DefaultServiceSpec;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.state.ConfigStore;
+import com.mesosphere.sdk.state.FrameworkStore;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.storage.Persister;
+
+import org.apache.mesos.Protos;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Benchmarks a single offer cycle of {@link MultiServiceEventClient} with {@code serviceCount} services, each of which
+ * is launching a pod. Each offer contains reservations belonging to one of the services, so that services may be
+ * evaluated concurrently when {@code parallelism > 1}.
+ */
+@State(Scope.Benchmark)
+public class MultiServiceOfferBenchmark {
+
+  @Param({"100"})
+  public int serviceCount;
+
+  @Param({"1", "4", "16"})
+  public int parallelism;
+
+  private MultiServiceEventClient client;
+
+  private List<Protos.Offer> offers;
+
+  @Setup
+  public void setup() throws Exception {
+    BenchmarkFixtures.overrideCapabilities();
+    SchedulerConfig schedulerConfig = BenchmarkFixtures.getSchedulerConfig(1);
+    Mockito.when(schedulerConfig.getMultiServiceOfferParallelism()).thenReturn(parallelism);
+
+    Persister persister = MemPersister.newBuilder().build();
+    FrameworkStore frameworkStore = new FrameworkStore(persister);
+    frameworkStore.storeFrameworkId(BenchmarkFixtures.FRAMEWORK_ID);
+
+    PodSpec podSpec = BenchmarkFixtures.getPodSpec(1, 0, Optional.empty());
+    MultiServiceManager multiServiceManager = new MultiServiceManager(schedulerConfig);
+    offers = new ArrayList<>();
+    for (int i = 0; i < serviceCount; ++i) {
+      String serviceName = "service-" + i;
+      multiServiceManager.putService(new SimulatedService(
+          DefaultServiceSpec.newBuilder(BenchmarkFixtures.getServiceSpec(podSpec)).name(serviceName).build(),
+          schedulerConfig,
+          frameworkStore,
+          new StateStore(persister, Optional.of(serviceName)),
+          BenchmarkFixtures.getRequirement(podSpec, 0)));
+      offers.add(getReservedOffer(i, serviceName));
+    }
+    client = new MultiServiceEventClient(
+        "benchmark-framework",
+        schedulerConfig,
+        multiServiceManager,
+        persister,
+        Collections.emptyList(),
+        serviceName -> { });
+  }
+
+  @Benchmark
+  public OfferResponse offers() {
+    client.getClientStatus();
+    return client.offers(offers);
+  }
+
+  /**
+   * Returns an offer with enough unreserved resources to launch the pod, along with a volume which was previously
+   * reserved by the specified service.
+   */
+  private static Protos.Offer getReservedOffer(int index, String serviceName) {
+    Protos.Resource.Builder resourceBuilder = Protos.Resource.newBuilder()
+        .setName(Constants.DISK_RESOURCE_TYPE)
+        .setType(Protos.Value.Type.SCALAR);
+    resourceBuilder.getScalarBuilder().setValue(1024);
+    Protos.Resource.ReservationInfo.Builder reservationBuilder = resourceBuilder.addReservationsBuilder()
+        .setRole(BenchmarkFixtures.ROLE)
+        .setPrincipal(BenchmarkFixtures.PRINCIPAL);
+    AuxLabelAccess.setResourceId(reservationBuilder, serviceName + "-volume");
+    AuxLabelAccess.setResourceNamespace(reservationBuilder, serviceName);
+    return BenchmarkFixtures.getOffer(index).toBuilder()
+        .addResources(resourceBuilder)
+        .build();
+  }
+
+  /**
+   * A service which evaluates all offers against a single pod launch, in place of a full {@code DefaultScheduler}
+   * with its plans and task reconciliation. Its state isn't updated by the launch, so that each offer cycle repeats
+   * the same work.
+   */
+  private static final class SimulatedService extends AbstractScheduler {
+
+    private final OfferEvaluator offerEvaluator;
+
+    private final PodInstanceRequirement podInstanceRequirement;
+
+    private SimulatedService(
+        ServiceSpec serviceSpec,
+        SchedulerConfig schedulerConfig,
+        FrameworkStore frameworkStore,
+        StateStore stateStore,
+        PodInstanceRequirement podInstanceRequirement)
+    {
+      super(
+          serviceSpec,
+          schedulerConfig,
+          stateStore,
+          new DefaultPlanCoordinator(
+              Optional.of(serviceSpec.getName()),
+              Collections.singletonList(DefaultPlanManager.createProceeding(
+                  new DefaultPlan("deploy", Collections.emptyList())))),
+          Optional.empty(),
+          Optional.of(serviceSpec.getName()));
+      this.offerEvaluator = new OfferEvaluator(
+          frameworkStore,
+          stateStore,
+          Optional.empty(),
+          serviceSpec.getName(),
+          BenchmarkFixtures.TARGET_CONFIG_ID,
+          BenchmarkFixtures.TEMPLATE_URL_FACTORY,
+          schedulerConfig,
+          Optional.of(serviceSpec.getName()));
+      this.podInstanceRequirement = podInstanceRequirement;
+    }
+
+    @Override
+    public ClientStatusResponse getClientStatus() {
+      return ClientStatusResponse.launching(false);
+    }
+
+    @Override
+    public OfferResponse offers(Collection<Protos.Offer> offers) {
+      return processOffers(offers, Collections.emptyList());
+    }
+
+    @Override
+    public Map<String, EndpointProducer> getCustomEndpoints() {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public ConfigStore<ServiceSpec> getConfigStore() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void registeredWithMesos() {
+      // No-op
+    }
+
+    @Override
+    protected ClientStatusResponse getStatus() {
+      return getClientStatus();
+    }
+
+    @Override
+    protected OfferResponse processOffers(Collection<Protos.Offer> offers, Collection<Step> steps) {
+      try {
+        return OfferResponse.processed(offerEvaluator.evaluate(podInstanceRequirement, new ArrayList<>(offers)));
+      } catch (InvalidRequirementException | IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    protected void processStatusUpdate(Protos.TaskStatus status) {
+      // No-op
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.offer.OfferRecommendation;
+import com.mesosphere.sdk.offer.evaluate.OfferEvaluator;
+import com.mesosphere.sdk.offer.evaluate.placement.MaxPerHostnameRule;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.state.FrameworkStore;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.storage.Persister;
+
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Benchmarks {@link OfferEvaluator#evaluate(PodInstanceRequirement, List)} when launching a new pod instance into a
+ * service which already has {@code taskCount} deployed tasks.
+ * <p>
+ * The pod has a max-per-hostname placement rule, and the deployed tasks are packed onto the agents behind the first
+ * half of the offers. Most of those offers are therefore rejected by the placement rule, and the evaluator must work
+ * through them before finding a passing offer.
+ */
+@State(Scope.Benchmark)
+public class OfferEvaluatorBenchmark {
+
+  private static final int DYNAMIC_PORT_COUNT = 4;
+
+  @Param({"10", "1000"})
+  public int taskCount;
+
+  @Param({"10", "100"})
+  public int offerCount;
+
+  @Param({"1", "4"})
+  public int parallelism;
+
+  private OfferEvaluator evaluator;
+
+  private PodInstanceRequirement podInstanceRequirement;
+
+  private List<Protos.Offer> offers;
+
+  @Setup
+  public void setup() throws Exception {
+    BenchmarkFixtures.overrideCapabilities();
+
+    int fullAgentCount = Math.max(offerCount / 2, 1);
+    int maxPerHostname = (taskCount + fullAgentCount - 1) / fullAgentCount;
+    PodSpec podSpec = BenchmarkFixtures.getPodSpec(
+        taskCount + 1, DYNAMIC_PORT_COUNT, Optional.of(new MaxPerHostnameRule(Math.max(maxPerHostname, 1))));
+
+    Persister persister = MemPersister.newBuilder().build();
+    StateStore stateStore = BenchmarkFixtures.getStateStore(persister, podSpec, taskCount, fullAgentCount);
+    evaluator = new OfferEvaluator(
+        new FrameworkStore(persister),
+        stateStore,
+        Optional.empty(),
+        BenchmarkFixtures.SERVICE_NAME,
+        BenchmarkFixtures.TARGET_CONFIG_ID,
+        BenchmarkFixtures.TEMPLATE_URL_FACTORY,
+        BenchmarkFixtures.getSchedulerConfig(parallelism),
+        Optional.empty());
+    podInstanceRequirement = BenchmarkFixtures.getRequirement(podSpec, taskCount);
+    offers = BenchmarkFixtures.getOffers(offerCount);
+  }
+
+  @Benchmark
+  public List<OfferRecommendation> evaluate() throws Exception {
+    return evaluator.evaluate(podInstanceRequirement, offers);
+  }
+}
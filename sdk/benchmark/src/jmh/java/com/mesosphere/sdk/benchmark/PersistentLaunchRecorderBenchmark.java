@@ -0,0 +1,64 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.offer.OfferRecommendation;
+import com.mesosphere.sdk.offer.evaluate.OfferEvaluator;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.state.FrameworkStore;
+import com.mesosphere.sdk.state.PersistentLaunchRecorder;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.storage.Persister;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Benchmarks recording the launch of a new pod into a {@link StateStore} which already has {@code taskCount} tasks.
+ */
+@State(Scope.Benchmark)
+public class PersistentLaunchRecorderBenchmark {
+
+  @Param({"10", "1000"})
+  public int taskCount;
+
+  private PersistentLaunchRecorder recorder;
+
+  private List<OfferRecommendation> recommendations;
+
+  @Setup
+  public void setup() throws Exception {
+    BenchmarkFixtures.overrideCapabilities();
+
+    PodSpec podSpec = BenchmarkFixtures.getPodSpec(taskCount + 1, 1, Optional.empty());
+    Persister persister = MemPersister.newBuilder().build();
+    StateStore stateStore = BenchmarkFixtures.getStateStore(persister, podSpec, taskCount, taskCount);
+    recorder = new PersistentLaunchRecorder(stateStore, BenchmarkFixtures.getServiceSpec(podSpec), Optional.empty());
+
+    OfferEvaluator evaluator = new OfferEvaluator(
+        new FrameworkStore(persister),
+        stateStore,
+        Optional.empty(),
+        BenchmarkFixtures.SERVICE_NAME,
+        BenchmarkFixtures.TARGET_CONFIG_ID,
+        BenchmarkFixtures.TEMPLATE_URL_FACTORY,
+        BenchmarkFixtures.getSchedulerConfig(1),
+        Optional.empty());
+    recommendations = evaluator.evaluate(
+        BenchmarkFixtures.getRequirement(podSpec, taskCount),
+        BenchmarkFixtures.getOffers(1));
+    if (recommendations.isEmpty()) {
+      throw new IllegalStateException("Offer evaluation produced no recommendations to record");
+    }
+  }
+
+  @Benchmark
+  public void record() throws Exception {
+    recorder.record(recommendations);
+  }
+}
@@ -0,0 +1,100 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.storage.Persister;
+import com.mesosphere.sdk.storage.PersisterCache;
+import com.mesosphere.sdk.storage.PersisterException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Benchmarks concurrent readers and writers against a {@link PersisterCache} holding {@code serviceCount} service
+ * namespaces with {@code taskCount} tasks each. Writers update task data in a single "active" namespace, as the offer
+ * thread would while deploying one service, while readers fetch task data as HTTP queries would. Readers either target
+ * the active namespace or other namespaces, depending on {@code readActiveNamespace}.
+ */
+@State(Scope.Group)
+public class PersisterCacheContentionBenchmark {
+
+  @Param({"10", "100"})
+  public int serviceCount;
+
+  @Param({"100"})
+  public int taskCount;
+
+  @Param({"false", "true"})
+  public boolean readActiveNamespace;
+
+  private PersisterCache cache;
+
+  private byte[] data;
+
+  @Setup
+  public void setup() throws Exception {
+    data = "benchmark-task-data".getBytes(StandardCharsets.UTF_8);
+    Persister persister = MemPersister.newBuilder().build();
+    for (int service = 0; service < serviceCount; ++service) {
+      for (int task = 0; task < taskCount; ++task) {
+        persister.set(getTaskInfoPath(service, task), data);
+        persister.set(getTaskStatusPath(service, task), data);
+      }
+    }
+    cache = new PersisterCache(persister, BenchmarkFixtures.getSchedulerConfig(1));
+    // Load everything ahead of the measurement:
+    cache.getChildren("/");
+  }
+
+  @TearDown
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(1)
+  public void write() throws PersisterException {
+    cache.set(getTaskStatusPath(0, ThreadLocalRandom.current().nextInt(taskCount)), data);
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(3)
+  public Map<String, byte[]> read() throws PersisterException {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int service = readActiveNamespace ? 0 : 1 + random.nextInt(serviceCount - 1);
+    int task = random.nextInt(taskCount);
+    Collection<String> paths = Arrays.asList(getTaskInfoPath(service, task), getTaskStatusPath(service, task));
+    return cache.getMany(paths);
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(1)
+  public List<String> list() throws PersisterException {
+    int service = ThreadLocalRandom.current().nextInt(serviceCount);
+    return new ArrayList<>(cache.getChildren(String.format("Services/svc-%d/Tasks", service)));
+  }
+
+  private static String getTaskInfoPath(int service, int task) {
+    return String.format("Services/svc-%d/Tasks/task-%d/TaskInfo", service, task);
+  }
+
+  private static String getTaskStatusPath(int service, int task) {
+    return String.format("Services/svc-%d/Tasks/task-%d/TaskStatus", service, task);
+  }
+}
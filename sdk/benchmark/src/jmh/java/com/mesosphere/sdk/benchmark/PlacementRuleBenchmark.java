@@ -0,0 +1,86 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.offer.evaluate.placement.MaxPerHostnameRule;
+import com.mesosphere.sdk.offer.evaluate.placement.PlacementIndex;
+import com.mesosphere.sdk.offer.evaluate.placement.PlacementRule;
+import com.mesosphere.sdk.offer.evaluate.placement.RoundRobinByZoneRule;
+import com.mesosphere.sdk.specification.PodInstance;
+import com.mesosphere.sdk.specification.PodSpec;
+
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Benchmarks evaluating placement rules against every offer in a cycle, with and without a shared
+ * {@link PlacementIndex} of the deployed tasks.
+ */
+@State(Scope.Benchmark)
+public class PlacementRuleBenchmark {
+
+  @Param({"10", "1000"})
+  public int taskCount;
+
+  @Param({"10", "100"})
+  public int offerCount;
+
+  private PlacementRule maxPerHostname;
+
+  private PlacementRule roundRobinByZone;
+
+  private PodInstance podInstance;
+
+  private Collection<Protos.TaskInfo> tasks;
+
+  private List<Protos.Offer> offers;
+
+  @Setup
+  public void setup() throws Exception {
+    BenchmarkFixtures.overrideCapabilities();
+    maxPerHostname = new MaxPerHostnameRule(Math.max(taskCount / offerCount, 1));
+    roundRobinByZone = new RoundRobinByZoneRule(Optional.of(BenchmarkFixtures.ZONE_COUNT));
+
+    PodSpec podSpec = BenchmarkFixtures.getPodSpec(taskCount + 1, 0, Optional.empty());
+    podInstance = BenchmarkFixtures.getRequirement(podSpec, taskCount).getPodInstance();
+    tasks = BenchmarkFixtures.getDeployedTasks(podSpec, taskCount, offerCount);
+    offers = BenchmarkFixtures.getOffers(offerCount);
+  }
+
+  @Benchmark
+  public void maxPerHostnameUnindexed(Blackhole blackhole) {
+    for (Protos.Offer offer : offers) {
+      blackhole.consume(maxPerHostname.filter(offer, podInstance, tasks));
+    }
+  }
+
+  @Benchmark
+  public void maxPerHostnameIndexed(Blackhole blackhole) {
+    PlacementIndex index = new PlacementIndex(tasks, podInstance);
+    for (Protos.Offer offer : offers) {
+      blackhole.consume(maxPerHostname.filter(offer, podInstance, index));
+    }
+  }
+
+  @Benchmark
+  public void roundRobinByZoneUnindexed(Blackhole blackhole) {
+    for (Protos.Offer offer : offers) {
+      blackhole.consume(roundRobinByZone.filter(offer, podInstance, tasks));
+    }
+  }
+
+  @Benchmark
+  public void roundRobinByZoneIndexed(Blackhole blackhole) {
+    PlacementIndex index = new PlacementIndex(tasks, podInstance);
+    for (Protos.Offer offer : offers) {
+      blackhole.consume(roundRobinByZone.filter(offer, podInstance, index));
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.offer.MesosResourcePool;
+import com.mesosphere.sdk.offer.evaluate.PodInfoBuilder;
+import com.mesosphere.sdk.offer.evaluate.PortEvaluationStage;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.specification.PortSpec;
+
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks assigning dynamic ports to a new pod with {@link PortEvaluationStage}s. The {@link #podInfoBuilder()}
+ * benchmark measures the per-evaluation setup alone, which should be subtracted from {@link #evaluatePorts}.
+ */
+@State(Scope.Benchmark)
+public class PortEvaluationStageBenchmark {
+
+  @Param({"1", "16", "64"})
+  public int portCount;
+
+  @Param({"1", "16"})
+  public int portRangeCount;
+
+  private SchedulerConfig schedulerConfig;
+
+  private PodInstanceRequirement podInstanceRequirement;
+
+  private List<PortEvaluationStage> stages;
+
+  private Protos.Offer offer;
+
+  @Setup
+  public void setup() {
+    BenchmarkFixtures.overrideCapabilities();
+    schedulerConfig = BenchmarkFixtures.getSchedulerConfig(1);
+
+    PodSpec podSpec = BenchmarkFixtures.getPodSpec(1, portCount, Optional.empty());
+    podInstanceRequirement = BenchmarkFixtures.getRequirement(podSpec, 0);
+    stages = podSpec.getTasks().get(0).getResourceSet().getResources().stream()
+        .filter(resourceSpec -> resourceSpec instanceof PortSpec)
+        .map(portSpec -> new PortEvaluationStage(
+            (PortSpec) portSpec,
+            Collections.singleton(BenchmarkFixtures.TASK_NAME),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.of(BenchmarkFixtures.FRAMEWORK_ID.getValue())))
+        .collect(Collectors.toList());
+    offer = BenchmarkFixtures.getOffer(0, portRangeCount);
+  }
+
+  @Benchmark
+  public PodInfoBuilder podInfoBuilder() throws Exception {
+    return getPodInfoBuilder();
+  }
+
+  @Benchmark
+  public void evaluatePorts(Blackhole blackhole) throws Exception {
+    PodInfoBuilder podInfoBuilder = getPodInfoBuilder();
+    MesosResourcePool pool = new MesosResourcePool(offer, Optional.of(Constants.ANY_ROLE));
+    for (PortEvaluationStage stage : stages) {
+      blackhole.consume(stage.evaluate(pool, podInfoBuilder));
+    }
+  }
+
+  private PodInfoBuilder getPodInfoBuilder() throws Exception {
+    return new PodInfoBuilder(
+        podInstanceRequirement,
+        BenchmarkFixtures.SERVICE_NAME,
+        BenchmarkFixtures.TARGET_CONFIG_ID,
+        BenchmarkFixtures.TEMPLATE_URL_FACTORY,
+        schedulerConfig,
+        Collections.emptyList(),
+        BenchmarkFixtures.FRAMEWORK_ID,
+        Collections.emptyMap());
+  }
+}
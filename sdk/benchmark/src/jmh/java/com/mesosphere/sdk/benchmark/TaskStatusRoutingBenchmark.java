@@ -0,0 +1,90 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.offer.LaunchOfferRecommendation;
+import com.mesosphere.sdk.scheduler.plan.DefaultPhase;
+import com.mesosphere.sdk.scheduler.plan.DefaultPlan;
+import com.mesosphere.sdk.scheduler.plan.DeploymentStep;
+import com.mesosphere.sdk.scheduler.plan.Phase;
+import com.mesosphere.sdk.scheduler.plan.Plan;
+import com.mesosphere.sdk.scheduler.plan.Step;
+import com.mesosphere.sdk.scheduler.plan.TaskStatusRouter;
+import com.mesosphere.sdk.scheduler.plan.strategy.ParallelStrategy;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
+
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Benchmarks a status storm, as follows an agent failure: {@code TASK_LOST} is delivered for every task launched by a
+ * plan with {@code stepCount} deployment steps. Compares broadcasting each status to the whole plan against routing
+ * it to the owning step via {@link TaskStatusRouter}.
+ */
+@State(Scope.Benchmark)
+public class TaskStatusRoutingBenchmark {
+
+  @Param({"100", "1000"})
+  public int stepCount;
+
+  private Plan plan;
+
+  private TaskStatusRouter router;
+
+  private List<Protos.TaskStatus> statuses;
+
+  @Setup
+  public void setup() throws Exception {
+    PodSpec podSpec = BenchmarkFixtures.getPodSpec(stepCount, 0, Optional.empty());
+    StateStore stateStore = new StateStore(MemPersister.newBuilder().build());
+    List<Protos.TaskInfo> tasks = new ArrayList<>(BenchmarkFixtures.getDeployedTasks(podSpec, stepCount, stepCount));
+    stateStore.storeTasks(tasks);
+    Protos.ExecutorInfo executorInfo = Protos.ExecutorInfo.newBuilder()
+        .setExecutorId(Protos.ExecutorID.newBuilder().setValue("benchmark-executor"))
+        .build();
+
+    List<Step> steps = new ArrayList<>();
+    statuses = new ArrayList<>();
+    for (int index = 0; index < tasks.size(); ++index) {
+      Protos.TaskInfo taskInfo = tasks.get(index);
+      DeploymentStep step = new DeploymentStep(
+          taskInfo.getName(),
+          BenchmarkFixtures.getRequirement(podSpec, index),
+          stateStore,
+          Optional.empty());
+      step.updateOfferStatus(Collections.singletonList(
+          new LaunchOfferRecommendation(BenchmarkFixtures.getOffer(index), taskInfo, executorInfo)));
+      steps.add(step);
+      statuses.add(Protos.TaskStatus.newBuilder()
+          .setTaskId(taskInfo.getTaskId())
+          .setState(Protos.TaskState.TASK_LOST)
+          .build());
+    }
+    Phase phase = new DefaultPhase("deploy", steps, new ParallelStrategy<>(), Collections.emptyList());
+    plan = new DefaultPlan("deploy", Collections.singletonList(phase));
+    router = new TaskStatusRouter(plan);
+  }
+
+  @Benchmark
+  public void broadcast() {
+    for (Protos.TaskStatus status : statuses) {
+      plan.update(status);
+    }
+  }
+
+  @Benchmark
+  public void routed() {
+    for (Protos.TaskStatus status : statuses) {
+      router.update(status);
+    }
+  }
+}
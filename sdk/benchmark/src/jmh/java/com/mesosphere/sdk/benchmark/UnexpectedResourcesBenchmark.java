@@ -0,0 +1,92 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.offer.taskdata.AuxLabelAccess;
+import com.mesosphere.sdk.scheduler.DefaultScheduler;
+import com.mesosphere.sdk.scheduler.MesosEventClient.UnexpectedResourcesResponse;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.storage.Persister;
+
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Benchmarks {@link DefaultScheduler#getUnexpectedResources(java.util.Collection)} against a service with
+ * {@code taskCount} deployed tasks. Each offer contains the reservations of the tasks on its agent, along with one
+ * reservation which isn't known to the service and should be cleaned up.
+ */
+@State(Scope.Benchmark)
+public class UnexpectedResourcesBenchmark {
+
+  private static final int OFFER_COUNT = 10;
+
+  @Param({"10", "1000"})
+  public int taskCount;
+
+  private DefaultScheduler scheduler;
+
+  private List<Protos.Offer> offers;
+
+  @Setup
+  public void setup() throws Exception {
+    BenchmarkFixtures.overrideCapabilities();
+
+    PodSpec podSpec = BenchmarkFixtures.getPodSpec(taskCount, 1, Optional.empty());
+    Persister persister = MemPersister.newBuilder().build();
+    StateStore stateStore = BenchmarkFixtures.getStateStore(persister, podSpec, taskCount, OFFER_COUNT);
+    scheduler = (DefaultScheduler) DefaultScheduler.newBuilder(
+        BenchmarkFixtures.getServiceSpec(podSpec),
+        BenchmarkFixtures.getSchedulerConfig(1),
+        persister)
+        .build();
+
+    offers = new ArrayList<>();
+    for (int i = 0; i < OFFER_COUNT; ++i) {
+      offers.add(BenchmarkFixtures.getOffer(i).toBuilder()
+          .addResources(getOrphanedResource(i))
+          .build());
+    }
+    for (Protos.TaskInfo task : stateStore.fetchTasks()) {
+      int index = Integer.parseInt(task.getSlaveId().getValue().substring("agent-".length()));
+      offers.set(index, offers.get(index).toBuilder()
+          .addAllResources(task.getResourcesList())
+          .build());
+    }
+
+    UnexpectedResourcesResponse response = scheduler.getUnexpectedResources(offers);
+    if (response.offerResources.size() != OFFER_COUNT) {
+      throw new IllegalStateException(String.format(
+          "Expected unexpected resources in %d offers, got %d", OFFER_COUNT, response.offerResources.size()));
+    }
+  }
+
+  @Benchmark
+  public UnexpectedResourcesResponse getUnexpectedResources() {
+    return scheduler.getUnexpectedResources(offers);
+  }
+
+  /**
+   * Returns a reserved volume whose resource ID doesn't belong to any of the service's tasks.
+   */
+  private static Protos.Resource getOrphanedResource(int index) {
+    Protos.Resource.Builder resourceBuilder = Protos.Resource.newBuilder()
+        .setName(Constants.DISK_RESOURCE_TYPE)
+        .setType(Protos.Value.Type.SCALAR);
+    resourceBuilder.getScalarBuilder().setValue(1024);
+    Protos.Resource.ReservationInfo.Builder reservationBuilder = resourceBuilder.addReservationsBuilder()
+        .setRole(BenchmarkFixtures.ROLE)
+        .setPrincipal(BenchmarkFixtures.PRINCIPAL);
+    AuxLabelAccess.setResourceId(reservationBuilder, "orphaned-volume-" + index);
+    return resourceBuilder.build();
+  }
+}
@@ -0,0 +1,70 @@
+package com.mesosphere.sdk.benchmark;
+
+import com.mesosphere.sdk.offer.MutableValue;
+import com.mesosphere.sdk.offer.ValueUtils;
+
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares allocating individual ports out of a wide offered port range using {@link MutableValue}, against the
+ * protobuf-based {@link ValueUtils} arithmetic which {@link com.mesosphere.sdk.offer.MesosResourcePool} used
+ * previously. Each allocation checks that the port is available and then subtracts it.
+ */
+@State(Scope.Benchmark)
+public class ValueArithmeticBenchmark {
+
+  @Param({"1", "16", "256"})
+  public int portRangeCount;
+
+  @Param({"1", "32", "256"})
+  public int portCount;
+
+  private Protos.Value offeredPorts;
+
+  private List<Protos.Value> ports;
+
+  @Setup
+  public void setup() {
+    offeredPorts = BenchmarkFixtures.getPortRanges(portRangeCount);
+    List<Protos.Value.Range> offeredRanges = offeredPorts.getRanges().getRangeList();
+    ports = new ArrayList<>();
+    for (int i = 0; i < portCount; ++i) {
+      Protos.Value.Range range = offeredRanges.get(i % offeredRanges.size());
+      long port = range.getBegin() + (i / offeredRanges.size()) * 2 + 1;
+      ports.add(BenchmarkFixtures.getPorts(port, port));
+    }
+  }
+
+  @Benchmark
+  public Protos.Value valueUtils() {
+    Protos.Value available = offeredPorts;
+    Protos.Value zero = ValueUtils.getZero(Protos.Value.Type.RANGES);
+    for (Protos.Value port : ports) {
+      if (ValueUtils.compare(ValueUtils.subtract(port, available), zero) > 0) {
+        throw new IllegalStateException("Insufficient ports");
+      }
+      available = ValueUtils.subtract(available, port);
+    }
+    return available;
+  }
+
+  @Benchmark
+  public Protos.Value mutableValue() {
+    MutableValue available = MutableValue.of(offeredPorts);
+    for (Protos.Value port : ports) {
+      if (!available.contains(port)) {
+        throw new IllegalStateException("Insufficient ports");
+      }
+      available.subtract(port);
+    }
+    return available.toProto();
+  }
+}
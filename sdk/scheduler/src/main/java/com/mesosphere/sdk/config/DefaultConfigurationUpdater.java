@@ -349,11 +349,11 @@ public class DefaultConfigurationUpdater implements ConfigurationUpdater<Service
     }
 
     Collection<UUID> configIds = configStore.list();
-    logger.info("Testing deserialization of {} listed configurations before cleanup:",
-        configIds.size());
+    logger.info("Validating {} listed configurations before cleanup:", configIds.size());
     for (UUID configId : configIds) {
       try {
-        configStore.fetch(configId);
+        // Checks delta-encoded configs in their stored form, rather than materializing each of them.
+        configStore.validate(configId);
         logger.info("- {}: OK", configId);
       } catch (ConfigStoreException e) {
         logger.info("- {}: FAILED, leaving as-is: {}", configId, e.getMessage());
@@ -460,8 +460,6 @@ public class DefaultConfigurationUpdater implements ConfigurationUpdater<Service
       }
     }
     logger.info("Cleaning up {} unused configs: {}", configsToClear.size(), configsToClear);
-    for (UUID configToClear : configsToClear) {
-      configStore.clear(configToClear);
-    }
+    configStore.clearAll(configsToClear);
   }
 }
@@ -12,15 +12,17 @@ import org.apache.curator.RetryPolicy;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.framework.api.ACLProvider;
+import org.apache.curator.framework.api.CuratorEvent;
 import org.apache.curator.framework.api.transaction.CuratorOp;
+import org.apache.curator.framework.recipes.cache.TreeCache;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.ZooDefs;
 import org.apache.zookeeper.data.ACL;
 import org.slf4j.Logger;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -28,9 +30,13 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -50,15 +56,37 @@ public class CuratorPersister implements Persister {
    */
   private static final int ATOMIC_WRITE_ATTEMPTS = 3;
 
+  /**
+   * Maximum time to wait for the results of the pipelined reads in getMany(). Curator retries background operations
+   * internally, so this should only be reached if ZK is unavailable for an extended period.
+   */
+  private static final long PIPELINED_READ_TIMEOUT_MS = 60 * 1000;
+
   private final String serviceRootPath;
 
   private final CuratorFramework client;
 
+  /**
+   * Paths which are known to exist in ZK, as a result of our own writes. Transactions can skip existence checks for
+   * these paths. If another party deletes one of them, the transaction will fail and the set is cleared before
+   * retrying.
+   */
+  private final Set<String> knownPaths = ConcurrentHashMap.newKeySet();
+
+  private final Optional<CuratorWriteBatcher> writeBatcher;
+
   @VisibleForTesting
   CuratorPersister(String serviceName, CuratorFramework client) {
+    this(serviceName, client, Optional.empty());
+  }
+
+  @VisibleForTesting
+  CuratorPersister(String serviceName, CuratorFramework client, Optional<Duration> writeBatchWindow) {
     this.serviceRootPath = CuratorUtils.getServiceRootPath(serviceName);
     this.client = client;
     this.client.start();
+    this.writeBatcher = writeBatchWindow.map(window ->
+        new CuratorWriteBatcher(serviceName, this::runSetTransaction, window));
   }
 
   /**
@@ -89,11 +117,13 @@ public class CuratorPersister implements Persister {
   private static List<CuratorOp> createParentsOf(
       CuratorFramework client,
       String path,
+      Set<String> knownPaths,
       Set<String> existingAndPendingCreatePaths) throws Exception
   {
     List<CuratorOp> operations = new ArrayList<>();
     for (String parentPath : PersisterUtils.getParentPaths(path)) {
-      if (!existingAndPendingCreatePaths.contains(parentPath)
+      if (!knownPaths.contains(parentPath)
+          && !existingAndPendingCreatePaths.contains(parentPath)
           && client.checkExists().forPath(parentPath) == null)
       {
         operations.add(client.transactionOp().create().forPath(parentPath));
@@ -182,15 +212,19 @@ public class CuratorPersister implements Persister {
   public void set(String unprefixedPath, byte[] newData) throws PersisterException {
     final String path = withFrameworkPrefix(unprefixedPath);
     LOGGER.debug("Setting {} => {}", path, getInfo(newData));
+    if (writeBatcher.isPresent()) {
+      writeBatcher.get().write(Collections.singletonMap(path, newData));
+      return;
+    }
     try {
-      if (client.checkExists().forPath(path) != null) {
-        byte[] oldData = client.getData().forPath(path);
-        if (!Arrays.equals(oldData, newData)) {
-          client.setData().forPath(path, newData);
-        } // else : no-op.
-      } else {
+      // Optimistically assume that the node exists, which is the common case. This takes a single round trip, rather
+      // than checking for existence first.
+      try {
+        client.setData().forPath(path, newData);
+      } catch (KeeperException.NoNodeException e) {
         client.create().creatingParentsIfNeeded().forPath(path, newData);
       }
+      knownPaths.add(path);
     } catch (Exception e) { // SUPPRESS CHECKSTYLE IllegalCatch
       throw new PersisterException(Reason.STORAGE_ERROR,
           String.format("Unable to set %d bytes in %s", newData.length, path), e);
@@ -204,24 +238,55 @@ public class CuratorPersister implements Persister {
     }
     LOGGER.debug("Getting {} entries: {}", unprefixedPaths.size(), unprefixedPaths);
 
-    Map<String, byte[]> result = new TreeMap<>();
     // Unlike with writes, there is not an atomic read operation. Therefore we wing it with a series
     // of plain reads. We could conceivably add some form of locking here to avoid e.g. a race
     // with another thread doing writes at the same time, but assuming the PersisterCache is
     // enabled, this function wouldn't be getting called anyway, as the PersisterCache would have
     // fetched all the data up-front to be served from memory. If this assumption changes, then it
     // may make sense to look into some form of proper read locking here.
+    //
+    // The reads are issued in the background so that they're pipelined over the connection, rather than waiting for
+    // a round trip per path.
+    Map<String, CuratorEvent> events = new ConcurrentHashMap<>();
+    CountDownLatch latch = new CountDownLatch(unprefixedPaths.size());
     for (String unprefixedPath : unprefixedPaths) {
       String path = withFrameworkPrefix(unprefixedPath);
       try {
-        result.put(unprefixedPath, client.getData().forPath(path));
-      } catch (KeeperException.NoNodeException e) {
-        result.put(unprefixedPath, null);
+        client.getData()
+            .inBackground((c, event) -> {
+              events.put(unprefixedPath, event);
+              latch.countDown();
+            })
+            .forPath(path);
       } catch (Exception e) { // SUPPRESS CHECKSTYLE IllegalCatch
         throw new PersisterException(Reason.STORAGE_ERROR,
             String.format("Unable to retrieve data from %s", path), e);
       }
     }
+    try {
+      if (!latch.await(PIPELINED_READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        throw new PersisterException(Reason.STORAGE_ERROR, String.format(
+            "Timed out waiting for %d of %d reads to complete", latch.getCount(), unprefixedPaths.size()));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PersisterException(Reason.STORAGE_ERROR, "Interrupted while waiting for reads to complete", e);
+    }
+
+    Map<String, byte[]> result = new TreeMap<>();
+    for (Map.Entry<String, CuratorEvent> entry : events.entrySet()) {
+      CuratorEvent event = entry.getValue();
+      KeeperException.Code code = KeeperException.Code.get(event.getResultCode());
+      if (code == KeeperException.Code.OK) {
+        result.put(entry.getKey(), event.getData());
+      } else if (code == KeeperException.Code.NONODE) {
+        result.put(entry.getKey(), null);
+      } else {
+        throw new PersisterException(Reason.STORAGE_ERROR,
+            String.format("Unable to retrieve data from %s", event.getPath()),
+            KeeperException.create(code, event.getPath()));
+      }
+    }
     return result;
   }
 
@@ -235,7 +300,11 @@ public class CuratorPersister implements Persister {
         pathBytesMap.put(withFrameworkPrefix(entry.getKey()), entry.getValue());
       }
       LOGGER.debug("Updating {} entries: {}", pathBytesMap.size(), pathBytesMap.keySet());
-      runTransactionWithRetries(new SetTransactionFactory(pathBytesMap));
+      if (writeBatcher.isPresent()) {
+        writeBatcher.get().write(pathBytesMap);
+      } else {
+        runSetTransaction(pathBytesMap);
+      }
     }
   }
 
@@ -281,7 +350,7 @@ public class CuratorPersister implements Persister {
       getChildren(curNode)
           .forEach(child -> toBeWalked.add(PersisterUtils.joinPaths(curNode, child)));
     }
-    runTransactionWithRetries(new SetTransactionFactory(toBeAdded));
+    runSetTransaction(toBeAdded);
   }
 
   @Override
@@ -328,12 +397,15 @@ public class CuratorPersister implements Persister {
       } catch (Exception e) { // SUPPRESS CHECKSTYLE IllegalCatch
         throw new PersisterException(Reason.STORAGE_ERROR,
             String.format("Unable to delete children of root %s: %s", path, e.getMessage()), e);
+      } finally {
+        forgetPathsUnder(path);
       }
       // Need to explicitly set null or else curator will return a zero-bytes value later:
       set(unprefixedPath, null);
     } else {
       // Normal case: Delete node itself and any/all children.
       LOGGER.debug("Deleting {} (and any children)", path);
+      forgetPathsUnder(path);
       try {
         client.delete().deletingChildrenIfNeeded().forPath(path);
       } catch (KeeperException.NoNodeException e) {
@@ -355,15 +427,46 @@ public class CuratorPersister implements Persister {
           .map(this::withFrameworkPrefix)
           .collect(Collectors.toList());
       LOGGER.debug("Deleting {} entries: {}", paths.size(), paths);
+      paths.forEach(this::forgetPathsUnder);
       runTransactionWithRetries(new ClearTransactionFactory(paths));
     }
   }
 
   @Override
   public void close() {
+    writeBatcher.ifPresent(CuratorWriteBatcher::close);
     client.close();
   }
 
+  /**
+   * Returns the ZK path under which all data for this persister is stored, e.g. {@code /dcos-service-svcname}.
+   */
+  public String getServiceRootPath() {
+    return serviceRootPath;
+  }
+
+  /**
+   * Returns a new {@link TreeCache} which watches all data for this persister, using this persister's connection to
+   * ZK. The returned cache has not been started, and paths in its events include the service root path.
+   */
+  public TreeCache newTreeCache() {
+    return TreeCache.newBuilder(client, serviceRootPath).setCacheData(true).build();
+  }
+
+  private void runSetTransaction(Map<String, byte[]> pathBytesMap) throws PersisterException {
+    SetTransactionFactory factory = new SetTransactionFactory(pathBytesMap, knownPaths);
+    runTransactionWithRetries(factory);
+    knownPaths.addAll(factory.getWrittenPaths());
+  }
+
+  /**
+   * Removes the provided path and any children from the set of paths which are known to exist.
+   */
+  private void forgetPathsUnder(String path) {
+    String childPrefix = path + PersisterUtils.PATH_DELIM_STR;
+    knownPaths.removeIf(knownPath -> knownPath.equals(path) || knownPath.startsWith(childPrefix));
+  }
+
   private void runTransactionWithRetries(TransactionFactory factory) throws PersisterException {
     try {
       for (int i = 0; i < ATOMIC_WRITE_ATTEMPTS; ++i) {
@@ -377,13 +480,19 @@ public class CuratorPersister implements Persister {
             break;
           } catch (Exception e) { // SUPPRESS CHECKSTYLE IllegalCatch
             // Transaction failed! Bad connection? Existence check rendered invalid?
-            // Swallow exception and try again
+            // Swallow exception and try again, without relying on any paths being known to exist
+            knownPaths.clear();
             LOGGER.error(String.format("Failed to complete transaction attempt %d/%d: %s",
                 i + 1, ATOMIC_WRITE_ATTEMPTS, operations), e);
           }
         } else {
           // Last try: Any exception should be forwarded upstream
-          client.transaction().forOperations(operations);
+          try {
+            client.transaction().forOperations(operations);
+          } catch (Exception e) { // SUPPRESS CHECKSTYLE IllegalCatch
+            knownPaths.clear();
+            throw e;
+          }
         }
       }
     } catch (Exception e) { // SUPPRESS CHECKSTYLE IllegalCatch
@@ -430,6 +539,8 @@ public class CuratorPersister implements Persister {
 
     private boolean lockEnabled;
 
+    private Optional<Duration> writeBatchWindow;
+
     /**
      * Creates a new {@link Builder} instance which has been initialized with reasonable
      * default values.
@@ -442,6 +553,7 @@ public class CuratorPersister implements Persister {
       this.username = "";
       this.password = "";
       this.lockEnabled = true;
+      this.writeBatchWindow = Optional.empty();
     }
 
     /**
@@ -466,6 +578,19 @@ public class CuratorPersister implements Persister {
       return this;
     }
 
+    /**
+     * Enables coalescing of concurrent writes into shared transactions. After the first write is queued, the
+     * persister waits for up to {@code window} for other writes to arrive before committing them together. Writes
+     * which arrive while a transaction is in flight are always coalesced into the next transaction, so a zero window
+     * adds no latency to writes.
+     *
+     * @param window the duration to wait for additional writes before committing a transaction
+     */
+    public Builder setWriteBatchWindow(Duration window) {
+      this.writeBatchWindow = Optional.of(window);
+      return this;
+    }
+
     /**
      * Disables getting a curator lock before returning a {@link CuratorPersister}.
      * <p>
@@ -514,7 +639,7 @@ public class CuratorPersister implements Persister {
         CuratorLocker.lock(serviceName, builder);
       }
 
-      CuratorPersister persister = new CuratorPersister(serviceName, builder.build());
+      CuratorPersister persister = new CuratorPersister(serviceName, builder.build(), writeBatchWindow);
       CuratorUtils.initServiceName(persister, serviceName);
       return persister;
     }
@@ -527,8 +652,20 @@ public class CuratorPersister implements Persister {
   private static final class SetTransactionFactory implements TransactionFactory {
     private final Map<String, byte[]> pathBytesMap;
 
-    private SetTransactionFactory(Map<String, byte[]> pathBytesMap) {
+    private final Set<String> knownPaths;
+
+    private Set<String> writtenPaths = Collections.emptySet();
+
+    private SetTransactionFactory(Map<String, byte[]> pathBytesMap, Set<String> knownPaths) {
       this.pathBytesMap = pathBytesMap;
+      this.knownPaths = knownPaths;
+    }
+
+    /**
+     * Returns the paths which were created or updated by the most recently built transaction.
+     */
+    private Set<String> getWrittenPaths() {
+      return writtenPaths;
     }
 
     public List<CuratorOp> build(
@@ -543,18 +680,21 @@ public class CuratorPersister implements Persister {
       operations.add(client.transactionOp().check().forPath(serviceRootPath));
       for (Map.Entry<String, byte[]> entry : pathBytesMap.entrySet()) {
         String path = entry.getKey();
-        if (!existingAndPendingCreatePaths.contains(path)
+        if (!knownPaths.contains(path)
+            && !existingAndPendingCreatePaths.contains(path)
             && client.checkExists().forPath(path) == null)
         {
           // Path does not exist and is not being created: Create value (and any parents as needed).
-          operations.addAll(createParentsOf(client, path, existingAndPendingCreatePaths));
+          operations.addAll(createParentsOf(client, path, knownPaths, existingAndPendingCreatePaths));
           operations.add(client.transactionOp().create().forPath(path, entry.getValue()));
           existingAndPendingCreatePaths.add(path);
         } else {
           // Path exists (or will exist): Update existing value.
           operations.add(client.transactionOp().setData().forPath(path, entry.getValue()));
+          existingAndPendingCreatePaths.add(path);
         }
       }
+      writtenPaths = existingAndPendingCreatePaths;
       return operations;
     }
   }
@@ -0,0 +1,221 @@
+package com.mesosphere.sdk.curator;
+
+import com.mesosphere.sdk.metrics.Metrics;
+import com.mesosphere.sdk.offer.LoggingUtils;
+import com.mesosphere.sdk.storage.PersisterException;
+import com.mesosphere.sdk.storage.StorageError.Reason;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Coalesces writes which are issued concurrently against a {@link CuratorPersister} into shared multi-op
+ * transactions, so that many writers pay for a single ZooKeeper round trip.
+ * <p>
+ * Writes are handed to a single background thread. Whenever that thread is idle, it waits for the configured window
+ * (which may be zero) after the first queued write, and then commits everything which has been queued up to that
+ * point as one transaction. Writes which arrive while a transaction is in flight are committed together in the next
+ * one. Callers of {@link #write(Map)} block until their write has been committed, so the durability guarantees of
+ * {@link com.mesosphere.sdk.storage.Persister#setMany(Map)} are unchanged.
+ * <p>
+ * If a coalesced transaction fails, each of its writes is retried in its own transaction, so that a single bad write
+ * only fails its own caller.
+ */
+final class CuratorWriteBatcher {
+
+  private static final Logger LOGGER = LoggingUtils.getLogger(CuratorWriteBatcher.class);
+
+  /**
+   * Upper bound on the payload of a coalesced transaction. This leaves headroom below ZooKeeper's default 1MB
+   * {@code jute.maxbuffer}, which limits the size of a multi-op request.
+   */
+  private static final int MAX_BATCH_BYTES = 512 * 1024;
+
+  /**
+   * Upper bound on the number of writes to be coalesced into a single transaction.
+   */
+  private static final int MAX_BATCH_WRITES = 256;
+
+  private final BlockingDeque<PendingWrite> queue = new LinkedBlockingDeque<>();
+
+  private final Writer writer;
+
+  private final long windowMillis;
+
+  private final Thread thread;
+
+  private volatile boolean closed;
+
+  CuratorWriteBatcher(String serviceName, Writer writer, Duration window) {
+    this.writer = writer;
+    this.windowMillis = window.toMillis();
+    this.thread = new ThreadFactoryBuilder()
+        .setDaemon(true)
+        .setNameFormat(String.format("persister-writes-%s", serviceName))
+        .build()
+        .newThread(this::run);
+    this.thread.start();
+  }
+
+  /**
+   * Queues the provided writes to be committed in the next transaction, and waits for that transaction to complete.
+   *
+   * @throws PersisterException if the writes failed, or if the batcher was closed before they could be committed
+   */
+  void write(Map<String, byte[]> pathBytesMap) throws PersisterException {
+    PendingWrite pendingWrite = new PendingWrite(pathBytesMap);
+    if (closed) {
+      throw new PersisterException(Reason.STORAGE_ERROR, "Persister has been closed");
+    }
+    queue.add(pendingWrite);
+    if (closed) {
+      // Raced with close(): Ensure that the write doesn't sit in the queue forever.
+      failQueued();
+    }
+    pendingWrite.await();
+  }
+
+  /**
+   * Stops the background thread. Any writes which haven't yet been committed are failed.
+   */
+  void close() {
+    closed = true;
+    thread.interrupt();
+    failQueued();
+  }
+
+  private void run() {
+    List<PendingWrite> batch = new ArrayList<>();
+    try {
+      while (!closed) {
+        batch.add(queue.take());
+        if (windowMillis > 0) {
+          Thread.sleep(windowMillis);
+        }
+        int batchBytes = batch.get(0).bytes;
+        PendingWrite next;
+        while (batch.size() < MAX_BATCH_WRITES
+            && (next = queue.peek()) != null
+            && batchBytes + next.bytes <= MAX_BATCH_BYTES)
+        {
+          batch.add(queue.poll());
+          batchBytes += next.bytes;
+        }
+        commit(batch);
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      LOGGER.info("Write batching thread has been interrupted, exiting");
+    }
+    for (PendingWrite pendingWrite : batch) {
+      pendingWrite.fail(new PersisterException(Reason.STORAGE_ERROR, "Persister has been closed"));
+    }
+    failQueued();
+  }
+
+  private void commit(List<PendingWrite> batch) {
+    Metrics.updatePersisterWriteBatchSize(batch.size());
+    if (batch.size() == 1) {
+      commitAlone(batch.get(0));
+      return;
+    }
+
+    // Later writes to a given path replace earlier ones, as they would have if they'd been written serially:
+    Map<String, byte[]> pathBytesMap = new TreeMap<>();
+    for (PendingWrite pendingWrite : batch) {
+      pathBytesMap.putAll(pendingWrite.pathBytesMap);
+    }
+    try {
+      writer.write(pathBytesMap);
+      for (PendingWrite pendingWrite : batch) {
+        pendingWrite.succeed();
+      }
+    } catch (PersisterException | RuntimeException e) { // SUPPRESS CHECKSTYLE IllegalCatch
+      LOGGER.warn(String.format("Failed to commit batch of %d writes, retrying each separately", batch.size()), e);
+      for (PendingWrite pendingWrite : batch) {
+        commitAlone(pendingWrite);
+      }
+    }
+  }
+
+  private void commitAlone(PendingWrite pendingWrite) {
+    try {
+      writer.write(pendingWrite.pathBytesMap);
+      pendingWrite.succeed();
+    } catch (PersisterException e) {
+      pendingWrite.fail(e);
+    } catch (RuntimeException e) { // SUPPRESS CHECKSTYLE IllegalCatch
+      pendingWrite.fail(new PersisterException(Reason.STORAGE_ERROR, e));
+    }
+  }
+
+  private void failQueued() {
+    PendingWrite pendingWrite;
+    while ((pendingWrite = queue.poll()) != null) {
+      pendingWrite.fail(new PersisterException(Reason.STORAGE_ERROR, "Persister has been closed"));
+    }
+  }
+
+  /**
+   * Performs the actual writes for a batch, as a single transaction.
+   */
+  interface Writer {
+    void write(Map<String, byte[]> pathBytesMap) throws PersisterException;
+  }
+
+  /**
+   * A write which has been queued by a caller, along with a future which is completed once the write is committed.
+   */
+  private static final class PendingWrite {
+    private final Map<String, byte[]> pathBytesMap;
+
+    private final int bytes;
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private PendingWrite(Map<String, byte[]> pathBytesMap) {
+      this.pathBytesMap = pathBytesMap;
+      int size = 0;
+      for (Map.Entry<String, byte[]> entry : pathBytesMap.entrySet()) {
+        size += entry.getKey().length() + (entry.getValue() == null ? 0 : entry.getValue().length);
+      }
+      this.bytes = size;
+    }
+
+    private void succeed() {
+      future.complete(null);
+    }
+
+    private void fail(PersisterException e) {
+      future.completeExceptionally(e);
+    }
+
+    /**
+     * Waits for the write to be committed. If the caller is interrupted while waiting, the write may still be
+     * committed afterwards.
+     */
+    private void await() throws PersisterException {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new PersisterException(Reason.STORAGE_ERROR, "Interrupted while waiting for write to complete", e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof PersisterException) {
+          throw (PersisterException) e.getCause();
+        }
+        throw new PersisterException(Reason.STORAGE_ERROR, e.getCause());
+      }
+    }
+  }
+}
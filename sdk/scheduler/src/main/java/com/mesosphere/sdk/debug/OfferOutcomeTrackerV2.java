@@ -16,6 +16,7 @@ import javax.ws.rs.core.Response;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * OfferOutcomeTrackerV2 is the backend of DebugOffersResource.
@@ -80,6 +81,15 @@ public class OfferOutcomeTrackerV2 implements DebugEndpoint {
       }
     }
 
+    /**
+     * Counts an offer which was rejected without being evaluated, e.g. because it was too small for the pending work.
+     */
+    public void addSkippedOffer(String agentId, String failureReason) {
+      this.rejectedCount++;
+      addFailureAgent(agentId);
+      addFailureReason(failureReason);
+    }
+
     public int getAcceptedCount() {
       return this.acceptedCount;
     }
@@ -120,7 +130,8 @@ public class OfferOutcomeTrackerV2 implements DebugEndpoint {
   }
 
   /**
-   * Encapsulates the outcome of an offer evaluation in OfferEvaluator.
+   * Encapsulates the outcome of an offer evaluation in OfferEvaluator. The offer and outcome details are only rendered
+   * when they're requested, as most outcomes are evicted without ever being viewed.
    */
   public static class OfferOutcomeV2 {
     private final long timestamp;
@@ -129,15 +140,24 @@ public class OfferOutcomeTrackerV2 implements DebugEndpoint {
 
     private final boolean pass;
 
-    private final String offer;
+    private final Supplier<String> offer;
 
-    private final List<String> outcomeDetails;
+    private final Supplier<List<String>> outcomeDetails;
 
     public OfferOutcomeV2(
         String podInstanceName,
         boolean pass,
         String offer,
         List<String> outcomeDetails)
+    {
+      this(podInstanceName, pass, () -> offer, () -> outcomeDetails);
+    }
+
+    public OfferOutcomeV2(
+        String podInstanceName,
+        boolean pass,
+        Supplier<String> offer,
+        Supplier<List<String>> outcomeDetails)
     {
       this.timestamp = System.currentTimeMillis();
       this.podInstanceName = podInstanceName;
@@ -155,11 +175,11 @@ public class OfferOutcomeTrackerV2 implements DebugEndpoint {
     }
 
     public String getOffer() {
-      return offer;
+      return offer.get();
     }
 
     public List<String> getOutcomeDetails() {
-      return outcomeDetails;
+      return outcomeDetails.get();
     }
 
     public long getTimestamp() {
@@ -5,7 +5,6 @@ import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.ResourceUtils;
 import com.mesosphere.sdk.offer.evaluate.placement.IsLocalRegionRule;
 import com.mesosphere.sdk.scheduler.MesosEventClient;
-import com.mesosphere.sdk.scheduler.MesosEventClient.TaskStatusResponse;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
 import com.mesosphere.sdk.state.FrameworkStore;
 import com.mesosphere.sdk.state.StateStoreException;
@@ -57,6 +56,8 @@ public class FrameworkScheduler implements Scheduler {
 
   private final OfferProcessor offerProcessor;
 
+  private final TaskStatusProcessor taskStatusProcessor;
+
   private final ImplicitReconciler implicitReconciler;
 
   public FrameworkScheduler(
@@ -70,7 +71,8 @@ public class FrameworkScheduler implements Scheduler {
         frameworkRolesWhitelist,
         frameworkStore,
         mesosEventClient,
-        new OfferProcessor(mesosEventClient, persister, schedulerConfig),
+        new OfferProcessor(mesosEventClient, persister, schedulerConfig, frameworkRolesWhitelist),
+        new TaskStatusProcessor(mesosEventClient, schedulerConfig),
         new ImplicitReconciler(schedulerConfig));
   }
 
@@ -80,12 +82,14 @@ public class FrameworkScheduler implements Scheduler {
       FrameworkStore frameworkStore,
       MesosEventClient mesosEventClient,
       OfferProcessor offerProcessor,
+      TaskStatusProcessor taskStatusProcessor,
       ImplicitReconciler implicitReconciler)
   {
     this.frameworkRolesWhitelist = frameworkRolesWhitelist;
     this.frameworkStore = frameworkStore;
     this.mesosEventClient = mesosEventClient;
     this.offerProcessor = offerProcessor;
+    this.taskStatusProcessor = taskStatusProcessor;
     this.implicitReconciler = implicitReconciler;
   }
 
@@ -130,6 +134,7 @@ public class FrameworkScheduler implements Scheduler {
   @VisibleForTesting
   public FrameworkScheduler disableThreading() {
     offerProcessor.disableThreading();
+    taskStatusProcessor.disableThreading();
     implicitReconciler.disableThreading();
     return this;
   }
@@ -175,6 +180,7 @@ public class FrameworkScheduler implements Scheduler {
 
       // Start background threads:
       offerProcessor.start();
+      taskStatusProcessor.start();
       implicitReconciler.start();
     } catch (Throwable e) {
       logExceptionAndExit(e);
@@ -196,6 +202,10 @@ public class FrameworkScheduler implements Scheduler {
   public void resourceOffers(SchedulerDriver driver, List<Protos.Offer> offers) {
     try {
       Metrics.incrementReceivedOffers(offers.size());
+      offers.stream()
+          .filter(Protos.Offer::hasAllocationInfo)
+          .collect(Collectors.groupingBy(offer -> offer.getAllocationInfo().getRole(), Collectors.counting()))
+          .forEach(Metrics::incrementReceivedOffers);
 
       if (!apiServerStarted.get()) {
         LOGGER.info("Declining {} offer{}: Waiting for API Server to start.",
@@ -278,28 +288,7 @@ public class FrameworkScheduler implements Scheduler {
           status.getMessage(),
           TextFormat.shortDebugString(status));
       Metrics.record(status);
-      TaskStatusResponse response = mesosEventClient.taskStatus(status);
-      boolean eligibleToKill = TaskKiller.update(status);
-      switch (response.result) { // SUPPRESS CHECKSTYLE MissingSwitchDefaultCheck
-        case UNKNOWN_TASK:
-          if (eligibleToKill) {
-            LOGGER.info("Received status update for unknown task, marking task to be killed: {}",
-                status.getTaskId().getValue());
-            TaskKiller.killTask(status.getTaskId());
-          } else {
-            // Special case: Mesos can send TASK_LOST+REASON_RECONCILIATION as a response to a
-            // prior kill request against a task that is unknown to Mesos. When this happens, we
-            // don't want to repeat the kill, because that would create a Kill -> Status -> Kill
-            // -> ... loop
-            LOGGER.warn(
-                "Received status update for unknown task, but task should not be killed again: {}",
-                status.getTaskId().getValue());
-          }
-          break;
-        case PROCESSED:
-          // No-op
-          break;
-      }
+      taskStatusProcessor.enqueue(status);
     } catch (Throwable e) {
       logExceptionAndExit(e);
     }
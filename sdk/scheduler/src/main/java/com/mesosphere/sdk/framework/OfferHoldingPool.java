@@ -0,0 +1,155 @@
+package com.mesosphere.sdk.framework;
+
+import com.mesosphere.sdk.metrics.Metrics;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.mesos.Protos;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Holds offers which weren't used by the service(s) for a short time, rather than declining them right away. Held
+ * offers are evaluated again alongside any newly received offers, so that newly pending work may be launched against
+ * them without first needing to revive offers, which is subject to allocation delays and revive throttling.
+ *
+ * <p>Held offers can't be offered to other frameworks, so the number of held offers and the time they're held for are
+ * both bounded. Offers which are rescinded by Mesos while they're held must be {@link #remove(Protos.OfferID)}d.
+ */
+class OfferHoldingPool {
+
+  // Held offers in the order that they were first held.
+  private final Map<Protos.OfferID, HeldOffer> offers = new LinkedHashMap<>();
+
+  private final int capacity;
+
+  private final long holdNanos;
+
+  private final LongSupplier nanoClock;
+
+  /**
+   * Creates a new pool which holds up to {@code capacity} offers for up to {@code holdDuration} each.
+   */
+  OfferHoldingPool(int capacity, Duration holdDuration) {
+    this(capacity, holdDuration, System::nanoTime);
+  }
+
+  @VisibleForTesting
+  OfferHoldingPool(int capacity, Duration holdDuration, LongSupplier nanoClock) {
+    this.capacity = capacity;
+    this.holdNanos = holdDuration.toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Holds the provided offers. If the pool is full, the offers which have been held the longest are released to make
+   * room.
+   *
+   * @return any offers which are no longer held as a result, which should be declined
+   */
+  synchronized List<Protos.Offer> hold(Collection<Protos.Offer> unusedOffers) {
+    long nowNanos = nanoClock.getAsLong();
+    for (Protos.Offer offer : unusedOffers) {
+      offers.putIfAbsent(offer.getId(), new HeldOffer(offer, nowNanos));
+    }
+    Metrics.incrementHeldOffers(unusedOffers.size());
+
+    List<Protos.Offer> evicted = new ArrayList<>();
+    Iterator<HeldOffer> iter = offers.values().iterator();
+    while (offers.size() > capacity && iter.hasNext()) {
+      evicted.add(iter.next().offer);
+      iter.remove();
+    }
+    Metrics.incrementHeldOffersDropped("evicted", evicted.size());
+    return evicted;
+  }
+
+  /**
+   * Returns the offers which are currently held, in the order that they were first held. The offers remain held
+   * until they're {@link #release(Collection)}d, {@link #removeExpired()}, or {@link #remove(Protos.OfferID)}d.
+   */
+  synchronized List<Protos.Offer> getOffers() {
+    return offers.values().stream()
+        .map(heldOffer -> heldOffer.offer)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Releases any of the provided offers which are held, after they've been used by the service(s).
+   */
+  synchronized void release(Collection<Protos.OfferID> usedOfferIds) {
+    int hits = 0;
+    for (Protos.OfferID offerId : usedOfferIds) {
+      if (offers.remove(offerId) != null) {
+        ++hits;
+      }
+    }
+    Metrics.incrementHeldOfferHits(hits);
+  }
+
+  /**
+   * Releases and returns any offers which have been held for longer than the hold duration, which should be declined.
+   */
+  synchronized List<Protos.Offer> removeExpired() {
+    long nowNanos = nanoClock.getAsLong();
+    List<Protos.Offer> expired = new ArrayList<>();
+    Iterator<HeldOffer> iter = offers.values().iterator();
+    while (iter.hasNext()) {
+      HeldOffer heldOffer = iter.next();
+      if (nowNanos - heldOffer.heldNanos <= holdNanos) {
+        // Offers are in the order they were held, so any following offers haven't expired either.
+        break;
+      }
+      expired.add(heldOffer.offer);
+      iter.remove();
+    }
+    Metrics.incrementHeldOffersDropped("expired", expired.size());
+    return expired;
+  }
+
+  /**
+   * Releases and returns all held offers, which should be declined.
+   */
+  synchronized List<Protos.Offer> removeAll() {
+    List<Protos.Offer> all = getOffers();
+    offers.clear();
+    Metrics.incrementHeldOffersDropped("unneeded", all.size());
+    return all;
+  }
+
+  /**
+   * Removes an offer which was rescinded by Mesos.
+   *
+   * @return whether the offer was held
+   */
+  synchronized boolean remove(Protos.OfferID offerId) {
+    boolean removed = offers.remove(offerId) != null;
+    if (removed) {
+      Metrics.incrementHeldOffersDropped("rescinded", 1);
+    }
+    return removed;
+  }
+
+  synchronized boolean isEmpty() {
+    return offers.isEmpty();
+  }
+
+  private static final class HeldOffer {
+
+    private final Protos.Offer offer;
+
+    private final long heldNanos;
+
+    private HeldOffer(Protos.Offer offer, long heldNanos) {
+      this.offer = offer;
+      this.heldNanos = heldNanos;
+    }
+  }
+}
@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -66,8 +67,19 @@ class OfferProcessor {
 
   private final SchedulerConfig schedulerConfig;
 
+  private final Set<String> frameworkRoles;
+
   private final OfferAccepter offerAccepter;
 
+  private final int offerBatchSize;
+
+  private final Optional<Duration> offerMaxAge;
+
+  private final Optional<OfferHoldingPool> offerHoldingPool;
+
+  // Roles to be revived if held offers turn out not to be useful for new work. Only accessed by the offer thread.
+  private final Set<String> deferredReviveRoles = new HashSet<>();
+
   // Internal TokenBucket may be overridden in tests:
   private ReviveManager reviveManager;
 
@@ -80,14 +92,22 @@ class OfferProcessor {
   public OfferProcessor(
       MesosEventClient mesosEventClient,
       Persister persister,
-      SchedulerConfig schedulerConfig)
+      SchedulerConfig schedulerConfig,
+      Set<String> frameworkRoles)
   {
     this.mesosEventClient = mesosEventClient;
     this.persister = persister;
     this.schedulerConfig = schedulerConfig;
-    this.offerAccepter = new OfferAccepter();
-    this.reviveManager = new ReviveManager(TokenBucket.newBuilder().build(), schedulerConfig);
+    this.frameworkRoles = frameworkRoles;
+    this.offerAccepter = new OfferAccepter(schedulerConfig.getOfferLogBudget());
+    this.reviveManager = new ReviveManager(() -> TokenBucket.newBuilder().build(), frameworkRoles, schedulerConfig);
     this.offerQueue = new OfferQueue();
+    this.offerBatchSize = schedulerConfig.getOfferBatchSize();
+    this.offerMaxAge = schedulerConfig.getOfferQueueMaxAge();
+    int offerHoldCapacity = schedulerConfig.getOfferHoldCapacity();
+    this.offerHoldingPool = schedulerConfig.getOfferHoldDuration()
+        .filter(holdDuration -> offerHoldCapacity > 0)
+        .map(holdDuration -> new OfferHoldingPool(offerHoldCapacity, holdDuration));
     this.multithreaded = true;
   }
 
@@ -191,14 +211,14 @@ class OfferProcessor {
   }
 
   /**
-   * Overrides the token bucket used to handle rate limiting of revive calls.
+   * Overrides the token bucket used to handle rate limiting of revive calls. The provided bucket is shared by all roles.
    *
    * @param reviveTokenBucket the replacement {@link TokenBucket}
    * @return {@code this}
    */
   @VisibleForTesting
   OfferProcessor setReviveTokenBucket(TokenBucket reviveTokenBucket) {
-    this.reviveManager = new ReviveManager(reviveTokenBucket, schedulerConfig);
+    this.reviveManager = new ReviveManager(() -> reviveTokenBucket, frameworkRoles, schedulerConfig);
     return this;
   }
 
@@ -252,12 +272,27 @@ class OfferProcessor {
     if (!multithreaded) {
       // Immediately process on this thread, rather than depending on offerExecutor to do it.
       // In the single-threaded case, we also disable waiting for offers to come in.
-      processQueuedOffers(Duration.ZERO);
+      do {
+        processQueuedOffers(Duration.ZERO);
+      } while (!offerQueue.isEmpty());
     }
   }
 
   public void dequeue(Protos.OfferID offerId) {
-    offerQueue.remove(offerId);
+    if (offerHoldingPool.isPresent() && offerHoldingPool.get().remove(offerId)) {
+      // The offer was held after going unused in an earlier evaluation. It won't be evaluated again.
+      LOGGER.info("Removed held offer: {}", offerId.getValue());
+      Metrics.incrementRescindedOffers(true);
+    } else if (offerQueue.remove(offerId)) {
+      // The offer was rescinded before it was evaluated, so it will never be processed.
+      synchronized (inProgressLock) {
+        offersInProgress.remove(offerId);
+      }
+      Metrics.incrementRescindedOffers(false);
+    } else {
+      // The offer is being (or has been) evaluated. Any operations against it will be rejected by Mesos.
+      Metrics.incrementRescindedOffers(true);
+    }
   }
 
   /**
@@ -293,7 +328,10 @@ class OfferProcessor {
    */
   private void processQueuedOffers(Duration queueWait) {
     LOGGER.info("Waiting up to {}s for offers...", queueWait.getSeconds());
-    List<Protos.Offer> offers = offerQueue.takeAll(queueWait);
+    List<OfferQueue.QueuedOffer> queuedOffers = offerQueue.take(queueWait, offerBatchSize);
+    List<Protos.Offer> offers = queuedOffers.stream()
+        .map(OfferQueue.QueuedOffer::getOffer)
+        .collect(Collectors.toList());
     try {
       if (!offers.isEmpty()) {
         LOGGER.info("Received {} offers.", offers.size());
@@ -306,7 +344,7 @@ class OfferProcessor {
         // By only notifying reviveManager in this separate thread after taking things off the
         // queue, we avoid this cycle, and also remove the need to worry about multithreading
         // within ReviveManager itself.
-        reviveManager.notifyOffersReceived();
+        reviveManager.notifyOffersReceived(offers);
       }
 
       if (offers.isEmpty() && !isInitialized.get()) {
@@ -323,14 +361,36 @@ class OfferProcessor {
         return;
       }
 
+      // Decline any offers which waited too long to be evaluated. Mesos is likely to have rescinded them, or to
+      // offer the same resources again shortly.
+      List<Protos.Offer> freshOffers = declineExpired(queuedOffers);
+      if (offerHoldingPool.isPresent()) {
+        List<Protos.Offer> expiredHeldOffers = offerHoldingPool.get().removeExpired();
+        if (!expiredHeldOffers.isEmpty()) {
+          declineLong(expiredHeldOffers);
+        }
+      }
+
       // Match offers with work (call into implementation)
       final Timer.Context context = Metrics.getProcessOffersDurationTimer();
       try {
         if (checkStatus()) {
-          evaluateOffers(offers);
-        } else if (!offers.isEmpty()) {
-          // The offers are not needed by the service, at least for the moment. Decline long.
-          declineLong(offers);
+          boolean offersUsed = evaluateOffers(freshOffers);
+          if (!offersUsed && !deferredReviveRoles.isEmpty()) {
+            // The held offers weren't useful for the new work after all. Revive to get other offers.
+            LOGGER.info("Held offers were not used, reviving deferred roles: {}", deferredReviveRoles);
+            reviveManager.requestRevive(new HashSet<>(deferredReviveRoles));
+            deferredReviveRoles.clear();
+          }
+        } else {
+          // The offers are not needed by the service, at least for the moment. Decline long, along with any offers
+          // which were being held for later.
+          deferredReviveRoles.clear();
+          List<Protos.Offer> unneededOffers = new ArrayList<>(freshOffers);
+          offerHoldingPool.ifPresent(pool -> unneededOffers.addAll(pool.removeAll()));
+          if (!unneededOffers.isEmpty()) {
+            declineLong(unneededOffers);
+          }
         }
       } finally {
         context.stop();
@@ -358,6 +418,36 @@ class OfferProcessor {
     }
   }
 
+  /**
+   * Declines any of the provided offers which waited in the queue for longer than the configured maximum age, and
+   * returns the remaining offers.
+   */
+  private List<Protos.Offer> declineExpired(List<OfferQueue.QueuedOffer> queuedOffers) {
+    if (!offerMaxAge.isPresent()) {
+      return queuedOffers.stream()
+          .map(OfferQueue.QueuedOffer::getOffer)
+          .collect(Collectors.toList());
+    }
+    List<Protos.Offer> freshOffers = new ArrayList<>();
+    List<Protos.Offer> expiredOffers = new ArrayList<>();
+    for (OfferQueue.QueuedOffer queuedOffer : queuedOffers) {
+      if (queuedOffer.getWaitTime().compareTo(offerMaxAge.get()) > 0) {
+        expiredOffers.add(queuedOffer.getOffer());
+      } else {
+        freshOffers.add(queuedOffer.getOffer());
+      }
+    }
+    if (!expiredOffers.isEmpty()) {
+      LOGGER.info("{} offer{} waited longer than {}s to be evaluated",
+          expiredOffers.size(),
+          expiredOffers.size() == 1 ? "" : "s",
+          offerMaxAge.get().getSeconds());
+      declineShort(expiredOffers);
+      Metrics.incrementExpiredOffers(expiredOffers.size());
+    }
+    return freshOffers;
+  }
+
   /**
    * Checks the status of the client and returns whether it should be provided with offers.
    */
@@ -370,21 +460,39 @@ class OfferProcessor {
         // Two reasons to revive:
         // - New work: Issue revive so that any previously declined offers get sent again
         // - Suppressed: Issue revive so that the offer stream resumes
-
-        if (response.workingStatus.hasNewWork) {
+        // In either case, only the roles which the service(s) need offers for are revived. If no roles were
+        // specified, then offers for any role may be needed.
+        Set<String> demandedRoles = response.workingStatus.roles.isEmpty()
+            ? frameworkRoles
+            : response.workingStatus.roles;
+
+        if (response.workingStatus.hasNewWork
+            && offerHoldingPool.isPresent()
+            && !offerHoldingPool.get().isEmpty())
+        {
+          // Service has new work, but we're holding offers which may fit it. Try those first, and only revive
+          // previously declined offers if the held offers aren't used. Revive now if we're suppressed.
+          deferredReviveRoles.addAll(demandedRoles);
+          reviveManager.requestReviveIfSuppressed(demandedRoles);
+        } else if (response.workingStatus.hasNewWork) {
           // Service has new work. Revive any previously declined offers, regardless of whether
           // we're suppressed.
-          reviveManager.requestRevive();
+          reviveManager.requestRevive(demandedRoles);
         } else {
           // Service is not idle (multi-service: any not idle). Revive offers if suppressed.
-          reviveManager.requestReviveIfSuppressed();
+          reviveManager.requestReviveIfSuppressed(demandedRoles);
         }
+
+        // Any other roles aren't needed at the moment. Suppress them.
+        reviveManager.suppressIfActive(frameworkRoles.stream()
+            .filter(role -> !demandedRoles.contains(role))
+            .collect(Collectors.toList()));
         return true;
       case IDLE:
         // Service is idle (multi-service: all idle). Suppress offers.
         switch (response.idleRequest) {
           case NONE:
-            reviveManager.suppressIfActive();
+            reviveManager.suppressIfActive(frameworkRoles);
             break;
           case REMOVE_CLIENT:
             // The managed service(s) have finished uninstalling and there's nothing left to do.
@@ -409,12 +517,27 @@ class OfferProcessor {
     throw new IllegalStateException("Unsupported ClientStatusResponse result: " + response.result);
   }
 
-  private void evaluateOffers(List<Protos.Offer> offers) {
+  /**
+   * Evaluates the provided offers, along with any held offers, and returns whether the client used any of them.
+   */
+  private boolean evaluateOffers(List<Protos.Offer> newOffers) {
     // Offer evaluation:
     // The client (which is composed of one or more services) looks at the provided offers and
     // returns a list of operations to perform and offers which were not used. On our end, we
     // then perform the requested operations
-    // and clean or decline the remaining unused offers.
+    // and clean, hold, or decline the remaining unused offers.
+    List<Protos.Offer> heldOffers = offerHoldingPool.isPresent()
+        ? offerHoldingPool.get().getOffers()
+        : Collections.emptyList();
+    final List<Protos.Offer> offers;
+    if (heldOffers.isEmpty()) {
+      offers = newOffers;
+    } else {
+      LOGGER.info("Including {} held offer{} in evaluation",
+          heldOffers.size(), heldOffers.size() == 1 ? "" : "s");
+      offers = new ArrayList<>(newOffers);
+      offers.addAll(heldOffers);
+    }
     OfferResponse offerResponse = mesosEventClient.offers(offers);
     if (!offers.isEmpty() || !offerResponse.recommendations.isEmpty()) {
       LOGGER.info("Offer result for {} offer{}: {} with {} recommendation{}",
@@ -459,15 +582,23 @@ class OfferProcessor {
           cleanupRecommendations.size(), cleanupRecommendations.size() == 1 ? "" : "s");
     }
 
-    // Decline the offers that haven't been used for either offer evaluation or resource cleanup.
+    // Decline (or hold) the offers that haven't been used for either offer evaluation or resource cleanup.
     unusedOffers = OfferUtils.filterOutAcceptedOffers(unusedOffers, cleanupRecommendations);
+    if (!heldOffers.isEmpty()) {
+      unusedOffers = releaseUsedHeldOffers(offers, heldOffers, unusedOffers);
+    }
     if (!unusedOffers.isEmpty()) {
       if (offerResponse.result == OfferResponse.Result.PROCESSED
           && cleanupResult == UnexpectedResourcesResponse.Result.PROCESSED)
       {
         // The client successfully processed offers and unexpected resources.
-        // Decline the unused offers for a long interval.
-        declineLong(unusedOffers);
+        // Hold the unused offers for later if enabled, or decline them for a long interval.
+        Collection<Protos.Offer> offersToDecline = offerHoldingPool.isPresent()
+            ? offerHoldingPool.get().hold(unusedOffers)
+            : unusedOffers;
+        if (!offersToDecline.isEmpty()) {
+          declineLong(offersToDecline);
+        }
       } else {
         // The client wasn't ready to process offers and/or failed to process unexpected resources.
         // Decline the unused offers for a brief interval.
@@ -481,6 +612,32 @@ class OfferProcessor {
     allRecommendations.addAll(cleanupRecommendations);
     Metrics.incrementRecommendations(allRecommendations);
     offerAccepter.accept(allRecommendations);
+    return !offerResponse.recommendations.isEmpty();
+  }
+
+  /**
+   * Releases any held offers which were used in an evaluation, and returns the unused offers which weren't already
+   * being held. Unused held offers remain held until they're used or expire.
+   */
+  private Collection<Protos.Offer> releaseUsedHeldOffers(
+      Collection<Protos.Offer> evaluatedOffers,
+      Collection<Protos.Offer> heldOffers,
+      Collection<Protos.Offer> unusedOffers)
+  {
+    Set<Protos.OfferID> unusedOfferIds = unusedOffers.stream()
+        .map(Protos.Offer::getId)
+        .collect(Collectors.toSet());
+    offerHoldingPool.get().release(evaluatedOffers.stream()
+        .map(Protos.Offer::getId)
+        .filter(offerId -> !unusedOfferIds.contains(offerId))
+        .collect(Collectors.toList()));
+
+    Set<Protos.OfferID> heldOfferIds = heldOffers.stream()
+        .map(Protos.Offer::getId)
+        .collect(Collectors.toSet());
+    return unusedOffers.stream()
+        .filter(offer -> !heldOfferIds.contains(offer.getId()))
+        .collect(Collectors.toList());
   }
 
   /**
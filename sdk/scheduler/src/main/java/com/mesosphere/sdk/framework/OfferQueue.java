@@ -1,5 +1,6 @@
 package com.mesosphere.sdk.framework;
 
+import com.mesosphere.sdk.metrics.Metrics;
 import com.mesosphere.sdk.offer.LoggingUtils;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -7,23 +8,45 @@ import org.apache.mesos.Protos;
 import org.slf4j.Logger;
 
 import java.time.Duration;
-import java.util.Collection;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 /**
  * This class acts as a buffer of Offers from Mesos.  By default it holds a maximum of 100 Offers.
+ *
+ * <p>Offers are indexed by their {@link Protos.OfferID} while retaining their arrival order, so that rescinded offers
+ * may be removed in constant time. The time at which each offer arrived is tracked, so that offers which have waited
+ * too long to be evaluated may be identified once they're taken from the queue.
  */
 public class OfferQueue {
   private static final int DEFAULT_CAPACITY = 100;
 
   private final Logger logger = LoggingUtils.getLogger(getClass());
 
-  private final BlockingQueue<Protos.Offer> queue;
+  private final Lock lock = new ReentrantLock();
+
+  private final Condition notEmpty = lock.newCondition();
+
+  // Offers in order of arrival. Access must be guarded by the lock.
+  private final Map<Protos.OfferID, QueuedOffer> offers = new LinkedHashMap<>();
+
+  // Queued offers for each agent, in order of arrival. Access must be guarded by the lock.
+  private final Map<Protos.SlaveID, Set<Protos.OfferID>> offersByAgent = new HashMap<>();
+
+  private final int capacity;
+
+  private final LongSupplier nanoClock;
 
   public OfferQueue() {
     this(DEFAULT_CAPACITY);
@@ -35,7 +58,13 @@ public class OfferQueue {
    * @param capacity the maximum size of the queue, or zero for unlimited queue size
    */
   public OfferQueue(int capacity) {
-    this.queue = capacity == 0 ? new LinkedBlockingQueue<>() : new LinkedBlockingQueue<>(capacity);
+    this(capacity, System::nanoTime);
+  }
+
+  @VisibleForTesting
+  OfferQueue(int capacity, LongSupplier nanoClock) {
+    this.capacity = capacity == 0 ? Integer.MAX_VALUE : capacity;
+    this.nanoClock = nanoClock;
   }
 
   /**
@@ -44,56 +73,116 @@ public class OfferQueue {
    * appear in the provided duration.
    */
   public List<Protos.Offer> takeAll(Duration duration) {
-    List<Protos.Offer> offers = new LinkedList<>();
+    return take(duration, 0).stream()
+        .map(QueuedOffer::getOffer)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Waits up to the provided duration for Offers to be present, then returns up to {@code maxOffers} of them in
+   * order of arrival, or an empty list if none appear in the provided duration.
+   *
+   * <p>Offers from the same agent are always returned together, so that the resources of an agent may be evaluated
+   * as a whole. As such, more than {@code maxOffers} offers are returned if the last agent in the batch has several
+   * queued offers.
+   *
+   * @param maxOffers the number of offers at which to stop taking further agents' offers, or {@code <=0} to take all
+   *                  queued offers
+   */
+  public List<QueuedOffer> take(Duration duration, int maxOffers) {
+    List<QueuedOffer> taken = new ArrayList<>();
+    lock.lock();
     try {
-      // The poll() call waits for one Offer or returns null if none becomes available within the
-      // timeout. The following drainTo() call will pull the following Offers (if any) off the
-      // queue and return.
-      Protos.Offer offer = queue.poll(duration.getSeconds(), TimeUnit.SECONDS);
-      if (offer != null) {
-        offers.add(offer);
+      long remainingNanos = duration.toNanos();
+      while (offers.isEmpty() && remainingNanos > 0) {
+        remainingNanos = notEmpty.awaitNanos(remainingNanos);
+      }
+
+      Iterator<QueuedOffer> iter = offers.values().iterator();
+      while (iter.hasNext() && (maxOffers <= 0 || taken.size() < maxOffers)) {
+        // Take all of this agent's offers, in order of arrival:
+        Protos.SlaveID agentId = iter.next().getOffer().getSlaveId();
+        for (Protos.OfferID offerId : offersByAgent.remove(agentId)) {
+          taken.add(offers.remove(offerId));
+        }
+        // The underlying map has changed, so restart iteration from the oldest remaining offer.
+        iter = offers.values().iterator();
       }
-      queue.drainTo(offers);
+      Metrics.setOfferQueueDepth(offers.size());
     } catch (InterruptedException e) {
       logger.warn("Interrupted while waiting for offer in queue.");
+    } finally {
+      lock.unlock();
     }
 
-    return offers;
+    long nowNanos = nanoClock.getAsLong();
+    for (QueuedOffer queuedOffer : taken) {
+      queuedOffer.waitTime = Duration.ofNanos(nowNanos - queuedOffer.arrivalNanos);
+      Metrics.recordOfferQueueWait(queuedOffer.waitTime);
+    }
+    return taken;
   }
 
   /**
    * This method enqueues an Offer from Mesos if there is capacity. If there is not capacity the
-   * Offer is not added to the queue and {@code false} is returned.
+   * Offer is not added to the queue and {@code false} is returned. An Offer with the same OfferID as a queued Offer
+   * replaces the queued Offer.
    *
    * @return {@code true} if the Offer was successfully put in the queue, {@code false} otherwise
    */
   public boolean offer(Protos.Offer offer) {
-    return queue.offer(offer);
+    lock.lock();
+    try {
+      QueuedOffer previous = offers.remove(offer.getId());
+      if (previous != null) {
+        removeFromAgent(previous.getOffer());
+      } else if (offers.size() >= capacity) {
+        return false;
+      }
+      offers.put(offer.getId(), new QueuedOffer(offer, nanoClock.getAsLong()));
+      offersByAgent.computeIfAbsent(offer.getSlaveId(), k -> new LinkedHashSet<>()).add(offer.getId());
+      Metrics.setOfferQueueDepth(offers.size());
+      notEmpty.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
    * This method removes an offer from the queue based on its OfferID.
+   *
+   * @return {@code true} if the offer was queued, or {@code false} if it wasn't found, e.g. because it had already
+   * been taken from the queue
    */
-  public void remove(Protos.OfferID offerID) {
-    Collection<Protos.Offer> offers = queue.parallelStream()
-        .filter(offer -> offer.getId().equals(offerID))
-        .collect(Collectors.toList());
+  public boolean remove(Protos.OfferID offerID) {
+    QueuedOffer removed;
+    lock.lock();
+    try {
+      removed = offers.remove(offerID);
+      if (removed != null) {
+        removeFromAgent(removed.getOffer());
+        Metrics.setOfferQueueDepth(offers.size());
+      }
+    } finally {
+      lock.unlock();
+    }
 
-    boolean removed = queue.removeAll(offers);
-    if (!removed) {
+    if (removed == null) {
       logger.warn(
           "Attempted to remove offer: '{}' but it was not present in the queue.",
           offerID.getValue());
-    } else {
-      logger.info("Removed offer: {}", offerID.getValue());
+      return false;
     }
+    logger.info("Removed offer: {}", offerID.getValue());
+    return true;
   }
 
   /**
    * This method specifies whether any offers are in the queue.
    */
   public boolean isEmpty() {
-    return queue.isEmpty();
+    return getSize() == 0;
   }
 
   /**
@@ -101,7 +190,12 @@ public class OfferQueue {
    */
   @VisibleForTesting
   int getSize() {
-    return queue.size();
+    lock.lock();
+    try {
+      return offers.size();
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
@@ -109,6 +203,42 @@ public class OfferQueue {
    */
   @VisibleForTesting
   int getRemainingCapacity() {
-    return queue.remainingCapacity();
+    return capacity - getSize();
+  }
+
+  private void removeFromAgent(Protos.Offer offer) {
+    Set<Protos.OfferID> agentOfferIds = offersByAgent.get(offer.getSlaveId());
+    agentOfferIds.remove(offer.getId());
+    if (agentOfferIds.isEmpty()) {
+      offersByAgent.remove(offer.getSlaveId());
+    }
+  }
+
+  /**
+   * An Offer which was taken from the queue, along with how long it had been queued.
+   */
+  public static final class QueuedOffer {
+
+    private final Protos.Offer offer;
+
+    private final long arrivalNanos;
+
+    private Duration waitTime = Duration.ZERO;
+
+    private QueuedOffer(Protos.Offer offer, long arrivalNanos) {
+      this.offer = offer;
+      this.arrivalNanos = arrivalNanos;
+    }
+
+    public Protos.Offer getOffer() {
+      return offer;
+    }
+
+    /**
+     * Returns how long the offer waited in the queue before it was taken.
+     */
+    public Duration getWaitTime() {
+      return waitTime;
+    }
   }
 }
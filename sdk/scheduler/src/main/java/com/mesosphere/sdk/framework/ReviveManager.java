@@ -4,8 +4,17 @@ import com.mesosphere.sdk.metrics.Metrics;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
 
+import org.apache.mesos.Protos;
 import org.slf4j.Logger;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
 /**
  * Handles scheduling of Mesos suppress and revive calls.
  * <p>
@@ -23,36 +32,44 @@ import org.slf4j.Logger;
  * invoked when any new work has appeared,
  * but Revive calls should be rate limited to avoid taxing Mesos.</li>
  * </ul>
+ * <p>
+ * Suppress and revive are tracked separately for each Mesos role, so that a framework with several roles (e.g. with
+ * pre-reserved roles, or while migrating roles) only receives offers for the roles that have pending work. Calls
+ * which cover all of the framework's roles are issued without any role scoping. Each role has its own revive rate
+ * limit.
  */
 class ReviveManager {
 
   private static final Logger LOGGER = LoggingUtils.getLogger(ReviveManager.class);
 
-  // Rate limiter for revive calls.
-  private final TokenBucket reviveTokenBucket;
+  // Creates a rate limiter for revive calls for each role.
+  private final Supplier<TokenBucket> reviveTokenBucketFactory;
+
+  // The roles which the framework has subscribed to. Suppress/revive calls which cover all of these are unscoped.
+  private final Set<String> frameworkRoles;
 
   // Whether suppress calls are enabled. We still 'simulate' suppress behavior internally,
   // even when this is disabled.
   private final boolean suppressEnabled;
 
-  // Whether we have had new work appear since the last time revive was called:
-  private boolean reviveRequested;
-
-  // Whether we think that we have suppressed offers from Mesos due to an idle state on our end:
-  private boolean isSuppressed;
+  // The state of each role which has been subscribed to or seen in offers, sorted for consistent logging:
+  private final Map<String, RoleState> roleStates = new TreeMap<>();
 
-  ReviveManager(TokenBucket reviveTokenBucket, SchedulerConfig schedulerConfig) {
-    this.reviveTokenBucket = reviveTokenBucket;
+  ReviveManager(
+      Supplier<TokenBucket> reviveTokenBucketFactory,
+      Collection<String> frameworkRoles,
+      SchedulerConfig schedulerConfig)
+  {
+    this.reviveTokenBucketFactory = reviveTokenBucketFactory;
+    this.frameworkRoles = new TreeSet<>(frameworkRoles);
     this.suppressEnabled = schedulerConfig.isSuppressEnabled();
-    this.reviveRequested = false;
-    this.isSuppressed = false;
+    this.frameworkRoles.forEach(this::getRoleState);
   }
 
   /**
-   * Notifies the manager that we are no longer suppressed. This should be called whenever offers
-   * are received from Mesos. This confirmation is done separately from the revive call to avoid
-   * the possibility of the following
-   * scenario:
+   * Notifies the manager that we are no longer suppressed for the roles of the provided offers. This should be called
+   * whenever offers are received from Mesos. This confirmation is done separately from the revive call to avoid the
+   * possibility of the following scenario:
    *
    * <ol>
    * <li>Offers are suppressed</li>
@@ -70,80 +87,163 @@ class ReviveManager {
    * offer when we SHOULD BE suppressed, we are ensuring that the future calls to {@code
    * suppressIfActive} would reissue SUPPRESS.
    */
-  void notifyOffersReceived() {
-    isSuppressed = false;
+  void notifyOffersReceived(Collection<Protos.Offer> offers) {
+    for (Protos.Offer offer : offers) {
+      if (offer.hasAllocationInfo()) {
+        String role = offer.getAllocationInfo().getRole();
+        getRoleState(role).isSuppressed = false;
+        Metrics.notSuppressed(role);
+      } else {
+        // Can't tell which role the offer was for. Assume that none of them are suppressed.
+        roleStates.forEach((role, roleState) -> {
+          roleState.isSuppressed = false;
+          Metrics.notSuppressed(role);
+        });
+      }
+    }
     Metrics.notSuppressed();
   }
 
   /**
-   * Issues a call to suppress offers, but only if the service does not already appear to be suppressed.
-   * This should be invoked when the service(s) are all in an IDLE state, so that the offer stream may be temporarily
-   * halted.
+   * Issues a call to suppress offers for the provided roles, but only for those which do not already appear to be
+   * suppressed. This should be invoked for roles which the service(s) don't currently need, so that the offer stream
+   * for those roles may be temporarily halted.
    */
-  void suppressIfActive() {
-    if (isSuppressed) {
-      // Service doesn't need offers, but offers are already suppressed. Avoid duplicate suppress call.
+  void suppressIfActive(Collection<String> roles) {
+    Set<String> rolesToSuppress = new TreeSet<>();
+    for (String role : roles) {
+      if (!getRoleState(role).isSuppressed) {
+        rolesToSuppress.add(role);
+      }
+    }
+    if (rolesToSuppress.isEmpty()) {
+      // Offers are already suppressed for these roles. Avoid duplicate suppress call.
       return;
     }
 
-    // Service doesn't need offers, and offers are not suppressed. Suppress.
+    // Offers are not suppressed for some of these roles. Suppress.
     if (suppressEnabled) {
-      LOGGER.info("Suppressing offers");
-      Driver.getInstance().suppressOffers();
-      Metrics.incrementSuppresses();
+      if (isAllRoles(rolesToSuppress, roleState -> roleState.isSuppressed)) {
+        LOGGER.info("Suppressing offers");
+        Driver.getInstance().suppressOffers();
+        Metrics.incrementSuppresses();
+      } else {
+        LOGGER.info("Suppressing offers for roles: {}", rolesToSuppress);
+        Driver.getInstance().suppressOffers(rolesToSuppress);
+      }
+      Metrics.incrementSuppresses(rolesToSuppress);
     } else {
-      LOGGER.info("Refraining from suppressing offers (disabled via DISABLE_SUPPRESS)");
+      LOGGER.info("Refraining from suppressing offers for roles {} (disabled via DISABLE_SUPPRESS)", rolesToSuppress);
     }
 
-    isSuppressed = true;
+    rolesToSuppress.forEach(role -> getRoleState(role).isSuppressed = true);
   }
 
   /**
-   * Notifies the manager that a revive should be sent, but only if we're currently suppressed.
-   * This should be invoked when the service(s) are in a WORKING state, so that any suppressed state gets cleared.
+   * Notifies the manager that a revive should be sent for any of the provided roles which are currently suppressed.
+   * This should be invoked for roles which the service(s) need, so that any suppressed state gets cleared.
    */
-  void requestReviveIfSuppressed() {
-    if (!isSuppressed) {
-      // Not suppressed, skip.
-      return;
+  void requestReviveIfSuppressed(Collection<String> roles) {
+    for (String role : roles) {
+      RoleState roleState = getRoleState(role);
+      if (roleState.isSuppressed) {
+        roleState.reviveRequested = true;
+      }
     }
-    requestRevive();
   }
 
   /**
-   * Notifies the manager that a revive should be sent soon. This is needed in either of the following cases:
+   * Notifies the manager that a revive should be sent soon for the provided roles. This is needed in either of the
+   * following cases:
    * <ul>
    * <li>The service has new work to do and any previously declined offers should be sent again</li>
-   * <li>Offers are suppressed but the service is not idle (via {@link #requestReviveIfSuppressed()}</li>
+   * <li>Offers are suppressed but the service is not idle (via {@link #requestReviveIfSuppressed(Collection)}</li>
    * </ul>
    */
-  void requestRevive() {
-    reviveRequested = true;
+  void requestRevive(Collection<String> roles) {
+    roles.forEach(role -> getRoleState(role).reviveRequested = true);
   }
 
   /**
-   * Pings the manager to perform a revive call to Mesos if one was previously requested. This must be invoked
-   * periodically to trigger revives. This structure allows us to enforce a rate limit on revive calls.
+   * Pings the manager to perform a revive call to Mesos for any roles where one was previously requested. This must
+   * be invoked periodically to trigger revives. This structure allows us to enforce a rate limit on revive calls.
    */
   void reviveIfRequested() {
-    if (!reviveRequested) {
-      return;
+    Set<String> rolesToRevive = new TreeSet<>();
+    boolean anyThrottled = false;
+    for (Map.Entry<String, RoleState> entry : roleStates.entrySet()) {
+      RoleState roleState = entry.getValue();
+      if (!roleState.reviveRequested) {
+        continue;
+      }
+      if (!roleState.reviveTokenBucket.tryAcquire()) {
+        LOGGER.info("Revive attempt for role {} has been throttled", entry.getKey());
+        Metrics.incrementReviveThrottles(entry.getKey());
+        anyThrottled = true;
+        continue;
+      }
+      rolesToRevive.add(entry.getKey());
     }
 
-    if (!reviveTokenBucket.tryAcquire()) {
-      LOGGER.info("Revive attempt has been throttled");
-      Metrics.incrementReviveThrottles();
+    if (rolesToRevive.isEmpty()) {
+      if (anyThrottled) {
+        Metrics.incrementReviveThrottles();
+      }
       return;
     }
 
-    LOGGER.info("Reviving offers");
-    Driver.getInstance().reviveOffers();
-    reviveRequested = false;
+    if (isAllRoles(rolesToRevive, roleState -> false)) {
+      LOGGER.info("Reviving offers");
+      Driver.getInstance().reviveOffers();
+      Metrics.incrementRevives();
+    } else {
+      LOGGER.info("Reviving offers for roles: {}", rolesToRevive);
+      Driver.getInstance().reviveOffers(rolesToRevive);
+    }
+    rolesToRevive.forEach(role -> getRoleState(role).reviveRequested = false);
 
     // NOTE: We intentionally do not clear isSuppressed here. Instead, we wait until we've actually received new
     // offers. This is a 'just in case' measure to avoid a zombie state if the revive call is dropped. In practice,
     // there isn't a confirmed case of this ever happening, but it doesn't hurt to be conservative here.
 
-    Metrics.incrementRevives();
+    Metrics.incrementRevives(rolesToRevive);
+  }
+
+  /**
+   * Returns whether the provided roles, along with any other framework roles matching {@code alreadyCovered}, cover
+   * all of the framework's roles. If so then an unscoped call may be issued in place of a role-scoped call.
+   */
+  private boolean isAllRoles(Set<String> roles, Predicate<RoleState> alreadyCovered) {
+    for (String role : frameworkRoles) {
+      if (!roles.contains(role) && !alreadyCovered.test(getRoleState(role))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private RoleState getRoleState(String role) {
+    return roleStates.computeIfAbsent(role, r -> new RoleState(reviveTokenBucketFactory.get()));
+  }
+
+  /**
+   * The suppress/revive state of a single role.
+   */
+  private static final class RoleState {
+
+    // Rate limiter for revive calls against this role.
+    private final TokenBucket reviveTokenBucket;
+
+    // Whether we have had new work appear since the last time revive was called:
+    private boolean reviveRequested;
+
+    // Whether we think that we have suppressed offers from Mesos due to an idle state on our end:
+    private boolean isSuppressed;
+
+    private RoleState(TokenBucket reviveTokenBucket) {
+      this.reviveTokenBucket = reviveTokenBucket;
+      this.reviveRequested = false;
+      this.isSuppressed = false;
+    }
   }
 }
@@ -123,7 +123,8 @@ public class SchedulerDriverFactory {
         frameworkInfo,
         masterUrl,
         credential,
-        schedulerConfig.getMesosApiVersion());
+        schedulerConfig.getMesosApiVersion(),
+        TaskStatusProcessor.isImplicitAcknowledgement(schedulerConfig));
   }
 
   Mesos startInternalCustom(
@@ -165,14 +166,15 @@ public class SchedulerDriverFactory {
       final FrameworkInfo frameworkInfo,
       final String masterUrl,
       @Nullable final Credential credential,
-      final String mesosAPIVersion)
+      final String mesosAPIVersion,
+      final boolean implicitAcknowledgements)
   {
     Capabilities capabilities = Capabilities.getInstance();
     // TODO(DCOS-29172): This can be removed if/when we switch to using our own Mesos Client
     // Love to work around the fact that the MesosToSchedulerDriverAdapter both depends directly on the
     // process environment *and* uses two unrelated constructors for the case of credential being null
     return credential == null ?
-        new MesosToSchedulerDriverAdapter(scheduler, frameworkInfo, masterUrl, true) {
+        new MesosToSchedulerDriverAdapter(scheduler, frameworkInfo, masterUrl, implicitAcknowledgements) {
           @Override
           protected Mesos startInternal() {
             return startInternalCustom(
@@ -185,7 +187,9 @@ public class SchedulerDriverFactory {
             );
           }
         } :
-        new MesosToSchedulerDriverAdapter(scheduler, frameworkInfo, masterUrl, true, credential) {
+        new MesosToSchedulerDriverAdapter(
+            scheduler, frameworkInfo, masterUrl, implicitAcknowledgements, credential)
+        {
           @Override
           protected Mesos startInternal() {
             return startInternalCustom(
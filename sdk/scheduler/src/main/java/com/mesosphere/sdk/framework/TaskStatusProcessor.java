@@ -0,0 +1,204 @@
+package com.mesosphere.sdk.framework;
+
+import com.mesosphere.sdk.metrics.Metrics;
+import com.mesosphere.sdk.offer.LoggingUtils;
+import com.mesosphere.sdk.scheduler.MesosEventClient;
+import com.mesosphere.sdk.scheduler.MesosEventClient.TaskStatusResponse;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.state.StateStoreException;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.mesos.Protos;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handles task status processing for the framework, passing statuses to an underlying {@link MesosEventClient}.
+ * <p>
+ * By default, each status is processed on the calling driver thread, and is acknowledged implicitly by the driver
+ * once the call returns. When batching is enabled via {@link SchedulerConfig#getStatusBatchSize()}, statuses are
+ * instead queued and processed on a separate thread: each batch is coalesced to the latest status for each task,
+ * stored together, and only then acknowledged explicitly. This keeps the driver thread responsive during
+ * reconciliation or the loss of an agent, when thousands of statuses may be received within a few seconds.
+ */
+class TaskStatusProcessor {
+
+  private static final Logger LOGGER = LoggingUtils.getLogger(TaskStatusProcessor.class);
+
+  private static final Duration DEFAULT_STATUS_WAIT = Duration.ofSeconds(5);
+
+  // Executor for processing statuses off the queue in {@link #start()}.
+  private final ExecutorService statusExecutor = Executors.newSingleThreadExecutor();
+
+  private final BlockingQueue<ReceivedStatus> statusQueue = new LinkedBlockingQueue<>();
+
+  private final MesosEventClient mesosEventClient;
+
+  private final int maxBatchSize;
+
+  // Whether we should run in multithreaded mode. Should only be disabled for tests.
+  private boolean multithreaded;
+
+  TaskStatusProcessor(MesosEventClient mesosEventClient, SchedulerConfig schedulerConfig) {
+    this(mesosEventClient, schedulerConfig.getStatusBatchSize());
+  }
+
+  @VisibleForTesting
+  TaskStatusProcessor(MesosEventClient mesosEventClient, int maxBatchSize) {
+    this.mesosEventClient = mesosEventClient;
+    this.maxBatchSize = maxBatchSize;
+    this.multithreaded = true;
+  }
+
+  /**
+   * Returns whether statuses should be acknowledged implicitly by the driver, or explicitly once they've been stored.
+   */
+  static boolean isImplicitAcknowledgement(SchedulerConfig schedulerConfig) {
+    return schedulerConfig.getStatusBatchSize() <= 0;
+  }
+
+  /**
+   * Forces the instance to run in a synchronous/single-threaded mode for tests. To have any effect,
+   * this must be called before calling {@link #start()}.
+   *
+   * @return {@code this}
+   */
+  @VisibleForTesting
+  TaskStatusProcessor disableThreading() {
+    multithreaded = false;
+    return this;
+  }
+
+  public void start() {
+    if (maxBatchSize > 0 && multithreaded) {
+      // Start consumption of the status queue. This will idle until statuses start arriving.
+      statusExecutor.execute(() -> {
+        while (true) {
+          try {
+            processQueuedStatuses(DEFAULT_STATUS_WAIT);
+          } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted while waiting for statuses, exiting status processing", e);
+            Thread.currentThread().interrupt();
+            return;
+          } catch (Throwable e) { // SUPPRESS CHECKSTYLE IllegalCatch
+            LOGGER.error(
+                "Error encountered when processing statuses, exiting to avoid zombie state", e);
+            ProcessExit.exit(ProcessExit.ERROR, e);
+          }
+        }
+      });
+    }
+  }
+
+  public void enqueue(Protos.TaskStatus status) throws InterruptedException {
+    if (maxBatchSize <= 0) {
+      // Process immediately: the driver acknowledges the status once we return.
+      handleResponse(status, mesosEventClient.taskStatus(status));
+      return;
+    }
+
+    statusQueue.put(new ReceivedStatus(status));
+
+    if (!multithreaded) {
+      // Immediately process on this thread, rather than depending on statusExecutor to do it.
+      processQueuedStatuses(Duration.ZERO);
+    }
+  }
+
+  /**
+   * Dequeues and processes up to {@code maxBatchSize} statuses, potentially blocking up to {@code queueWait} for
+   * statuses to appear.
+   */
+  @VisibleForTesting
+  void processQueuedStatuses(Duration queueWait) throws InterruptedException {
+    ReceivedStatus first = statusQueue.poll(queueWait.toMillis(), TimeUnit.MILLISECONDS);
+    if (first == null) {
+      return;
+    }
+    List<ReceivedStatus> received = new ArrayList<>();
+    received.add(first);
+    statusQueue.drainTo(received, maxBatchSize - 1);
+
+    // Only the latest status for each task needs to be processed. Any others are still acknowledged below.
+    Map<Protos.TaskID, Protos.TaskStatus> latestStatuses = new LinkedHashMap<>();
+    for (ReceivedStatus receivedStatus : received) {
+      latestStatuses.merge(receivedStatus.status.getTaskId(), receivedStatus.status,
+          (previous, current) -> current.getTimestamp() < previous.getTimestamp() ? previous : current);
+    }
+    List<Protos.TaskStatus> statuses = new ArrayList<>(latestStatuses.values());
+    LOGGER.info("Processing {} status{} for {} task{}",
+        received.size(), received.size() == 1 ? "" : "es",
+        statuses.size(), statuses.size() == 1 ? "" : "s");
+
+    List<TaskStatusResponse> responses;
+    try {
+      responses = mesosEventClient.taskStatuses(statuses);
+    } catch (StateStoreException e) {
+      // Leave the statuses unacknowledged. Mesos will resend them.
+      LOGGER.error(String.format(
+          "Failed to store %d status%s, leaving them to be resent by Mesos",
+          statuses.size(), statuses.size() == 1 ? "" : "es"), e);
+      return;
+    }
+    Metrics.recordStatusBatch(received.size(), statuses.size());
+
+    for (int i = 0; i < statuses.size(); ++i) {
+      handleResponse(statuses.get(i), responses.get(i));
+    }
+
+    for (ReceivedStatus receivedStatus : received) {
+      if (receivedStatus.status.hasUuid()) {
+        Driver.getInstance().acknowledgeStatusUpdate(receivedStatus.status);
+      }
+      Metrics.recordStatusLatency(Duration.ofNanos(System.nanoTime() - receivedStatus.receivedNanos));
+    }
+  }
+
+  private static void handleResponse(Protos.TaskStatus status, TaskStatusResponse response) {
+    boolean eligibleToKill = TaskKiller.update(status);
+    switch (response.result) { // SUPPRESS CHECKSTYLE MissingSwitchDefaultCheck
+      case UNKNOWN_TASK:
+        if (eligibleToKill) {
+          LOGGER.info("Received status update for unknown task, marking task to be killed: {}",
+              status.getTaskId().getValue());
+          TaskKiller.killTask(status.getTaskId());
+        } else {
+          // Special case: Mesos can send TASK_LOST+REASON_RECONCILIATION as a response to a
+          // prior kill request against a task that is unknown to Mesos. When this happens, we
+          // don't want to repeat the kill, because that would create a Kill -> Status -> Kill
+          // -> ... loop
+          LOGGER.warn(
+              "Received status update for unknown task, but task should not be killed again: {}",
+              status.getTaskId().getValue());
+        }
+        break;
+      case PROCESSED:
+        // No-op
+        break;
+    }
+  }
+
+  /**
+   * A status which has been received from Mesos, along with the time that it was received.
+   */
+  private static final class ReceivedStatus {
+    private final Protos.TaskStatus status;
+
+    private final long receivedNanos;
+
+    private ReceivedStatus(Protos.TaskStatus status) {
+      this.status = status;
+      this.receivedNanos = System.nanoTime();
+    }
+  }
+}
@@ -4,9 +4,13 @@ import com.google.protobuf.Message;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import java.util.Optional;
+import java.util.function.Supplier;
+
 /**
  * Utilities for building RPC responses.
  */
@@ -105,6 +109,54 @@ public final class ResponseUtils {
     return Response.status(statusCode).entity(plaintext).type(MediaType.TEXT_PLAIN_TYPE).build();
   }
 
+  /**
+   * Returns a 304 Not Modified response if the provided {@code If-None-Match} header value matches the provided entity
+   * tag. Otherwise returns the response produced by {@code responseSupplier}, with the entity tag attached if it's a
+   * 200 OK response.
+   *
+   * @param ifNoneMatch      the value of the request's {@code If-None-Match} header, if any
+   * @param entityTag        the current (unquoted) entity tag of the requested content
+   * @param responseSupplier produces the response when the client's copy is missing or out of date
+   */
+  public static Response conditionalResponse(
+      Optional<String> ifNoneMatch,
+      String entityTag,
+      Supplier<Response> responseSupplier)
+  {
+    EntityTag tag = new EntityTag(entityTag);
+    if (ifNoneMatch.isPresent() && matchesEntityTag(ifNoneMatch.get(), entityTag)) {
+      return Response.notModified(tag).build();
+    }
+    Response response = responseSupplier.get();
+    if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+      return response;
+    }
+    return Response.fromResponse(response).tag(tag).build();
+  }
+
+  /**
+   * Returns whether any of the comma-separated tags in an {@code If-None-Match} header value match the provided tag.
+   * Weak tags are compared as if they were strong, which is what RFC 7232 specifies for {@code If-None-Match}.
+   */
+  private static boolean matchesEntityTag(String ifNoneMatch, String entityTag) {
+    for (String value : ifNoneMatch.split(",")) {
+      String tag = value.trim();
+      if (tag.equals("*")) {
+        return true;
+      }
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.length() >= 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"') {
+        tag = tag.substring(1, tag.length() - 1);
+      }
+      if (tag.equals(entityTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Returns a "404 [itemType] not found" response.
    */
@@ -10,9 +10,11 @@ import com.mesosphere.sdk.state.StateStore;
 
 import javax.inject.Singleton;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import java.util.Optional;
@@ -39,12 +41,15 @@ public class MultiPodResource extends PrettyJsonResource {
    */
   @Path("{sanitizedServiceName}/pod")
   @GET
-  public Response list(@PathParam("sanitizedServiceName") String sanitizedServiceName) {
+  public Response list(
+      @PathParam("sanitizedServiceName") String sanitizedServiceName,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch)
+  {
     Optional<StateStore> stateStore = getStateStore(sanitizedServiceName);
     if (!stateStore.isPresent()) {
       return ResponseUtils.serviceNotFoundResponse(sanitizedServiceName);
     }
-    return PodQueries.list(stateStore.get());
+    return PodQueries.list(stateStore.get(), Optional.ofNullable(ifNoneMatch));
   }
 
   /**
@@ -52,12 +57,15 @@ public class MultiPodResource extends PrettyJsonResource {
    */
   @Path("{sanitizedServiceName}/pod/status")
   @GET
-  public Response getStatuses(@PathParam("sanitizedServiceName") String sanitizedServiceName) {
+  public Response getStatuses(
+      @PathParam("sanitizedServiceName") String sanitizedServiceName,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch)
+  {
     Optional<StateStore> stateStore = getStateStore(sanitizedServiceName);
     if (!stateStore.isPresent()) {
       return ResponseUtils.serviceNotFoundResponse(sanitizedServiceName);
     }
-    return PodQueries.getStatuses(stateStore.get(), sanitizedServiceName);
+    return PodQueries.getStatuses(stateStore.get(), sanitizedServiceName, Optional.ofNullable(ifNoneMatch));
   }
 
   /**
@@ -67,13 +75,14 @@ public class MultiPodResource extends PrettyJsonResource {
   @GET
   public Response getStatus(
       @PathParam("sanitizedServiceName") String sanitizedServiceName,
-      @PathParam("name") String podInstanceName)
+      @PathParam("name") String podInstanceName,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch)
   {
     Optional<StateStore> stateStore = getStateStore(sanitizedServiceName);
     if (!stateStore.isPresent()) {
       return ResponseUtils.serviceNotFoundResponse(sanitizedServiceName);
     }
-    return PodQueries.getStatus(stateStore.get(), podInstanceName);
+    return PodQueries.getStatus(stateStore.get(), podInstanceName, Optional.ofNullable(ifNoneMatch));
   }
 
   /**
@@ -83,13 +92,14 @@ public class MultiPodResource extends PrettyJsonResource {
   @GET
   public Response getInfo(
       @PathParam("sanitizedServiceName") String sanitizedServiceName,
-      @PathParam("name") String podInstanceName)
+      @PathParam("name") String podInstanceName,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch)
   {
     Optional<StateStore> stateStore = getStateStore(sanitizedServiceName);
     if (!stateStore.isPresent()) {
       return ResponseUtils.serviceNotFoundResponse(sanitizedServiceName);
     }
-    return PodQueries.getInfo(stateStore.get(), podInstanceName);
+    return PodQueries.getInfo(stateStore.get(), podInstanceName, Optional.ofNullable(ifNoneMatch));
   }
 
   /**
@@ -12,10 +12,12 @@ import org.glassfish.jersey.media.multipart.FormDataParam;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -98,12 +100,15 @@ public class MultiStateResource {
    */
   @Path("{sanitizedServiceName}/state/zone/tasks")
   @GET
-  public Response getTaskNamesToZones(@PathParam("sanitizedServiceName") String sanitizedServiceName) {
+  public Response getTaskNamesToZones(
+      @PathParam("sanitizedServiceName") String sanitizedServiceName,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch)
+  {
     Optional<StateStore> stateStore = getStateStore(sanitizedServiceName);
     if (!stateStore.isPresent()) {
       return ResponseUtils.serviceNotFoundResponse(sanitizedServiceName);
     }
-    return StateQueries.getTaskNamesToZones(stateStore.get());
+    return StateQueries.getTaskNamesToZones(stateStore.get(), Optional.ofNullable(ifNoneMatch));
   }
 
   /**
@@ -112,13 +117,15 @@ public class MultiStateResource {
   @Path("{sanitizedServiceName}/state/zone/tasks/{taskName}")
   @GET
   public Response getTaskNameToZone(
-      @PathParam("sanitizedServiceName") String sanitizedServiceName, @PathParam("taskName") String taskName)
+      @PathParam("sanitizedServiceName") String sanitizedServiceName,
+      @PathParam("taskName") String taskName,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch)
   {
     Optional<StateStore> stateStore = getStateStore(sanitizedServiceName);
     if (!stateStore.isPresent()) {
       return ResponseUtils.serviceNotFoundResponse(sanitizedServiceName);
     }
-    return StateQueries.getTaskNameToZone(stateStore.get(), taskName);
+    return StateQueries.getTaskNameToZone(stateStore.get(), taskName, Optional.ofNullable(ifNoneMatch));
   }
 
   /**
@@ -129,13 +136,14 @@ public class MultiStateResource {
   public Response getTaskIPsToZones(
       @PathParam("sanitizedServiceName") String sanitizedServiceName,
       @PathParam("podType") String podType,
-      @PathParam("ip") String ip)
+      @PathParam("ip") String ip,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch)
   {
     Optional<StateStore> stateStore = getStateStore(sanitizedServiceName);
     if (!stateStore.isPresent()) {
       return ResponseUtils.serviceNotFoundResponse(sanitizedServiceName);
     }
-    return StateQueries.getTaskIPsToZones(stateStore.get(), podType, ip);
+    return StateQueries.getTaskIPsToZones(stateStore.get(), podType, ip, Optional.ofNullable(ifNoneMatch));
   }
 
   /**
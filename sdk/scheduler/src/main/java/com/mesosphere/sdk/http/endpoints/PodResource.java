@@ -9,11 +9,15 @@ import com.mesosphere.sdk.state.StateStore;
 
 import javax.inject.Singleton;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
+import java.util.Optional;
+
 /**
  * A read-only API for accessing information about the pods which compose the service, and restarting/replacing those
  * pods.
@@ -45,8 +49,8 @@ public class PodResource extends PrettyJsonResource {
    * @see PodQueries
    */
   @GET
-  public Response list() {
-    return PodQueries.list(stateStore);
+  public Response list(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    return PodQueries.list(stateStore, Optional.ofNullable(ifNoneMatch));
   }
 
   /**
@@ -54,8 +58,8 @@ public class PodResource extends PrettyJsonResource {
    */
   @Path("/status")
   @GET
-  public Response getStatuses() {
-    return PodQueries.getStatuses(stateStore, serviceName);
+  public Response getStatuses(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    return PodQueries.getStatuses(stateStore, serviceName, Optional.ofNullable(ifNoneMatch));
   }
 
   /**
@@ -63,8 +67,11 @@ public class PodResource extends PrettyJsonResource {
    */
   @Path("/{name}/status")
   @GET
-  public Response getStatus(@PathParam("name") String podInstanceName) {
-    return PodQueries.getStatus(stateStore, podInstanceName);
+  public Response getStatus(
+      @PathParam("name") String podInstanceName,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch)
+  {
+    return PodQueries.getStatus(stateStore, podInstanceName, Optional.ofNullable(ifNoneMatch));
   }
 
   /**
@@ -72,8 +79,11 @@ public class PodResource extends PrettyJsonResource {
    */
   @Path("/{name}/info")
   @GET
-  public Response getInfo(@PathParam("name") String podInstanceName) {
-    return PodQueries.getInfo(stateStore, podInstanceName);
+  public Response getInfo(
+      @PathParam("name") String podInstanceName,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch)
+  {
+    return PodQueries.getInfo(stateStore, podInstanceName, Optional.ofNullable(ifNoneMatch));
   }
 
   /**
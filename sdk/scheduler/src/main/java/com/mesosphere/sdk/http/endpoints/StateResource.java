@@ -10,14 +10,17 @@ import org.glassfish.jersey.media.multipart.FormDataParam;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import java.io.InputStream;
+import java.util.Optional;
 
 /**
  * An API for reading task and frameworkId state from persistent storage, and resetting the state store cache if one is
@@ -99,8 +102,8 @@ public class StateResource {
    */
   @Path("/zone/tasks")
   @GET
-  public Response getTaskNamesToZones() {
-    return StateQueries.getTaskNamesToZones(stateStore);
+  public Response getTaskNamesToZones(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    return StateQueries.getTaskNamesToZones(stateStore, Optional.ofNullable(ifNoneMatch));
   }
 
   /**
@@ -108,8 +111,11 @@ public class StateResource {
    */
   @Path("/zone/tasks/{taskName}")
   @GET
-  public Response getTaskNameToZone(@PathParam("taskName") String taskName) {
-    return StateQueries.getTaskNameToZone(stateStore, taskName);
+  public Response getTaskNameToZone(
+      @PathParam("taskName") String taskName,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch)
+  {
+    return StateQueries.getTaskNameToZone(stateStore, taskName, Optional.ofNullable(ifNoneMatch));
   }
 
   /**
@@ -117,8 +123,12 @@ public class StateResource {
    */
   @Path("/zone/{podType}/{ip}")
   @GET
-  public Response getTaskIPsToZones(@PathParam("podType") String podType, @PathParam("ip") String ip) {
-    return StateQueries.getTaskIPsToZones(stateStore, podType, ip);
+  public Response getTaskIPsToZones(
+      @PathParam("podType") String podType,
+      @PathParam("ip") String ip,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch)
+  {
+    return StateQueries.getTaskIPsToZones(stateStore, podType, ip, Optional.ofNullable(ifNoneMatch));
   }
 
   /**
@@ -9,6 +9,7 @@ import com.mesosphere.sdk.offer.TaskException;
 import com.mesosphere.sdk.offer.taskdata.AuxLabelAccess;
 import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.state.StateSnapshot;
 import com.mesosphere.sdk.state.StateStore;
 import com.mesosphere.sdk.state.StateStoreUtils;
 
@@ -114,7 +115,8 @@ public final class EndpointsQueries {
       throws TaskException
   {
     Map<String, JSONObject> endpointsByName = new TreeMap<>();
-    for (TaskInfo taskInfo : stateStore.fetchTasks()) {
+    StateSnapshot snapshot = stateStore.getSnapshot();
+    for (TaskInfo taskInfo : snapshot.getTasks()) {
       if (!taskInfo.hasDiscovery()) {
         LOGGER.debug("Task lacks any discovery information, no endpoints to report: {}",
             taskInfo.getName());
@@ -131,7 +133,7 @@ public final class EndpointsQueries {
       String nativeHost = new TaskLabelReader(taskInfo).getHostname();
       // get IP address(es) from container status on the latest TaskStatus, if the latest TaskStatus has an IP
       // otherwise use the lastest TaskStatus' IP stored in the stateStore
-      List<String> ipAddresses = reconcileIpAddresses(stateStore, taskInfo.getName());
+      List<String> ipAddresses = reconcileIpAddresses(stateStore, snapshot, taskInfo.getName());
       for (Port port : discoveryInfo.getPorts().getPortsList()) {
         if (port.getVisibility() != Constants.DISPLAYED_PORT_VISIBILITY) {
           LOGGER.debug(
@@ -183,16 +185,18 @@ public final class EndpointsQueries {
     return Collections.emptyList();
   }
 
-  private static List<String> reconcileIpAddresses(StateStore stateStore, String taskName) {
+  private static List<String> reconcileIpAddresses(StateStore stateStore, StateSnapshot snapshot, String taskName) {
     // get the IP addresses from the latest TaskStatus (currentTaskStatus), if that TaskStatus doesn't have an
     // IP address (it's a TASK_KILLED, LOST, etc.) than use the last IP address recorded in the stateStore
     // (this is better than nothing).
-    TaskStatus currentTaskStatus = stateStore.fetchStatus(taskName).orElse(null);
+    TaskStatus currentTaskStatus = snapshot.getStatus(taskName).orElse(null);
+    List<String> currentIpAddresses = getIpAddresses(currentTaskStatus);
+    if (!currentIpAddresses.isEmpty()) {
+      return currentIpAddresses;
+    }
     TaskStatus savedTaskStatus = StateStoreUtils.getTaskStatusFromProperty(stateStore, taskName)
         .orElse(null);
-    List<String> currentIpAddresses = getIpAddresses(currentTaskStatus);
-    return currentIpAddresses.isEmpty() ?
-        getIpAddresses(savedTaskStatus) : currentIpAddresses;
+    return getIpAddresses(savedTaskStatus);
   }
 
   /**
@@ -198,7 +198,7 @@ public final class PlansQueries {
         return ResponseUtils.alreadyReportedResponse();
       }
 
-      phases.forEach(p -> p.getStrategy().interrupt());
+      phases.forEach(Phase::interrupt);
     } else {
       Plan plan = planManagerOptional.get().getPlan();
       if (plan.isInterrupted() || plan.isComplete()) {
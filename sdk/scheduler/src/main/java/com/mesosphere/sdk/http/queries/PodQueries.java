@@ -17,6 +17,7 @@ import com.mesosphere.sdk.specification.PodInstance;
 import com.mesosphere.sdk.specification.ServiceSpec;
 import com.mesosphere.sdk.state.ConfigStore;
 import com.mesosphere.sdk.state.GoalStateOverride;
+import com.mesosphere.sdk.state.StateSnapshot;
 import com.mesosphere.sdk.state.StateStore;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -67,93 +68,131 @@ public final class PodQueries {
    * Produces a listing of all pod instance names.
    */
   public static Response list(StateStore stateStore) {
+    return list(stateStore, Optional.empty());
+  }
+
+  /**
+   * Produces a listing of all pod instance names, or a 304 Not Modified response if the provided
+   * {@code If-None-Match} value matches the current state.
+   */
+  public static Response list(StateStore stateStore, Optional<String> ifNoneMatch) {
     try {
-      Set<String> podNames = new TreeSet<>();
-      List<String> unknownTaskNames = new ArrayList<>();
-      for (Protos.TaskInfo taskInfo : stateStore.fetchTasks()) {
-        TaskLabelReader labels = new TaskLabelReader(taskInfo);
-        try {
-          podNames.add(PodInstance.getName(labels.getType(), labels.getIndex()));
-        } catch (Exception e) {
-          LOGGER.warn(String.format("Failed to extract pod information from task %s",
-              taskInfo.getName()), e);
-          unknownTaskNames.add(taskInfo.getName());
-        }
+      StateSnapshot snapshot = stateStore.getSnapshot();
+      return ResponseUtils.conditionalResponse(ifNoneMatch, snapshot.getEntityTag(), () -> list(snapshot));
+    } catch (Exception e) {
+      LOGGER.error("Failed to fetch list of pods", e);
+      return Response.serverError().build();
+    }
+  }
+
+  private static Response list(StateSnapshot snapshot) {
+    Set<String> podNames = new TreeSet<>();
+    List<String> unknownTaskNames = new ArrayList<>();
+    for (Protos.TaskInfo taskInfo : snapshot.getTasks()) {
+      TaskLabelReader labels = new TaskLabelReader(taskInfo);
+      try {
+        podNames.add(PodInstance.getName(labels.getType(), labels.getIndex()));
+      } catch (Exception e) {
+        LOGGER.warn(String.format("Failed to extract pod information from task %s",
+            taskInfo.getName()), e);
+        unknownTaskNames.add(taskInfo.getName());
       }
+    }
 
-      JSONArray jsonArray = new JSONArray(podNames);
+    JSONArray jsonArray = new JSONArray(podNames);
 
-      if (!unknownTaskNames.isEmpty()) {
-        Collections.sort(unknownTaskNames);
-        for (String unknownName : unknownTaskNames) {
-          jsonArray.put(String.format("%s_%s", UNKNOWN_POD_LABEL, unknownName));
-        }
+    if (!unknownTaskNames.isEmpty()) {
+      Collections.sort(unknownTaskNames);
+      for (String unknownName : unknownTaskNames) {
+        jsonArray.put(String.format("%s_%s", UNKNOWN_POD_LABEL, unknownName));
       }
-      return ResponseUtils.jsonOkResponse(jsonArray);
-    } catch (Exception e) {
-      LOGGER.error("Failed to fetch list of pods", e);
-      return Response.serverError().build();
     }
+    return ResponseUtils.jsonOkResponse(jsonArray);
   }
 
   /**
    * Produces the summary statuses of all pod instances.
    */
   public static Response getStatuses(StateStore stateStore, String serviceName) {
-    try {
-      // Group the tasks by pod:
-      GroupedTasks groupedTasks = GroupedTasks.create(stateStore);
-      // Output statuses for all tasks in each pod:
-      JSONObject responseJson = new JSONObject();
-      responseJson.put("service", serviceName);
-      for (Map.Entry<String, Map<Integer, List<TaskInfoAndStatus>>> podType
-          : groupedTasks.byPodTypeAndIndex.entrySet())
-      {
-        JSONObject podJson = new JSONObject();
-        podJson.put("name", podType.getKey());
-        for (Map.Entry<Integer, List<TaskInfoAndStatus>> podInstance :
-            podType.getValue().entrySet())
-        {
-          podJson.append("instances", getPodInstanceStatusJson(
-              stateStore,
-              PodInstance.getName(podType.getKey(), podInstance.getKey()),
-              podInstance.getValue()));
-        }
-        responseJson.append("pods", podJson);
-      }
-
-      // Output an 'unknown pod' instance for any tasks which didn't have a resolvable pod:
-      if (!groupedTasks.unknownPod.isEmpty()) {
-        JSONObject podTypeJson = new JSONObject();
-        podTypeJson.put("name", UNKNOWN_POD_LABEL);
-        podTypeJson.append("instances", getPodInstanceStatusJson(
-            stateStore,
-            PodInstance.getName(UNKNOWN_POD_LABEL, 0),
-            groupedTasks.unknownPod));
-        responseJson.append("pods", podTypeJson);
-      }
+    return getStatuses(stateStore, serviceName, Optional.empty());
+  }
 
-      return ResponseUtils.jsonOkResponse(responseJson);
+  /**
+   * Produces the summary statuses of all pod instances, or a 304 Not Modified response if the provided
+   * {@code If-None-Match} value matches the current state.
+   */
+  public static Response getStatuses(StateStore stateStore, String serviceName, Optional<String> ifNoneMatch) {
+    try {
+      StateSnapshot snapshot = stateStore.getSnapshot();
+      return ResponseUtils.conditionalResponse(
+          ifNoneMatch, snapshot.getEntityTag(), () -> getStatuses(snapshot, serviceName));
     } catch (Exception e) {
       LOGGER.error("Failed to fetch collated list of task statuses by pod", e);
       return Response.serverError().build();
     }
   }
 
+  private static Response getStatuses(StateSnapshot snapshot, String serviceName) {
+    // Group the tasks by pod:
+    GroupedTasks groupedTasks = GroupedTasks.create(snapshot);
+    // Output statuses for all tasks in each pod:
+    JSONObject responseJson = new JSONObject();
+    responseJson.put("service", serviceName);
+    for (Map.Entry<String, Map<Integer, List<TaskInfoAndStatus>>> podType
+        : groupedTasks.byPodTypeAndIndex.entrySet())
+    {
+      JSONObject podJson = new JSONObject();
+      podJson.put("name", podType.getKey());
+      for (Map.Entry<Integer, List<TaskInfoAndStatus>> podInstance :
+          podType.getValue().entrySet())
+      {
+        podJson.append("instances", getPodInstanceStatusJson(
+            snapshot,
+            PodInstance.getName(podType.getKey(), podInstance.getKey()),
+            podInstance.getValue()));
+      }
+      responseJson.append("pods", podJson);
+    }
+
+    // Output an 'unknown pod' instance for any tasks which didn't have a resolvable pod:
+    if (!groupedTasks.unknownPod.isEmpty()) {
+      JSONObject podTypeJson = new JSONObject();
+      podTypeJson.put("name", UNKNOWN_POD_LABEL);
+      podTypeJson.append("instances", getPodInstanceStatusJson(
+          snapshot,
+          PodInstance.getName(UNKNOWN_POD_LABEL, 0),
+          groupedTasks.unknownPod));
+      responseJson.append("pods", podTypeJson);
+    }
+
+    return ResponseUtils.jsonOkResponse(responseJson);
+  }
+
   /**
    * Produces the summary status of a single pod instance.
    */
   public static Response getStatus(StateStore stateStore, String podInstanceName) {
+    return getStatus(stateStore, podInstanceName, Optional.empty());
+  }
+
+  /**
+   * Produces the summary status of a single pod instance, or a 304 Not Modified response if the provided
+   * {@code If-None-Match} value matches the current state.
+   */
+  public static Response getStatus(StateStore stateStore, String podInstanceName, Optional<String> ifNoneMatch) {
     try {
-      Optional<Collection<TaskInfoAndStatus>> podTasks =
-          GroupedTasks.create(stateStore).getPodInstanceTasks(podInstanceName);
-      if (!podTasks.isPresent()) {
-        return podNotFoundResponse(podInstanceName);
-      }
-      return ResponseUtils.jsonOkResponse(
-          getPodInstanceStatusJson(stateStore,
-          podInstanceName,
-          podTasks.get()));
+      StateSnapshot snapshot = stateStore.getSnapshot();
+      return ResponseUtils.conditionalResponse(ifNoneMatch, snapshot.getEntityTag(), () -> {
+        Optional<Collection<TaskInfoAndStatus>> podTasks =
+            GroupedTasks.create(snapshot).getPodInstanceTasks(podInstanceName);
+        if (!podTasks.isPresent()) {
+          return podNotFoundResponse(podInstanceName);
+        }
+        return ResponseUtils.jsonOkResponse(
+            getPodInstanceStatusJson(snapshot,
+            podInstanceName,
+            podTasks.get()));
+      });
     } catch (Exception e) {
       LOGGER.error(String.format("Failed to fetch status for pod '%s'", podInstanceName), e);
       return Response.serverError().build();
@@ -164,13 +203,24 @@ public final class PodQueries {
    * Produces the full information for a single pod instance.
    */
   public static Response getInfo(StateStore stateStore, String podInstanceName) {
+    return getInfo(stateStore, podInstanceName, Optional.empty());
+  }
+
+  /**
+   * Produces the full information for a single pod instance, or a 304 Not Modified response if the provided
+   * {@code If-None-Match} value matches the current state.
+   */
+  public static Response getInfo(StateStore stateStore, String podInstanceName, Optional<String> ifNoneMatch) {
     try {
-      Optional<Collection<TaskInfoAndStatus>> podTasks =
-          GroupedTasks.create(stateStore).getPodInstanceTasks(podInstanceName);
-      if (!podTasks.isPresent()) {
-        return podNotFoundResponse(podInstanceName);
-      }
-      return ResponseUtils.jsonResponseBean(podTasks.get(), Response.Status.OK);
+      StateSnapshot snapshot = stateStore.getSnapshot();
+      return ResponseUtils.conditionalResponse(ifNoneMatch, snapshot.getEntityTag(), () -> {
+        Optional<Collection<TaskInfoAndStatus>> podTasks =
+            GroupedTasks.create(snapshot).getPodInstanceTasks(podInstanceName);
+        if (!podTasks.isPresent()) {
+          return podNotFoundResponse(podInstanceName);
+        }
+        return ResponseUtils.jsonResponseBean(podTasks.get(), Response.Status.OK);
+      });
     } catch (Exception e) {
       LOGGER.error(String.format("Failed to fetch info for pod '%s'", podInstanceName), e);
       return Response.serverError().build();
@@ -378,7 +428,7 @@ public final class PodQueries {
    * }</code>
    */
   private static JSONObject getPodInstanceStatusJson(
-      StateStore stateStore, String podInstanceName, Collection<TaskInfoAndStatus> tasks)
+      StateSnapshot snapshot, String podInstanceName, Collection<TaskInfoAndStatus> tasks)
   {
     JSONObject jsonPod = new JSONObject();
     jsonPod.put("name", podInstanceName);
@@ -387,7 +437,7 @@ public final class PodQueries {
       jsonTask.put("id", task.getInfo().getTaskId().getValue());
       jsonTask.put("name", task.getInfo().getName());
       Optional<String> stateString = getTaskStateString(
-          stateStore,
+          snapshot,
           task.getInfo().getName(),
           task.getStatus());
       stateString.ifPresent(s -> jsonTask.put("status", s));
@@ -397,9 +447,9 @@ public final class PodQueries {
   }
 
   private static Optional<String> getTaskStateString(
-      StateStore stateStore, String taskName, Optional<Protos.TaskStatus> mesosStatus)
+      StateSnapshot snapshot, String taskName, Optional<Protos.TaskStatus> mesosStatus)
   {
-    GoalStateOverride.Status overrideStatus = stateStore.fetchGoalOverrideStatus(taskName);
+    GoalStateOverride.Status overrideStatus = snapshot.getGoalOverrideStatus(taskName);
     if (!mesosStatus.isPresent()) {
       // This task has never been prepared -- even if its goal state is overridden, it doesn't
       // have a run state.
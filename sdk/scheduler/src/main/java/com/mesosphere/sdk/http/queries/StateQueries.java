@@ -6,12 +6,15 @@ import com.mesosphere.sdk.http.types.PropertyDeserializer;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.TaskUtils;
 import com.mesosphere.sdk.state.FrameworkStore;
+import com.mesosphere.sdk.state.StateSnapshot;
 import com.mesosphere.sdk.state.StateStore;
 import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.storage.CompressingPersister;
 import com.mesosphere.sdk.storage.Persister;
 import com.mesosphere.sdk.storage.PersisterCache;
 import com.mesosphere.sdk.storage.PersisterException;
 import com.mesosphere.sdk.storage.StorageError.Reason;
+import com.mesosphere.sdk.storage.WatchingPersisterCache;
 
 import org.apache.mesos.Protos;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
@@ -126,8 +129,18 @@ public final class StateQueries {
    * Returns the Zone information for all of the tasks of the service.
    */
   public static Response getTaskNamesToZones(StateStore stateStore) {
+    return getTaskNamesToZones(stateStore, Optional.empty());
+  }
+
+  /**
+   * Returns the Zone information for all of the tasks of the service, or a 304 Not Modified response if the provided
+   * {@code If-None-Match} value matches the current state.
+   */
+  public static Response getTaskNamesToZones(StateStore stateStore, Optional<String> ifNoneMatch) {
     try {
-      return ResponseUtils.jsonOkResponse(new JSONObject(getTasksZones(stateStore)));
+      StateSnapshot snapshot = stateStore.getSnapshot();
+      return ResponseUtils.conditionalResponse(ifNoneMatch, snapshot.getEntityTag(), () ->
+          ResponseUtils.jsonOkResponse(new JSONObject(getTasksZones(snapshot))));
     } catch (StateStoreException ex) {
       LOGGER.error("Failed to fetch the zone information for the service's tasks: ", ex);
       return Response.serverError().build();
@@ -138,14 +151,25 @@ public final class StateQueries {
    * Returns the Zone information for a given task.
    */
   public static Response getTaskNameToZone(StateStore stateStore, String taskName) {
+    return getTaskNameToZone(stateStore, taskName, Optional.empty());
+  }
+
+  /**
+   * Returns the Zone information for a given task, or a 304 Not Modified response if the provided
+   * {@code If-None-Match} value matches the current state.
+   */
+  public static Response getTaskNameToZone(StateStore stateStore, String taskName, Optional<String> ifNoneMatch) {
     try {
-      Map<String, String> tasksZones = getTasksZones(stateStore);
-      if (tasksZones.containsKey(taskName)) {
-        return ResponseUtils.plainOkResponse(tasksZones.get(taskName));
-      } else {
-        LOGGER.error("No zone exists for the specified task");
-        return Response.status(Response.Status.NOT_FOUND).build();
-      }
+      StateSnapshot snapshot = stateStore.getSnapshot();
+      return ResponseUtils.conditionalResponse(ifNoneMatch, snapshot.getEntityTag(), () -> {
+        Map<String, String> tasksZones = getTasksZones(snapshot);
+        if (tasksZones.containsKey(taskName)) {
+          return ResponseUtils.plainOkResponse(tasksZones.get(taskName));
+        } else {
+          LOGGER.error("No zone exists for the specified task");
+          return Response.status(Response.Status.NOT_FOUND).build();
+        }
+      });
     } catch (StateStoreException ex) {
       // SUPPRESS CHECKSTYLE MultipleStringLiterals
       LOGGER.error("Failed to fetch the zone information for the service's task: ", ex);
@@ -157,13 +181,29 @@ public final class StateQueries {
    * Returns the Zone information for a given pod type and an IP address.
    */
   public static Response getTaskIPsToZones(StateStore stateStore, String podType, String ip) {
+    return getTaskIPsToZones(stateStore, podType, ip, Optional.empty());
+  }
+
+  /**
+   * Returns the Zone information for a given pod type and an IP address, or a 304 Not Modified response if the
+   * provided {@code If-None-Match} value matches the current state.
+   */
+  public static Response getTaskIPsToZones(
+      StateStore stateStore,
+      String podType,
+      String ip,
+      Optional<String> ifNoneMatch)
+  {
     try {
-      String zone = getZoneFromTaskNameAndIP(stateStore, podType, ip);
-      if (zone.isEmpty()) {
-        LOGGER.error("Failed to find a zone for pod type = {}, ip address = {}", podType, ip);
-        return Response.status(Response.Status.NOT_FOUND).build();
-      }
-      return ResponseUtils.plainOkResponse(zone);
+      StateSnapshot snapshot = stateStore.getSnapshot();
+      return ResponseUtils.conditionalResponse(ifNoneMatch, snapshot.getEntityTag(), () -> {
+        String zone = getZoneFromTaskNameAndIP(snapshot, podType, ip);
+        if (zone.isEmpty()) {
+          LOGGER.error("Failed to find a zone for pod type = {}, ip address = {}", podType, ip);
+          return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return ResponseUtils.plainOkResponse(zone);
+      });
     } catch (StateStoreException ex) {
       LOGGER.error("Failed to fetch the zone information for the service's task: ", ex);
       return Response.serverError().build();
@@ -213,6 +253,10 @@ public final class StateQueries {
    * scheduler's back, or if there's a bug in the cache handling.
    */
   public static Response refreshCache(StateStore stateStore) {
+    if (getUnwrappedPersister(stateStore) instanceof WatchingPersisterCache) {
+      LOGGER.info("State store cache is kept up to date by ZK watches: Refresh is not applicable");
+      return ResponseUtils.jsonOkResponse(getCommandResult("refresh"));
+    }
     PersisterCache cache = getPersisterCache(stateStore);
     if (cache == null) {
       LOGGER.warn("State store is not cached: Refresh is not applicable");
@@ -236,13 +280,24 @@ public final class StateQueries {
   }
 
   private static PersisterCache getPersisterCache(StateStore stateStore) {
-    Persister persister = stateStore.getPersister();
+    Persister persister = getUnwrappedPersister(stateStore);
     if (!(persister instanceof PersisterCache)) {
       return null;
     }
     return (PersisterCache) persister;
   }
 
+  /**
+   * Returns the state store's persister, or the persister beneath it if values are being compressed. Compression
+   * doesn't affect whether or how the state store is cached.
+   */
+  private static Persister getUnwrappedPersister(StateStore stateStore) {
+    Persister persister = stateStore.getPersister();
+    return persister instanceof CompressingPersister
+        ? ((CompressingPersister) persister).getDelegate()
+        : persister;
+  }
+
   private static JSONObject getCommandResult(String command) {
     return new JSONObject(Collections.singletonMap(
         "message",
@@ -277,16 +332,14 @@ public final class StateQueries {
   /**
    * Constructs a map of task names to zones indicating in what zone the respective task name is in.
    *
-   * @param stateStore The state store to get task infos from
+   * @param snapshot The snapshot to get task infos from
    * @return the map of task names to zones
    */
-  private static Map<String, String> getTasksZones(StateStore stateStore) {
-    Collection<String> taskNames = stateStore.fetchTaskNames();
+  private static Map<String, String> getTasksZones(StateSnapshot snapshot) {
     Map<String, String> tasksZones = new HashMap<>();
-    for (String taskName : taskNames) {
-      Optional<Protos.TaskInfo> taskInfoOptional = stateStore.fetchTask(taskName);
-      if (taskInfoOptional.isPresent() && TaskUtils.taskHasZone(taskInfoOptional.get())) {
-        tasksZones.put(taskName, TaskUtils.getTaskZone(taskInfoOptional.get()));
+    for (Protos.TaskInfo taskInfo : snapshot.getTasks()) {
+      if (TaskUtils.taskHasZone(taskInfo)) {
+        tasksZones.put(taskInfo.getName(), TaskUtils.getTaskZone(taskInfo));
       }
     }
     return tasksZones;
@@ -295,23 +348,22 @@ public final class StateQueries {
   /**
    * Gets the zone of a pod given its pod type and the IP address of the pod.
    *
-   * @param stateStore The {@link StateStore} from which to get task info and task status from
-   * @param podType    The type of the pod to get zone information for
-   * @param ipAddress  The IP address of the pod to get zone information for
+   * @param snapshot  The {@link StateSnapshot} from which to get task info and task status from
+   * @param podType   The type of the pod to get zone information for
+   * @param ipAddress The IP address of the pod to get zone information for
    * @return A string indicating the zone of the pod
    */
   private static String getZoneFromTaskNameAndIP(
-      StateStore stateStore,
+      StateSnapshot snapshot,
       String podType,
       String ipAddress)
   {
-    Collection<String> taskNames = stateStore.fetchTaskNames();
-    for (String taskName : taskNames) {
+    for (String taskName : snapshot.getTaskNames()) {
       if (!taskName.startsWith(podType)) {
         continue;
       }
-      Optional<Protos.TaskStatus> taskStatusOptional = stateStore.fetchStatus(taskName);
-      Optional<Protos.TaskInfo> taskInfoOptional = stateStore.fetchTask(taskName);
+      Optional<Protos.TaskStatus> taskStatusOptional = snapshot.getStatus(taskName);
+      Optional<Protos.TaskInfo> taskInfoOptional = snapshot.getTask(taskName);
       if (!taskStatusOptional.isPresent() || !taskInfoOptional.isPresent()) {
         return "";
       }
@@ -3,6 +3,7 @@ package com.mesosphere.sdk.http.types;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 import com.mesosphere.sdk.specification.PodInstance;
+import com.mesosphere.sdk.state.StateSnapshot;
 import com.mesosphere.sdk.state.StateStore;
 
 import org.apache.mesos.Protos.TaskID;
@@ -83,6 +84,13 @@ public final class GroupedTasks {
     return new GroupedTasks(stateStore.fetchTasks(), stateStore.fetchStatuses());
   }
 
+  /**
+   * Returns a new instance which contains all the tasks/statuses in the provided {@link StateSnapshot}.
+   */
+  public static GroupedTasks create(StateSnapshot snapshot) {
+    return new GroupedTasks(snapshot.getTasks(), snapshot.getStatuses());
+  }
+
   public Optional<Collection<TaskInfoAndStatus>> getPodInstanceTasks(String podInstanceName) {
     for (Map.Entry<String, Map<Integer, List<TaskInfoAndStatus>>> pod :
         byPodTypeAndIndex.entrySet())
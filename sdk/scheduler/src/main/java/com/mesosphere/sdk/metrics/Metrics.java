@@ -2,6 +2,7 @@ package com.mesosphere.sdk.metrics;
 
 import com.mesosphere.sdk.offer.OfferRecommendation;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.scheduler.SchedulerUtils;
 import com.mesosphere.sdk.scheduler.plan.Status;
 
 import com.codahale.metrics.Gauge;
@@ -15,14 +16,19 @@ import org.apache.mesos.Protos;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class encapsulates the components necessary for tracking Scheduler metrics.
  */
+@SuppressWarnings("checkstyle:MethodCount")
 public final class Metrics {
 
   // Offers
@@ -40,15 +46,78 @@ public final class Metrics {
 
   static final String DECLINE_LONG = "declines.long";
 
+  private static final String OFFER_QUEUE_DEPTH = "offers.queue.depth";
+
+  static final String OFFER_QUEUE_WAIT = "offers.queue.wait";
+
+  static final String OFFERS_EXPIRED = "offers.queue.expired";
+
+  static final String OFFERS_RESCINDED_QUEUED = "offers.rescinded.queued";
+
+  static final String OFFERS_RESCINDED_AFTER_EVALUATION = "offers.rescinded.after_evaluation";
+
+  static final String OFFERS_HELD = "offers.held";
+
+  static final String HELD_OFFER_HITS = "offers.held.hits";
+
+  static final String HELD_OFFERS_DROPPED = "offers.held.dropped";
+
+  // Config cache
+  static final String CONFIG_CACHE_HITS = "configs.cache.hits";
+
+  static final String CONFIG_CACHE_MISSES = "configs.cache.misses";
+
+  // Persister
+  static final String PERSISTER_WRITE_BATCH_SIZE = "persister.writes.batch_size";
+
+  static final String PERSISTER_CACHE_LOAD = "persister.cache.load";
+
+  static final String PERSISTER_WATCH_EVENTS = "persister.watch.events";
+
+  static final String PERSISTER_WATCH_LAG = "persister.watch.lag";
+
+  private static final String PERSISTER_WATCH_STALE = "persister.watch.stale";
+
+  static final String PERSISTER_CODEC_ENCODE = "persister.codec.encode";
+
+  static final String PERSISTER_CODEC_DECODE = "persister.codec.decode";
+
+  static final String PERSISTER_CODEC_RATIO = "persister.codec.ratio_percent";
+
+  static final String PERSISTER_CODEC_BYTES_SAVED = "persister.codec.bytes_saved";
+
+  // Task statuses
+  static final String STATUS_BATCH_SIZE = "task_statuses.batch_size";
+
+  static final String STATUSES_PROCESSED = "task_statuses.processed";
+
+  static final String STATUSES_COALESCED = "task_statuses.coalesced";
+
+  static final String STATUS_LATENCY = "task_statuses.latency";
+
+  // Multi-service recovery
+  static final String SERVICE_RECOVERY_BUILD = "services.recovery.build";
+
+  static final String SERVICE_RECOVERY_FAILURES = "services.recovery.failures";
+
   // Suppress
   private static final String SUPPRESSES = "suppresses";
 
   private static final String IS_SUPPRESSED = "is_suppressed";
 
+  // Roles: Each of the above offer/revive/suppress metrics is also tracked per role, as "roles.<role>.<metric>"
+  private static final String ROLES = "roles";
+
   private static final MetricRegistry METRICS = new MetricRegistry();
 
   private static final AtomicBoolean isSuppressed = new AtomicBoolean(false);
 
+  private static final Map<String, AtomicBoolean> isRoleSuppressed = new ConcurrentHashMap<>();
+
+  private static final AtomicBoolean isPersisterWatchStale = new AtomicBoolean(false);
+
+  private static final AtomicInteger offerQueueDepth = new AtomicInteger(0);
+
   private Metrics() {
   }
 
@@ -61,6 +130,18 @@ public final class Metrics {
         return isSuppressed.get();
       }
     });
+    METRICS.register(PERSISTER_WATCH_STALE, new Gauge<Boolean>() {
+      @Override
+      public Boolean getValue() {
+        return isPersisterWatchStale.get();
+      }
+    });
+    METRICS.register(OFFER_QUEUE_DEPTH, new Gauge<Integer>() {
+      @Override
+      public Integer getValue() {
+        return offerQueueDepth.get();
+      }
+    });
   }
 
   public static MetricRegistry getRegistry() {
@@ -101,6 +182,10 @@ public final class Metrics {
     METRICS.counter(RECEIVED_OFFERS).inc(amount);
   }
 
+  public static void incrementReceivedOffers(String role, long amount) {
+    METRICS.counter(getRoleMetricName(role, RECEIVED_OFFERS)).inc(amount);
+  }
+
   // Revive
 
   public static void incrementProcessedOffers(long amount) {
@@ -115,25 +200,98 @@ public final class Metrics {
     return METRICS.timer(PROCESS_OFFERS).time();
   }
 
+  /**
+   * Sets the number of offers which are waiting in the offer queue to be evaluated.
+   */
+  public static void setOfferQueueDepth(int depth) {
+    Metrics.offerQueueDepth.set(depth);
+  }
+
+  /**
+   * Records the time between an offer being received from Mesos and it being taken from the queue for evaluation.
+   */
+  public static void recordOfferQueueWait(Duration waitTime) {
+    METRICS.timer(OFFER_QUEUE_WAIT).update(waitTime.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Increments the number of offers which were declined without evaluation because they had been queued for too long.
+   */
+  public static void incrementExpiredOffers(long amount) {
+    METRICS.counter(OFFERS_EXPIRED).inc(amount);
+  }
+
+  /**
+   * Increments the number of offers which were rescinded by Mesos.
+   *
+   * @param afterEvaluation whether the offer had already been taken from the queue for evaluation, in which case any
+   *                        operations against the offer will fail
+   */
+  public static void incrementRescindedOffers(boolean afterEvaluation) {
+    METRICS.counter(afterEvaluation ? OFFERS_RESCINDED_AFTER_EVALUATION : OFFERS_RESCINDED_QUEUED).inc();
+  }
+
+  /**
+   * Increments the number of unused offers which were held for later evaluation, rather than being declined. The
+   * hit rate of the holding pool is the ratio of {@link #incrementHeldOfferHits(long)} to this.
+   */
+  public static void incrementHeldOffers(long amount) {
+    METRICS.counter(OFFERS_HELD).inc(amount);
+  }
+
+  /**
+   * Increments the number of held offers which were then used by the service(s).
+   */
+  public static void incrementHeldOfferHits(long amount) {
+    METRICS.counter(HELD_OFFER_HITS).inc(amount);
+  }
+
+  /**
+   * Increments the number of held offers which were dropped from the holding pool without being used, for the
+   * provided reason, e.g. {@code expired}.
+   */
+  public static void incrementHeldOffersDropped(String reason, long amount) {
+    METRICS.counter(String.format("%s.%s", HELD_OFFERS_DROPPED, reason)).inc(amount);
+  }
+
   public static void notSuppressed() {
     Metrics.isSuppressed.set(false);
   }
 
+  public static void notSuppressed(String role) {
+    getRoleSuppressed(role).set(false);
+  }
+
   public static void incrementSuppresses() {
     METRICS.counter(SUPPRESSES).inc();
     Metrics.isSuppressed.set(true);
   }
 
+  public static void incrementSuppresses(Collection<String> roles) {
+    for (String role : roles) {
+      METRICS.counter(getRoleMetricName(role, SUPPRESSES)).inc();
+      getRoleSuppressed(role).set(true);
+    }
+  }
+
   // Decline
 
   public static void incrementRevives() {
     METRICS.counter(REVIVES).inc();
   }
 
+  public static void incrementRevives(Collection<String> roles) {
+    roles.forEach(role -> METRICS.counter(getRoleMetricName(role, REVIVES)).inc());
+  }
+
   public static void incrementReviveThrottles() {
     METRICS.counter(REVIVE_THROTTLES).inc();
   }
 
+  public static void incrementReviveThrottles(String role) {
+    METRICS.counter(getRoleMetricName(role, REVIVE_THROTTLES)).inc();
+  }
+
   public static void incrementDeclinesShort(long amount) {
     METRICS.counter(DECLINE_SHORT).inc(amount);
   }
@@ -142,6 +300,110 @@ public final class Metrics {
     METRICS.counter(DECLINE_LONG).inc(amount);
   }
 
+  // Config cache
+
+  public static void incrementConfigCacheHits() {
+    METRICS.counter(CONFIG_CACHE_HITS).inc();
+  }
+
+  public static void incrementConfigCacheMisses() {
+    METRICS.counter(CONFIG_CACHE_MISSES).inc();
+  }
+
+  // Persister
+
+  /**
+   * Records the number of writes which were coalesced into a single persister transaction.
+   */
+  public static void updatePersisterWriteBatchSize(int size) {
+    METRICS.histogram(PERSISTER_WRITE_BATCH_SIZE).update(size);
+  }
+
+  /**
+   * Records the time spent loading the provided phase of the persister cache, e.g. {@code services}.
+   */
+  public static void recordPersisterCacheLoad(String phase, Duration duration) {
+    METRICS.timer(String.format("%s.%s", PERSISTER_CACHE_LOAD, phase)).update(duration.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  public static void incrementPersisterWatchEvents() {
+    METRICS.counter(PERSISTER_WATCH_EVENTS).inc();
+  }
+
+  /**
+   * Records the time between a change being made in ZooKeeper and the change being applied to the persister cache.
+   */
+  public static void recordPersisterWatchLag(Duration lag) {
+    METRICS.timer(PERSISTER_WATCH_LAG).update(lag.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Sets whether the persister cache is disconnected from ZooKeeper, such that it may be missing recent changes.
+   */
+  public static void setPersisterWatchStale(boolean stale) {
+    Metrics.isPersisterWatchStale.set(stale);
+  }
+
+  /**
+   * Records a value which was written via {@code CompressingPersister} and was large enough to be encoded.
+   *
+   * @param originalLength the length of the value which was provided
+   * @param storedLength   the length of the value which was stored, which is no greater than the original length
+   * @param duration       the time spent encoding the value
+   */
+  public static void recordPersisterEncode(int originalLength, int storedLength, Duration duration) {
+    METRICS.timer(PERSISTER_CODEC_ENCODE).update(duration.toNanos(), TimeUnit.NANOSECONDS);
+    METRICS.histogram(PERSISTER_CODEC_RATIO).update(100L * storedLength / originalLength);
+    METRICS.counter(PERSISTER_CODEC_BYTES_SAVED).inc(originalLength - storedLength);
+  }
+
+  /**
+   * Records the time spent decoding a value which was read via {@code CompressingPersister}.
+   */
+  public static void recordPersisterDecode(Duration duration) {
+    METRICS.timer(PERSISTER_CODEC_DECODE).update(duration.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  // Multi-service recovery
+
+  /**
+   * Records the time spent rebuilding a service while recovering a multi-service scheduler. The duration is tracked
+   * both across all services and for the individual service, so that any slow services can be identified.
+   *
+   * @param serviceName the name of the service, as stored in the {@code ServiceStore}
+   * @param duration    the time spent rebuilding the service, whether or not it succeeded
+   * @param success     whether the service was successfully rebuilt
+   */
+  public static void recordServiceRecovery(String serviceName, Duration duration, boolean success) {
+    METRICS.timer(SERVICE_RECOVERY_BUILD).update(duration.toNanos(), TimeUnit.NANOSECONDS);
+    METRICS.timer(String.format("%s.%s", SERVICE_RECOVERY_BUILD, serviceName))
+        .update(duration.toNanos(), TimeUnit.NANOSECONDS);
+    if (!success) {
+      METRICS.counter(SERVICE_RECOVERY_FAILURES).inc();
+    }
+  }
+
+  // Task statuses
+
+  /**
+   * Records a batch of task statuses which were received from Mesos and stored together.
+   *
+   * @param receivedCount  the number of statuses which were received
+   * @param processedCount the number of statuses which were processed, after superseded statuses were dropped
+   */
+  public static void recordStatusBatch(int receivedCount, int processedCount) {
+    METRICS.histogram(STATUS_BATCH_SIZE).update(receivedCount);
+    METRICS.meter(STATUSES_PROCESSED).mark(receivedCount);
+    METRICS.counter(STATUSES_COALESCED).inc(receivedCount - processedCount);
+  }
+
+  /**
+   * Records the time between a task status being received from Mesos and it being acknowledged.
+   */
+  public static void recordStatusLatency(Duration latency) {
+    METRICS.timer(STATUS_LATENCY).update(latency.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
   public static void incrementRecommendations(Collection<OfferRecommendation> recommendations) {
     for (OfferRecommendation recommendation : recommendations) {
       recommendation.getOperation().ifPresent(operation -> {
@@ -163,6 +425,24 @@ public final class Metrics {
         .inc();
   }
 
+  /**
+   * Returns the per-role variant of the provided metric name. Any slashes in hierarchical roles are escaped.
+   */
+  private static String getRoleMetricName(String role, String metricName) {
+    return String.format("%s.%s.%s", ROLES, role.replace("/", SchedulerUtils.SLASH_REPLACEMENT), metricName);
+  }
+
+  /**
+   * Returns the suppressed state for the provided role, registering a gauge for it if needed.
+   */
+  private static AtomicBoolean getRoleSuppressed(String role) {
+    return isRoleSuppressed.computeIfAbsent(role, r -> {
+      AtomicBoolean roleSuppressed = new AtomicBoolean(false);
+      METRICS.register(getRoleMetricName(r, IS_SUPPRESSED), (Gauge<Boolean>) roleSuppressed::get);
+      return roleSuppressed;
+    });
+  }
+
   public static void updatePlanStatus(Optional<String> namespace, String planName, Status status) {
     final String metricName = namespace.isPresent()
         ? String.format("plan_status.%s.%s", namespace.get(), planName)
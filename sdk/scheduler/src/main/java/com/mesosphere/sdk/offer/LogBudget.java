@@ -0,0 +1,33 @@
+package com.mesosphere.sdk.offer;
+
+/**
+ * Limits how many entries are logged in full within a single offer cycle. Entries which are over budget should only
+ * be summarized at INFO, with their full details logged at DEBUG.
+ *
+ * <p>This class is not thread-safe.
+ */
+public final class LogBudget {
+
+  private int remaining;
+
+  /**
+   * Creates a new budget for the provided number of entries, where {@code <0} means that there's no limit.
+   */
+  public LogBudget(int budget) {
+    this.remaining = budget;
+  }
+
+  /**
+   * Returns whether another entry may be logged in full. If so, the entry is counted against the budget.
+   */
+  public boolean consume() {
+    if (remaining < 0) {
+      return true;
+    }
+    if (remaining == 0) {
+      return false;
+    }
+    --remaining;
+    return true;
+  }
+}
@@ -1,10 +1,13 @@
 package com.mesosphere.sdk.offer;
 
+import com.google.protobuf.MessageOrBuilder;
+import com.google.protobuf.TextFormat;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Utility methods around construction of loggers.
@@ -44,6 +47,27 @@ public final class LoggingUtils {
     return name.isPresent() ? getLogger(clazz, name.get()) : getLogger(clazz);
   }
 
+  /**
+   * Returns a logging argument which renders the provided string when it's logged. Loggers only render their
+   * arguments if the log level is enabled, so this avoids building strings which would be discarded.
+   */
+  public static Object lazy(Supplier<String> supplier) {
+    return new Object() {
+      @Override
+      public String toString() {
+        return supplier.get();
+      }
+    };
+  }
+
+  /**
+   * Returns a logging argument which renders the provided protobuf message with
+   * {@link TextFormat#shortDebugString(MessageOrBuilder)} when it's logged.
+   */
+  public static Object lazyShortDebugString(MessageOrBuilder message) {
+    return lazy(() -> TextFormat.shortDebugString(message));
+  }
+
   /**
    * Returns a class name suitable for using in logs.
    *
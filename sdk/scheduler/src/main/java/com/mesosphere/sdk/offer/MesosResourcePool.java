@@ -44,8 +44,10 @@ public class MesosResourcePool {
    * mem: 256
    * "slave_public" --> cpus: 1.0
    * mem: 128
+   * <p>
+   * Values are tracked as {@link MutableValue}s, which are updated in place as resources are consumed or freed.
    */
-  private Map<String, Map<String, Value>> reservableMergedPoolByRole;
+  private Map<String, Map<String, MutableValue>> reservableMergedPoolByRole;
 
   /**
    * Creates a new pool of resources based on what's available in the provided {@link Offer}.
@@ -65,8 +67,7 @@ public class MesosResourcePool {
       return false;
     }
 
-    Value difference = ValueUtils.subtract(desired, available);
-    return ValueUtils.compare(difference, ValueUtils.getZero(desired.getType())) <= 0;
+    return MutableValue.of(available).contains(desired);
   }
 
   private static boolean matchAnyProfile(List<String> desired, Optional<String> actual) {
@@ -130,22 +131,27 @@ public class MesosResourcePool {
     return reservedPool;
   }
 
-  private static Map<String, Value> getResourcePool(Collection<MesosResource> mesosResources) {
-    Map<String, Value> pool = new HashMap<>();
+  private static Map<String, MutableValue> getResourcePool(Collection<MesosResource> mesosResources) {
+    Map<String, MutableValue> pool = new HashMap<>();
     for (MesosResource mesosResource : mesosResources) {
-      String name = mesosResource.getName();
-      Value currValue = pool.get(name);
-
-      if (currValue == null) {
-        currValue = ValueUtils.getZero(mesosResource.getType());
-      }
-
-      pool.put(name, ValueUtils.add(currValue, mesosResource.getValue()));
+      pool.computeIfAbsent(mesosResource.getName(), name -> MutableValue.zero(mesosResource.getType()))
+          .add(mesosResource.getResource());
     }
 
     return pool;
   }
 
+  private static Map<String, Value> toValues(Map<String, MutableValue> pool) {
+    if (pool == null) {
+      return Collections.emptyMap();
+    }
+    Map<String, Value> values = new HashMap<>();
+    for (Map.Entry<String, MutableValue> entry : pool.entrySet()) {
+      values.put(entry.getKey(), entry.getValue().toProto());
+    }
+    return values;
+  }
+
   private static Collection<MesosResource> getUnreservedAtomicResources(
       Collection<MesosResource> mesosResources)
   {
@@ -218,21 +224,29 @@ public class MesosResourcePool {
   }
 
   /**
-   * Returns the resources which are reservable.  These may have been pre-reserved (dynamically or statically) or
-   * never reserved.
+   * Returns a snapshot of the resources which are reservable.  These may have been pre-reserved (dynamically or
+   * statically) or never reserved.
    */
   public Map<String, Map<String, Value>> getReservableMergedPoolByRole() {
-    return reservableMergedPoolByRole;
+    Map<String, Map<String, Value>> pools = new HashMap<>();
+    for (Map.Entry<String, Map<String, MutableValue>> entry : reservableMergedPoolByRole.entrySet()) {
+      pools.put(entry.getKey(), toValues(entry.getValue()));
+    }
+    return pools;
   }
 
+  /**
+   * Returns a snapshot of the unreserved resources which are reservable.
+   */
   public Map<String, Value> getUnreservedMergedPool() {
-    Map<String, Value> pool = reservableMergedPoolByRole.get(Constants.ANY_ROLE);
-    return pool == null ? Collections.emptyMap() : pool;
+    return toValues(reservableMergedPoolByRole.get(Constants.ANY_ROLE));
   }
 
+  /**
+   * Returns a snapshot of the reservable resources for the provided pre-reserved role.
+   */
   public Map<String, Value> getUnreservedMergedPoolByRole(String preReservedRole) {
-    Map<String, Value> pool = reservableMergedPoolByRole.get(preReservedRole);
-    return pool == null ? Collections.emptyMap() : pool;
+    return toValues(reservableMergedPoolByRole.get(preReservedRole));
   }
 
   /**
@@ -332,18 +346,18 @@ public class MesosResourcePool {
       Value desiredValue,
       String preReservedRole)
   {
-    Map<String, Value> pool = reservableMergedPoolByRole.get(preReservedRole);
+    Map<String, MutableValue> pool = reservableMergedPoolByRole.get(preReservedRole);
     if (pool == null) {
       LOGGER.info("No unreserved resources available for role '{}'. Reservable roles are: {}",
           preReservedRole, reservableMergedPoolByRole.keySet());
       return Optional.empty();
     }
 
-    Value availableValue = pool.get(name);
+    MutableValue availableValue = pool.get(name);
 
-    if (sufficientValue(desiredValue, availableValue)) {
-      pool.put(name, ValueUtils.subtract(availableValue, desiredValue));
-      reservableMergedPoolByRole.put(preReservedRole, pool);
+    if (availableValue != null && availableValue.contains(desiredValue)) {
+      // Updated in place: the offered value is only converted back to a protobuf if it's requested.
+      availableValue.subtract(desiredValue);
 
       Resource.Builder builder =
           ResourceBuilder.fromUnreservedValue(name, desiredValue).build().toBuilder();
@@ -365,7 +379,7 @@ public class MesosResourcePool {
             name,
             preReservedRole,
             TextFormat.shortDebugString(desiredValue),
-            TextFormat.shortDebugString(availableValue));
+            availableValue);
       }
       return Optional.empty();
     }
@@ -389,20 +403,10 @@ public class MesosResourcePool {
           !dynamicallyReservedPoolByResourceId.containsKey(mesosResource.getResourceId().get()));
     }
 
-    String previousRole = mesosResource.getPreviousRole();
-    Map<String, Value> pool = reservableMergedPoolByRole.get(previousRole);
-    if (pool == null) {
-      pool = new HashMap<>();
-    }
-
-    Value currValue = pool.get(mesosResource.getName());
-    if (currValue == null) {
-      currValue = ValueUtils.getZero(mesosResource.getType());
-    }
-
-    Value updatedValue = ValueUtils.add(currValue, mesosResource.getValue());
-    pool.put(mesosResource.getName(), updatedValue);
-    reservableMergedPoolByRole.put(previousRole, pool);
+    reservableMergedPoolByRole
+        .computeIfAbsent(mesosResource.getPreviousRole(), role -> new HashMap<>())
+        .computeIfAbsent(mesosResource.getName(), name -> MutableValue.zero(mesosResource.getType()))
+        .add(mesosResource.getResource());
   }
 
   @SuppressWarnings("deprecation")
@@ -429,7 +433,7 @@ public class MesosResourcePool {
     unreservedAtomicPool.put(mesosResource.getName(), resList);
   }
 
-  private Map<String, Map<String, Value>> getReservableMergedPool(
+  private Map<String, Map<String, MutableValue>> getReservableMergedPool(
       Collection<MesosResource> mesosResources)
   {
     Map<String, List<MesosResource>> rolePool = new HashMap<>();
@@ -446,7 +450,7 @@ public class MesosResourcePool {
       }
     }
 
-    Map<String, Map<String, Value>> roleResourcePool = new HashMap<>();
+    Map<String, Map<String, MutableValue>> roleResourcePool = new HashMap<>();
     for (Map.Entry<String, List<MesosResource>> entry : rolePool.entrySet()) {
       roleResourcePool.put(entry.getKey(), getResourcePool(entry.getValue()));
     }
@@ -0,0 +1,318 @@
+package com.mesosphere.sdk.offer;
+
+import com.google.protobuf.MessageOrBuilder;
+import com.google.protobuf.TextFormat;
+import org.apache.mesos.Protos.Resource;
+import org.apache.mesos.Protos.Value;
+import org.apache.mesos.Protos.Value.Range;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A mutable, primitive-backed equivalent of a {@link Value}, for tracking quantities which are repeatedly added to or
+ * subtracted from, such as the merged resources in a {@link MesosResourcePool}. Updates are performed in place,
+ * and a {@link Value} protobuf is only built when {@link #toProto()} is called.
+ * <p>
+ * Scalars are stored as fixed-point longs with three decimal places, matching the precision which Mesos itself uses
+ * for scalar resources. Ranges are stored as a sorted array of non-overlapping, non-adjacent {@code [begin, end]}
+ * pairs. Only {@link Value.Type#SCALAR} and {@link Value.Type#RANGES} values are supported.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class MutableValue {
+
+  /**
+   * The number of fixed-point units per 1.0 of a scalar value.
+   */
+  private static final long SCALAR_UNITS = 1000;
+
+  private static final int INITIAL_RANGES_CAPACITY = 4;
+
+  private final Value.Type type;
+
+  private long scalarUnits;
+
+  /**
+   * Pairs of {@code [begin, end]} values, where only the first {@code rangeCount * 2} entries are in use.
+   */
+  private long[] ranges;
+
+  private int rangeCount;
+
+  /**
+   * The most recently materialized protobuf, or {@code null} if the value has changed since then.
+   */
+  private Value proto;
+
+  private MutableValue(Value.Type type) {
+    this.type = type;
+    switch (type) {
+      case SCALAR:
+        break;
+      case RANGES:
+        this.ranges = new long[INITIAL_RANGES_CAPACITY * 2];
+        break;
+      default:
+        throw new IllegalArgumentException(String.format("Unsupported type %s for mutable value", type));
+    }
+  }
+
+  /**
+   * Returns a new zero value of the provided type.
+   *
+   * @throws IllegalArgumentException if the type is neither {@code SCALAR} nor {@code RANGES}
+   */
+  public static MutableValue zero(Value.Type type) {
+    return new MutableValue(type);
+  }
+
+  /**
+   * Returns a new value which is equal to the provided {@link Value}.
+   *
+   * @throws IllegalArgumentException if the type is neither {@code SCALAR} nor {@code RANGES}
+   */
+  public static MutableValue of(Value value) {
+    MutableValue mutableValue = new MutableValue(value.getType());
+    mutableValue.add(value);
+    return mutableValue;
+  }
+
+  public Value.Type getType() {
+    return type;
+  }
+
+  /**
+   * Adds the provided value to this value. Ranges are merged.
+   *
+   * @throws IllegalArgumentException if the provided value has a different type
+   */
+  public void add(Value value) {
+    checkType(value.getType(), value);
+    if (type == Value.Type.SCALAR) {
+      addScalar(value.getScalar());
+    } else {
+      addRanges(value.getRanges().getRangeList());
+    }
+  }
+
+  /**
+   * Adds the value of the provided resource to this value, without building an intermediate {@link Value}.
+   *
+   * @throws IllegalArgumentException if the provided resource has a different type
+   */
+  public void add(Resource resource) {
+    checkType(resource.getType(), resource);
+    if (type == Value.Type.SCALAR) {
+      addScalar(resource.getScalar());
+    } else {
+      addRanges(resource.getRanges().getRangeList());
+    }
+  }
+
+  /**
+   * Subtracts the provided value from this value. For ranges, any of the provided ranges which aren't present in this
+   * value are ignored.
+   *
+   * @throws IllegalArgumentException if the provided value has a different type
+   */
+  public void subtract(Value value) {
+    checkType(value.getType(), value);
+    proto = null;
+    if (type == Value.Type.SCALAR) {
+      scalarUnits -= toUnits(value.getScalar().getValue());
+    } else {
+      for (Range range : value.getRanges().getRangeList()) {
+        subtractRange(range.getBegin(), range.getEnd());
+      }
+    }
+  }
+
+  /**
+   * Returns whether this value is large enough to have the provided value subtracted from it. For scalars this means
+   * being at least as large as the provided value, and for ranges it means that all of the provided ranges are
+   * present in this value.
+   *
+   * @throws IllegalArgumentException if the provided value has a different type
+   */
+  public boolean contains(Value value) {
+    checkType(value.getType(), value);
+    if (type == Value.Type.SCALAR) {
+      return toUnits(value.getScalar().getValue()) <= scalarUnits;
+    }
+    for (Range range : value.getRanges().getRangeList()) {
+      if (!containsRange(range.getBegin(), range.getEnd())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns a {@link Value} protobuf representation of this value. The returned protobuf is reused until this value
+   * is next modified.
+   */
+  public Value toProto() {
+    if (proto == null) {
+      Value.Builder builder = Value.newBuilder().setType(type);
+      if (type == Value.Type.SCALAR) {
+        builder.getScalarBuilder().setValue((double) scalarUnits / SCALAR_UNITS);
+      } else {
+        Value.Ranges.Builder rangesBuilder = builder.getRangesBuilder();
+        for (int i = 0; i < rangeCount; ++i) {
+          rangesBuilder.addRangeBuilder().setBegin(ranges[i * 2]).setEnd(ranges[i * 2 + 1]);
+        }
+      }
+      proto = builder.build();
+    }
+    return proto;
+  }
+
+  @Override
+  public String toString() {
+    return TextFormat.shortDebugString(toProto());
+  }
+
+  private void checkType(Value.Type otherType, MessageOrBuilder other) {
+    if (type != otherType) {
+      throw new IllegalArgumentException(String.format(
+          "Value of type %s does not match type %s: %s", otherType, type, TextFormat.shortDebugString(other)));
+    }
+  }
+
+  private void addScalar(Value.Scalar scalar) {
+    proto = null;
+    scalarUnits += toUnits(scalar.getValue());
+  }
+
+  /**
+   * Merges the provided ranges into the current ranges, flattening any overlapping or adjacent ranges.
+   */
+  private void addRanges(List<Range> toAdd) {
+    if (toAdd.isEmpty()) {
+      return;
+    }
+    proto = null;
+
+    // Combine the current and new ranges, sort by begin, then flatten in a single pass.
+    long[] combined = Arrays.copyOf(ranges, (rangeCount + toAdd.size()) * 2);
+    int count = rangeCount;
+    for (Range range : toAdd) {
+      combined[count * 2] = range.getBegin();
+      combined[count * 2 + 1] = range.getEnd();
+      ++count;
+    }
+    sortPairs(combined, count);
+
+    int merged = 0;
+    for (int i = 0; i < count; ++i) {
+      long begin = combined[i * 2];
+      long end = combined[i * 2 + 1];
+      if (merged > 0 && begin <= combined[merged * 2 - 1] + 1) {
+        combined[merged * 2 - 1] = Math.max(combined[merged * 2 - 1], end);
+      } else {
+        combined[merged * 2] = begin;
+        combined[merged * 2 + 1] = end;
+        ++merged;
+      }
+    }
+    ranges = combined;
+    rangeCount = merged;
+  }
+
+  /**
+   * Removes {@code [begin, end]} from the current ranges in place, splitting a range if needed.
+   */
+  private void subtractRange(long begin, long end) {
+    int i = firstRangeEndingAtOrAfter(begin);
+    if (i == rangeCount || ranges[i * 2] > end) {
+      // Nothing to remove
+      return;
+    }
+
+    long currentBegin = ranges[i * 2];
+    long currentEnd = ranges[i * 2 + 1];
+    if (currentBegin < begin && currentEnd > end) {
+      // The removed range is strictly inside this range: split it in two.
+      ensureCapacity(rangeCount + 1);
+      System.arraycopy(ranges, (i + 1) * 2, ranges, (i + 2) * 2, (rangeCount - i - 1) * 2);
+      ranges[i * 2 + 1] = begin - 1;
+      ranges[(i + 1) * 2] = end + 1;
+      ranges[(i + 1) * 2 + 1] = currentEnd;
+      ++rangeCount;
+      return;
+    }
+
+    if (currentBegin < begin) {
+      // Keep the head of this range, and continue removing from the following range.
+      ranges[i * 2 + 1] = begin - 1;
+      ++i;
+    }
+
+    // Drop any ranges which are entirely covered, then trim the head of the last range if it's partially covered.
+    int j = i;
+    while (j < rangeCount && ranges[j * 2 + 1] <= end) {
+      ++j;
+    }
+    if (j < rangeCount && ranges[j * 2] <= end) {
+      ranges[j * 2] = end + 1;
+    }
+    if (j > i) {
+      System.arraycopy(ranges, j * 2, ranges, i * 2, (rangeCount - j) * 2);
+      rangeCount -= j - i;
+    }
+  }
+
+  private boolean containsRange(long begin, long end) {
+    // Adjacent ranges are always merged, so a covered range must fall within a single stored range.
+    int i = firstRangeEndingAtOrAfter(end);
+    return i < rangeCount && ranges[i * 2] <= begin;
+  }
+
+  /**
+   * Returns the index of the first range whose end is at or after the provided value, or {@code rangeCount} if there
+   * is none.
+   */
+  private int firstRangeEndingAtOrAfter(long value) {
+    int low = 0;
+    int high = rangeCount;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (ranges[mid * 2 + 1] < value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private void ensureCapacity(int count) {
+    if (ranges.length < count * 2) {
+      ranges = Arrays.copyOf(ranges, Math.max(count, rangeCount * 2) * 2);
+    }
+  }
+
+  /**
+   * Sorts the first {@code count} {@code [begin, end]} pairs by begin. Range lists in offers are short and almost
+   * always already sorted, so a simple insertion sort is used.
+   */
+  private static void sortPairs(long[] pairs, int count) {
+    for (int i = 1; i < count; ++i) {
+      long begin = pairs[i * 2];
+      long end = pairs[i * 2 + 1];
+      int j = i - 1;
+      while (j >= 0 && pairs[j * 2] > begin) {
+        pairs[(j + 1) * 2] = pairs[j * 2];
+        pairs[(j + 1) * 2 + 1] = pairs[j * 2 + 1];
+        --j;
+      }
+      pairs[(j + 1) * 2] = begin;
+      pairs[(j + 1) * 2 + 1] = end;
+    }
+  }
+
+  private static long toUnits(double value) {
+    return Math.round(value * SCALAR_UNITS);
+  }
+}
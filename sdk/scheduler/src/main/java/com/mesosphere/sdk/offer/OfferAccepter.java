@@ -3,7 +3,6 @@ package com.mesosphere.sdk.offer;
 import com.mesosphere.sdk.framework.Driver;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.protobuf.TextFormat;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.mesos.Protos;
 import org.slf4j.Logger;
@@ -29,6 +28,23 @@ public class OfferAccepter {
   private static final Protos.Filters FILTERS =
       Protos.Filters.newBuilder().setRefuseSeconds(1).build();
 
+  private final int logBudget;
+
+  /**
+   * Creates a new instance which logs all accepted operations in full.
+   */
+  public OfferAccepter() {
+    this(-1);
+  }
+
+  /**
+   * Creates a new instance which logs up to {@code logBudget} accepted operations in full at INFO per call to
+   * {@link #accept(List)}, or all of them if {@code <0}. Any further operations are only logged in full at DEBUG.
+   */
+  public OfferAccepter(int logBudget) {
+    this.logBudget = logBudget;
+  }
+
   /**
    * Groups recommendations by agent, while preserving their existing order.
    */
@@ -50,7 +66,8 @@ public class OfferAccepter {
   private static void logOperations(
       String agentId,
       Collection<Protos.OfferID> offerIds,
-      Collection<Protos.Offer.Operation> operations)
+      Collection<Protos.Offer.Operation> operations,
+      LogBudget logBudget)
   {
     LOGGER.info("Accepting {} offer{} for agent {} with {} operation{}: {}",
         offerIds.size(),
@@ -59,8 +76,20 @@ public class OfferAccepter {
         operations.size(),
         operations.size() == 1 ? "" : "s",
         offerIds.stream().map(Protos.OfferID::getValue).collect(Collectors.toSet()));
+    List<Protos.Offer.Operation.Type> omittedTypes = new ArrayList<>();
     for (Protos.Offer.Operation op : operations) {
-      LOGGER.info("  {}", TextFormat.shortDebugString(op));
+      if (logBudget.consume()) {
+        LOGGER.info("  {}", LoggingUtils.lazyShortDebugString(op));
+      } else {
+        omittedTypes.add(op.getType());
+        LOGGER.debug("  {}", LoggingUtils.lazyShortDebugString(op));
+      }
+    }
+    if (!omittedTypes.isEmpty()) {
+      LOGGER.info("  Details of {} more operation{} are logged at DEBUG: {}",
+          omittedTypes.size(),
+          omittedTypes.size() == 1 ? "" : "s",
+          omittedTypes);
     }
   }
 
@@ -74,6 +103,7 @@ public class OfferAccepter {
     //    The resource lifecycle is RESERVE -> CREATE -> DESTROY -> UNRESERVE
     //    Therefore we must preserve ordering within each per-agent set of operations.
     final Map<String, List<OfferRecommendation>> recsByAgent = groupByAgent(recommendations);
+    LogBudget budget = new LogBudget(logBudget);
     for (Map.Entry<String, List<OfferRecommendation>> agentRecs : recsByAgent.entrySet()) {
       Collection<Protos.Offer.Operation> operations = new ArrayList<>();
       Collection<Protos.OfferID> offerIds = new HashSet<>();
@@ -89,7 +119,7 @@ public class OfferAccepter {
       if (skippedOperations != 0) {
         LOGGER.info("Skipping {} recommendations with no operation", skippedOperations);
       }
-      logOperations(agentRecs.getKey(), offerIds, operations);
+      logOperations(agentRecs.getKey(), offerIds, operations, budget);
       Driver.getInstance().acceptOffers(offerIds, operations, FILTERS);
     }
   }
@@ -23,7 +23,6 @@ import com.mesosphere.sdk.state.ConfigStoreException;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.mesos.Protos;
 import org.apache.mesos.Protos.TaskInfo;
 import org.slf4j.Logger;
@@ -191,7 +190,7 @@ public final class TaskUtils {
       if (oldResourceSpec == null) {
         LOGGER.debug("Resource not found: {}", resourceName);
         return true;
-      } else if (!EqualsBuilder.reflectionEquals(oldResourceSpec, newEntry.getValue())) {
+      } else if (!oldResourceSpec.equals(newEntry.getValue())) {
         LOGGER.debug("Resources are different.");
         return true;
       }
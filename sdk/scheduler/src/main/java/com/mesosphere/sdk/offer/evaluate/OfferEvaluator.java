@@ -4,12 +4,14 @@ import com.mesosphere.sdk.debug.OfferOutcomeTrackerV2;
 import com.mesosphere.sdk.http.queries.ArtifactQueries;
 import com.mesosphere.sdk.offer.CommonIdUtils;
 import com.mesosphere.sdk.offer.InvalidRequirementException;
+import com.mesosphere.sdk.offer.LogBudget;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.MesosResourcePool;
 import com.mesosphere.sdk.offer.OfferRecommendation;
 import com.mesosphere.sdk.offer.ResourceUtils;
 import com.mesosphere.sdk.offer.TaskException;
 import com.mesosphere.sdk.offer.TaskUtils;
+import com.mesosphere.sdk.offer.evaluate.placement.PlacementIndex;
 import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
 import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
@@ -28,6 +30,7 @@ import com.mesosphere.sdk.state.GoalStateOverride;
 import com.mesosphere.sdk.state.StateStore;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.TextFormat;
 import org.apache.mesos.Protos;
 import org.slf4j.Logger;
@@ -46,6 +49,12 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -62,6 +71,17 @@ import java.util.stream.Collectors;
 })
 public class OfferEvaluator {
 
+  /**
+   * The duration that parallel evaluation threads are kept around while idle.
+   */
+  private static final long PARALLEL_EVALUATION_THREAD_IDLE_S = 60;
+
+  /**
+   * The maximum number of {@link EvaluationContext}s to retain. There is at most one context per pending step, so
+   * this only needs to exceed the number of steps which are evaluated between changes to the {@link StateStore}.
+   */
+  private static final int MAX_EVALUATION_CONTEXTS = 100;
+
   private final Logger logger;
 
   private final FrameworkStore frameworkStore;
@@ -80,6 +100,11 @@ public class OfferEvaluator {
 
   private final Optional<String> resourceNamespace;
 
+  private final Optional<ExecutorService> parallelExecutor;
+
+  // Offer-independent state for recently evaluated requirements. Access must be synchronized on the map.
+  private final Map<PodInstanceRequirement, EvaluationContext> evaluationContexts;
+
   private Optional<String> frameworkId;
 
   public OfferEvaluator(
@@ -102,10 +127,56 @@ public class OfferEvaluator {
     this.resourceNamespace = resourceNamespace;
     this.offerOutcomeTrackerV2 = offerOutcomeTrackerV2;
     this.frameworkId = Optional.empty();
+    this.evaluationContexts = new HashMap<>();
+    int parallelism = schedulerConfig.getOfferEvaluationParallelism();
+    this.parallelExecutor = parallelism > 1
+        ? Optional.of(newParallelExecutor(parallelism, resourceNamespace))
+        : Optional.empty();
+  }
+
+  /**
+   * Returns a bounded pool for evaluating offers in parallel. Threads are only started on demand, and are stopped
+   * again when idle, so that an idle service (or one of many services in a multi-service scheduler) doesn't retain
+   * them.
+   */
+  private static ExecutorService newParallelExecutor(int parallelism, Optional<String> resourceNamespace) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        parallelism,
+        parallelism,
+        PARALLEL_EVALUATION_THREAD_IDLE_S,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat(resourceNamespace.isPresent()
+                ? String.format("OfferEvaluator-%s-%%d", resourceNamespace.get())
+                : "OfferEvaluator-%d")
+            .build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   public List<OfferRecommendation> evaluate(PodInstanceRequirement podInstanceRequirement, List<Protos.Offer> offers)
       throws InvalidRequirementException, IOException
+  {
+    return evaluate(podInstanceRequirement, offers, newLogBudget());
+  }
+
+  /**
+   * Returns a new budget for logging offer evaluations in full, to be shared by all evaluations within an offer cycle.
+   */
+  public LogBudget newLogBudget() {
+    return new LogBudget(schedulerConfig.getOfferLogBudget());
+  }
+
+  /**
+   * Evaluates the provided offers against the requirement, with any logged evaluations counted against the provided
+   * budget for the current offer cycle.
+   */
+  public List<OfferRecommendation> evaluate(
+      PodInstanceRequirement podInstanceRequirement,
+      List<Protos.Offer> offers,
+      LogBudget logBudget) throws InvalidRequirementException, IOException
   {
     if (!this.frameworkId.isPresent()) {
       //On construction of OfferEvaluator above, we haven't subscribed to Mesos.
@@ -114,6 +185,42 @@ public class OfferEvaluator {
       this.frameworkId = Optional.of(frameworkStore.fetchFrameworkId().get().getValue());
     }
 
+    EvaluationContext context = getEvaluationContext(podInstanceRequirement);
+
+    if (parallelExecutor.isPresent() && offers.size() > 1 && isParallelizable(context.evaluationStages)) {
+      return evaluateParallel(podInstanceRequirement, offers, context, logBudget);
+    }
+
+    for (int i = 0; i < offers.size(); ++i) {
+      Protos.Offer offer = offers.get(i);
+      List<EvaluationOutcome> outcomes = evaluateOffer(podInstanceRequirement, offer, context);
+      Optional<List<OfferRecommendation>> recommendations =
+          processOutcomes(podInstanceRequirement, i, offer, context.evaluationStages.size(), outcomes, logBudget);
+      if (recommendations.isPresent()) {
+        return recommendations.get();
+      }
+    }
+
+    return Collections.emptyList();
+  }
+
+  /**
+   * Returns the offer-independent state for evaluating the provided requirement. This is reused across offers and
+   * across offer cycles, until the requirement's pod or tasks change, or until task data in the {@link StateStore}
+   * is modified. The target configuration doesn't need to be checked: a configuration change results in a new
+   * {@link OfferEvaluator}.
+   */
+  private EvaluationContext getEvaluationContext(PodInstanceRequirement podInstanceRequirement) throws IOException {
+    // Get the version before fetching any task data: if a write occurs while we're building the context, the context
+    // will have the older version and will be rebuilt on the next call.
+    long tasksVersion = stateStore.getTasksVersion();
+    synchronized (evaluationContexts) {
+      EvaluationContext context = evaluationContexts.get(podInstanceRequirement);
+      if (context != null && context.tasksVersion == tasksVersion) {
+        return context;
+      }
+    }
+
     // All tasks in the service (used by some PlacementRules):
     Map<String, Protos.TaskInfo> allTasks = stateStore.fetchTasks().stream()
         .collect(Collectors.toMap(Protos.TaskInfo::getName, Function.identity()));
@@ -124,106 +231,224 @@ public class OfferEvaluator {
             .filter(Objects::nonNull)
             .collect(Collectors.toMap(Protos.TaskInfo::getName, Function.identity()));
 
-    // Evaluation stages are stateless, so we can reuse them when evaluating multiple offers.
-    List<OfferEvaluationStage> evaluationStages =
-        getEvaluationPipeline(podInstanceRequirement, allTasks.values(), thisPodTasks);
-
-    for (int i = 0; i < offers.size(); ++i) {
-      Protos.Offer offer = offers.get(i);
-
-      MesosResourcePool resourcePool = new MesosResourcePool(
-          offer, OfferEvaluationUtils.getRole(podInstanceRequirement.getPodInstance().getPod()));
+    Map<TaskSpec, GoalStateOverride> overrideMap = new HashMap<>();
+    for (TaskSpec taskSpec : podInstanceRequirement.getPodInstance().getPod().getTasks()) {
+      GoalStateOverride override =
+          stateStore.fetchGoalOverrideStatus(
+              CommonIdUtils.getTaskInstanceName(podInstanceRequirement.getPodInstance(), taskSpec))
+              .target;
 
-      Map<TaskSpec, GoalStateOverride> overrideMap = new HashMap<>();
-      for (TaskSpec taskSpec : podInstanceRequirement.getPodInstance().getPod().getTasks()) {
-        GoalStateOverride override =
-            stateStore.fetchGoalOverrideStatus(
-                CommonIdUtils.getTaskInstanceName(podInstanceRequirement.getPodInstance(), taskSpec))
-                .target;
+      overrideMap.put(taskSpec, override);
+    }
 
-        overrideMap.put(taskSpec, override);
+    // Evaluation stages are stateless, so we can reuse them when evaluating multiple offers.
+    EvaluationContext context = new EvaluationContext(
+        tasksVersion,
+        thisPodTasks,
+        getEvaluationPipeline(podInstanceRequirement, allTasks.values(), thisPodTasks),
+        getTargetConfig(podInstanceRequirement, thisPodTasks),
+        overrideMap,
+        frameworkStore.fetchFrameworkId().get());
+    synchronized (evaluationContexts) {
+      // Contexts from before the latest write can't be used again.
+      evaluationContexts.values().removeIf(c -> c.tasksVersion != tasksVersion);
+      if (evaluationContexts.size() >= MAX_EVALUATION_CONTEXTS) {
+        evaluationContexts.clear();
       }
+      evaluationContexts.put(podInstanceRequirement, context);
+    }
+    return context;
+  }
 
-      PodInfoBuilder podInfoBuilder = new PodInfoBuilder(
-          podInstanceRequirement,
-          serviceName,
-          getTargetConfig(podInstanceRequirement, thisPodTasks),
-          templateUrlFactory,
-          schedulerConfig,
-          thisPodTasks.values(),
-          frameworkStore.fetchFrameworkId().get(),
-          overrideMap);
-      List<EvaluationOutcome> outcomes = new ArrayList<>();
-      int failedOutcomeCount = 0;
-
-      for (OfferEvaluationStage evaluationStage : evaluationStages) {
-        EvaluationOutcome outcome = evaluationStage.evaluate(resourcePool, podInfoBuilder);
-        outcomes.add(outcome);
-        if (!outcome.isPassing()) {
-          failedOutcomeCount++;
+  /**
+   * Evaluates the provided offers concurrently using the configured executor. The outcomes are then processed in the
+   * original offer order, so that the selected offer (the first one in the list to pass all stages) along with any
+   * logging and outcome tracking is identical to the serial evaluation in {@link #evaluate(PodInstanceRequirement,
+   * List)}.
+   */
+  private List<OfferRecommendation> evaluateParallel(
+      PodInstanceRequirement podInstanceRequirement,
+      List<Protos.Offer> offers,
+      EvaluationContext context,
+      LogBudget logBudget) throws InvalidRequirementException
+  {
+    List<Future<List<EvaluationOutcome>>> futures = new ArrayList<>();
+    for (Protos.Offer offer : offers) {
+      futures.add(parallelExecutor.get().submit(() -> evaluateOffer(podInstanceRequirement, offer, context)));
+    }
+    try {
+      for (int i = 0; i < offers.size(); ++i) {
+        List<EvaluationOutcome> outcomes = awaitOutcomes(futures.get(i));
+        Optional<List<OfferRecommendation>> recommendations = processOutcomes(
+            podInstanceRequirement, i, offers.get(i), context.evaluationStages.size(), outcomes, logBudget);
+        if (recommendations.isPresent()) {
+          return recommendations.get();
         }
       }
+      return Collections.emptyList();
+    } finally {
+      // Don't bother finishing evaluation of any offers after the selected offer.
+      futures.forEach(future -> future.cancel(true));
+    }
+  }
 
-      StringBuilder outcomeDetails = new StringBuilder();
-      List<String> outcomeReasons = new ArrayList<String>();
-      for (EvaluationOutcome outcome : outcomes) {
-        getOutcomes(outcomeReasons, outcome);
-        logOutcome(outcomeDetails, outcome, "");
-      }
-      if (outcomeDetails.length() != 0) {
-        // trim extra trailing newline:
-        outcomeDetails.deleteCharAt(outcomeDetails.length() - 1);
+  private static List<EvaluationOutcome> awaitOutcomes(
+      Future<List<EvaluationOutcome>> future) throws InvalidRequirementException
+  {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while evaluating offers", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof InvalidRequirementException) {
+        throw (InvalidRequirementException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
       }
+      throw new IllegalStateException("Failed to evaluate offer", cause);
+    }
+  }
+
+  /**
+   * Returns whether the provided stages may be evaluated against several offers at the same time. TLS stages are
+   * excluded because they may provision certificates and secrets in the cluster as a side effect of evaluation.
+   */
+  private static boolean isParallelizable(List<OfferEvaluationStage> evaluationStages) {
+    return evaluationStages.stream().noneMatch(stage -> stage instanceof TLSEvaluationStage);
+  }
+
+  /**
+   * Runs all of the context's evaluation stages against a single offer, returning the resulting outcomes. The resource
+   * pool and {@link PodInfoBuilder} are modified by the stages, so they're created anew for each offer.
+   */
+  private List<EvaluationOutcome> evaluateOffer(
+      PodInstanceRequirement podInstanceRequirement,
+      Protos.Offer offer,
+      EvaluationContext context) throws InvalidRequirementException
+  {
+    MesosResourcePool resourcePool = new MesosResourcePool(
+        offer, OfferEvaluationUtils.getRole(podInstanceRequirement.getPodInstance().getPod()));
+
+    PodInfoBuilder podInfoBuilder = new PodInfoBuilder(
+        podInstanceRequirement,
+        serviceName,
+        context.targetConfigId,
+        templateUrlFactory,
+        schedulerConfig,
+        context.thisPodTasks.values(),
+        context.frameworkId,
+        context.overrideMap);
+    List<EvaluationOutcome> outcomes = new ArrayList<>();
+    for (OfferEvaluationStage evaluationStage : context.evaluationStages) {
+      outcomes.add(evaluationStage.evaluate(resourcePool, podInfoBuilder));
+    }
+    return outcomes;
+  }
+
+  /**
+   * Logs and tracks the outcomes of evaluating an offer. Returns the resulting recommendations if the offer passed
+   * all evaluation stages, or an empty {@link Optional} otherwise.
+   * <p>
+   * The outcomes are only rendered as text if they're logged, or if they're requested from the offer outcome tracker.
+   * Once the provided {@link LogBudget} is spent, rejected offers are summarized at INFO and detailed at DEBUG.
+   */
+  private Optional<List<OfferRecommendation>> processOutcomes(
+      PodInstanceRequirement podInstanceRequirement,
+      int offerIndex,
+      Protos.Offer offer,
+      int stageCount,
+      List<EvaluationOutcome> outcomes,
+      LogBudget logBudget)
+  {
+    List<String> failedSources = outcomes.stream()
+        .filter(outcome -> !outcome.isPassing())
+        .map(EvaluationOutcome::getSource)
+        .collect(Collectors.toList());
+    Object outcomeDetails = LoggingUtils.lazy(() -> getOutcomeDetails(outcomes));
 
-      if (failedOutcomeCount != 0) {
+    if (!failedSources.isEmpty()) {
+      if (logBudget.consume()) {
         logger.info("Offer {}, {}: failed {} of {} evaluation stages for {}:\n{}",
-            i + 1,
+            offerIndex + 1,
             offer.getId().getValue(),
-            failedOutcomeCount,
-            evaluationStages.size(),
+            failedSources.size(),
+            stageCount,
             podInstanceRequirement.getName(),
-            outcomeDetails.toString());
-
-        if (offerOutcomeTrackerV2.isPresent()) {
-          offerOutcomeTrackerV2.get().getSummary().addOffer(new OfferOutcomeTrackerV2.OfferOutcomeV2(
-              podInstanceRequirement.getName(),
-              false,
-              offer.toString(),
-              outcomeReasons));
-          offerOutcomeTrackerV2.get().getSummary().addFailureAgent(
-              offer.getSlaveId().getValue());
-          for (EvaluationOutcome outcome : outcomes) {
-            if (!outcome.isPassing()) {
-              offerOutcomeTrackerV2.get().getSummary().addFailureReason(
-                  outcome.getSource());
-            }
-          }
-        }
+            outcomeDetails);
       } else {
-        List<OfferRecommendation> recommendations = outcomes.stream()
-            .map(outcome -> outcome.getOfferRecommendations())
-            .flatMap(xs -> xs.stream())
-            .collect(Collectors.toList());
-        logger.info("Offer {}: passed all {} evaluation stages, returning {} recommendations for {}:\n{}",
-            i + 1,
-            evaluationStages.size(),
-            recommendations.size(),
+        logger.info("Offer {}, {}: failed {} of {} evaluation stages for {}: {}",
+            offerIndex + 1,
+            offer.getId().getValue(),
+            failedSources.size(),
+            stageCount,
             podInstanceRequirement.getName(),
-            outcomeDetails.toString());
-
-        if (offerOutcomeTrackerV2.isPresent()) {
-          offerOutcomeTrackerV2.get().getSummary().addOffer(new OfferOutcomeTrackerV2.OfferOutcomeV2(
-              podInstanceRequirement.getName(),
-              true,
-              offer.toString(),
-              outcomeReasons));
-        }
+            failedSources);
+        logger.debug("Offer {}, {}: evaluation outcomes for {}:\n{}",
+            offerIndex + 1,
+            offer.getId().getValue(),
+            podInstanceRequirement.getName(),
+            outcomeDetails);
+      }
 
-        return recommendations;
+      if (offerOutcomeTrackerV2.isPresent()) {
+        offerOutcomeTrackerV2.get().getSummary().addOffer(new OfferOutcomeTrackerV2.OfferOutcomeV2(
+            podInstanceRequirement.getName(),
+            false,
+            offer::toString,
+            () -> getOutcomeReasons(outcomes)));
+        offerOutcomeTrackerV2.get().getSummary().addFailureAgent(
+            offer.getSlaveId().getValue());
+        for (String failedSource : failedSources) {
+          offerOutcomeTrackerV2.get().getSummary().addFailureReason(failedSource);
+        }
       }
+      return Optional.empty();
     }
 
-    return Collections.emptyList();
+    List<OfferRecommendation> recommendations = outcomes.stream()
+        .map(outcome -> outcome.getOfferRecommendations())
+        .flatMap(xs -> xs.stream())
+        .collect(Collectors.toList());
+    logger.info("Offer {}: passed all {} evaluation stages, returning {} recommendations for {}:\n{}",
+        offerIndex + 1,
+        stageCount,
+        recommendations.size(),
+        podInstanceRequirement.getName(),
+        outcomeDetails);
+
+    if (offerOutcomeTrackerV2.isPresent()) {
+      offerOutcomeTrackerV2.get().getSummary().addOffer(new OfferOutcomeTrackerV2.OfferOutcomeV2(
+          podInstanceRequirement.getName(),
+          true,
+          offer::toString,
+          () -> getOutcomeReasons(outcomes)));
+    }
+
+    return Optional.of(recommendations);
+  }
+
+  private static String getOutcomeDetails(List<EvaluationOutcome> outcomes) {
+    StringBuilder outcomeDetails = new StringBuilder();
+    for (EvaluationOutcome outcome : outcomes) {
+      logOutcome(outcomeDetails, outcome, "");
+    }
+    if (outcomeDetails.length() != 0) {
+      // trim extra trailing newline:
+      outcomeDetails.deleteCharAt(outcomeDetails.length() - 1);
+    }
+    return outcomeDetails.toString();
+  }
+
+  private static List<String> getOutcomeReasons(List<EvaluationOutcome> outcomes) {
+    List<String> outcomeReasons = new ArrayList<>();
+    for (EvaluationOutcome outcome : outcomes) {
+      getOutcomes(outcomeReasons, outcome);
+    }
+    return outcomeReasons;
   }
 
   public List<OfferEvaluationStage> getEvaluationPipeline(
@@ -397,7 +622,8 @@ public class OfferEvaluator {
 
     if (podInstanceRequirement.getPodInstance().getPod().getPlacementRule().isPresent()) {
       evaluationStages.add(new PlacementRuleEvaluationStage(
-          allTasks, podInstanceRequirement.getPodInstance().getPod().getPlacementRule().get()));
+          new PlacementIndex(allTasks, podInstanceRequirement.getPodInstance()),
+          podInstanceRequirement.getPodInstance().getPod().getPlacementRule().get()));
     }
 
     for (VolumeSpec volumeSpec : podInstanceRequirement.getPodInstance().getPod().getVolumes()) {
@@ -538,7 +764,8 @@ public class OfferEvaluator {
     {
       // If a "pod replace" was issued, ensure that the pod's new location follows any placement rules.
       evaluationStages.add(new PlacementRuleEvaluationStage(
-          allTasks, podInstanceRequirement.getPodInstance().getPod().getPlacementRule().get()));
+          new PlacementIndex(allTasks, podInstanceRequirement.getPodInstance()),
+          podInstanceRequirement.getPodInstance().getPod().getPlacementRule().get()));
     }
 
     // Select an arbitrary ResourceSpec from the pod definition to get the role and principal.
@@ -742,6 +969,39 @@ public class OfferEvaluator {
     return selectedConfig.get();
   }
 
+  /**
+   * The parts of evaluating a {@link PodInstanceRequirement} which don't depend on the offer being evaluated.
+   */
+  private static final class EvaluationContext {
+    private final long tasksVersion;
+
+    private final Map<String, Protos.TaskInfo> thisPodTasks;
+
+    private final List<OfferEvaluationStage> evaluationStages;
+
+    private final UUID targetConfigId;
+
+    private final Map<TaskSpec, GoalStateOverride> overrideMap;
+
+    private final Protos.FrameworkID frameworkId;
+
+    private EvaluationContext(
+        long tasksVersion,
+        Map<String, Protos.TaskInfo> thisPodTasks,
+        List<OfferEvaluationStage> evaluationStages,
+        UUID targetConfigId,
+        Map<TaskSpec, GoalStateOverride> overrideMap,
+        Protos.FrameworkID frameworkId)
+    {
+      this.tasksVersion = tasksVersion;
+      this.thisPodTasks = thisPodTasks;
+      this.evaluationStages = evaluationStages;
+      this.targetConfigId = targetConfigId;
+      this.overrideMap = overrideMap;
+      this.frameworkId = frameworkId;
+    }
+  }
+
   /**
    * Implementation for selecting the configuration ID to use when recovering task(s) in a pod:
    *
@@ -1,7 +1,9 @@
 package com.mesosphere.sdk.offer.evaluate;
 
 import com.mesosphere.sdk.offer.MesosResourcePool;
+import com.mesosphere.sdk.offer.evaluate.placement.PlacementIndex;
 import com.mesosphere.sdk.offer.evaluate.placement.PlacementRule;
+import com.mesosphere.sdk.specification.PodInstance;
 
 import org.apache.mesos.Protos;
 
@@ -12,12 +14,16 @@ import java.util.Collection;
  * {@link com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement}, ensuring that its resources
  * meet the constraints imposed by the supplied
  * {@link com.mesosphere.sdk.offer.evaluate.placement.PlacementRule}.
+ * <p>
+ * Deployed tasks are evaluated via a {@link PlacementIndex}, which is shared across all offers evaluated by this stage.
  */
 public class PlacementRuleEvaluationStage implements OfferEvaluationStage {
   private final Collection<Protos.TaskInfo> deployedTasks;
 
   private final PlacementRule placementRule;
 
+  private PlacementIndex placementIndex;
+
   public PlacementRuleEvaluationStage(
       Collection<Protos.TaskInfo> deployedTasks,
       PlacementRule placementRule)
@@ -26,6 +32,18 @@ public class PlacementRuleEvaluationStage implements OfferEvaluationStage {
     this.placementRule = placementRule;
   }
 
+  /**
+   * Creates a stage which evaluates offers against a previously built index, which may be shared with other stages
+   * evaluating the same pod.
+   */
+  public PlacementRuleEvaluationStage(
+      PlacementIndex placementIndex,
+      PlacementRule placementRule)
+  {
+    this(placementIndex.getTasks(), placementRule);
+    this.placementIndex = placementIndex;
+  }
+
   @Override
   public EvaluationOutcome evaluate(
       MesosResourcePool mesosResourcePool,
@@ -35,9 +53,21 @@ public class PlacementRuleEvaluationStage implements OfferEvaluationStage {
       return EvaluationOutcome.pass(this, "No placement rule defined").build();
     }
 
+    PodInstance podInstance = podInfoBuilder.getPodInstance();
     return placementRule.filter(
         mesosResourcePool.getOffer(),
-        podInfoBuilder.getPodInstance(),
-        deployedTasks);
+        podInstance,
+        getPlacementIndex(podInstance));
+  }
+
+  /**
+   * Returns an index for the provided pod, reusing the current index if it was built for the same pod instance.
+   */
+  private synchronized PlacementIndex getPlacementIndex(PodInstance podInstance) {
+    // Identity check: all offers in an evaluation share the same PodInstance, and a full equals() is expensive.
+    if (placementIndex == null || placementIndex.getPodInstance() != podInstance) {
+      placementIndex = new PlacementIndex(deployedTasks, podInstance);
+    }
+    return placementIndex;
   }
 }
@@ -1,7 +1,6 @@
 package com.mesosphere.sdk.offer.evaluate.placement;
 
 import com.mesosphere.sdk.offer.LoggingUtils;
-import com.mesosphere.sdk.offer.TaskUtils;
 import com.mesosphere.sdk.offer.evaluate.EvaluationOutcome;
 import com.mesosphere.sdk.specification.PodInstance;
 
@@ -13,8 +12,7 @@ import org.apache.mesos.Protos.TaskInfo;
 import org.slf4j.Logger;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
 import java.util.Optional;
 
 /**
@@ -54,6 +52,15 @@ abstract class AbstractRoundRobinRule implements PlacementRule {
       Offer offer,
       PodInstance podInstance,
       Collection<TaskInfo> tasks)
+  {
+    return filter(offer, podInstance, new PlacementIndex(tasks, podInstance));
+  }
+
+  @Override
+  public EvaluationOutcome filter(
+      Offer offer,
+      PodInstance podInstance,
+      PlacementIndex index)
   {
     final String offerKey = getKey(offer);
     if (offerKey == null) {
@@ -64,47 +71,15 @@ abstract class AbstractRoundRobinRule implements PlacementRule {
       ).build();
     }
 
-    // search across tasks, keeping key counts on a per-key basis.
-    // key => # of instances on key
-    Map<String, Integer> counts = new HashMap<>();
-    for (TaskInfo task : tasks) {
-      // only tally tasks which match the task matcher (eg 'index-.*')
-      if (!taskFilter.matches(task.getName())) {
-        continue;
-      }
-      if (TaskUtils.areEquivalent(task, podInstance)) {
-        // This is stale data for the same task that we're currently evaluating for
-        // placement. Don't worry about counting its usage. This occurs when we're
-        // redeploying a given task with a new configuration (old data not deleted yet).
-        continue;
-      }
-
+    // key => # of instances on key, only tallying tasks which match the task matcher (eg 'index-.*')
+    PlacementIndex.KeyCounts counts = index.getKeyCounts(this, taskFilter, task -> {
       final String taskKey = getKey(task);
-      if (taskKey == null) {
-        // no key matching the name was found. ignore.
-        continue;
-      }
-      Integer count = counts.get(taskKey);
-      counts.put(taskKey, (count == null) ? 1 : count + 1);
-    }
-
-    int maxKnownKeyCount = 0;
-    int minKnownKeyCount = Integer.MAX_VALUE;
-    for (Integer count : counts.values()) {
-      if (count > maxKnownKeyCount) {
-        maxKnownKeyCount = count;
-      }
-      if (count < minKnownKeyCount) {
-        minKnownKeyCount = count;
-      }
-    }
-    if (minKnownKeyCount == Integer.MAX_VALUE) {
-      minKnownKeyCount = 0;
-    }
-    Integer offerKeyCount = counts.get(offerKey);
-    if (offerKeyCount == null) {
-      offerKeyCount = 0;
-    }
+      // no key matching the name was found. ignore.
+      return taskKey == null ? Collections.emptyList() : Collections.singletonList(taskKey);
+    });
+    int maxKnownKeyCount = counts.getMax();
+    int minKnownKeyCount = counts.getMin();
+    int offerKeyCount = counts.get(offerKey);
     LOGGER.info("Key counts: {}, knownMin: {}, knownMax: {}, offer: {}",
         counts, minKnownKeyCount, maxKnownKeyCount, offerKeyCount);
 
@@ -125,7 +100,7 @@ abstract class AbstractRoundRobinRule implements PlacementRule {
             minKnownKeyCount,
             maxKnownKeyCount
         ).build();
-      } else if (counts.size() >= distinctKeyCount.get()) {
+      } else if (counts.getKeyCount() >= distinctKeyCount.get()) {
         // no keys are missing from our counts, and this key has fewer instances than some other key in
         // the system.
         return EvaluationOutcome.pass(
@@ -157,11 +132,24 @@ abstract class AbstractRoundRobinRule implements PlacementRule {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    AbstractRoundRobinRule other = (AbstractRoundRobinRule) o;
+    return new EqualsBuilder()
+        .append(taskFilter, other.taskFilter)
+        .append(distinctKeyCount, other.distinctKeyCount)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(taskFilter)
+        .append(distinctKeyCount)
+        .toHashCode();
   }
 }
@@ -131,11 +131,22 @@ public final class AgentRule implements PlacementRule {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    AgentRule other = (AgentRule) o;
+    return new EqualsBuilder()
+        .append(agentId, other.agentId)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(agentId)
+        .toHashCode();
   }
 }
@@ -36,6 +36,15 @@ public class AndRule implements PlacementRule {
       Offer offer,
       PodInstance podInstance,
       Collection<TaskInfo> tasks)
+  {
+    return filter(offer, podInstance, new PlacementIndex(tasks, podInstance));
+  }
+
+  @Override
+  public EvaluationOutcome filter(
+      Offer offer,
+      PodInstance podInstance,
+      PlacementIndex index)
   {
     if (rules.isEmpty()) {
       return EvaluationOutcome.fail(
@@ -47,7 +56,7 @@ public class AndRule implements PlacementRule {
     int passingCount = 0;
     Collection<EvaluationOutcome> children = new ArrayList<>();
     for (PlacementRule rule : rules) {
-      EvaluationOutcome child = rule.filter(offer, podInstance, tasks);
+      EvaluationOutcome child = rule.filter(offer, podInstance, index);
       if (child.isPassing()) {
         passingCount++;
       }
@@ -88,12 +97,23 @@ public class AndRule implements PlacementRule {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    AndRule other = (AndRule) o;
+    return new EqualsBuilder()
+        .append(rules, other.rules)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(rules)
+        .toHashCode();
   }
 
 }
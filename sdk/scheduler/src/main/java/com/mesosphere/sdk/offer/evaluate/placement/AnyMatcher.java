@@ -1,8 +1,6 @@
 package com.mesosphere.sdk.offer.evaluate.placement;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 /**
  * Implements passthrough support for string comparisons by matching any string.
@@ -29,11 +27,11 @@ public final class AnyMatcher implements StringMatcher {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    return o != null && getClass() == o.getClass();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return getClass().getName().hashCode();
   }
 }
@@ -59,11 +59,22 @@ public final class ExactMatcher implements StringMatcher {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ExactMatcher other = (ExactMatcher) o;
+    return new EqualsBuilder()
+        .append(str, other.str)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(str)
+        .toHashCode();
   }
 }
@@ -63,7 +63,17 @@ public class InvalidPlacementRule implements PlacementRule {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    InvalidPlacementRule other = (InvalidPlacementRule) o;
+    return new EqualsBuilder()
+        .append(constraints, other.constraints)
+        .append(exception, other.exception)
+        .isEquals();
   }
 
   @JsonProperty("constraints")
@@ -78,7 +88,10 @@ public class InvalidPlacementRule implements PlacementRule {
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(constraints)
+        .append(exception)
+        .toHashCode();
   }
 
 }
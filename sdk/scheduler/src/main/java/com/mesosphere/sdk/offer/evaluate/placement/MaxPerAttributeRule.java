@@ -7,6 +7,8 @@ import com.mesosphere.sdk.specification.PodInstance;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.TaskInfo;
 
@@ -104,9 +106,9 @@ public class MaxPerAttributeRule extends MaxPerRule {
   public EvaluationOutcome filter(
       Offer offer,
       PodInstance podInstance,
-      Collection<TaskInfo> tasks)
+      PlacementIndex index)
   {
-    if (isAcceptable(offer, podInstance, tasks)) {
+    if (isAcceptable(offer, index)) {
       return EvaluationOutcome.pass(
           this,
           "Fits within limit of %d tasks matching filter '%s' on this agent with attribute: %s",
@@ -157,4 +159,25 @@ public class MaxPerAttributeRule extends MaxPerRule {
     return String.format("MaxPerAttributeRule{max=%s, matcher=%s, task-filter=%s}",
         max, attributeMatcher, taskFilter);
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!super.equals(o)) {
+      return false;
+    }
+    MaxPerAttributeRule other = (MaxPerAttributeRule) o;
+    return new EqualsBuilder()
+        .append(attributeMatcher, other.attributeMatcher)
+        .append(taskFilter, other.taskFilter)
+        .isEquals();
+  }
+
+  @Override
+  public int hashCode() {
+    return new HashCodeBuilder()
+        .appendSuper(super.hashCode())
+        .append(attributeMatcher)
+        .append(taskFilter)
+        .toHashCode();
+  }
 }
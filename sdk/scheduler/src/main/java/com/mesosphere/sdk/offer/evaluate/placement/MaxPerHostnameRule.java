@@ -9,6 +9,8 @@ import com.mesosphere.sdk.specification.ValidationUtils;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.TaskInfo;
 import org.slf4j.Logger;
@@ -86,9 +88,9 @@ public class MaxPerHostnameRule extends MaxPerRule {
   public EvaluationOutcome filter(
       Offer offer,
       PodInstance podInstance,
-      Collection<TaskInfo> tasks)
+      PlacementIndex index)
   {
-    if (isAcceptable(offer, podInstance, tasks)) {
+    if (isAcceptable(offer, index)) {
       return EvaluationOutcome.pass(
           this,
           "Fewer than %d tasks matching filter '%s' are present on this host",
@@ -128,4 +130,25 @@ public class MaxPerHostnameRule extends MaxPerRule {
     return String.format("MaxPerHostnameRule{max=%s, task-filter=%s}",
         maxTasksPerHostname, taskFilter);
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!super.equals(o)) {
+      return false;
+    }
+    MaxPerHostnameRule other = (MaxPerHostnameRule) o;
+    return new EqualsBuilder()
+        .append(maxTasksPerHostname, other.maxTasksPerHostname)
+        .append(taskFilter, other.taskFilter)
+        .isEquals();
+  }
+
+  @Override
+  public int hashCode() {
+    return new HashCodeBuilder()
+        .appendSuper(super.hashCode())
+        .append(maxTasksPerHostname)
+        .append(taskFilter)
+        .toHashCode();
+  }
 }
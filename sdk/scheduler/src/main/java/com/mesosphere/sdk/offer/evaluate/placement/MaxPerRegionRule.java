@@ -48,9 +48,9 @@ public class MaxPerRegionRule extends MaxPerRule {
   public EvaluationOutcome filter(
       Protos.Offer offer,
       PodInstance podInstance,
-      Collection<Protos.TaskInfo> tasks)
+      PlacementIndex index)
   {
-    if (isAcceptable(offer, podInstance, tasks)) {
+    if (isAcceptable(offer, index)) {
       return EvaluationOutcome.pass(
           this,
           "Fewer than %d tasks matching filter '%s' are present on this host",
@@ -1,6 +1,6 @@
 package com.mesosphere.sdk.offer.evaluate.placement;
 
-import com.mesosphere.sdk.offer.TaskUtils;
+import com.mesosphere.sdk.offer.evaluate.EvaluationOutcome;
 import com.mesosphere.sdk.specification.PodInstance;
 import com.mesosphere.sdk.specification.ValidationUtils;
 
@@ -12,7 +12,6 @@ import org.apache.mesos.Protos;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * This interface defines the required methods for generic application of a PlacementRule which forces a
@@ -31,7 +30,8 @@ public abstract class MaxPerRule implements PlacementRule {
    */
   protected MaxPerRule(Integer max, StringMatcher taskFilter) {
     this.max = max;
-    this.taskFilter = taskFilter;
+    // null when unspecified in serialized data
+    this.taskFilter = taskFilter == null ? AnyMatcher.create() : taskFilter;
     ValidationUtils.atLeastOne(this, "max", max);
   }
 
@@ -49,50 +49,67 @@ public abstract class MaxPerRule implements PlacementRule {
     return max;
   }
 
-  protected boolean isAcceptable(
+  /**
+   * Evaluates the offer against an index built from the provided tasks. Prefer
+   * {@link #filter(Protos.Offer, PodInstance, PlacementIndex)} when evaluating many offers against the same tasks.
+   */
+  @Override
+  public EvaluationOutcome filter(
       Protos.Offer offer,
       PodInstance podInstance,
       Collection<Protos.TaskInfo> tasks)
   {
+    return filter(offer, podInstance, new PlacementIndex(tasks, podInstance));
+  }
 
-    Collection<Protos.TaskInfo> filteredTasks = tasks
-        .stream()
-        .filter(task -> getTaskFilter().matches(task.getName()))
-        .filter(task -> !TaskUtils.areEquivalent(task, podInstance))
-        .collect(Collectors.toList());
+  @Override
+  public abstract EvaluationOutcome filter(Protos.Offer offer, PodInstance podInstance, PlacementIndex index);
 
-    Map<String, Integer> counts = new HashMap<>();
+  protected boolean isAcceptable(
+      Protos.Offer offer,
+      PodInstance podInstance,
+      Collection<Protos.TaskInfo> tasks)
+  {
+    return isAcceptable(offer, new PlacementIndex(tasks, podInstance));
+  }
 
-    Collection<String> offerKeys = getKeys(offer);
-    updateMap(counts, offerKeys);
+  /**
+   * Returns whether adding a task against each of the offer's keys would keep every key within the maximum. The
+   * per-key task counts are retrieved from the index, so that they're only computed once across many offers.
+   */
+  protected boolean isAcceptable(Protos.Offer offer, PlacementIndex index) {
+    PlacementIndex.KeyCounts taskCounts = index.getKeyCounts(this, getTaskFilter(), task -> getKeys(task));
 
-    for (Protos.TaskInfo task : filteredTasks) {
-      updateMap(
-          counts,
-          getKeys(task).stream()
-              .filter(offerKeys::contains)
-              .collect(Collectors.toList())
-      );
+    // An offer may list the same key more than once, in which case each occurrence counts against the max.
+    Map<String, Integer> offerCounts = new HashMap<>();
+    for (String key : getKeys(offer)) {
+      offerCounts.merge(key, 1, Integer::sum);
     }
 
-    return counts.values().stream().allMatch(value -> value <= max);
-  }
-
-  private void updateMap(Map<String, Integer> map, Collection<String> keys) {
-    for (String key : keys) {
-      Integer count = map.get(key);
-      count = count == null ? 1 : count + 1;
-      map.put(key, count);
-    }
+    return offerCounts.entrySet().stream()
+        .allMatch(entry -> entry.getValue() + taskCounts.get(entry.getKey()) <= max);
   }
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    MaxPerRule other = (MaxPerRule) o;
+    return new EqualsBuilder()
+        .append(max, other.max)
+        .append(taskFilter, other.taskFilter)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(max)
+        .append(taskFilter)
+        .toHashCode();
   }
 }
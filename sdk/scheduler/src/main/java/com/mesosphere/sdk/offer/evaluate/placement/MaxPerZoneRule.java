@@ -53,11 +53,11 @@ public class MaxPerZoneRule extends MaxPerRule {
   public EvaluationOutcome filter(
       Protos.Offer offer,
       PodInstance podInstance,
-      Collection<Protos.TaskInfo> tasks)
+      PlacementIndex index)
   {
     if (!PlacementUtils.hasZone(offer)) {
       return EvaluationOutcome.fail(this, "Offer does not contain a zone.").build();
-    } else if (isAcceptable(offer, podInstance, tasks)) {
+    } else if (isAcceptable(offer, index)) {
       return EvaluationOutcome.pass(
           this,
           "Fewer than %d tasks matching filter '%s' are present on this host",
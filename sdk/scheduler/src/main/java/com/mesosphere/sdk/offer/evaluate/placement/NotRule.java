@@ -30,7 +30,16 @@ public class NotRule implements PlacementRule {
       PodInstance podInstance,
       Collection<TaskInfo> tasks)
   {
-    EvaluationOutcome child = rule.filter(offer, podInstance, tasks);
+    return filter(offer, podInstance, new PlacementIndex(tasks, podInstance));
+  }
+
+  @Override
+  public EvaluationOutcome filter(
+      Offer offer,
+      PodInstance podInstance,
+      PlacementIndex index)
+  {
+    EvaluationOutcome child = rule.filter(offer, podInstance, index);
     String reason = "Returning opposite of child rule";
     if (child.isPassing()) {
       return EvaluationOutcome.fail(this, reason).addChild(child).build();
@@ -56,11 +65,22 @@ public class NotRule implements PlacementRule {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    NotRule other = (NotRule) o;
+    return new EqualsBuilder()
+        .append(rule, other.rule)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(rule)
+        .toHashCode();
   }
 }
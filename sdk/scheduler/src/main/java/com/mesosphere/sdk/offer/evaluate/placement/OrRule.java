@@ -32,16 +32,25 @@ public class OrRule implements PlacementRule {
   }
 
   @Override
-  @SuppressWarnings("checkstyle:MultipleStringLiterals")
   public EvaluationOutcome filter(
       Offer offer,
       PodInstance podInstance,
       Collection<TaskInfo> tasks)
+  {
+    return filter(offer, podInstance, new PlacementIndex(tasks, podInstance));
+  }
+
+  @Override
+  @SuppressWarnings("checkstyle:MultipleStringLiterals")
+  public EvaluationOutcome filter(
+      Offer offer,
+      PodInstance podInstance,
+      PlacementIndex index)
   {
     int passingCount = 0;
     Collection<EvaluationOutcome> children = new ArrayList<>();
     for (PlacementRule rule : rules) {
-      EvaluationOutcome child = rule.filter(offer, podInstance, tasks);
+      EvaluationOutcome child = rule.filter(offer, podInstance, index);
       if (child.isPassing()) {
         passingCount++;
       }
@@ -82,11 +91,22 @@ public class OrRule implements PlacementRule {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    OrRule other = (OrRule) o;
+    return new EqualsBuilder()
+        .append(rules, other.rules)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(rules)
+        .toHashCode();
   }
 }
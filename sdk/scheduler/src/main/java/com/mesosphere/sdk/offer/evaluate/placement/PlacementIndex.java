@@ -0,0 +1,174 @@
+package com.mesosphere.sdk.offer.evaluate.placement;
+
+import com.mesosphere.sdk.offer.TaskUtils;
+import com.mesosphere.sdk.specification.PodInstance;
+
+import org.apache.mesos.Protos.TaskInfo;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * An index of the deployed tasks in a service, for use when evaluating a {@link PlacementRule} for a given
+ * {@link PodInstance} against many offers.
+ * <p>
+ * Rules such as {@link MaxPerRule} and the round-robin rules need to know how many (matching) tasks are currently
+ * deployed against each hostname, zone, region, or attribute value. Rather than recounting those tasks for every
+ * offer, rules may request a {@link KeyCounts} from this index. The counts are computed on first access for a given
+ * rule, and are then reused for any subsequent offers evaluated against the same index.
+ * <p>
+ * The index reflects the provided tasks at the time it was created, so it should only be reused within a single offer
+ * evaluation cycle for a single {@link PodInstance}. This class is thread-safe.
+ */
+public final class PlacementIndex {
+
+  private final Collection<TaskInfo> tasks;
+
+  private final PodInstance podInstance;
+
+  private final Map<PlacementRule, KeyCounts> keyCountsByRule = new IdentityHashMap<>();
+
+  private List<TaskInfo> otherTasks;
+
+  /**
+   * Creates a new index against the provided tasks.
+   *
+   * @param tasks       the currently deployed tasks in the service, possibly including tasks for the pod being
+   *                    evaluated
+   * @param podInstance the pod being evaluated for placement, whose own tasks are excluded from any counts
+   */
+  public PlacementIndex(Collection<TaskInfo> tasks, PodInstance podInstance) {
+    this.tasks = tasks;
+    this.podInstance = podInstance;
+  }
+
+  /**
+   * Returns all of the tasks which this index was built against, including any tasks belonging to the pod being
+   * evaluated.
+   */
+  public Collection<TaskInfo> getTasks() {
+    return tasks;
+  }
+
+  /**
+   * Returns the {@link PodInstance} which this index was built for.
+   */
+  public PodInstance getPodInstance() {
+    return podInstance;
+  }
+
+  /**
+   * Returns the number of tasks per key for the provided rule, excluding any tasks which belong to the pod being
+   * evaluated. The counts are only computed on the first call for a given rule instance and are reused afterwards.
+   *
+   * @param rule       the rule requesting the counts, used to identify the counts across calls
+   * @param taskFilter a filter on task names which determines which tasks are counted
+   * @param getKeys    returns the keys to count for a given task, which may be empty. A key which is returned more
+   *                   than once for a task is counted once per occurrence
+   */
+  public synchronized KeyCounts getKeyCounts(
+      PlacementRule rule,
+      StringMatcher taskFilter,
+      Function<TaskInfo, Collection<String>> getKeys)
+  {
+    KeyCounts keyCounts = keyCountsByRule.get(rule);
+    if (keyCounts == null) {
+      Map<String, Integer> counts = new HashMap<>();
+      for (TaskInfo task : getOtherTasks()) {
+        if (!taskFilter.matches(task.getName())) {
+          continue;
+        }
+        for (String key : getKeys.apply(task)) {
+          counts.merge(key, 1, Integer::sum);
+        }
+      }
+      keyCounts = new KeyCounts(counts);
+      keyCountsByRule.put(rule, keyCounts);
+    }
+    return keyCounts;
+  }
+
+  /**
+   * Returns the tasks which don't belong to the pod being evaluated. Tasks for that pod may be stale data left over
+   * from a previous deployment of the pod, e.g. when redeploying with a new configuration, and shouldn't count
+   * towards its own placement.
+   */
+  private List<TaskInfo> getOtherTasks() {
+    if (otherTasks == null) {
+      otherTasks = tasks.stream()
+          .filter(task -> !TaskUtils.areEquivalent(task, podInstance))
+          .collect(Collectors.toList());
+    }
+    return otherTasks;
+  }
+
+  /**
+   * Per-key task counts, along with the minimum and maximum count across all known keys.
+   */
+  public static final class KeyCounts {
+
+    private final Map<String, Integer> counts;
+
+    private final int min;
+
+    private final int max;
+
+    private KeyCounts(Map<String, Integer> counts) {
+      this.counts = Collections.unmodifiableMap(counts);
+      int minCount = Integer.MAX_VALUE;
+      int maxCount = 0;
+      for (int count : counts.values()) {
+        minCount = Math.min(minCount, count);
+        maxCount = Math.max(maxCount, count);
+      }
+      this.min = counts.isEmpty() ? 0 : minCount;
+      this.max = maxCount;
+    }
+
+    /**
+     * Returns the number of tasks against the provided key, or zero if the key is unknown.
+     */
+    public int get(String key) {
+      return counts.getOrDefault(key, 0);
+    }
+
+    /**
+     * Returns the smallest count across all known keys, or zero if no keys are known.
+     */
+    public int getMin() {
+      return min;
+    }
+
+    /**
+     * Returns the largest count across all known keys, or zero if no keys are known.
+     */
+    public int getMax() {
+      return max;
+    }
+
+    /**
+     * Returns the number of distinct keys which have at least one task.
+     */
+    public int getKeyCount() {
+      return counts.size();
+    }
+
+    /**
+     * Returns an unmodifiable view of the underlying key to count mapping.
+     */
+    public Map<String, Integer> asMap() {
+      return counts;
+    }
+
+    @Override
+    public String toString() {
+      return counts.toString();
+    }
+  }
+}
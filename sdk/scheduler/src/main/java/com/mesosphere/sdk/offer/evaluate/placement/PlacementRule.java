@@ -37,6 +37,24 @@ public interface PlacementRule {
    */
   EvaluationOutcome filter(Offer offer, PodInstance podInstance, Collection<TaskInfo> tasks);
 
+  /**
+   * Returns whether the provided {@link Offer} passes or fails this placement constraint, using a
+   * {@link PlacementIndex} of the deployed tasks. The same index may be shared across many offers
+   * within an evaluation cycle, allowing rules which count tasks to avoid recounting them for every
+   * offer.
+   * <p>
+   * By default this just invokes {@link #filter(Offer, PodInstance, Collection)} against the
+   * indexed tasks.
+   *
+   * @param offer the offer to be examined
+   * @param podInstance the pod being placed
+   * @param index an index of the currently deployed tasks in the system
+   * @return an {@link EvaluationOutcome} object describing whether the placement succeeded or failed and why
+   */
+  default EvaluationOutcome filter(Offer offer, PodInstance podInstance, PlacementIndex index) {
+    return filter(offer, podInstance, index.getTasks());
+  }
+
   /**
    * Returns the {@link PlacementField}s to which this rule applies.
    */
@@ -5,6 +5,8 @@ import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.mesos.Protos.Attribute;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.TaskInfo;
@@ -104,4 +106,23 @@ public class RoundRobinByAttributeRule extends AbstractRoundRobinRule {
   public Collection<PlacementField> getPlacementFields() {
     return Collections.singletonList(PlacementField.ATTRIBUTE);
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!super.equals(o)) {
+      return false;
+    }
+    RoundRobinByAttributeRule other = (RoundRobinByAttributeRule) o;
+    return new EqualsBuilder()
+        .append(attributeName, other.attributeName)
+        .isEquals();
+  }
+
+  @Override
+  public int hashCode() {
+    return new HashCodeBuilder()
+        .appendSuper(super.hashCode())
+        .append(attributeName)
+        .toHashCode();
+  }
 }
@@ -30,12 +30,25 @@ public abstract class StringMatcherRule implements PlacementRule {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    StringMatcherRule other = (StringMatcherRule) o;
+    return new EqualsBuilder()
+        .append(matcher, other.matcher)
+        .append(name, other.name)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(matcher)
+        .append(name)
+        .toHashCode();
   }
 
   @Override
@@ -239,12 +239,27 @@ public final class TaskTypeRule implements PlacementRule {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TaskTypeRule other = (TaskTypeRule) o;
+    return new EqualsBuilder()
+        .append(typeToFind, other.typeToFind)
+        .append(typeConverter, other.typeConverter)
+        .append(behaviorType, other.behaviorType)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(typeToFind)
+        .append(typeConverter)
+        .append(behaviorType)
+        .toHashCode();
   }
 
   /**
@@ -2,14 +2,17 @@ package com.mesosphere.sdk.scheduler;
 
 import com.mesosphere.sdk.framework.ProcessExit;
 import com.mesosphere.sdk.http.types.EndpointProducer;
+import com.mesosphere.sdk.offer.LogBudget;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.scheduler.plan.Element;
 import com.mesosphere.sdk.scheduler.plan.Plan;
 import com.mesosphere.sdk.scheduler.plan.PlanCoordinator;
 import com.mesosphere.sdk.scheduler.plan.PlanCustomizer;
 import com.mesosphere.sdk.scheduler.plan.PlanManager;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
 import com.mesosphere.sdk.scheduler.plan.Step;
 import com.mesosphere.sdk.scheduler.uninstall.UninstallScheduler;
+import com.mesosphere.sdk.specification.ResourceSpec;
 import com.mesosphere.sdk.specification.ServiceSpec;
 import com.mesosphere.sdk.state.ConfigStore;
 import com.mesosphere.sdk.state.StateStore;
@@ -24,7 +27,9 @@ import org.slf4j.Logger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -83,6 +88,31 @@ public abstract class AbstractScheduler implements MesosEventClient {
         .collect(Collectors.toSet());
   }
 
+  /**
+   * Returns the Mesos roles which the provided steps need offers for, or an empty set if offers for any role may be
+   * needed.
+   */
+  private Set<String> getDemandedRoles(Collection<Step> steps) {
+    if (schedulerConfig.enableRoleMigration()) {
+      // Existing reservations may be against either the legacy or the namespaced role.
+      return Collections.emptySet();
+    }
+    Set<String> roles = new HashSet<>();
+    for (Step step : steps) {
+      Optional<PodInstanceRequirement> podInstanceRequirement = step.getPodInstanceRequirement();
+      if (!podInstanceRequirement.isPresent()) {
+        // Not a pod deployment, e.g. resource cleanup during uninstall. This may involve resources in any role.
+        return Collections.emptySet();
+      }
+      // All resources in a pod share the same role, see YAMLToInternalMappers:
+      podInstanceRequirement.get().getPodInstance().getPod().getTasks().stream()
+          .flatMap(taskSpec -> taskSpec.getResourceSet().getResources().stream())
+          .map(ResourceSpec::getRole)
+          .forEach(roles::add);
+    }
+    return roles;
+  }
+
   public Optional<PlanCustomizer> getPlanCustomizer() {
     return planCustomizer;
   }
@@ -156,7 +186,19 @@ public abstract class AbstractScheduler implements MesosEventClient {
       ProcessExit.exit(ProcessExit.ERROR, e);
     }
 
-    return getStatus();
+    return getStatus().withRoles(getDemandedRoles(activeWorkSet));
+  }
+
+  /**
+   * Returns the minimum resources which the work returned by the last call to {@link #getClientStatus()} needs from an
+   * offer, or an empty {@link Optional} if the work may need any offer.
+   */
+  public Optional<ResourceDemand> getOfferDemand() {
+    if (schedulerConfig.enableRoleMigration()) {
+      // Existing reservations may be against either the legacy or the namespaced role.
+      return Optional.empty();
+    }
+    return ResourceDemand.fromSteps(candidateSteps);
   }
 
   @Override
@@ -174,9 +216,22 @@ public abstract class AbstractScheduler implements MesosEventClient {
       logger.info("Processing {} offer{} against {} step{}:",
           offers.size(), offers.size() == 1 ? "" : "s",
           candidateSteps.size(), candidateSteps.size() == 1 ? "" : "s");
+      LogBudget logBudget = new LogBudget(schedulerConfig.getOfferLogBudget());
+      int omittedCount = 0;
       int i = 0;
       for (Protos.Offer offer : offers) {
-        logger.info("  {}: role:{} {}", ++i, offer.getAllocationInfo().getRole(), TextFormat.shortDebugString(offer));
+        ++i;
+        if (logBudget.consume()) {
+          logger.info("  {}: role:{} {}",
+              i, offer.getAllocationInfo().getRole(), LoggingUtils.lazyShortDebugString(offer));
+        } else {
+          ++omittedCount;
+          logger.debug("  {}: role:{} {}",
+              i, offer.getAllocationInfo().getRole(), LoggingUtils.lazyShortDebugString(offer));
+        }
+      }
+      if (omittedCount != 0) {
+        logger.info("  Details of {} more offer{} are logged at DEBUG", omittedCount, omittedCount == 1 ? "" : "s");
       }
     }
 
@@ -189,24 +244,27 @@ public abstract class AbstractScheduler implements MesosEventClient {
       processStatusUpdate(status);
       reconciler.update(status);
     } catch (Exception e) { // SUPPRESS CHECKSTYLE IllegalCatch
-      if (e instanceof StateStoreException &&
-          ((StateStoreException) e).getReason() == Reason.NOT_FOUND)
-      {
-        logger.info(
-            "Status for unknown task. This may be expected if Mesos sent stale status information: "
-                + TextFormat.shortDebugString(status),
-            e
-        );
-        return TaskStatusResponse.unknownTask();
-      }
-      logger.warn(
-          "Failed to update TaskStatus received from Mesos: " + TextFormat.shortDebugString(status),
-          e
-      );
+      return getErrorResponse(status, e);
     }
     return TaskStatusResponse.processed();
   }
 
+  @Override
+  public List<TaskStatusResponse> taskStatuses(List<Protos.TaskStatus> statuses) {
+    Map<Protos.TaskID, Exception> errors = processStatusUpdates(statuses);
+    List<TaskStatusResponse> responses = new ArrayList<>();
+    for (Protos.TaskStatus status : statuses) {
+      Exception error = errors.get(status.getTaskId());
+      if (error == null) {
+        reconciler.update(status);
+        responses.add(TaskStatusResponse.processed());
+      } else {
+        responses.add(getErrorResponse(status, error));
+      }
+    }
+    return responses;
+  }
+
   /**
    * Returns the {@link StateStore}.
    */
@@ -259,4 +317,49 @@ public abstract class AbstractScheduler implements MesosEventClient {
    *               service
    */
   protected abstract void processStatusUpdate(Protos.TaskStatus status) throws Exception;
+
+  /**
+   * Invoked when Mesos has provided several task statuses to be processed together, with at most one status per task.
+   * By default, each status is passed to {@link #processStatusUpdate(Protos.TaskStatus)} in turn.
+   *
+   * @param statuses the task statuses, which may be for tasks which no longer exist or are otherwise unrelated to the
+   *                 service
+   * @return any statuses which failed to be processed, mapped by their task IDs to the errors encountered
+   * @throws StateStoreException with reason {@link Reason#STORAGE_ERROR} if the statuses could not be read from or
+   *                             written to storage, in which case they should not be acknowledged to Mesos
+   */
+  protected Map<Protos.TaskID, Exception> processStatusUpdates(List<Protos.TaskStatus> statuses) {
+    Map<Protos.TaskID, Exception> errors = new HashMap<>();
+    for (Protos.TaskStatus status : statuses) {
+      try {
+        processStatusUpdate(status);
+      } catch (StateStoreException e) {
+        if (e.getReason() == Reason.STORAGE_ERROR) {
+          throw e;
+        }
+        errors.put(status.getTaskId(), e);
+      } catch (Exception e) { // SUPPRESS CHECKSTYLE IllegalCatch
+        errors.put(status.getTaskId(), e);
+      }
+    }
+    return errors;
+  }
+
+  private TaskStatusResponse getErrorResponse(Protos.TaskStatus status, Exception e) {
+    if (e instanceof StateStoreException &&
+        ((StateStoreException) e).getReason() == Reason.NOT_FOUND)
+    {
+      logger.info(
+          "Status for unknown task. This may be expected if Mesos sent stale status information: "
+              + TextFormat.shortDebugString(status),
+          e
+      );
+      return TaskStatusResponse.unknownTask();
+    }
+    logger.warn(
+        "Failed to update TaskStatus received from Mesos: " + TextFormat.shortDebugString(status),
+        e
+    );
+    return TaskStatusResponse.processed();
+  }
 }
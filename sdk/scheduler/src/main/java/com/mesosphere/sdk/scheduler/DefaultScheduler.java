@@ -51,6 +51,7 @@ import com.mesosphere.sdk.state.StateStoreException;
 import com.mesosphere.sdk.state.StateStoreUtils;
 import com.mesosphere.sdk.storage.Persister;
 import com.mesosphere.sdk.storage.PersisterException;
+import com.mesosphere.sdk.storage.StorageError.Reason;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.mesos.Protos;
@@ -60,6 +61,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -545,6 +548,64 @@ public class DefaultScheduler extends AbstractScheduler {
     // Notify plans of status update:
     planCoordinator.getPlanManagers().forEach(planManager -> planManager.update(status));
 
+    storeNetworkInfo(taskName, status);
+  }
+
+  /**
+   * Stores the statuses together, then notifies each plan of all the stored statuses at once. Statuses for unknown
+   * tasks, or which are otherwise rejected by the {@link StateStore}, are returned without affecting the others. Storage
+   * failures are thrown instead, so that none of the statuses are acknowledged.
+   */
+  @Override
+  protected Map<Protos.TaskID, Exception> processStatusUpdates(List<Protos.TaskStatus> statuses) {
+    Map<Protos.TaskID, Exception> errors = new HashMap<>();
+    List<Protos.TaskStatus> storedStatuses = new ArrayList<>();
+    Map<String, Protos.TaskStatus> statusesByTaskName = new LinkedHashMap<>();
+    for (Protos.TaskStatus status : statuses) {
+      String taskName;
+      try {
+        taskName = StateStoreUtils.fetchTaskInfo(stateStore, status).getName();
+      } catch (StateStoreException e) {
+        if (e.getReason() == Reason.STORAGE_ERROR) {
+          // Leave the whole batch to be resent, rather than acknowledging a status which hasn't been stored.
+          throw e;
+        }
+        errors.put(status.getTaskId(), e);
+        continue;
+      }
+      if (statusesByTaskName.containsKey(taskName)) {
+        // Statuses for two launches of the same task: Store the earlier one first, so that the later one is validated
+        // against it as if they had been received separately.
+        storeStatuses(statusesByTaskName, storedStatuses, errors);
+        statusesByTaskName.clear();
+      }
+      statusesByTaskName.put(taskName, status);
+    }
+    storeStatuses(statusesByTaskName, storedStatuses, errors);
+
+    // Notify plans of status updates:
+    planCoordinator.getPlanManagers().forEach(planManager -> planManager.update(storedStatuses));
+    return errors;
+  }
+
+  private void storeStatuses(
+      Map<String, Protos.TaskStatus> statusesByTaskName,
+      List<Protos.TaskStatus> storedStatuses,
+      Map<Protos.TaskID, Exception> errors)
+  {
+    Map<String, StateStoreException> rejected = stateStore.storeStatuses(statusesByTaskName);
+    for (Map.Entry<String, Protos.TaskStatus> entry : statusesByTaskName.entrySet()) {
+      StateStoreException error = rejected.get(entry.getKey());
+      if (error != null) {
+        errors.put(entry.getValue().getTaskId(), error);
+        continue;
+      }
+      storedStatuses.add(entry.getValue());
+      storeNetworkInfo(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private void storeNetworkInfo(String taskName, Protos.TaskStatus status) {
     // If the TaskStatus contains an IP Address, store it as a property in the StateStore.
     // We expect the TaskStatus to contain an IP address in both Host or CNI networking.
     // Currently, we are always _missing_ the IP Address on TASK_LOST. We always expect it on TASK_RUNNINGs
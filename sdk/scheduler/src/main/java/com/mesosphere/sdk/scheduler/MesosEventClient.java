@@ -7,6 +7,11 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.mesos.Protos;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 /**
  * Accepts events received from Mesos.
@@ -60,6 +65,23 @@ public interface MesosEventClient {
    */
   TaskStatusResponse taskStatus(Protos.TaskStatus status);
 
+  /**
+   * Called when the framework has received several task status updates from Mesos, which are to be processed together.
+   * The statuses will be acknowledged to Mesos once this returns. By default, each status is passed to
+   * {@link #taskStatus(Protos.TaskStatus)} in turn. Clients whose {@link #taskStatus(Protos.TaskStatus)} returns a
+   * response when storing the status fails must override this, so that the failure is thrown instead.
+   *
+   * @param statuses The status messages describing the new states of some tasks, with at most one status per task
+   * @return The responses for each of the provided statuses, in the same order
+   * @throws com.mesosphere.sdk.state.StateStoreException if the statuses could not be stored, in which case they
+   *                                                      should not be acknowledged
+   */
+  default List<TaskStatusResponse> taskStatuses(List<Protos.TaskStatus> statuses) {
+    return statuses.stream()
+        .map(this::taskStatus)
+        .collect(Collectors.toList());
+  }
+
   /**
    * Returns any HTTP resources to be served on behalf of this instance.
    *
@@ -118,7 +140,9 @@ public interface MesosEventClient {
      */
     public static ClientStatusResponse footprint(boolean hasNewWork) {
       return new ClientStatusResponse(
-          Result.WORKING, new WorkingStatus(WorkingStatus.State.FOOTPRINT, hasNewWork), null);
+          Result.WORKING,
+          new WorkingStatus(WorkingStatus.State.FOOTPRINT, hasNewWork, Collections.emptySet()),
+          null);
     }
 
     /**
@@ -128,7 +152,9 @@ public interface MesosEventClient {
      */
     public static ClientStatusResponse launching(boolean hasNewWork) {
       return new ClientStatusResponse(
-          Result.WORKING, new WorkingStatus(WorkingStatus.State.LAUNCH, hasNewWork), null);
+          Result.WORKING,
+          new WorkingStatus(WorkingStatus.State.LAUNCH, hasNewWork, Collections.emptySet()),
+          null);
     }
 
     /**
@@ -158,6 +184,21 @@ public interface MesosEventClient {
       return new ClientStatusResponse(Result.IDLE, null, IdleRequest.REMOVE_CLIENT);
     }
 
+    /**
+     * Returns a copy of this {@code WORKING} response which tells the caller that only offers for the provided Mesos
+     * roles are needed, or this response as-is if it's {@code IDLE}. An empty collection indicates that offers for any
+     * role may be needed.
+     */
+    public ClientStatusResponse withRoles(Collection<String> roles) {
+      if (workingStatus == null) {
+        return this;
+      }
+      return new ClientStatusResponse(
+          result,
+          new WorkingStatus(workingStatus.state, workingStatus.hasNewWork, roles),
+          idleRequest);
+    }
+
     @Override
     public boolean equals(Object o) {
       return EqualsBuilder.reflectionEquals(this, o);
@@ -244,9 +285,16 @@ public interface MesosEventClient {
        */
       public final boolean hasNewWork;
 
-      private WorkingStatus(State state, boolean hasNewWork) {
+      /**
+       * The Mesos roles which the service needs offers for, allowing offers for any other roles to be suppressed.
+       * If this is empty, offers for all roles may be needed.
+       */
+      public final Set<String> roles;
+
+      private WorkingStatus(State state, boolean hasNewWork, Collection<String> roles) {
         this.state = state;
         this.hasNewWork = hasNewWork;
+        this.roles = Collections.unmodifiableSet(new TreeSet<>(roles));
       }
 
       @Override
@@ -261,7 +309,8 @@ public interface MesosEventClient {
 
       @Override
       public String toString() {
-        return hasNewWork ? String.format("%s+newWork", state) : state.toString();
+        String str = hasNewWork ? String.format("%s+newWork", state) : state.toString();
+        return roles.isEmpty() ? str : String.format("%s%s", str, roles);
       }
 
       /**
@@ -0,0 +1,186 @@
+package com.mesosphere.sdk.scheduler;
+
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.offer.evaluate.OfferEvaluationUtils;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.scheduler.plan.Step;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.specification.PortSpec;
+import com.mesosphere.sdk.specification.ResourceSet;
+import com.mesosphere.sdk.specification.ResourceSpec;
+import com.mesosphere.sdk.specification.TaskSpec;
+
+import org.apache.mesos.Protos;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * The minimum resources which any of a set of pending {@link Step}s needs from a single offer. This allows offers
+ * which couldn't be used by any of the steps to be skipped cheaply, without passing them through the full
+ * {@code OfferEvaluator}.
+ * <p>
+ * The demand is a lower bound: executor resources, specific port values, and placement constraints aren't considered.
+ * An offer which satisfies the demand may therefore still be rejected when it's evaluated, but an offer which doesn't
+ * satisfy the demand would always be rejected.
+ */
+public class ResourceDemand {
+
+  // Tolerance for rounding errors when summing scalar resources.
+  private static final double SCALAR_EPSILON = 0.0001;
+
+  // The minimum requirement for each role which the steps need resources from. An empty role means that the steps
+  // can use resources from any role.
+  private final Map<Optional<String>, Requirement> requirementsByRole;
+
+  private ResourceDemand(Map<Optional<String>, Requirement> requirementsByRole) {
+    this.requirementsByRole = requirementsByRole;
+  }
+
+  /**
+   * Returns the demand of the provided steps, or an empty {@link Optional} if any of the steps may need offers for
+   * something other than a pod deployment.
+   */
+  public static Optional<ResourceDemand> fromSteps(Collection<? extends Step> steps) {
+    Map<Optional<String>, Requirement> requirementsByRole = new HashMap<>();
+    for (Step step : steps) {
+      Optional<PodInstanceRequirement> podInstanceRequirement = step.getPodInstanceRequirement();
+      if (!podInstanceRequirement.isPresent()) {
+        // Not a pod deployment, e.g. resource cleanup during uninstall. This may involve any offer.
+        return Optional.empty();
+      }
+      requirementsByRole.merge(
+          OfferEvaluationUtils.getRole(podInstanceRequirement.get().getPodInstance().getPod()),
+          Requirement.of(podInstanceRequirement.get()),
+          Requirement::min);
+    }
+    return Optional.of(new ResourceDemand(requirementsByRole));
+  }
+
+  /**
+   * Returns why the provided offer can't be used by any of the steps, or an empty {@link Optional} if it might be.
+   */
+  public Optional<String> getShortfall(Protos.Offer offer) {
+    if (requirementsByRole.isEmpty()) {
+      return Optional.of("no pending steps");
+    }
+    Optional<String> shortfall = Optional.empty();
+    for (Map.Entry<Optional<String>, Requirement> entry : requirementsByRole.entrySet()) {
+      shortfall = entry.getValue().getShortfall(offer, entry.getKey());
+      if (!shortfall.isPresent()) {
+        return shortfall;
+      }
+    }
+    return shortfall;
+  }
+
+  @Override
+  public String toString() {
+    return requirementsByRole.toString();
+  }
+
+  /**
+   * The resources needed by a single pod launch, or the minimum of several.
+   */
+  private static final class Requirement {
+
+    private final Map<String, Double> scalars;
+
+    private final long portCount;
+
+    private Requirement(Map<String, Double> scalars, long portCount) {
+      this.scalars = scalars;
+      this.portCount = portCount;
+    }
+
+    private static Requirement of(PodInstanceRequirement podInstanceRequirement) {
+      PodSpec podSpec = podInstanceRequirement.getPodInstance().getPod();
+      // Tasks may share a resource set, in which case its resources are only needed once.
+      Map<String, ResourceSet> resourceSets = new HashMap<>();
+      for (TaskSpec taskSpec : podSpec.getTasks()) {
+        if (podInstanceRequirement.getTasksToLaunch().contains(taskSpec.getName())) {
+          resourceSets.put(taskSpec.getResourceSet().getId(), taskSpec.getResourceSet());
+        }
+      }
+
+      Map<String, Double> scalars = new TreeMap<>();
+      long portCount = 0;
+      for (ResourceSet resourceSet : resourceSets.values()) {
+        List<ResourceSpec> resourceSpecs = new ArrayList<>(resourceSet.getResources());
+        resourceSpecs.addAll(resourceSet.getVolumes());
+        for (ResourceSpec resourceSpec : resourceSpecs) {
+          if (resourceSpec instanceof PortSpec) {
+            // Ports on virtual networks may not need to be reserved from the host.
+            if (podSpec.getNetworks().isEmpty()) {
+              ++portCount;
+            }
+          } else if (resourceSpec.getValue().getType() == Protos.Value.Type.SCALAR) {
+            scalars.merge(resourceSpec.getName(), resourceSpec.getValue().getScalar().getValue(), Double::sum);
+          }
+        }
+      }
+      return new Requirement(scalars, portCount);
+    }
+
+    private static Requirement min(Requirement a, Requirement b) {
+      Map<String, Double> scalars = new TreeMap<>();
+      for (Map.Entry<String, Double> entry : a.scalars.entrySet()) {
+        Double other = b.scalars.get(entry.getKey());
+        if (other != null) {
+          scalars.put(entry.getKey(), Math.min(entry.getValue(), other));
+        }
+      }
+      return new Requirement(scalars, Math.min(a.portCount, b.portCount));
+    }
+
+    private Optional<String> getShortfall(Protos.Offer offer, Optional<String> role) {
+      Map<String, Double> offeredScalars = new HashMap<>();
+      long offeredPortCount = 0;
+      for (Protos.Resource resource : offer.getResourcesList()) {
+        if (!isConsumable(resource, role)) {
+          continue;
+        }
+        if (resource.getType() == Protos.Value.Type.SCALAR) {
+          offeredScalars.merge(resource.getName(), resource.getScalar().getValue(), Double::sum);
+        } else if (resource.getType() == Protos.Value.Type.RANGES
+            && Constants.PORTS_RESOURCE_TYPE.equals(resource.getName()))
+        {
+          for (Protos.Value.Range range : resource.getRanges().getRangeList()) {
+            offeredPortCount += range.getEnd() - range.getBegin() + 1;
+          }
+        }
+      }
+
+      for (Map.Entry<String, Double> entry : scalars.entrySet()) {
+        if (offeredScalars.getOrDefault(entry.getKey(), 0.0) + SCALAR_EPSILON < entry.getValue()) {
+          return Optional.of("insufficient " + entry.getKey());
+        }
+      }
+      if (offeredPortCount < portCount) {
+        return Optional.of("insufficient " + Constants.PORTS_RESOURCE_TYPE);
+      }
+      return Optional.empty();
+    }
+
+    /**
+     * Mirrors the role filtering in {@code MesosResourcePool}: resources which were allocated to a different role
+     * can't be used.
+     */
+    private static boolean isConsumable(Protos.Resource resource, Optional<String> role) {
+      return !role.isPresent()
+          || !resource.hasAllocationInfo()
+          || !resource.getAllocationInfo().hasRole()
+          || role.get().equals(resource.getAllocationInfo().getRole());
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s ports:%d", scalars, portCount);
+    }
+  }
+}
@@ -54,8 +54,10 @@ import com.mesosphere.sdk.state.ConfigStoreException;
 import com.mesosphere.sdk.state.FrameworkStore;
 import com.mesosphere.sdk.state.StateStore;
 import com.mesosphere.sdk.state.StateStoreUtils;
+import com.mesosphere.sdk.storage.CompressingPersister;
 import com.mesosphere.sdk.storage.Persister;
 import com.mesosphere.sdk.storage.PersisterCache;
+import com.mesosphere.sdk.storage.WatchingPersisterCache;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.slf4j.Logger;
@@ -107,9 +109,7 @@ public class SchedulerBuilder {
     this(
         serviceSpec,
         schedulerConfig,
-        schedulerConfig.isStateCacheEnabled() ?
-            new PersisterCache(CuratorPersister.newBuilder(serviceSpec).build(), schedulerConfig) :
-            CuratorPersister.newBuilder(serviceSpec).build());
+        buildPersister(serviceSpec, schedulerConfig));
   }
 
   SchedulerBuilder(ServiceSpec serviceSpec, SchedulerConfig schedulerConfig, Persister persister) {
@@ -119,6 +119,22 @@ public class SchedulerBuilder {
     this.persister = persister;
   }
 
+  private static Persister buildPersister(ServiceSpec serviceSpec, SchedulerConfig schedulerConfig) {
+    CuratorPersister.Builder builder = CuratorPersister.newBuilder(serviceSpec);
+    schedulerConfig.getPersisterWriteBatchWindow().ifPresent(builder::setWriteBatchWindow);
+    CuratorPersister curatorPersister = builder.build();
+    Persister persister = curatorPersister;
+    if (schedulerConfig.isStateCacheEnabled()) {
+      persister = schedulerConfig.isStateCacheWatchEnabled()
+          ? new WatchingPersisterCache(curatorPersister, schedulerConfig)
+          : new PersisterCache(curatorPersister, schedulerConfig);
+    }
+    // Compression goes above any cache, so that the cache also holds the compressed values. The compressing persister
+    // keeps the decoded form of each value it reads, so that repeated cache hits return the same decoded array. It's
+    // installed even when compression is disabled, so that any previously compressed values can still be read:
+    return new CompressingPersister(persister, schedulerConfig.getPersisterCompressionThreshold());
+  }
+
   private static Optional<PlanManager> getDecommissionPlanManager(
       ServiceSpec serviceSpec, StateStore stateStore, Optional<String> namespace)
   {
@@ -396,7 +412,9 @@ public class SchedulerBuilder {
     ConfigStore<ServiceSpec> configStore = new ConfigStore<>(
         DefaultServiceSpec.getConfigurationFactory(serviceSpec, additionalDeserializableSubtypes),
         persister,
-        namespace);
+        namespace,
+        schedulerConfig.getConfigCacheSize(),
+        schedulerConfig.isConfigDeltaEncodingEnabled());
 
     if (schedulerConfig.isUninstallEnabled()) {
       // FRAMEWORK UNINSTALL: The scheduler and all its service(s) are being uninstalled. Launch this service in
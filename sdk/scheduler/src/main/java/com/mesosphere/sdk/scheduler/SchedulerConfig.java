@@ -9,6 +9,7 @@ import com.mesosphere.sdk.framework.EnvStore;
 import com.mesosphere.sdk.generated.SDKBuildInfo;
 import com.mesosphere.sdk.offer.Constants;
 import com.mesosphere.sdk.offer.LoggingUtils;
+import com.mesosphere.sdk.state.ConfigStore;
 import com.mesosphere.sdk.state.GoalStateOverride;
 
 import com.auth0.jwt.algorithms.Algorithm;
@@ -110,6 +111,11 @@ public final class SchedulerConfig {
    */
   private static final int DEFAULT_AUTH_TOKEN_REFRESH_THRESHOLD_S = 30;
 
+  /**
+   * The default maximum number of concurrent ZK reads when loading the state cache.
+   */
+  private static final int DEFAULT_STATE_CACHE_LOAD_PARALLELISM = 8;
+
   /**
    * Specifies the URI of the bootstrap artifact to be used when launching stopped tasks.
    */
@@ -141,6 +147,117 @@ public final class SchedulerConfig {
    */
   private static final String DISABLE_STATE_CACHE_ENV = "DISABLE_STATE_CACHE";
 
+  /**
+   * Envvar to specify the maximum number of concurrent ZK reads when loading the state cache.
+   */
+  private static final String STATE_CACHE_LOAD_PARALLELISM_ENV = "STATE_CACHE_LOAD_PARALLELISM";
+
+  /**
+   * Controls whether the state cache is loaded incrementally (disabled by default).
+   * If this envvar is set (to anything at all), accesses to the state cache only wait for the data which they touch,
+   * while the remaining data is loaded in the background.
+   */
+  private static final String ENABLE_STATE_CACHE_INCREMENTAL_LOAD_ENV = "ENABLE_STATE_CACHE_INCREMENTAL_LOAD";
+
+  /**
+   * Controls whether the state cache is kept up to date via ZK watches (disabled by default).
+   * If this envvar is set (to anything at all), changes made to ZK by other parties are applied to the state cache as
+   * they occur, rather than only when the cache is explicitly refreshed.
+   */
+  private static final String ENABLE_STATE_CACHE_WATCH_ENV = "ENABLE_STATE_CACHE_WATCH";
+
+  /**
+   * Envvar to specify the maximum number of deserialized configurations to retain in memory for each service.
+   */
+  private static final String CONFIG_CACHE_SIZE_ENV = "CONFIG_CACHE_SIZE";
+
+  /**
+   * Controls whether new service configurations are stored as deltas against a shared base configuration (disabled by
+   * default). If this envvar is set (to anything at all), configurations are delta-encoded when stored. Once any have
+   * been stored this way, the scheduler can't be downgraded to a version without delta support.
+   */
+  private static final String ENABLE_CONFIG_DELTA_ENCODING_ENV = "ENABLE_CONFIG_DELTA_ENCODING";
+
+  /**
+   * Envvar to specify the number of offers which may be evaluated concurrently for a given pod. When this is unset or
+   * {@code <=1}, offers are evaluated one at a time.
+   */
+  private static final String OFFER_EVALUATION_PARALLELISM_ENV = "OFFER_EVALUATION_PARALLELISM";
+
+  /**
+   * Envvar to specify the number of services which may be evaluated against offers concurrently in a multi-service
+   * scheduler. When this is unset or {@code <=1}, services are given offers one at a time.
+   */
+  private static final String MULTI_SERVICE_OFFER_PARALLELISM_ENV = "MULTI_SERVICE_OFFER_PARALLELISM";
+
+  /**
+   * Envvar to specify the number of queued offers to be evaluated together. Offers from the same agent are always
+   * evaluated together, so a batch may exceed this size. When this is unset or {@code <=0}, all queued offers are
+   * evaluated together.
+   */
+  private static final String OFFER_BATCH_SIZE_ENV = "OFFER_BATCH_SIZE";
+
+  /**
+   * Envvar to specify how long an offer may wait in the offer queue (in seconds). Offers which have waited longer are
+   * declined without being evaluated, as their resources are likely to have been offered again in a fresher offer by
+   * the time they're evaluated. When this is unset, offers are always evaluated.
+   */
+  private static final String OFFER_QUEUE_MAX_AGE_S_ENV = "OFFER_QUEUE_MAX_AGE_S";
+
+  /**
+   * Envvar to enable holding of unused offers (in seconds). Rather than being declined, unused offers are held for up
+   * to this duration and evaluated again in following offer cycles, so that new work may be launched without first
+   * reviving offers. When this is unset, unused offers are declined immediately.
+   */
+  private static final String OFFER_HOLD_DURATION_S_ENV = "OFFER_HOLD_DURATION_S";
+
+  /**
+   * Envvar to specify the maximum number of unused offers to be held at once, when offer holding is enabled.
+   */
+  private static final String OFFER_HOLD_CAPACITY_ENV = "OFFER_HOLD_CAPACITY";
+
+  private static final int DEFAULT_OFFER_HOLD_CAPACITY = 50;
+
+  /**
+   * Envvar to specify the number of services which may be rebuilt concurrently when a multi-service scheduler is
+   * recovering its services at startup. When this is unset or {@code <=1}, services are rebuilt one at a time.
+   */
+  private static final String SERVICE_RECOVERY_PARALLELISM_ENV = "SERVICE_RECOVERY_PARALLELISM";
+
+  /**
+   * Envvar to enable coalescing of concurrent ZK writes into shared transactions. The value is the duration to wait
+   * for additional writes before committing a transaction (in milliseconds), and may be zero. When this is unset,
+   * writes are performed individually.
+   */
+  private static final String PERSISTER_WRITE_BATCH_WINDOW_MS_ENV = "PERSISTER_WRITE_BATCH_WINDOW_MS";
+
+  /**
+   * Envvar to enable compression of large values written to ZK. The value is the minimum size of a value to be
+   * compressed (in bytes). When this is unset, new values are stored uncompressed. Values are readable regardless of
+   * this setting, so it may be set, changed, or unset at any time, including when rolling back to an earlier
+   * configuration.
+   *
+   * <p>The state cache holds values in their compressed form, while the most recently read or written decoded form of
+   * each compressed value is also kept, so that offer cycles don't decompress and re-compare each task on every read.
+   * Lowering the threshold therefore saves ZK space and transfer at the cost of CPU on first reads and extra heap for
+   * the decoded copies.
+   */
+  private static final String PERSISTER_COMPRESSION_THRESHOLD_BYTES_ENV = "PERSISTER_COMPRESSION_THRESHOLD_BYTES";
+
+  /**
+   * Envvar to enable batched processing of task status updates. The value is the maximum number of received statuses
+   * to be stored together. When this is unset or {@code <=0}, each status is processed on the driver thread as it's
+   * received, and is acknowledged implicitly.
+   */
+  private static final String STATUS_BATCH_SIZE_ENV = "STATUS_BATCH_SIZE";
+
+  /**
+   * Envvar to limit how many offers, offer evaluations, and accepted operations are logged in full at INFO within a
+   * single offer cycle. Past the limit, only a summary is logged at INFO, while the full details are logged at DEBUG.
+   * When this is unset or {@code <0}, everything is logged in full at INFO.
+   */
+  private static final String OFFER_LOG_BUDGET_ENV = "OFFER_LOG_BUDGET";
+
   /**
    * Controls whether deadlocks should lead to the scheduler process exiting (enabled by default).
    * If this envvar is set (to anything at all), the scheduler will not exit if a deadlock is encountered.
@@ -451,6 +568,130 @@ public final class SchedulerConfig {
     return !envStore.isPresent(DISABLE_STATE_CACHE_ENV);
   }
 
+  /**
+   * Returns the maximum number of concurrent ZK reads when loading the state cache, or {@code <=1} if reads should be
+   * performed serially.
+   */
+  public int getStateCacheLoadParallelism() {
+    return envStore.getOptionalInt(STATE_CACHE_LOAD_PARALLELISM_ENV, DEFAULT_STATE_CACHE_LOAD_PARALLELISM);
+  }
+
+  public boolean isStateCacheIncrementalLoadEnabled() {
+    return envStore.isPresent(ENABLE_STATE_CACHE_INCREMENTAL_LOAD_ENV);
+  }
+
+  public boolean isStateCacheWatchEnabled() {
+    return envStore.isPresent(ENABLE_STATE_CACHE_WATCH_ENV);
+  }
+
+  /**
+   * Returns the maximum number of deserialized configurations to be retained in memory by each service's
+   * {@link ConfigStore}, or {@code <=0} if caching is disabled.
+   */
+  public int getConfigCacheSize() {
+    return envStore.getOptionalInt(CONFIG_CACHE_SIZE_ENV, ConfigStore.DEFAULT_CACHE_SIZE);
+  }
+
+  public boolean isConfigDeltaEncodingEnabled() {
+    return envStore.isPresent(ENABLE_CONFIG_DELTA_ENCODING_ENV);
+  }
+
+  /**
+   * Returns the maximum number of offers to be evaluated concurrently for a single pod, or {@code <=1} if offers
+   * should be evaluated serially. In either case, the offer which is selected is always the first passing offer.
+   */
+  public int getOfferEvaluationParallelism() {
+    return envStore.getOptionalInt(OFFER_EVALUATION_PARALLELISM_ENV, 1);
+  }
+
+  /**
+   * Returns the maximum number of services to be evaluated against offers concurrently in a multi-service scheduler,
+   * or {@code <=1} if services should be given offers serially.
+   */
+  public int getMultiServiceOfferParallelism() {
+    return envStore.getOptionalInt(MULTI_SERVICE_OFFER_PARALLELISM_ENV, 1);
+  }
+
+  /**
+   * Returns the number of queued offers to be evaluated together, or {@code <=0} if all queued offers should be
+   * evaluated together.
+   */
+  public int getOfferBatchSize() {
+    return envStore.getOptionalInt(OFFER_BATCH_SIZE_ENV, 0);
+  }
+
+  /**
+   * Returns the maximum time an offer may wait in the offer queue before it's declined without evaluation, or an
+   * empty {@link Optional} if offers should always be evaluated.
+   */
+  public Optional<Duration> getOfferQueueMaxAge() {
+    if (!envStore.isPresent(OFFER_QUEUE_MAX_AGE_S_ENV)) {
+      return Optional.empty();
+    }
+    return Optional.of(Duration.ofSeconds(envStore.getOptionalInt(OFFER_QUEUE_MAX_AGE_S_ENV, 0)));
+  }
+
+  /**
+   * Returns the maximum time for which unused offers may be held, or an empty {@link Optional} if unused offers should
+   * be declined immediately.
+   */
+  public Optional<Duration> getOfferHoldDuration() {
+    if (!envStore.isPresent(OFFER_HOLD_DURATION_S_ENV)) {
+      return Optional.empty();
+    }
+    return Optional.of(Duration.ofSeconds(envStore.getOptionalInt(OFFER_HOLD_DURATION_S_ENV, 0)));
+  }
+
+  /**
+   * Returns the maximum number of unused offers to be held at once.
+   */
+  public int getOfferHoldCapacity() {
+    return envStore.getOptionalInt(OFFER_HOLD_CAPACITY_ENV, DEFAULT_OFFER_HOLD_CAPACITY);
+  }
+
+  /**
+   * Returns the maximum number of services to be rebuilt concurrently when recovering a multi-service scheduler, or
+   * {@code <=1} if services should be rebuilt serially.
+   */
+  public int getServiceRecoveryParallelism() {
+    return envStore.getOptionalInt(SERVICE_RECOVERY_PARALLELISM_ENV, 1);
+  }
+
+  /**
+   * Returns the duration to wait for additional ZK writes before committing them together, or an empty
+   * {@link Optional} if writes should not be coalesced.
+   */
+  public Optional<Duration> getPersisterWriteBatchWindow() {
+    if (!envStore.isPresent(PERSISTER_WRITE_BATCH_WINDOW_MS_ENV)) {
+      return Optional.empty();
+    }
+    return Optional.of(Duration.ofMillis(envStore.getOptionalInt(PERSISTER_WRITE_BATCH_WINDOW_MS_ENV, 0)));
+  }
+
+  /**
+   * Returns the minimum size of a value to be compressed when it's written to ZK, or {@link Integer#MAX_VALUE} if
+   * values should not be compressed.
+   */
+  public int getPersisterCompressionThreshold() {
+    return envStore.getOptionalInt(PERSISTER_COMPRESSION_THRESHOLD_BYTES_ENV, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the maximum number of task statuses to be processed in a single batch, or {@code <=0} if statuses should
+   * be processed individually.
+   */
+  public int getStatusBatchSize() {
+    return envStore.getOptionalInt(STATUS_BATCH_SIZE_ENV, 0);
+  }
+
+  /**
+   * Returns the number of offers, offer evaluations, and accepted operations to be logged in full at INFO in each
+   * offer cycle, or {@code <0} if there's no limit.
+   */
+  public int getOfferLogBudget() {
+    return envStore.getOptionalInt(OFFER_LOG_BUDGET_ENV, -1);
+  }
+
   public boolean isDeadlockExitEnabled() {
     return !envStore.isPresent(DISABLE_DEADLOCK_EXIT_ENV);
   }
@@ -1,5 +1,7 @@
 package com.mesosphere.sdk.scheduler.multi;
 
+import com.mesosphere.sdk.debug.OfferOutcomeTrackerV2;
+import com.mesosphere.sdk.http.endpoints.DebugOffersResource;
 import com.mesosphere.sdk.http.endpoints.MultiArtifactResource;
 import com.mesosphere.sdk.http.endpoints.MultiConfigResource;
 import com.mesosphere.sdk.http.endpoints.MultiEndpointsResource;
@@ -17,6 +19,7 @@ import com.mesosphere.sdk.offer.ResourceUtils;
 import com.mesosphere.sdk.scheduler.AbstractScheduler;
 import com.mesosphere.sdk.scheduler.MesosEventClient;
 import com.mesosphere.sdk.scheduler.OfferResources;
+import com.mesosphere.sdk.scheduler.ResourceDemand;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
 import com.mesosphere.sdk.scheduler.plan.DefaultPhase;
 import com.mesosphere.sdk.scheduler.plan.DefaultPlan;
@@ -27,6 +30,7 @@ import com.mesosphere.sdk.scheduler.uninstall.DeregisterStep;
 import com.mesosphere.sdk.storage.Persister;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.TextFormat;
 import org.apache.mesos.Protos;
 import org.slf4j.Logger;
@@ -36,9 +40,16 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 /**
@@ -67,6 +78,16 @@ public class MultiServiceEventClient implements MesosEventClient {
   // Calculated during a call to offers(), to be returned in the following call to getClientStatus().
   private final Collection<String> serviceNamesToGiveOffers;
 
+  // Calculated alongside serviceNamesToGiveOffers: The minimum resources needed from an offer by each of those
+  // services, where known. Offers which don't meet a service's demand aren't sent to that service.
+  private final Map<String, ResourceDemand> offerDemands;
+
+  // Counts the offers which weren't sent to services due to their offerDemands.
+  private final OfferOutcomeTrackerV2 offerOutcomeTracker;
+
+  // Pool for sending offers to several services concurrently, or empty if services are given offers one at a time.
+  private final Optional<ExecutorService> offerExecutor;
+
   public MultiServiceEventClient(
       String frameworkName,
       SchedulerConfig schedulerConfig,
@@ -109,6 +130,15 @@ public class MultiServiceEventClient implements MesosEventClient {
     this.offerDiscipline = offerDiscipline;
     this.deregisterStep = deregisterStep;
     this.serviceNamesToGiveOffers = new ArrayList<>();
+    this.offerDemands = new HashMap<>();
+    this.offerOutcomeTracker = new OfferOutcomeTrackerV2();
+    int parallelism = schedulerConfig.getMultiServiceOfferParallelism();
+    this.offerExecutor = parallelism > 1
+        ? Optional.of(Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("MultiServiceOffers-%d")
+            .build()))
+        : Optional.empty();
   }
 
   /**
@@ -160,6 +190,9 @@ public class MultiServiceEventClient implements MesosEventClient {
    * <li>Else (mix of zero or more {@code IDLE/*} and zero or more {@code WORKING/*}):
    * {@code WORKING/LAUNCH}, with {@code newWork=true} if any service had {@code newWork=true}</li>
    * </ol>
+   * <p>
+   * {@code WORKING} responses are scoped to the union of the roles needed by the services which are being given
+   * offers, unless any of those services may need offers for any role.
    */
   @Override
   @SuppressWarnings({
@@ -168,6 +201,7 @@ public class MultiServiceEventClient implements MesosEventClient {
   })
   public ClientStatusResponse getClientStatus() {
     serviceNamesToGiveOffers.clear();
+    offerDemands.clear();
     Collection<String> servicesToUninstall = new ArrayList<>();
     Collection<AbstractScheduler> servicesToRemove = new ArrayList<>();
 
@@ -210,6 +244,9 @@ public class MultiServiceEventClient implements MesosEventClient {
       boolean allServicesIdle = true;
       boolean anyServicesFootprint = false;
       boolean anyServicesHaveNewWork = false;
+      // The roles needed by services which are being given offers, or empty if any service may need any role:
+      Set<String> demandedRoles = new HashSet<>();
+      boolean anyServicesNeedAllRoles = false;
       for (AbstractScheduler service : services) {
         String serviceName = service.getServiceSpec().getName();
         ClientStatusResponse statusResponse = service.getClientStatus();
@@ -229,6 +266,12 @@ public class MultiServiceEventClient implements MesosEventClient {
             allServicesIdle = false;
             if (offersAllowedByDiscipline) {
               serviceNamesToGiveOffers.add(serviceName);
+              service.getOfferDemand().ifPresent(demand -> offerDemands.put(serviceName, demand));
+              if (statusResponse.workingStatus.roles.isEmpty()) {
+                anyServicesNeedAllRoles = true;
+              } else {
+                demandedRoles.addAll(statusResponse.workingStatus.roles);
+              }
             }
             if (statusResponse.workingStatus.state ==
                 ClientStatusResponse.WorkingStatus.State.FOOTPRINT)
@@ -262,10 +305,12 @@ public class MultiServiceEventClient implements MesosEventClient {
         clientStatusToReturn = ClientStatusResponse.idle();
       } else if (anyServicesFootprint) {
         // One or more of the services is getting footprint, so tell upstream that we're getting footprint.
-        clientStatusToReturn = ClientStatusResponse.footprint(anyServicesHaveNewWork);
+        clientStatusToReturn = ClientStatusResponse.footprint(anyServicesHaveNewWork)
+            .withRoles(anyServicesNeedAllRoles ? Collections.emptySet() : demandedRoles);
       } else {
         // Otherwise, one or more services isn't idle, and none of them are getting footprint.
-        clientStatusToReturn = ClientStatusResponse.launching(anyServicesHaveNewWork);
+        clientStatusToReturn = ClientStatusResponse.launching(anyServicesHaveNewWork)
+            .withRoles(anyServicesNeedAllRoles ? Collections.emptySet() : demandedRoles);
       }
     } finally {
       multiServiceManager.sharedUnlock();
@@ -308,6 +353,11 @@ public class MultiServiceEventClient implements MesosEventClient {
    * Forwards the provided offer(s) to all enclosed services, seeing which services are interested in them. The
    * services which actually receive offers is decided by their status response to {@link #getClientStatus()}, as well
    * as the configured {@link OfferDiscipline}.
+   * <p>
+   * Services are given offers in the order that they were selected, and each offer is used by at most one service.
+   * When {@link SchedulerConfig#getMultiServiceOfferParallelism()} is enabled, any offers containing reservations
+   * belonging to a service are first given to that service, with each of those services evaluated concurrently. Any
+   * offers which remain are then given to the services serially, as usual.
    */
   @Override
   public OfferResponse offers(Collection<Protos.Offer> offers) {
@@ -319,43 +369,40 @@ public class MultiServiceEventClient implements MesosEventClient {
         offers.size(), offers.size() == 1 ? "" : "s",
         serviceNamesToGiveOffers.size(), serviceNamesToGiveOffers.size() == 1 ? "" : "s");
 
-    // Decline short if any service isn't ready.
-    boolean anyServicesNotReady = false;
-    List<OfferRecommendation> recommendations = new ArrayList<>();
-
+    List<OfferResponse> offerResponses = new ArrayList<>();
     List<Protos.Offer> remainingOffers = new ArrayList<>(offers);
+
+    // The services which were already given offers containing their reservations, and don't need to be given an empty
+    // list of offers again below.
+    Set<String> servicesGivenOffers = new HashSet<>();
+    if (offerExecutor.isPresent()) {
+      Map<String, OfferResponse> reservedOfferResponses = sendReservedOffers(offerExecutor.get(), remainingOffers);
+      for (Map.Entry<String, OfferResponse> entry : reservedOfferResponses.entrySet()) {
+        servicesGivenOffers.add(entry.getKey());
+        offerResponses.add(entry.getValue());
+        remainingOffers = filterOutAcceptedOffers(remainingOffers, entry.getValue());
+      }
+    }
+
     for (String serviceName : serviceNamesToGiveOffers) {
       // Note: If we run out of remainingOffers we regardless keep going with an empty list of offers against all
       // eligible services. We do this to turn the crank on the services periodically.
-      Optional<AbstractScheduler> service = multiServiceManager.getService(serviceName);
-      if (!service.isPresent()) {
-        // In practice this shouldn't happen, unless perhaps the developer removed the service directly.
-        LOGGER.warn(
-            "Service '{}' was scheduled to receive offers, then later removed: continuing without" +
-                " it",
-            serviceName
-        );
+      if (remainingOffers.isEmpty() && servicesGivenOffers.contains(serviceName)) {
         continue;
       }
-      OfferResponse offerResponse = service.get().offers(remainingOffers);
-      recommendations.addAll(offerResponse.recommendations);
-      if (!remainingOffers.isEmpty() && !offerResponse.recommendations.isEmpty()) {
-        // Some offers were consumed. Update what remains to offer to the next service.
-        remainingOffers =
-            OfferUtils.filterOutAcceptedOffers(remainingOffers, offerResponse.recommendations);
-      }
-      boolean readyForOffers = offerResponse.result == OfferResponse.Result.PROCESSED;
-      if (!offerResponse.recommendations.isEmpty() || !readyForOffers) {
-        // Only log result when it's non-empty/unusual
-        LOGGER.info("{} offer result: {}[{} recommendation{}], {} offer{} remaining",
-            serviceName,
-            offerResponse.result,
-            offerResponse.recommendations.size(),
-            offerResponse.recommendations.size() == 1 ? "" : "s",
-            remainingOffers.size(),
-            remainingOffers.size() == 1 ? "" : "s");
+      Optional<OfferResponse> offerResponse = sendOffers(serviceName, filterOffers(serviceName, remainingOffers));
+      if (offerResponse.isPresent()) {
+        offerResponses.add(offerResponse.get());
+        remainingOffers = filterOutAcceptedOffers(remainingOffers, offerResponse.get());
       }
-      if (!readyForOffers) {
+    }
+
+    // Decline short if any service isn't ready.
+    boolean anyServicesNotReady = false;
+    List<OfferRecommendation> recommendations = new ArrayList<>();
+    for (OfferResponse offerResponse : offerResponses) {
+      recommendations.addAll(offerResponse.recommendations);
+      if (offerResponse.result != OfferResponse.Result.PROCESSED) {
         anyServicesNotReady = true;
       }
     }
@@ -370,6 +417,133 @@ public class MultiServiceEventClient implements MesosEventClient {
     }
   }
 
+  /**
+   * Gives each offer containing reserved resources to the first service in {@link #serviceNamesToGiveOffers} which
+   * owns any of those resources, then waits for the services to finish evaluating their offers concurrently. As each
+   * offer is only given to a single service, the result doesn't depend on the order in which the services finish.
+   * Offers which don't meet the demand of their service are left for the remaining services.
+   *
+   * @return the responses of the services which were given offers, in the order that the services were selected
+   */
+  private Map<String, OfferResponse> sendReservedOffers(ExecutorService executor, List<Protos.Offer> offers) {
+    Map<String, List<Protos.Offer>> offersByService = new HashMap<>();
+    for (Protos.Offer offer : offers) {
+      Set<String> owners = offer.getResourcesList().stream()
+          .map(ResourceUtils::getNamespace)
+          .filter(Optional::isPresent)
+          .map(Optional::get)
+          .collect(Collectors.toSet());
+      if (owners.isEmpty()) {
+        continue;
+      }
+      serviceNamesToGiveOffers.stream()
+          .filter(owners::contains)
+          .findFirst()
+          .ifPresent(serviceName -> offersByService.computeIfAbsent(serviceName, k -> new ArrayList<>()).add(offer));
+    }
+
+    Map<String, Future<Optional<OfferResponse>>> futures = new LinkedHashMap<>();
+    for (String serviceName : serviceNamesToGiveOffers) {
+      List<Protos.Offer> serviceOffers =
+          filterOffers(serviceName, offersByService.getOrDefault(serviceName, Collections.emptyList()));
+      if (!serviceOffers.isEmpty()) {
+        futures.put(serviceName, executor.submit(() -> sendOffers(serviceName, serviceOffers)));
+      }
+    }
+
+    Map<String, OfferResponse> offerResponses = new LinkedHashMap<>();
+    for (Map.Entry<String, Future<Optional<OfferResponse>>> entry : futures.entrySet()) {
+      awaitOfferResponse(entry.getValue())
+          .ifPresent(offerResponse -> offerResponses.put(entry.getKey(), offerResponse));
+    }
+    return offerResponses;
+  }
+
+  private static Optional<OfferResponse> awaitOfferResponse(Future<Optional<OfferResponse>> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while sending offers to services", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException("Failed to send offers to service", cause);
+    }
+  }
+
+  /**
+   * Returns the subset of the provided offers which meet the specified service's demand, counting any others as
+   * rejected. This avoids sending each service offers which its {@code OfferEvaluator} would only reject.
+   */
+  private List<Protos.Offer> filterOffers(String serviceName, List<Protos.Offer> offers) {
+    ResourceDemand demand = offerDemands.get(serviceName);
+    if (demand == null || offers.isEmpty()) {
+      return offers;
+    }
+    List<Protos.Offer> filteredOffers = new ArrayList<>();
+    for (Protos.Offer offer : offers) {
+      Optional<String> shortfall = demand.getShortfall(offer);
+      if (shortfall.isPresent()) {
+        offerOutcomeTracker.getSummary().addSkippedOffer(offer.getSlaveId().getValue(), shortfall.get());
+      } else {
+        filteredOffers.add(offer);
+      }
+    }
+    if (filteredOffers.size() < offers.size()) {
+      LOGGER.info("{} skipped {} of {} offer{} which can't meet its demand: {}",
+          serviceName,
+          offers.size() - filteredOffers.size(),
+          offers.size(),
+          offers.size() == 1 ? "" : "s",
+          demand);
+    }
+    return filteredOffers;
+  }
+
+  /**
+   * Sends the provided offers to the specified service, or returns an empty {@link Optional} if the service is no
+   * longer present.
+   */
+  private Optional<OfferResponse> sendOffers(String serviceName, List<Protos.Offer> offers) {
+    Optional<AbstractScheduler> service = multiServiceManager.getService(serviceName);
+    if (!service.isPresent()) {
+      // In practice this shouldn't happen, unless perhaps the developer removed the service directly.
+      LOGGER.warn(
+          "Service '{}' was scheduled to receive offers, then later removed: continuing without" +
+              " it",
+          serviceName
+      );
+      return Optional.empty();
+    }
+    OfferResponse offerResponse = service.get().offers(offers);
+    if (!offerResponse.recommendations.isEmpty() || offerResponse.result != OfferResponse.Result.PROCESSED) {
+      // Only log result when it's non-empty/unusual
+      LOGGER.info("{} offer result: {}[{} recommendation{}] from {} offer{}",
+          serviceName,
+          offerResponse.result,
+          offerResponse.recommendations.size(),
+          offerResponse.recommendations.size() == 1 ? "" : "s",
+          offers.size(),
+          offers.size() == 1 ? "" : "s");
+    }
+    return Optional.of(offerResponse);
+  }
+
+  /**
+   * Returns the subset of the provided offers which weren't consumed by the provided response.
+   */
+  private static List<Protos.Offer> filterOutAcceptedOffers(List<Protos.Offer> offers, OfferResponse offerResponse) {
+    if (offers.isEmpty() || offerResponse.recommendations.isEmpty()) {
+      return offers;
+    }
+    return OfferUtils.filterOutAcceptedOffers(offers, offerResponse.recommendations);
+  }
+
   /**
    * Maps the reserved resources in the provided unused offers according to the services that own them, then queries
    * those services directly to see what resources they consider unexpected.
@@ -505,22 +679,57 @@ public class MultiServiceEventClient implements MesosEventClient {
    */
   @Override
   public TaskStatusResponse taskStatus(Protos.TaskStatus status) {
-    return multiServiceManager
-        .getMatchingService(status)
+    return getStatusService(status)
         .map(x -> x.taskStatus(status))
-        .orElseGet(() -> multiServiceManager
-            .getServiceSanitized(frameworkName)
-            .map(x -> {
-              LOGGER.info("Forwarding task status to default service: {}", frameworkName);
-              return x.taskStatus(status);
-            })
-            .orElseGet(() -> {
-              // Unrecognized service. Status for old task ?
-              LOGGER.info("Received status for unknown task {}: {}",
-                  status.getTaskId().getValue(), TextFormat.shortDebugString(status));
-              return TaskStatusResponse.unknownTask();
-            })
-        );
+        .orElseGet(TaskStatusResponse::unknownTask);
+  }
+
+  /**
+   * Groups the provided statuses by the services that own their tasks, as with {@link #taskStatus(Protos.TaskStatus)},
+   * then passes each service all of its statuses at once so that they're stored together. If any service fails to
+   * store its statuses, the exception is passed through and none of the statuses should be acknowledged.
+   */
+  @Override
+  public List<TaskStatusResponse> taskStatuses(List<Protos.TaskStatus> statuses) {
+    TaskStatusResponse[] responses = new TaskStatusResponse[statuses.size()];
+    Map<AbstractScheduler, List<Integer>> indexesByService = new LinkedHashMap<>();
+    for (int i = 0; i < statuses.size(); ++i) {
+      Optional<AbstractScheduler> service = getStatusService(statuses.get(i));
+      if (service.isPresent()) {
+        indexesByService.computeIfAbsent(service.get(), x -> new ArrayList<>()).add(i);
+      } else {
+        responses[i] = TaskStatusResponse.unknownTask();
+      }
+    }
+    for (Map.Entry<AbstractScheduler, List<Integer>> entry : indexesByService.entrySet()) {
+      List<Integer> indexes = entry.getValue();
+      List<TaskStatusResponse> serviceResponses = entry.getKey().taskStatuses(
+          indexes.stream().map(statuses::get).collect(Collectors.toList()));
+      for (int i = 0; i < indexes.size(); ++i) {
+        responses[indexes.get(i)] = serviceResponses.get(i);
+      }
+    }
+    return Arrays.asList(responses);
+  }
+
+  /**
+   * Returns the service which owns the task for the provided status. Statuses which don't map to a known service are
+   * forwarded to the default service, whose name matches the framework name, if one exists.
+   */
+  private Optional<AbstractScheduler> getStatusService(Protos.TaskStatus status) {
+    Optional<AbstractScheduler> service = multiServiceManager.getMatchingService(status);
+    if (service.isPresent()) {
+      return service;
+    }
+    service = multiServiceManager.getServiceSanitized(frameworkName);
+    if (service.isPresent()) {
+      LOGGER.info("Forwarding task status to default service: {}", frameworkName);
+    } else {
+      // Unrecognized service. Status for old task ?
+      LOGGER.info("Received status for unknown task {}: {}",
+          status.getTaskId().getValue(), TextFormat.shortDebugString(status));
+    }
+    return service;
   }
 
   /**
@@ -540,6 +749,7 @@ public class MultiServiceEventClient implements MesosEventClient {
         : Collections.emptyList();
     List<Object> endpoints = new ArrayList<>();
     endpoints.addAll(Arrays.asList(
+        new DebugOffersResource(offerOutcomeTracker),
         new MultiHealthResource(planManagers, schedulerConfig),
         new PlansResource(planManagers),
         new MultiArtifactResource(multiServiceManager),
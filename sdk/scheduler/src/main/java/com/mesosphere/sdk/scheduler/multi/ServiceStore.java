@@ -1,5 +1,6 @@
 package com.mesosphere.sdk.scheduler.multi;
 
+import com.mesosphere.sdk.metrics.Metrics;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.scheduler.AbstractScheduler;
 import com.mesosphere.sdk.scheduler.SchedulerUtils;
@@ -8,12 +9,19 @@ import com.mesosphere.sdk.storage.PersisterException;
 import com.mesosphere.sdk.storage.PersisterUtils;
 import com.mesosphere.sdk.storage.StorageError.Reason;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Default implementation of persistent storage which keeps track of the services that have been added to a dynamic
@@ -47,9 +55,24 @@ public class ServiceStore {
 
   private final ServiceFactory serviceFactory;
 
+  private final int recoveryParallelism;
+
   public ServiceStore(Persister persister, ServiceFactory serviceFactory) {
+    this(persister, serviceFactory, 1);
+  }
+
+  /**
+   * Creates a new instance which may rebuild services concurrently in {@link #recover()}.
+   *
+   * @param recoveryParallelism the maximum number of services to be rebuilt concurrently during recovery, or
+   *                            {@code <=1} to rebuild them one at a time. When this is greater than one, the
+   *                            {@link ServiceFactory} and {@link Persister} must be thread-safe
+   * @see com.mesosphere.sdk.scheduler.SchedulerConfig#getServiceRecoveryParallelism()
+   */
+  public ServiceStore(Persister persister, ServiceFactory serviceFactory, int recoveryParallelism) {
     this.persister = persister;
     this.serviceFactory = serviceFactory;
+    this.recoveryParallelism = recoveryParallelism;
   }
 
   private static String getSanitizedServiceContextPath(String serviceName) {
@@ -92,6 +115,10 @@ public class ServiceStore {
    * This should be invoked during Scheduler process initialization to recover any currently-running services.
    * Returns a list of reconstructed service objects. Any services which failed to be reconstructed (due to problems
    * in the developer-provided factory) are omitted from the returned list.
+   * <p>
+   * Services may be reconstructed concurrently, see {@link #ServiceStore(Persister, ServiceFactory, int)}. In either
+   * case this only returns once every service has been reconstructed or has failed, so that the caller doesn't start
+   * accepting offers with only some of its services in place.
    *
    * @throws PersisterException in the event of issues with storage access
    */
@@ -108,22 +135,78 @@ public class ServiceStore {
       }
     }
 
-    Collection<AbstractScheduler> recovered = new ArrayList<>();
-    for (String child : children) {
-      LOGGER.info("Recovering prior service: {}", child);
-      try {
-        recovered.add(serviceFactory.buildService(persister.get(getRawServiceContextPath(child))));
-      } catch (Exception e) { // SUPPRESS CHECKSTYLE IllegalCatch
-        LOGGER.error(
-            String.format(
-                "Unable to reconstruct service %s during recovery, continuing without this service",
-                child
-            ),
-            e
-        );
+    if (recoveryParallelism <= 1 || children.size() <= 1) {
+      Collection<AbstractScheduler> recovered = new ArrayList<>();
+      for (String child : children) {
+        recoverService(child).ifPresent(recovered::add);
+      }
+      return recovered;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(recoveryParallelism, children.size()),
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("service-recovery-%d")
+            .build());
+    try {
+      List<Future<Optional<AbstractScheduler>>> futures = new ArrayList<>();
+      for (String child : children) {
+        futures.add(executor.submit(() -> recoverService(child)));
+      }
+      // Services are returned in the same order as when recovering serially.
+      Collection<AbstractScheduler> recovered = new ArrayList<>();
+      for (Future<Optional<AbstractScheduler>> future : futures) {
+        awaitService(future).ifPresent(recovered::add);
+      }
+      return recovered;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Reconstructs the specified service, or returns an empty {@link Optional} if it couldn't be reconstructed. A
+   * failure only affects this service: the others are still recovered.
+   */
+  private Optional<AbstractScheduler> recoverService(String child) {
+    LOGGER.info("Recovering prior service: {}", child);
+    long startNanos = System.nanoTime();
+    boolean success = false;
+    try {
+      AbstractScheduler service = serviceFactory.buildService(persister.get(getRawServiceContextPath(child)));
+      success = true;
+      return Optional.of(service);
+    } catch (Exception e) { // SUPPRESS CHECKSTYLE IllegalCatch
+      LOGGER.error(
+          String.format(
+              "Unable to reconstruct service %s during recovery, continuing without this service",
+              child
+          ),
+          e
+      );
+      return Optional.empty();
+    } finally {
+      Duration duration = Duration.ofNanos(System.nanoTime() - startNanos);
+      Metrics.recordServiceRecovery(child, duration, success);
+      LOGGER.info("Recovery of service {} {} after {}ms", child, success ? "succeeded" : "failed", duration.toMillis());
+    }
+  }
+
+  private static Optional<AbstractScheduler> awaitService(Future<Optional<AbstractScheduler>> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while recovering services", e);
+    } catch (ExecutionException e) {
+      // Exceptions from the factory are already handled in recoverService(), so this can only be an Error.
+      Throwable cause = e.getCause();
+      if (cause instanceof Error) {
+        throw (Error) cause;
       }
+      throw new IllegalStateException("Failed to recover service", cause);
     }
-    return recovered;
   }
 
   /**
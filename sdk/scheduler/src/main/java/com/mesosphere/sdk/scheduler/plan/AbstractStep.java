@@ -14,8 +14,12 @@ import java.util.UUID;
 
 /**
  * Provides a default implementation of commonly-used {@link Step} logic.
+ * <p>
+ * Parent elements are notified of any status changes via {@link ObservableElement}, allowing them to cache their own
+ * statuses. Subclasses which override {@link #getStatus()} to compute their status on the fly must also override
+ * {@link #isStatusStable()} to return {@code false}.
  */
-public abstract class AbstractStep implements Step {
+public abstract class AbstractStep implements Step, ObservableElement {
 
   /**
    * Non-static to ensure that we inherit the names of subclasses.
@@ -28,6 +32,8 @@ public abstract class AbstractStep implements Step {
 
   private final Object statusLock = new Object();
 
+  private final StatusListeners statusListeners = new StatusListeners();
+
   private Status status;
 
   private boolean interrupted;
@@ -100,6 +106,24 @@ public abstract class AbstractStep implements Step {
       logger.info("{}: changed status from: {} to: {} (interrupted={})",
           getName(), oldStatus, newStatus, interrupted);
     }
+    statusListeners.notifyListeners();
+  }
+
+  @Override
+  public void addStatusListener(Runnable listener) {
+    statusListeners.add(listener);
+  }
+
+  /**
+   * Returns whether the status may change without a call to {@link #setStatus(Status)}: a {@link Status#DELAYED}
+   * step returns to {@link Status#PENDING} once its backoff delay has elapsed, which is only detected when
+   * {@link #getStatus()} is called.
+   */
+  @Override
+  public boolean isStatusStable() {
+    synchronized (statusLock) {
+      return status != Status.DELAYED;
+    }
   }
 
   @Override
@@ -107,6 +131,7 @@ public abstract class AbstractStep implements Step {
     synchronized (statusLock) {
       interrupted = true;
     }
+    statusListeners.notifyListeners();
   }
 
   @Override
@@ -114,6 +139,7 @@ public abstract class AbstractStep implements Step {
     synchronized (statusLock) {
       interrupted = false;
     }
+    statusListeners.notifyListeners();
   }
 
   @Override
@@ -11,9 +11,9 @@ import java.util.UUID;
 
 /**
  * The Default Phase implementation tracks {@link Step}s both by their UUID and by their ordering. It is an immutable
- * class.
+ * class. Its status is cached until one of its steps reports a change.
  */
-public class DefaultPhase implements Phase {
+public class DefaultPhase implements Phase, ObservableElement {
 
   private final UUID id = UUID.randomUUID();
 
@@ -25,6 +25,8 @@ public class DefaultPhase implements Phase {
 
   private final List<Step> steps;
 
+  private final StatusCache statusCache = new StatusCache(this);
+
   public DefaultPhase(String name, List<Step> steps, Strategy<Step> strategy, List<String> errors) {
     this.name = name;
     this.steps = steps;
@@ -57,6 +59,33 @@ public class DefaultPhase implements Phase {
     return steps;
   }
 
+  @Override
+  public Status getStatus() {
+    return statusCache.getStatus();
+  }
+
+  @Override
+  public void interrupt() {
+    Phase.super.interrupt();
+    statusCache.invalidate();
+  }
+
+  @Override
+  public void proceed() {
+    Phase.super.proceed();
+    statusCache.invalidate();
+  }
+
+  @Override
+  public void addStatusListener(Runnable listener) {
+    statusCache.addListener(listener);
+  }
+
+  @Override
+  public boolean isStatusStable() {
+    return statusCache.isCached();
+  }
+
   @Override
   public String toString() {
     return ReflectionToStringBuilder.toString(this);
@@ -14,9 +14,10 @@ import java.util.UUID;
 
 /**
  * An ordered list of {@link Phase}s, composed into a {@link Plan}. It may
- * optionally contain a List of errors associated with the phase.
+ * optionally contain a List of errors associated with the phase. Its status is cached until one of its phases reports
+ * a change.
  */
-public class DefaultPlan implements Plan {
+public class DefaultPlan implements Plan, ObservableElement {
 
   private final UUID id = UUID.randomUUID();
 
@@ -28,6 +29,8 @@ public class DefaultPlan implements Plan {
 
   private final String name;
 
+  private final StatusCache statusCache = new StatusCache(this);
+
   public DefaultPlan(
       final String name,
       final List<Phase> phases,
@@ -73,6 +76,33 @@ public class DefaultPlan implements Plan {
     return getErrors(errors);
   }
 
+  @Override
+  public Status getStatus() {
+    return statusCache.getStatus();
+  }
+
+  @Override
+  public void interrupt() {
+    Plan.super.interrupt();
+    statusCache.invalidate();
+  }
+
+  @Override
+  public void proceed() {
+    Plan.super.proceed();
+    statusCache.invalidate();
+  }
+
+  @Override
+  public void addStatusListener(Runnable listener) {
+    statusCache.addListener(listener);
+  }
+
+  @Override
+  public boolean isStatusStable() {
+    return statusCache.isCached();
+  }
+
   @Override
   public String toString() {
     // Provide a nicely formatted tree -- mainly for developer use in e.g. unit tests
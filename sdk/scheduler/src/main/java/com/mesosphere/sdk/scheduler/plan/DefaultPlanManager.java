@@ -14,8 +14,11 @@ public class DefaultPlanManager implements PlanManager {
 
   private Plan plan;
 
+  private TaskStatusRouter taskStatusRouter;
+
   protected DefaultPlanManager(final Plan plan) {
     this.plan = plan;
+    this.taskStatusRouter = new TaskStatusRouter(plan);
   }
 
   /**
@@ -44,6 +47,7 @@ public class DefaultPlanManager implements PlanManager {
   public void setPlan(Plan plan) {
     synchronized (lock) {
       this.plan = plan;
+      this.taskStatusRouter = new TaskStatusRouter(plan);
     }
   }
 
@@ -54,7 +58,11 @@ public class DefaultPlanManager implements PlanManager {
 
   @Override
   public void update(Protos.TaskStatus status) {
-    plan.update(status);
+    TaskStatusRouter router;
+    synchronized (lock) {
+      router = taskStatusRouter;
+    }
+    router.update(status);
   }
 
   @Override
@@ -31,11 +31,24 @@ public class DefaultPodInstance implements PodInstance {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultPodInstance other = (DefaultPodInstance) o;
+    return new EqualsBuilder()
+        .append(podSpec, other.podSpec)
+        .append(index, other.index)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(podSpec)
+        .append(index)
+        .toHashCode();
   }
 }
@@ -15,6 +15,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.TextFormat;
 import org.apache.mesos.Protos;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -23,6 +24,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -34,7 +36,7 @@ import java.util.stream.Collectors;
     "checkstyle:ReturnCount",
     "checkstyle:CyclomaticComplexity"
 })
-public class DeploymentStep extends AbstractStep {
+public class DeploymentStep extends AbstractStep implements RoutableStep {
 
   protected final StateStore stateStore;
 
@@ -50,6 +52,8 @@ public class DeploymentStep extends AbstractStep {
 
   private final AtomicBoolean prepared = new AtomicBoolean(false);
 
+  private final List<WeakReference<Consumer<Collection<Protos.TaskID>>>> taskIdListeners = new ArrayList<>();
+
   /**
    * Creates a new instance with the provided {@code name}, initial {@code status}, associated pod instance required
    * by the step, and any {@code errors} to be displayed to the user.
@@ -132,9 +136,21 @@ public class DeploymentStep extends AbstractStep {
       tasks.keySet().forEach(id -> setTaskStatus(id, Status.STARTING));
     }
     prepared.set(true);
+    notifyTaskIdListeners();
     updateStatus();
   }
 
+  /**
+   * Synchronized to ensure that listeners see task IDs in the same order as {@link #updateOfferStatus(Collection)}
+   * records them.
+   */
+  @Override
+  public synchronized void addTaskIdListener(Consumer<Collection<Protos.TaskID>> listener) {
+    taskIdListeners.removeIf(ref -> ref.get() == null);
+    taskIdListeners.add(new WeakReference<>(listener));
+    listener.accept(new ArrayList<>(tasks.keySet()));
+  }
+
   @Override
   public List<String> getErrors() {
     return errors;
@@ -158,6 +174,9 @@ public class DeploymentStep extends AbstractStep {
 
   /**
    * Synchronized to ensure consistency between this and {@link #updateOfferStatus(Collection)}.
+   * <p>
+   * Statuses for tasks which weren't launched by this step are ignored, which allows them to be routed directly to
+   * the owning step. Subclasses must not act upon other tasks' statuses.
    */
   @Override
   public synchronized void update(Protos.TaskStatus status) {
@@ -245,6 +264,17 @@ public class DeploymentStep extends AbstractStep {
     updateStatus();
   }
 
+  private void notifyTaskIdListeners() {
+    Collection<Protos.TaskID> taskIds = new ArrayList<>(tasks.keySet());
+    taskIdListeners.removeIf(ref -> ref.get() == null);
+    for (WeakReference<Consumer<Collection<Protos.TaskID>>> ref : taskIdListeners) {
+      Consumer<Collection<Protos.TaskID>> listener = ref.get();
+      if (listener != null) {
+        listener.accept(taskIds);
+      }
+    }
+  }
+
   private GoalState getGoalState(Protos.TaskID taskId) {
     try {
       String taskName = CommonIdUtils.toTaskName(taskId);
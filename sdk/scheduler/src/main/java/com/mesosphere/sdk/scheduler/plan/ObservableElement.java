@@ -0,0 +1,21 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+/**
+ * An {@link Element} which notifies listeners whenever its status may have changed. This allows parent elements to
+ * reuse their aggregate status until one of their children has changed, rather than recomputing it from the entire
+ * tree on every call.
+ */
+public interface ObservableElement extends Element {
+
+  /**
+   * Registers a listener to be invoked whenever the status of this element may have changed. Listeners are only
+   * weakly referenced, so the caller must retain the listener for as long as it should be notified.
+   */
+  void addStatusListener(Runnable listener);
+
+  /**
+   * Returns whether the current status of this element will remain valid until its listeners are notified. Elements
+   * whose status may change on its own, e.g. when a backoff delay has elapsed, must return {@code false}.
+   */
+  boolean isStatusStable();
+}
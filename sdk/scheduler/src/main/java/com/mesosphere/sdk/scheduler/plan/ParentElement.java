@@ -9,10 +9,8 @@ import org.slf4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 
 /**
@@ -104,16 +102,6 @@ public interface ParentElement<C extends Element> extends Element, Interruptible
 
   @Override
   default Status getStatus() {
-    Collection<Status> childStatuses = getChildren().stream()
-        .map(Element::getStatus)
-        .collect(Collectors.toList());
-    Collection<Status> candidateStatuses =
-        getStrategy()
-            .getCandidates(getChildren(), Collections.emptyList())
-            .stream()
-            .map(Element::getStatus)
-            .collect(Collectors.toList());
-    return PlanUtils.getAggregateStatus(
-        getName(), childStatuses, candidateStatuses, getErrors(), isInterrupted());
+    return PlanUtils.getAggregateStatus(this);
   }
 }
@@ -41,6 +41,15 @@ public interface PlanManager {
    */
   void update(TaskStatus status);
 
+  /**
+   * Notifies constituent elements of several TaskStatus updates, in order.
+   *
+   * @param statuses TaskStatuses from Mesos.
+   */
+  default void update(Collection<TaskStatus> statuses) {
+    statuses.forEach(this::update);
+  }
+
   /**
    * Returns a {@link Set} of assets that are dirty, i.e. being worked upon by the {@link Plan} that this
    * {@link PlanManager} is working on.
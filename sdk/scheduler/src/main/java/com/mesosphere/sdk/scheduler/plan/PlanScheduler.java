@@ -3,6 +3,7 @@ package com.mesosphere.sdk.scheduler.plan;
 import com.mesosphere.sdk.framework.TaskKiller;
 import com.mesosphere.sdk.offer.CommonIdUtils;
 import com.mesosphere.sdk.offer.InvalidRequirementException;
+import com.mesosphere.sdk.offer.LogBudget;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.OfferRecommendation;
 import com.mesosphere.sdk.offer.TaskUtils;
@@ -52,9 +53,11 @@ public class PlanScheduler {
   {
     List<OfferRecommendation> allRecommendations = new ArrayList<>();
     List<Protos.Offer> availableOffers = new ArrayList<>(offers);
+    // Shared across all steps, so that the logging of rejected offers is limited per offer cycle rather than per step:
+    LogBudget logBudget = offerEvaluator.newLogBudget();
 
     for (Step step : steps) {
-      List<OfferRecommendation> stepRecommendations = resourceOffers(availableOffers, step);
+      List<OfferRecommendation> stepRecommendations = resourceOffers(availableOffers, step, logBudget);
       allRecommendations.addAll(stepRecommendations);
 
       // Remove the consumed offers from the list of available offers
@@ -69,7 +72,7 @@ public class PlanScheduler {
     return allRecommendations;
   }
 
-  private List<OfferRecommendation> resourceOffers(List<Protos.Offer> offers, Step step) {
+  private List<OfferRecommendation> resourceOffers(List<Protos.Offer> offers, Step step, LogBudget logBudget) {
     if (!(step.isPending() || step.isPrepared())) {
       logger.info("Ignoring resource offers for step: {} status: {}",
           step.getName(),
@@ -97,7 +100,7 @@ public class PlanScheduler {
     // requirement and accept them, if any are found:
     final List<OfferRecommendation> recommendations;
     try {
-      recommendations = offerEvaluator.evaluate(podInstanceRequirement, offers);
+      recommendations = offerEvaluator.evaluate(podInstanceRequirement, offers, logBudget);
     } catch (InvalidRequirementException | IOException e) {
       logger.error("Failed generate OfferRecommendations.", e);
       return Collections.emptyList();
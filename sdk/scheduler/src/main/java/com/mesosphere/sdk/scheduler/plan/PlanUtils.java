@@ -87,6 +87,24 @@ public final class PlanUtils {
     return true;
   }
 
+  /**
+   * Returns the overall status to display for the provided parent element, computed from the statuses of its
+   * children and of the candidates selected by its Strategy.
+   */
+  public static <C extends Element> Status getAggregateStatus(ParentElement<C> parent) {
+    Collection<Status> childStatuses = parent.getChildren().stream()
+        .map(Element::getStatus)
+        .collect(Collectors.toList());
+    Collection<Status> candidateStatuses =
+        parent.getStrategy()
+            .getCandidates(parent.getChildren(), Collections.emptyList())
+            .stream()
+            .map(Element::getStatus)
+            .collect(Collectors.toList());
+    return getAggregateStatus(
+        parent.getName(), childStatuses, candidateStatuses, parent.getErrors(), parent.isInterrupted());
+  }
+
   /**
    * Returns the overall status to display by a parent element of the provided children.
    *
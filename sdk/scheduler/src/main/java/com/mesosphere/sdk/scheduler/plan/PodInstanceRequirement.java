@@ -98,12 +98,29 @@ public final class PodInstanceRequirement {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    PodInstanceRequirement other = (PodInstanceRequirement) o;
+    return new EqualsBuilder()
+        .append(podInstance, other.podInstance)
+        .append(environment, other.environment)
+        .append(recoveryType, other.recoveryType)
+        .append(tasksToLaunch, other.tasksToLaunch)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(podInstance)
+        .append(environment)
+        .append(recoveryType)
+        .append(tasksToLaunch)
+        .toHashCode();
   }
 
   /**
@@ -0,0 +1,21 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import org.apache.mesos.Protos;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Step} which only acts upon {@link Protos.TaskStatus}es for the tasks that it launched itself. This allows
+ * {@link TaskStatusRouter} to deliver each status to the step which owns the task, rather than to every step in the
+ * plan.
+ */
+public interface RoutableStep extends Step {
+
+  /**
+   * Registers a listener which is invoked with the IDs of the tasks whose statuses are relevant to this step. The
+   * listener is invoked immediately with the current task IDs, and again whenever they change. Invocations for a given
+   * step are serialized. Listeners are weakly referenced, so callers must retain them for as long as they're needed.
+   */
+  void addTaskIdListener(Consumer<Collection<Protos.TaskID>> listener);
+}
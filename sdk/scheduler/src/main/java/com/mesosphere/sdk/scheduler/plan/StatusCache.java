@@ -0,0 +1,126 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Memoizes the aggregate status of a {@link ParentElement}, which would otherwise be recomputed from every descendant
+ * (including each level's Strategy) on every call. The cached status is discarded whenever a child notifies that its
+ * status may have changed, and that notification is passed on to this element's own listeners. As a result, each
+ * change in a {@link Step} only causes statuses to be recomputed along the path from that step up to its plan.
+ * <p>
+ * A status is only cached while all of the children are {@link ObservableElement}s with stable statuses. Otherwise
+ * it's recomputed on every call, as with {@link ParentElement#getStatus()}. The parent's interrupted state is also
+ * checked on each call, as its Strategy may be interrupted or resumed directly.
+ * <p>
+ * This is lock-free, so that child elements may notify listeners from within their own critical sections.
+ */
+final class StatusCache {
+
+  private final ParentElement<? extends Element> parent;
+
+  private final StatusListeners listeners = new StatusListeners();
+
+  // Retained here because children only weakly reference their listeners:
+  private final Runnable invalidator = this::invalidate;
+
+  private final AtomicLong version = new AtomicLong();
+
+  private final AtomicReference<CachedStatus> cached = new AtomicReference<>();
+
+  private boolean subscribed;
+
+  private boolean allChildrenObservable;
+
+  StatusCache(ParentElement<? extends Element> parent) {
+    this.parent = parent;
+  }
+
+  Status getStatus() {
+    CachedStatus cachedStatus = cached.get();
+    if (cachedStatus != null && cachedStatus.interrupted == parent.isInterrupted()) {
+      return cachedStatus.status;
+    }
+
+    if (!subscribe()) {
+      return PlanUtils.getAggregateStatus(parent);
+    }
+    long computeVersion = version.get();
+    boolean interrupted = parent.isInterrupted();
+    Status status = PlanUtils.getAggregateStatus(parent);
+    if (areChildrenStable()) {
+      CachedStatus newCachedStatus = new CachedStatus(status, interrupted, computeVersion);
+      cached.set(newCachedStatus);
+      if (version.get() != computeVersion) {
+        // A child changed while we were computing the status, which may be outdated:
+        cached.compareAndSet(newCachedStatus, null);
+      }
+    }
+    return status;
+  }
+
+  void addListener(Runnable listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Returns whether a status is currently cached, in which case it will remain valid until listeners are notified.
+   */
+  boolean isCached() {
+    CachedStatus cachedStatus = cached.get();
+    return cachedStatus != null && cachedStatus.version == version.get();
+  }
+
+  /**
+   * Discards any cached status, and notifies listeners that the status may have changed.
+   */
+  void invalidate() {
+    version.incrementAndGet();
+    cached.set(null);
+    listeners.notifyListeners();
+  }
+
+  /**
+   * Registers with all children upon first use, and returns whether all children support notifications.
+   */
+  private synchronized boolean subscribe() {
+    if (!subscribed) {
+      allChildrenObservable = true;
+      for (Element child : parent.getChildren()) {
+        if (child instanceof ObservableElement) {
+          ((ObservableElement) child).addStatusListener(invalidator);
+        } else {
+          allChildrenObservable = false;
+        }
+      }
+      subscribed = true;
+    }
+    return allChildrenObservable;
+  }
+
+  private boolean areChildrenStable() {
+    for (Element child : parent.getChildren()) {
+      if (!((ObservableElement) child).isStatusStable()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A previously computed status, along with the inputs which aren't covered by child notifications.
+   */
+  private static final class CachedStatus {
+    private final Status status;
+
+    private final boolean interrupted;
+
+    private final long version;
+
+    private CachedStatus(Status status, boolean interrupted, long version) {
+      this.status = status;
+      this.interrupted = interrupted;
+      this.version = version;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The listeners which have been registered against an {@link ObservableElement}.
+ * <p>
+ * Listeners are weakly referenced: Parent elements may be discarded while their children live on, e.g. when the
+ * recovery plan is regenerated around its existing phases, and those parents must not be retained by the children.
+ */
+final class StatusListeners {
+
+  private final List<WeakReference<Runnable>> listeners = new ArrayList<>();
+
+  synchronized void add(Runnable listener) {
+    listeners.removeIf(ref -> ref.get() == null);
+    listeners.add(new WeakReference<>(listener));
+  }
+
+  /**
+   * Invokes all listeners which are still reachable. Listeners are invoked without holding any locks, so this may be
+   * called from within a caller's own critical section.
+   */
+  void notifyListeners() {
+    List<Runnable> toNotify = new ArrayList<>();
+    synchronized (this) {
+      Iterator<WeakReference<Runnable>> iter = listeners.iterator();
+      while (iter.hasNext()) {
+        Runnable listener = iter.next().get();
+        if (listener == null) {
+          iter.remove();
+        } else {
+          toNotify.add(listener);
+        }
+      }
+    }
+    toNotify.forEach(Runnable::run);
+  }
+}
@@ -0,0 +1,116 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import com.mesosphere.sdk.offer.LoggingUtils;
+
+import com.google.protobuf.TextFormat;
+import org.apache.mesos.Protos;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Delivers {@link Protos.TaskStatus}es to the steps of a {@link Plan} which own the status's task, rather than
+ * broadcasting each status to every element of the plan via {@link Plan#update(Protos.TaskStatus)}. This keeps the
+ * cost of a status storm, e.g. following an agent failure, proportional to the number of statuses rather than to
+ * statuses &times; steps.
+ * <p>
+ * Only {@link RoutableStep}s within the {@link DefaultPhase}s of a {@link DefaultPlan} are indexed, as other elements
+ * may handle status updates in their own way. Those other elements continue to receive every status. Statuses for
+ * tasks which aren't owned by any indexed step are broadcast to the whole plan.
+ */
+public final class TaskStatusRouter {
+
+  private static final Logger LOGGER = LoggingUtils.getLogger(TaskStatusRouter.class);
+
+  private final Plan plan;
+
+  private final List<Element> unroutedElements = new ArrayList<>();
+
+  private final Map<Protos.TaskID, Set<RoutableStep>> stepsByTaskId = new ConcurrentHashMap<>();
+
+  private final Map<RoutableStep, Collection<Protos.TaskID>> taskIdsByStep = new ConcurrentHashMap<>();
+
+  // Retained here because steps only weakly reference their listeners:
+  private final List<Consumer<Collection<Protos.TaskID>>> listeners = new ArrayList<>();
+
+  public TaskStatusRouter(Plan plan) {
+    this.plan = plan;
+    if (!(plan instanceof DefaultPlan)) {
+      // Leave the index empty, so that all statuses are broadcast.
+      return;
+    }
+    for (Phase phase : plan.getChildren()) {
+      if (!(phase instanceof DefaultPhase)) {
+        unroutedElements.add(phase);
+        continue;
+      }
+      for (Step step : phase.getChildren()) {
+        if (step instanceof RoutableStep) {
+          RoutableStep routableStep = (RoutableStep) step;
+          Consumer<Collection<Protos.TaskID>> listener = taskIds -> index(routableStep, taskIds);
+          listeners.add(listener);
+          routableStep.addTaskIdListener(listener);
+        } else {
+          unroutedElements.add(step);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the plan whose steps are indexed by this instance.
+   */
+  public Plan getPlan() {
+    return plan;
+  }
+
+  /**
+   * Delivers the provided status to the steps which own its task, along with any elements which aren't indexed.
+   */
+  public void update(Protos.TaskStatus status) {
+    Set<RoutableStep> steps = stepsByTaskId.get(status.getTaskId());
+    if (steps == null) {
+      plan.update(status);
+      return;
+    }
+    LOGGER.debug("Routing TaskStatus to {} step{} and {} other element{} in {}: {}",
+        steps.size(), steps.size() == 1 ? "" : "s",
+        unroutedElements.size(), unroutedElements.size() == 1 ? "" : "s",
+        plan.getName(),
+        TextFormat.shortDebugString(status));
+    steps.forEach(step -> step.update(status));
+    unroutedElements.forEach(element -> element.update(status));
+  }
+
+  /**
+   * Replaces the task IDs for the provided step. Invocations for a given step are serialized by the step itself, while
+   * the per-task sets are replaced atomically so that concurrent lookups see a consistent view.
+   */
+  private void index(RoutableStep step, Collection<Protos.TaskID> taskIds) {
+    Collection<Protos.TaskID> previousTaskIds = taskIdsByStep.put(step, new ArrayList<>(taskIds));
+    if (previousTaskIds != null) {
+      for (Protos.TaskID taskId : previousTaskIds) {
+        stepsByTaskId.computeIfPresent(taskId, (id, steps) -> {
+          Set<RoutableStep> remaining = new HashSet<>(steps);
+          remaining.remove(step);
+          return remaining.isEmpty() ? null : Collections.unmodifiableSet(remaining);
+        });
+      }
+    }
+    for (Protos.TaskID taskId : taskIds) {
+      stepsByTaskId.compute(taskId, (id, steps) -> {
+        Set<RoutableStep> updated = steps == null ? new HashSet<>() : new HashSet<>(steps);
+        updated.add(step);
+        return Collections.unmodifiableSet(updated);
+      });
+    }
+  }
+}
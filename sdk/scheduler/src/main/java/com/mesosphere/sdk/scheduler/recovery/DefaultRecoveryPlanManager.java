@@ -17,6 +17,7 @@ import com.mesosphere.sdk.scheduler.plan.PlanManager;
 import com.mesosphere.sdk.scheduler.plan.PlanUtils;
 import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
 import com.mesosphere.sdk.scheduler.plan.Step;
+import com.mesosphere.sdk.scheduler.plan.TaskStatusRouter;
 import com.mesosphere.sdk.scheduler.plan.backoff.Backoff;
 import com.mesosphere.sdk.scheduler.plan.strategy.ParallelStrategy;
 import com.mesosphere.sdk.scheduler.recovery.monitor.FailureMonitor;
@@ -71,6 +72,11 @@ public class DefaultRecoveryPlanManager implements PlanManager {
 
   protected final Object planLock = new Object();
 
+  /**
+   * Built upon the first status update for the current plan, as the plan is regenerated on every offer cycle.
+   */
+  private TaskStatusRouter taskStatusRouter;
+
   public DefaultRecoveryPlanManager(
       StateStore stateStore,
       ConfigStore<ServiceSpec> configStore,
@@ -157,7 +163,22 @@ public class DefaultRecoveryPlanManager implements PlanManager {
   @Override
   public void update(Protos.TaskStatus status) {
     synchronized (planLock) {
-      getPlan().update(status);
+      if (taskStatusRouter == null || taskStatusRouter.getPlan() != plan) {
+        taskStatusRouter = new TaskStatusRouter(plan);
+      }
+      taskStatusRouter.update(status);
+    }
+  }
+
+  /**
+   * Updates existing steps with several statuses, while only locking the plan once.
+   *
+   * @param statuses task statuses
+   */
+  @Override
+  public void update(Collection<Protos.TaskStatus> statuses) {
+    synchronized (planLock) {
+      statuses.forEach(this::update);
     }
   }
 
@@ -65,12 +65,25 @@ public final class DefaultCommandSpec implements CommandSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultCommandSpec other = (DefaultCommandSpec) o;
+    return new EqualsBuilder()
+        .append(value, other.value)
+        .append(environment, other.environment)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(value)
+        .append(environment)
+        .toHashCode();
   }
 
   /**
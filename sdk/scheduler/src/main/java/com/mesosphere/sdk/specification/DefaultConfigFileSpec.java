@@ -64,12 +64,27 @@ public final class DefaultConfigFileSpec implements ConfigFileSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultConfigFileSpec other = (DefaultConfigFileSpec) o;
+    return new EqualsBuilder()
+        .append(name, other.name)
+        .append(relativePath, other.relativePath)
+        .append(templateContent, other.templateContent)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(name)
+        .append(relativePath)
+        .append(templateContent)
+        .toHashCode();
   }
 
   /**
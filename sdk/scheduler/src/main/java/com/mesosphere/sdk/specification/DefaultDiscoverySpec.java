@@ -48,12 +48,25 @@ public final class DefaultDiscoverySpec implements DiscoverySpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultDiscoverySpec other = (DefaultDiscoverySpec) o;
+    return new EqualsBuilder()
+        .append(prefix, other.prefix)
+        .append(visibility, other.visibility)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(prefix)
+        .append(visibility)
+        .toHashCode();
   }
 
   /**
@@ -131,12 +131,33 @@ public final class DefaultHealthCheckSpec implements HealthCheckSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultHealthCheckSpec other = (DefaultHealthCheckSpec) o;
+    return new EqualsBuilder()
+        .append(command, other.command)
+        .append(maxConsecutiveFailures, other.maxConsecutiveFailures)
+        .append(delay, other.delay)
+        .append(interval, other.interval)
+        .append(timeout, other.timeout)
+        .append(gracePeriod, other.gracePeriod)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(command)
+        .append(maxConsecutiveFailures)
+        .append(delay)
+        .append(interval)
+        .append(timeout)
+        .append(gracePeriod)
+        .toHashCode();
   }
 
   /**
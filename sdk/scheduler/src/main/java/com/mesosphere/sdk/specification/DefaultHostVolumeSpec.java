@@ -82,12 +82,27 @@ public final class DefaultHostVolumeSpec implements HostVolumeSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultHostVolumeSpec other = (DefaultHostVolumeSpec) o;
+    return new EqualsBuilder()
+        .append(hostPath, other.hostPath)
+        .append(containerPath, other.containerPath)
+        .append(mode, other.mode)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(hostPath)
+        .append(containerPath)
+        .append(mode)
+        .toHashCode();
   }
 
   /**
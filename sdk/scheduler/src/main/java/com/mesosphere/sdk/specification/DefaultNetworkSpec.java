@@ -69,12 +69,27 @@ public final class DefaultNetworkSpec implements NetworkSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultNetworkSpec other = (DefaultNetworkSpec) o;
+    return new EqualsBuilder()
+        .append(networkName, other.networkName)
+        .append(portMappings, other.portMappings)
+        .append(labels, other.labels)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(networkName)
+        .append(portMappings)
+        .append(labels)
+        .toHashCode();
   }
 
   @Override
@@ -64,6 +64,9 @@ public final class DefaultPodSpec implements PodSpec {
 
   private final Optional<Integer> sharedMemorySize;
 
+  // Cached by hashCode(), zero until computed.
+  private transient int hash;
+
   @JsonCreator
   private DefaultPodSpec(
       @JsonProperty("type") String type,
@@ -172,7 +175,7 @@ public final class DefaultPodSpec implements PodSpec {
     builder.preReservedRole = copy.getPreReservedRole();
     builder.rlimits = copy.getRLimits();
     builder.secrets = copy.getSecrets();
-    builder.uris = copy.getUris();
+    builder.uris = new ArrayList<>(copy.getUris());
     builder.user = copy.getUser().isPresent() ? copy.getUser().get() : null;
     builder.volumes = copy.getVolumes();
     builder.sharePidNamespace = copy.getSharePidNamespace();
@@ -287,12 +290,70 @@ public final class DefaultPodSpec implements PodSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultPodSpec other = (DefaultPodSpec) o;
+    // Cached hashes, see DefaultServiceSpec#equals():
+    if (hashCode() != other.hashCode()) {
+      return false;
+    }
+    return new EqualsBuilder()
+        .append(type, other.type)
+        .append(user, other.user)
+        .append(count, other.count)
+        .append(allowDecommission, other.allowDecommission)
+        .append(image, other.image)
+        .append(networks, other.networks)
+        .append(rlimits, other.rlimits)
+        .append(tasks, other.tasks)
+        .append(placementRule, other.placementRule)
+        .append(uris, other.uris)
+        .append(volumes, other.volumes)
+        .append(secrets, other.secrets)
+        .append(preReservedRole, other.preReservedRole)
+        .append(sharePidNamespace, other.sharePidNamespace)
+        .append(hostVolumes, other.hostVolumes)
+        .append(externalVolumes, other.externalVolumes)
+        .append(seccompUnconfined, other.seccompUnconfined)
+        .append(seccompProfileName, other.seccompProfileName)
+        .append(sharedMemory, other.sharedMemory)
+        .append(sharedMemorySize, other.sharedMemorySize)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    int result = hash;
+    if (result == 0) {
+      result = new HashCodeBuilder()
+          .append(type)
+          .append(user)
+          .append(count)
+          .append(allowDecommission)
+          .append(image)
+          .append(networks)
+          .append(rlimits)
+          .append(tasks)
+          .append(placementRule)
+          .append(uris)
+          .append(volumes)
+          .append(secrets)
+          .append(preReservedRole)
+          .append(sharePidNamespace)
+          .append(hostVolumes)
+          .append(externalVolumes)
+          .append(seccompUnconfined)
+          .append(seccompProfileName)
+          .append(sharedMemory)
+          .append(sharedMemorySize)
+          .toHashCode();
+      hash = result;
+    }
+    return result;
   }
 
   @Override
@@ -79,12 +79,29 @@ public final class DefaultReadinessCheckSpec implements ReadinessCheckSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultReadinessCheckSpec other = (DefaultReadinessCheckSpec) o;
+    return new EqualsBuilder()
+        .append(command, other.command)
+        .append(delay, other.delay)
+        .append(interval, other.interval)
+        .append(timeout, other.timeout)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(command)
+        .append(delay)
+        .append(interval)
+        .append(timeout)
+        .toHashCode();
   }
 
   /**
@@ -72,12 +72,25 @@ public final class DefaultResourceLimits implements ResourceLimits {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultResourceLimits other = (DefaultResourceLimits) o;
+    return new EqualsBuilder()
+        .append(cpus, other.cpus)
+        .append(memory, other.memory)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(cpus)
+        .append(memory)
+        .toHashCode();
   }
 
 }
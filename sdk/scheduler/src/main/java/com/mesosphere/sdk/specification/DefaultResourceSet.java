@@ -35,6 +35,9 @@ public final class DefaultResourceSet implements ResourceSet {
 
   private final ResourceLimits resourceLimits;
 
+  // Cached by hashCode(), zero until computed.
+  private transient int hash;
+
   @JsonCreator
   private DefaultResourceSet(
       @JsonProperty("id") String id,
@@ -78,8 +81,8 @@ public final class DefaultResourceSet implements ResourceSet {
   public static Builder newBuilder(DefaultResourceSet copy) {
     Builder builder = new Builder(copy.role, copy.preReservedRole, copy.principal);
     builder.id = copy.id;
-    builder.resources = copy.resources;
-    builder.volumes = copy.volumes;
+    builder.resources = new LinkedList<>(copy.resources);
+    builder.volumes = new LinkedList<>(copy.volumes);
     builder.resourceLimits = copy.resourceLimits;
     return builder;
   }
@@ -114,12 +117,43 @@ public final class DefaultResourceSet implements ResourceSet {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultResourceSet other = (DefaultResourceSet) o;
+    if (hashCode() != other.hashCode()) {
+      return false;
+    }
+    return new EqualsBuilder()
+        .append(preReservedRole, other.preReservedRole)
+        .append(id, other.id)
+        .append(resources, other.resources)
+        .append(volumes, other.volumes)
+        .append(role, other.role)
+        .append(principal, other.principal)
+        .append(resourceLimits, other.resourceLimits)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    int result = hash;
+    if (result == 0) {
+      result = new HashCodeBuilder()
+          .append(preReservedRole)
+          .append(id)
+          .append(resources)
+          .append(volumes)
+          .append(role)
+          .append(principal)
+          .append(resourceLimits)
+          .toHashCode();
+      hash = result;
+    }
+    return result;
   }
 
   /**
@@ -119,12 +119,31 @@ public class DefaultResourceSpec implements ResourceSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultResourceSpec other = (DefaultResourceSpec) o;
+    return new EqualsBuilder()
+        .append(name, other.name)
+        .append(value, other.value)
+        .append(role, other.role)
+        .append(principal, other.principal)
+        .append(preReservedRole, other.preReservedRole)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(name)
+        .append(value)
+        .append(role)
+        .append(principal)
+        .append(preReservedRole)
+        .toHashCode();
   }
 
   /**
@@ -76,12 +76,27 @@ public final class DefaultSecretSpec implements SecretSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultSecretSpec other = (DefaultSecretSpec) o;
+    return new EqualsBuilder()
+        .append(secretPath, other.secretPath)
+        .append(envKey, other.envKey)
+        .append(filePath, other.filePath)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(secretPath)
+        .append(envKey)
+        .append(filePath)
+        .toHashCode();
   }
 
   /**
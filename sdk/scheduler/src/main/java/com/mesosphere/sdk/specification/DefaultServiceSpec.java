@@ -64,6 +64,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 
@@ -104,6 +105,10 @@ public final class DefaultServiceSpec implements ServiceSpec {
 
   private final ReplacementFailurePolicy replacementFailurePolicy;
 
+  // Cached by hashCode(), zero until computed. Transient so that it's left out of both the serialized config and
+  // the reflective toString().
+  private transient int hash;
+
   @JsonCreator
   private DefaultServiceSpec(
       @JsonProperty("name") String name,
@@ -232,7 +237,7 @@ public final class DefaultServiceSpec implements ServiceSpec {
     builder.webUrl = copy.getWebUrl();
     builder.zookeeperConnection = copy.getZookeeperConnection();
     builder.replacementFailurePolicy = copy.getReplacementFailurePolicy().orElse(null);
-    builder.pods = copy.getPods();
+    builder.pods = new ArrayList<>(copy.getPods());
     return builder;
   }
 
@@ -288,12 +293,51 @@ public final class DefaultServiceSpec implements ServiceSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultServiceSpec other = (DefaultServiceSpec) o;
+    // The hashes are cached, so they act as a cheap fingerprint: specs whose hashes differ can't be equal, and a
+    // changed config is detected without walking through every pod and task.
+    if (hashCode() != other.hashCode()) {
+      return false;
+    }
+    return new EqualsBuilder()
+        .append(name, other.name)
+        .append(role, other.role)
+        .append(principal, other.principal)
+        .append(user, other.user)
+        .append(goalState, other.goalState)
+        .append(region, other.region)
+        .append(webUrl, other.webUrl)
+        .append(zookeeperConnection, other.zookeeperConnection)
+        .append(pods, other.pods)
+        .append(replacementFailurePolicy, other.replacementFailurePolicy)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    int result = hash;
+    if (result == 0) {
+      result = new HashCodeBuilder()
+          .append(name)
+          .append(role)
+          .append(principal)
+          .append(user)
+          .append(goalState)
+          .append(region)
+          .append(webUrl)
+          .append(zookeeperConnection)
+          .append(pods)
+          .append(replacementFailurePolicy)
+          .toHashCode();
+      hash = result;
+    }
+    return result;
   }
 
   @Override
@@ -322,7 +366,7 @@ public final class DefaultServiceSpec implements ServiceSpec {
 
     @Override
     public boolean equals(ServiceSpec first, ServiceSpec second) {
-      return EqualsBuilder.reflectionEquals(first, second);
+      return Objects.equals(first, second);
     }
   }
 
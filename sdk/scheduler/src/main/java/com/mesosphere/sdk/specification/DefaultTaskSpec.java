@@ -57,6 +57,9 @@ public final class DefaultTaskSpec implements TaskSpec {
 
   private final Optional<Integer> sharedMemorySize;
 
+  // Cached by hashCode(), zero until computed.
+  private transient int hash;
+
   @SuppressWarnings("PMD.SimplifiedTernary")
   @JsonCreator
   private DefaultTaskSpec(
@@ -242,15 +245,42 @@ public final class DefaultTaskSpec implements TaskSpec {
 
   @Override
   public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
     if (!(o instanceof TaskSpec)) {
       return false;
     }
+    // Only possible against our own implementation, whose hash is known to be consistent with areDifferent():
+    if (o instanceof DefaultTaskSpec && hashCode() != o.hashCode()) {
+      return false;
+    }
     return !TaskUtils.areDifferent(this, (TaskSpec) o);
   }
 
+  /**
+   * Only covers the fields which are compared by {@link TaskUtils#areDifferent(TaskSpec, TaskSpec)}, so that tasks
+   * which are equal always have the same hash code.
+   */
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    int result = hash;
+    if (result == 0) {
+      result = new HashCodeBuilder()
+          .append(name)
+          .append(goalState)
+          .append(taskLabels)
+          .append(commandSpec)
+          .append(healthCheckSpec)
+          .append(readinessCheckSpec)
+          .append(discoverySpec)
+          .append(sharedMemory)
+          .append(sharedMemorySize)
+          .append(taskKillGracePeriodSeconds)
+          .toHashCode();
+      hash = result;
+    }
+    return result;
   }
 
 
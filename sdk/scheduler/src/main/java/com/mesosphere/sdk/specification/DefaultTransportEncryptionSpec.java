@@ -45,12 +45,25 @@ public class DefaultTransportEncryptionSpec implements TransportEncryptionSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DefaultTransportEncryptionSpec other = (DefaultTransportEncryptionSpec) o;
+    return new EqualsBuilder()
+        .append(name, other.name)
+        .append(type, other.type)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(name)
+        .append(type)
+        .toHashCode();
   }
 
   @Override
@@ -133,12 +133,25 @@ public final class DefaultVolumeSpec extends DefaultResourceSpec implements Volu
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (!super.equals(o)) {
+      return false;
+    }
+    DefaultVolumeSpec other = (DefaultVolumeSpec) o;
+    return new EqualsBuilder()
+        .append(type, other.type)
+        .append(containerPath, other.containerPath)
+        .append(profiles, other.profiles)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .appendSuper(super.hashCode())
+        .append(type)
+        .append(containerPath)
+        .append(profiles)
+        .toHashCode();
   }
 
   @Override
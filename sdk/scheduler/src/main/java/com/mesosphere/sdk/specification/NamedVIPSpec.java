@@ -118,12 +118,25 @@ public final class NamedVIPSpec extends PortSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (!super.equals(o)) {
+      return false;
+    }
+    NamedVIPSpec other = (NamedVIPSpec) o;
+    return new EqualsBuilder()
+        .append(protocol, other.protocol)
+        .append(vipName, other.vipName)
+        .append(vipPort, other.vipPort)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .appendSuper(super.hashCode())
+        .append(protocol)
+        .append(vipName)
+        .append(vipPort)
+        .toHashCode();
   }
 
   /**
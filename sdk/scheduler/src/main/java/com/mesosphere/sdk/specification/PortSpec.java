@@ -149,12 +149,29 @@ public class PortSpec extends DefaultResourceSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (!super.equals(o)) {
+      return false;
+    }
+    PortSpec other = (PortSpec) o;
+    return new EqualsBuilder()
+        .append(envKey, other.envKey)
+        .append(portName, other.portName)
+        .append(visibility, other.visibility)
+        .append(networkNames, other.networkNames)
+        .append(ranges, other.ranges)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .appendSuper(super.hashCode())
+        .append(envKey)
+        .append(portName)
+        .append(visibility)
+        .append(networkNames)
+        .append(ranges)
+        .toHashCode();
   }
 
   /**
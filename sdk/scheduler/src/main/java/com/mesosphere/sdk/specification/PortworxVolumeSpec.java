@@ -85,12 +85,31 @@ public final class PortworxVolumeSpec implements DockerVolumeSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    PortworxVolumeSpec other = (PortworxVolumeSpec) o;
+    return new EqualsBuilder()
+        .append(containerPath, other.containerPath)
+        .append(driverName, other.driverName)
+        .append(driverOptions, other.driverOptions)
+        .append(volumeName, other.volumeName)
+        .append(volumeMode, other.volumeMode)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(containerPath)
+        .append(driverName)
+        .append(driverOptions)
+        .append(volumeName)
+        .append(volumeMode)
+        .toHashCode();
   }
 
   /**
@@ -99,12 +99,27 @@ public class RLimitSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RLimitSpec other = (RLimitSpec) o;
+    return new EqualsBuilder()
+        .append(name, other.name)
+        .append(soft, other.soft)
+        .append(hard, other.hard)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(name)
+        .append(soft)
+        .append(hard)
+        .toHashCode();
   }
 
   /**
@@ -38,12 +38,25 @@ public class RangeSpec {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RangeSpec other = (RangeSpec) o;
+    return new EqualsBuilder()
+        .append(begin, other.begin)
+        .append(end, other.end)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(begin)
+        .append(end)
+        .toHashCode();
   }
 
   private void validate() {
@@ -64,12 +64,25 @@ public final class ReplacementFailurePolicy {
 
   @Override
   public boolean equals(Object o) {
-    return EqualsBuilder.reflectionEquals(this, o);
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ReplacementFailurePolicy other = (ReplacementFailurePolicy) o;
+    return new EqualsBuilder()
+        .append(permanentFailureTimeoutSecs, other.permanentFailureTimeoutSecs)
+        .append(minReplaceDelaySecs, other.minReplaceDelaySecs)
+        .isEquals();
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return new HashCodeBuilder()
+        .append(permanentFailureTimeoutSecs)
+        .append(minReplaceDelaySecs)
+        .toHashCode();
   }
 
   /**
@@ -2,21 +2,34 @@ package com.mesosphere.sdk.state;
 
 import com.mesosphere.sdk.config.Configuration;
 import com.mesosphere.sdk.config.ConfigurationFactory;
+import com.mesosphere.sdk.metrics.Metrics;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.storage.Persister;
 import com.mesosphere.sdk.storage.PersisterException;
 import com.mesosphere.sdk.storage.PersisterUtils;
 import com.mesosphere.sdk.storage.StorageError.Reason;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * An implementation of {@link ConfigStore} which relies on the provided {@link Persister} for data persistence.
@@ -26,24 +39,76 @@ import java.util.UUID;
  * <br>&nbsp; ConfigTarget (contains UUID)
  * <br>&nbsp; Configurations/
  * <br>&nbsp; &nbsp; UUID-0 (contains serialized config)
- * <br>&nbsp; &nbsp; UUID-1 (contains serialized config)
+ * <br>&nbsp; &nbsp; UUID-1 (contains serialized config, or a delta against a base)
+ * <br>&nbsp; &nbsp; Bases/
+ * <br>&nbsp; &nbsp; &nbsp; UUID-A (contains serialized base config)
+ *
+ * <p>When delta encoding is enabled, each JSON configuration is stored as a patch against a base config, rather than
+ * in full. A service with a long history of small option changes then only stores a handful of full configs. The base
+ * is shared with the current target config, and a new base is written whenever the patch grows beyond
+ * {@value #REBASE_THRESHOLD_PERCENT}% of the size of the full config. Bases are deleted once no stored configuration
+ * refers to them. Configurations are always readable regardless of whether delta encoding is enabled, but older
+ * scheduler versions are unable to read configurations which were stored as deltas.
+ *
+ * <p>Stored configurations are immutable once written, so deserialized configurations are retained in a bounded
+ * least-recently-used cache keyed by UUID. Hits and misses against this cache are reported via {@link Metrics}.
  *
  * @param <T> The {@code Configuration} object to be serialized and deserialized in the
  *            implementation of this interface
  */
 public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
 
+  /**
+   * The default number of deserialized configurations to retain in memory. In practice a service only refers to a
+   * handful of configurations at a time: the current target, and any older targets still used by running tasks.
+   */
+  public static final int DEFAULT_CACHE_SIZE = 16;
+
+  /**
+   * The maximum size of a delta-encoded configuration as a percentage of the size of the full configuration. Past
+   * this, the full configuration is stored as a new base.
+   */
+  static final int REBASE_THRESHOLD_PERCENT = 50;
+
+  /**
+   * The number of parsed base configurations to retain in memory. Nearly all deltas refer to the latest base.
+   */
+  private static final int BASE_CACHE_SIZE = 4;
+
+  /**
+   * Marks the start of a delta-encoded configuration, which is followed by a JSON object containing the base UUID and
+   * the patch. Serialized configurations are JSON, YAML, or plain text, which won't start with this prefix.
+   */
+  private static final byte[] DELTA_PREFIX = "CONFIG-DELTA-V1\n".getBytes(StandardCharsets.UTF_8);
+
+  private static final String DELTA_BASE_FIELD = "base";
+
+  private static final String DELTA_PATCH_FIELD = "patch";
+
+  private static final ObjectMapper JSON_MAPPER = new ObjectMapper()
+      .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+      .enable(DeserializationFeature.FAIL_ON_TRAILING_TOKENS)
+      .setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+
   private static final Logger logger = LoggingUtils.getLogger(ConfigStore.class);
 
   private static final String TARGET_ID_PATH_NAME = "ConfigTarget";
 
   private static final String CONFIGURATIONS_PATH_NAME = "Configurations";
 
+  private static final String BASES_PATH_NAME = "Bases";
+
   private final Persister persister;
 
   private final String namespace;
 
-  private final Map<UUID, T> cache = new HashMap<>();
+  private final Map<UUID, T> cache;
+
+  private final boolean deltaEncoding;
+
+  private final Map<UUID, JsonNode> bases;
+
+  private final Set<UUID> validatedBases;
 
   private ConfigurationFactory<T> factory;
 
@@ -60,7 +125,7 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
 
   /**
    * Creates a new {@link ConfigStore} which uses the provided {@link Persister} to access configuration data within
-   * the provided {@code namespace}.
+   * the provided {@code namespace}, with a default-sized cache of deserialized configurations.
    *
    * @param factory   The factory used to convert raw bytes to config objects of type {@code T}
    * @param persister The persister which holds the config data
@@ -70,10 +135,54 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
       ConfigurationFactory<T> factory,
       Persister persister,
       Optional<String> namespace)
+  {
+    this(factory, persister, namespace, DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * Creates a new {@link ConfigStore} which uses the provided {@link Persister} to access configuration data within
+   * the provided {@code namespace}.
+   *
+   * @param factory   The factory used to convert raw bytes to config objects of type {@code T}
+   * @param persister The persister which holds the config data
+   * @param namespace The namespace for data to be stored within, or an empty Optional for no namespacing
+   * @param cacheSize The maximum number of deserialized configurations to retain in memory, or {@code <=0} to disable
+   *                  caching
+   */
+  public ConfigStore(
+      ConfigurationFactory<T> factory,
+      Persister persister,
+      Optional<String> namespace,
+      int cacheSize)
+  {
+    this(factory, persister, namespace, cacheSize, false);
+  }
+
+  /**
+   * Creates a new {@link ConfigStore} which uses the provided {@link Persister} to access configuration data within
+   * the provided {@code namespace}.
+   *
+   * @param factory       The factory used to convert raw bytes to config objects of type {@code T}
+   * @param persister     The persister which holds the config data
+   * @param namespace     The namespace for data to be stored within, or an empty Optional for no namespacing
+   * @param cacheSize     The maximum number of deserialized configurations to retain in memory, or {@code <=0} to
+   *                      disable caching
+   * @param deltaEncoding Whether newly stored JSON configurations should be stored as deltas against a base config
+   */
+  public ConfigStore(
+      ConfigurationFactory<T> factory,
+      Persister persister,
+      Optional<String> namespace,
+      int cacheSize,
+      boolean deltaEncoding)
   {
     this.factory = factory;
     this.persister = persister;
     this.namespace = namespace.orElse("");
+    this.cache = Collections.synchronizedMap(new LruCache<>(Math.max(cacheSize, 0)));
+    this.deltaEncoding = deltaEncoding;
+    this.bases = Collections.synchronizedMap(new LruCache<>(BASE_CACHE_SIZE));
+    this.validatedBases = Collections.synchronizedSet(new HashSet<>());
   }
 
   public static String getTargetIdPathName() {
@@ -105,6 +214,13 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
     return PersisterUtils.getServiceNamespacedRootPath(namespace, CONFIGURATIONS_PATH_NAME);
   }
 
+  /**
+   * @return {@code Services/[namespace]/Configurations/Bases}, or {@code Configurations/Bases}
+   */
+  private static String getBasesPath(String namespace) {
+    return PersisterUtils.joinPaths(getConfigsPath(namespace), BASES_PATH_NAME);
+  }
+
   /**
    * Overrides the configuration factory which was provided in the constructor.
    */
@@ -137,11 +253,11 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
    *
    * @throws ConfigStoreException is serialization or writing fails
    */
-  public void store(UUID id, T config) throws ConfigStoreException {
+  public synchronized void store(UUID id, T config) throws ConfigStoreException {
     String path = getConfigPath(namespace, id);
     byte[] data = config.getBytes();
     try {
-      persister.set(path, data);
+      persister.set(path, deltaEncoding ? encodeDelta(data) : data);
     } catch (PersisterException e) {
       throw new ConfigStoreException(e, String.format(
           "Failed to store configuration to path '%s': %s", path, config));
@@ -160,30 +276,54 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
    *                              config is missing
    */
   public T fetch(UUID id) throws ConfigStoreException {
-    if (cache.containsKey(id)) {
-      return cache.get(id);
+    T cachedConfig = cache.get(id);
+    if (cachedConfig != null) {
+      Metrics.incrementConfigCacheHits();
+      return cachedConfig;
     }
+    Metrics.incrementConfigCacheMisses();
 
-    String path = getConfigPath(namespace, id);
-    logger.info("Fetching configuration with ID={} from {}", id, path);
-    byte[] data;
-    try {
-      data = persister.get(path);
-    } catch (PersisterException e) {
-      if (e.getReason() == Reason.NOT_FOUND) {
-        throw new ConfigStoreException(Reason.NOT_FOUND, String.format(
-            "Configuration '%s' was not found at path '%s'", id, path), e);
-      } else {
-        throw new ConfigStoreException(e, String.format(
-            "Failed to retrieve configuration '%s' from path '%s'", id, path));
-      }
+    byte[] data = getStoredBytes(id);
+    if (isDelta(data)) {
+      data = decodeDelta(id, data);
     }
-
     T config = factory.parse(data);
     cache.put(id, config);
     return config;
   }
 
+  /**
+   * Checks that the configuration with the provided UUID is present and readable. Delta-encoded configurations are
+   * checked by applying their patch to the JSON of the base config which they refer to, and by deserializing that base
+   * config. Each base is only deserialized once, rather than once per configuration which refers to it. Configurations
+   * which are stored in full are deserialized as with {@link #fetch(UUID)}.
+   *
+   * @param id The UUID of the configuration to be checked
+   * @throws ConfigStoreException if the configuration is missing or invalid
+   */
+  public void validate(UUID id) throws ConfigStoreException {
+    if (cache.containsKey(id)) {
+      return;
+    }
+    byte[] data = getStoredBytes(id);
+    if (!isDelta(data)) {
+      cache.put(id, factory.parse(data));
+      return;
+    }
+    ObjectNode delta = parseDelta(id, data);
+    UUID baseId = getDeltaBaseId(id, delta);
+    if (!validatedBases.contains(baseId)) {
+      factory.parse(getBaseBytes(baseId, id));
+      validatedBases.add(baseId);
+    }
+    try {
+      JsonPatch.apply(getBase(baseId), delta.get(DELTA_PATCH_FIELD));
+    } catch (IllegalArgumentException e) {
+      throw new ConfigStoreException(Reason.SERIALIZATION_ERROR, String.format(
+          "Delta for configuration '%s' doesn't apply to base configuration '%s'", id, baseId), e);
+    }
+  }
+
   /**
    * Deletes the configuration with the provided UUID, or does nothing if no matching
    * configuration is found.
@@ -192,6 +332,28 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
    * @throws ConfigStoreException if the configuration is found but deletion fails
    */
   public void clear(UUID id) throws ConfigStoreException {
+    clearAll(Collections.singleton(id));
+  }
+
+  /**
+   * Deletes the configurations with the provided UUIDs, skipping any which aren't found. Any base configs which are no
+   * longer referenced are then cleaned up once for the whole batch, so this should be preferred over calling
+   * {@link #clear(UUID)} for each configuration.
+   *
+   * @param ids The UUIDs of the configurations to be deleted
+   * @throws ConfigStoreException if a configuration is found but deletion fails
+   */
+  public synchronized void clearAll(Collection<UUID> ids) throws ConfigStoreException {
+    if (ids.isEmpty()) {
+      return;
+    }
+    for (UUID id : ids) {
+      clearConfig(id);
+    }
+    clearUnusedBases();
+  }
+
+  private void clearConfig(UUID id) throws ConfigStoreException {
     String path = getConfigPath(namespace, id);
     try {
       persister.recursiveDelete(path);
@@ -220,6 +382,9 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
     try {
       Collection<UUID> ids = new ArrayList<>();
       for (String id : persister.getChildren(configurationsPath)) {
+        if (BASES_PATH_NAME.equals(id)) {
+          continue;
+        }
         try {
           ids.add(UUID.fromString(id));
         } catch (IllegalArgumentException e) {
@@ -274,4 +439,248 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
           "Failed to assign current target configuration to '%s' at path '%s'", id, targetIdPath));
     }
   }
+
+  /**
+   * Returns the stored form of the configuration with the provided UUID, which may be a delta.
+   */
+  private byte[] getStoredBytes(UUID id) throws ConfigStoreException {
+    String path = getConfigPath(namespace, id);
+    logger.info("Fetching configuration with ID={} from {}", id, path);
+    try {
+      return persister.get(path);
+    } catch (PersisterException e) {
+      if (e.getReason() == Reason.NOT_FOUND) {
+        throw new ConfigStoreException(Reason.NOT_FOUND, String.format(
+            "Configuration '%s' was not found at path '%s'", id, path), e);
+      } else {
+        throw new ConfigStoreException(e, String.format(
+            "Failed to retrieve configuration '%s' from path '%s'", id, path));
+      }
+    }
+  }
+
+  /**
+   * Returns the data to be stored for a new configuration: a delta against the current target's base config, or
+   * against a new base config if the delta against the current base would be too large. Data which isn't a JSON
+   * object is returned as-is.
+   */
+  private byte[] encodeDelta(byte[] data) throws ConfigStoreException, PersisterException {
+    JsonNode document = parseJsonObject(data);
+    if (document == null) {
+      return data;
+    }
+
+    Optional<UUID> currentBaseId = getTargetBaseId();
+    if (currentBaseId.isPresent()) {
+      try {
+        byte[] delta = toDelta(currentBaseId.get(), JsonPatch.diff(getBase(currentBaseId.get()), document));
+        if ((long) delta.length * 100 <= (long) data.length * REBASE_THRESHOLD_PERCENT) {
+          return delta;
+        }
+        logger.info("Delta against base configuration {} is {} bytes, versus {} bytes in full: storing a new base",
+            currentBaseId.get(), delta.length, data.length);
+      } catch (ConfigStoreException e) {
+        logger.warn(String.format(
+            "Failed to read base configuration %s, storing a new base", currentBaseId.get()), e);
+      }
+    }
+
+    UUID baseId = UUID.randomUUID();
+    persister.set(PersisterUtils.joinPaths(getBasesPath(namespace), baseId.toString()), data);
+    bases.put(baseId, document);
+    return toDelta(baseId, JsonNodeFactory.instance.arrayNode());
+  }
+
+  /**
+   * Returns the full serialized configuration for the provided delta.
+   */
+  private byte[] decodeDelta(UUID id, byte[] data) throws ConfigStoreException {
+    ObjectNode delta = parseDelta(id, data);
+    JsonNode base = getBase(getDeltaBaseId(id, delta));
+    try {
+      return JSON_MAPPER.writeValueAsBytes(JsonPatch.apply(base, delta.get(DELTA_PATCH_FIELD)));
+    } catch (IllegalArgumentException | IOException e) {
+      throw new ConfigStoreException(Reason.SERIALIZATION_ERROR, String.format(
+          "Failed to apply delta for configuration '%s'", id), e);
+    }
+  }
+
+  /**
+   * Returns the UUID of the base config used by the current target config, or an empty Optional if there's no target
+   * or if the target isn't delta-encoded.
+   */
+  private Optional<UUID> getTargetBaseId() {
+    try {
+      UUID targetId = getTargetConfig();
+      byte[] targetData = getStoredBytes(targetId);
+      return isDelta(targetData)
+          ? Optional.of(getDeltaBaseId(targetId, parseDelta(targetId, targetData)))
+          : Optional.empty();
+    } catch (ConfigStoreException e) {
+      if (e.getReason() != Reason.NOT_FOUND) {
+        logger.warn("Failed to find base of current target configuration, storing a new base", e);
+      }
+      return Optional.empty();
+    }
+  }
+
+  private JsonNode getBase(UUID baseId) throws ConfigStoreException {
+    JsonNode base = bases.get(baseId);
+    if (base == null) {
+      base = parseJsonObject(getBaseBytes(baseId, null));
+      if (base == null) {
+        throw new ConfigStoreException(Reason.SERIALIZATION_ERROR, String.format(
+            "Base configuration '%s' is not a JSON object", baseId));
+      }
+      bases.put(baseId, base);
+    }
+    return base;
+  }
+
+  private byte[] getBaseBytes(UUID baseId, UUID referencingId) throws ConfigStoreException {
+    String path = PersisterUtils.joinPaths(getBasesPath(namespace), baseId.toString());
+    try {
+      return persister.get(path);
+    } catch (PersisterException e) {
+      if (e.getReason() == Reason.NOT_FOUND) {
+        throw new ConfigStoreException(Reason.NOT_FOUND, String.format(
+            "Base configuration '%s' referenced by configuration '%s' was not found at path '%s'",
+            baseId, referencingId, path), e);
+      } else {
+        throw new ConfigStoreException(e, String.format(
+            "Failed to retrieve base configuration '%s' from path '%s'", baseId, path));
+      }
+    }
+  }
+
+  /**
+   * Deletes any base configs which are no longer referenced by a stored configuration. Only the compact stored form
+   * of each configuration is read.
+   */
+  private void clearUnusedBases() throws ConfigStoreException {
+    String basesPath = getBasesPath(namespace);
+    try {
+      Collection<String> baseIds = persister.getChildren(basesPath);
+      if (baseIds.isEmpty()) {
+        return;
+      }
+      Set<String> unusedBaseIds = new HashSet<>(baseIds);
+      List<String> configPaths = list().stream()
+          .map(id -> getConfigPath(namespace, id))
+          .collect(Collectors.toList());
+      for (Map.Entry<String, byte[]> entry : persister.getMany(configPaths).entrySet()) {
+        if (entry.getValue() == null || !isDelta(entry.getValue())) {
+          continue;
+        }
+        try {
+          unusedBaseIds.remove(parseDelta(null, entry.getValue()).get(DELTA_BASE_FIELD).asText());
+        } catch (ConfigStoreException e) {
+          // Err on the side of keeping bases which may still be needed.
+          logger.warn(String.format("Unable to determine base of %s, skipping cleanup of base configs",
+              entry.getKey()), e);
+          return;
+        }
+      }
+      if (unusedBaseIds.isEmpty()) {
+        return;
+      }
+      logger.info("Cleaning up {} unused base configs: {}", unusedBaseIds.size(), unusedBaseIds);
+      persister.recursiveDeleteMany(unusedBaseIds.stream()
+          .map(baseId -> PersisterUtils.joinPaths(basesPath, baseId))
+          .collect(Collectors.toList()));
+      for (String baseId : unusedBaseIds) {
+        bases.remove(UUID.fromString(baseId));
+        validatedBases.remove(UUID.fromString(baseId));
+      }
+    } catch (PersisterException e) {
+      if (e.getReason() != Reason.NOT_FOUND) {
+        throw new ConfigStoreException(e, String.format("Failed to clean up base configs at '%s'", basesPath));
+      }
+    }
+  }
+
+  private static boolean isDelta(byte[] data) {
+    return data.length >= DELTA_PREFIX.length
+        && Arrays.equals(DELTA_PREFIX, Arrays.copyOf(data, DELTA_PREFIX.length));
+  }
+
+  private static byte[] toDelta(UUID baseId, JsonNode patch) throws ConfigStoreException {
+    ObjectNode delta = JsonNodeFactory.instance.objectNode();
+    delta.put(DELTA_BASE_FIELD, baseId.toString());
+    delta.set(DELTA_PATCH_FIELD, patch);
+    final byte[] body;
+    try {
+      body = JSON_MAPPER.writeValueAsBytes(delta);
+    } catch (IOException e) {
+      throw new ConfigStoreException(Reason.SERIALIZATION_ERROR, "Failed to serialize configuration delta", e);
+    }
+    byte[] data = Arrays.copyOf(DELTA_PREFIX, DELTA_PREFIX.length + body.length);
+    System.arraycopy(body, 0, data, DELTA_PREFIX.length, body.length);
+    return data;
+  }
+
+  /**
+   * Returns the parsed content of a delta, which is checked to be well-formed.
+   */
+  private static ObjectNode parseDelta(UUID id, byte[] data) throws ConfigStoreException {
+    try {
+      JsonNode delta = JSON_MAPPER.readTree(
+          Arrays.copyOfRange(data, DELTA_PREFIX.length, data.length));
+      if (delta == null || !delta.isObject() || !delta.path(DELTA_BASE_FIELD).isTextual()) {
+        throw new IllegalArgumentException("Delta is missing its base");
+      }
+      JsonPatch.validate(delta.get(DELTA_PATCH_FIELD));
+      return (ObjectNode) delta;
+    } catch (IllegalArgumentException | IOException e) {
+      throw new ConfigStoreException(Reason.SERIALIZATION_ERROR, String.format(
+          "Failed to parse delta for configuration '%s'", id), e);
+    }
+  }
+
+  private static UUID getDeltaBaseId(UUID id, ObjectNode delta) throws ConfigStoreException {
+    String baseId = delta.get(DELTA_BASE_FIELD).asText();
+    try {
+      return UUID.fromString(baseId);
+    } catch (IllegalArgumentException e) {
+      throw new ConfigStoreException(Reason.SERIALIZATION_ERROR, String.format(
+          "Delta for configuration '%s' has an invalid base UUID: %s", id, baseId), e);
+    }
+  }
+
+  /**
+   * Returns the provided data as a JSON object, or {@code null} if it isn't a JSON object.
+   */
+  private static JsonNode parseJsonObject(byte[] data) {
+    try {
+      JsonNode node = JSON_MAPPER.readTree(data);
+      return node != null && node.isObject() ? node : null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * A map which retains up to a fixed number of entries, evicting the least recently accessed entry when full. Not
+   * thread-safe on its own: access must be synchronized externally.
+   */
+  private static final class LruCache<K, V> extends LinkedHashMap<K, V> {
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxSize;
+
+    private LruCache(int maxSize) {
+      // Use access-order so that frequently fetched configs stay in the cache.
+      super(INITIAL_CAPACITY, LOAD_FACTOR, true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+      return size() > maxSize;
+    }
+  }
 }
@@ -0,0 +1,124 @@
+package com.mesosphere.sdk.state;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import org.apache.mesos.Protos;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of decoded {@link Protos.TaskInfo} and {@link Protos.TaskStatus} objects, keyed by task name. This allows
+ * {@link StateStore} read paths to return already-parsed (immutable) protobuf instances rather than parsing the raw
+ * bytes from the underlying {@link com.mesosphere.sdk.storage.Persister} on every call.
+ *
+ * <p>Entries are replaced or dropped by {@link StateStore} whenever it writes or clears the corresponding task. Each
+ * entry also retains the raw bytes that it was decoded from, and is only returned if those bytes still match what the
+ * persister currently holds. This guards against writes which didn't go through this cache, e.g. from another
+ * {@link StateStore} instance sharing the same persister.
+ *
+ * <p>This class is thread-safe.
+ */
+final class DecodedTaskCache {
+
+  private final Map<String, Entry<Protos.TaskInfo>> taskInfos = new ConcurrentHashMap<>();
+
+  private final Map<String, Entry<Protos.TaskStatus>> taskStatuses = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the decoded {@link Protos.TaskInfo} for the provided task, reusing a previously decoded instance if the
+   * provided bytes match what it was decoded from.
+   */
+  Protos.TaskInfo getTaskInfo(String taskName, byte[] bytes) throws InvalidProtocolBufferException {
+    return get(taskInfos, Protos.TaskInfo.parser(), taskName, bytes);
+  }
+
+  /**
+   * Returns the decoded {@link Protos.TaskStatus} for the provided task, reusing a previously decoded instance if the
+   * provided bytes match what it was decoded from.
+   */
+  Protos.TaskStatus getTaskStatus(String taskName, byte[] bytes) throws InvalidProtocolBufferException {
+    return get(taskStatuses, Protos.TaskStatus.parser(), taskName, bytes);
+  }
+
+  /**
+   * Records a {@link Protos.TaskInfo} which was just written, along with its serialized form.
+   */
+  void putTaskInfo(String taskName, Protos.TaskInfo taskInfo, byte[] bytes) {
+    taskInfos.put(taskName, new Entry<>(taskInfo, bytes));
+  }
+
+  /**
+   * Records a {@link Protos.TaskStatus} which was just written, along with its serialized form.
+   */
+  void putTaskStatus(String taskName, Protos.TaskStatus taskStatus, byte[] bytes) {
+    taskStatuses.put(taskName, new Entry<>(taskStatus, bytes));
+  }
+
+  /**
+   * Drops any cached {@link Protos.TaskInfo} for the provided task.
+   */
+  void invalidateTaskInfo(String taskName) {
+    taskInfos.remove(taskName);
+  }
+
+  /**
+   * Drops any cached {@link Protos.TaskStatus} for the provided task.
+   */
+  void invalidateTaskStatus(String taskName) {
+    taskStatuses.remove(taskName);
+  }
+
+  /**
+   * Drops all cached data for the provided task.
+   */
+  void invalidate(String taskName) {
+    invalidateTaskInfo(taskName);
+    invalidateTaskStatus(taskName);
+  }
+
+  /**
+   * Drops all cached data for all tasks.
+   */
+  void invalidateAll() {
+    taskInfos.clear();
+    taskStatuses.clear();
+  }
+
+  private static <T extends MessageLite> T get(
+      Map<String, Entry<T>> entries,
+      Parser<T> parser,
+      String taskName,
+      byte[] bytes) throws InvalidProtocolBufferException
+  {
+    Entry<T> entry = entries.get(taskName);
+    if (entry != null && entry.matches(bytes)) {
+      return entry.value;
+    }
+    T value = parser.parseFrom(bytes);
+    entries.put(taskName, new Entry<>(value, bytes));
+    return value;
+  }
+
+  /**
+   * A decoded value and the raw bytes that it was decoded from.
+   */
+  private static final class Entry<T> {
+    private final T value;
+
+    private final byte[] bytes;
+
+    private Entry(T value, byte[] bytes) {
+      this.value = value;
+      this.bytes = bytes;
+    }
+
+    private boolean matches(byte[] otherBytes) {
+      // The persister cache hands back the same array instance until the value is rewritten, so the identity check
+      // is the common case. Fall back to a byte comparison for persisters which return copies.
+      return bytes == otherBytes || Arrays.equals(bytes, otherBytes);
+    }
+  }
+}
@@ -0,0 +1,226 @@
+package com.mesosphere.sdk.state;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Produces and applies patches between JSON documents, using the {@code add}, {@code remove}, and {@code replace}
+ * operations from RFC 6902. Objects are compared field by field and arrays index by index, so that a small change deep
+ * within a large document results in a small patch. Moves and copies aren't detected: an element inserted at the
+ * start of an array results in a {@code replace} of each following element.
+ */
+final class JsonPatch {
+
+  private static final String OP = "op";
+
+  private static final String PATH = "path";
+
+  private static final String VALUE = "value";
+
+  private static final String ADD = "add";
+
+  private static final String REMOVE = "remove";
+
+  private static final String REPLACE = "replace";
+
+  private static final String APPEND_INDEX = "-";
+
+  private JsonPatch() {
+    // do not instantiate
+  }
+
+  /**
+   * Returns a patch which converts {@code source} into {@code target}. The patch is empty if the two are equal.
+   */
+  static ArrayNode diff(JsonNode source, JsonNode target) {
+    ArrayNode patch = JsonNodeFactory.instance.arrayNode();
+    diff(patch, "", source, target);
+    return patch;
+  }
+
+  /**
+   * Returns a copy of {@code source} with the provided patch applied. The provided nodes are left unmodified.
+   *
+   * @throws IllegalArgumentException if the patch is malformed or doesn't match the structure of {@code source}
+   */
+  static JsonNode apply(JsonNode source, JsonNode patch) {
+    validate(patch);
+    JsonNode result = source.deepCopy();
+    for (JsonNode operation : patch) {
+      result = applyOperation(result, operation);
+    }
+    return result;
+  }
+
+  /**
+   * Checks that the provided patch is well-formed, without applying it to a document.
+   *
+   * @throws IllegalArgumentException if the patch is malformed
+   */
+  static void validate(JsonNode patch) {
+    if (patch == null || !patch.isArray()) {
+      throw new IllegalArgumentException("Patch must be an array of operations");
+    }
+    for (JsonNode operation : patch) {
+      String op = operation.path(OP).asText();
+      if (!ADD.equals(op) && !REMOVE.equals(op) && !REPLACE.equals(op)) {
+        throw new IllegalArgumentException(String.format("Unsupported patch operation: %s", operation));
+      }
+      if (!operation.path(PATH).isTextual()) {
+        throw new IllegalArgumentException(String.format("Patch operation is missing a path: %s", operation));
+      }
+      if (!REMOVE.equals(op) && !operation.has(VALUE)) {
+        throw new IllegalArgumentException(String.format("Patch operation is missing a value: %s", operation));
+      }
+    }
+  }
+
+  private static void diff(ArrayNode patch, String path, JsonNode source, JsonNode target) {
+    if (source.equals(target)) {
+      return;
+    }
+    if (source.isObject() && target.isObject()) {
+      Iterator<Map.Entry<String, JsonNode>> sourceFields = source.fields();
+      while (sourceFields.hasNext()) {
+        Map.Entry<String, JsonNode> field = sourceFields.next();
+        String fieldPath = path + "/" + escape(field.getKey());
+        JsonNode targetValue = target.get(field.getKey());
+        if (targetValue == null) {
+          addOperation(patch, REMOVE, fieldPath, null);
+        } else {
+          diff(patch, fieldPath, field.getValue(), targetValue);
+        }
+      }
+      Iterator<Map.Entry<String, JsonNode>> targetFields = target.fields();
+      while (targetFields.hasNext()) {
+        Map.Entry<String, JsonNode> field = targetFields.next();
+        if (!source.has(field.getKey())) {
+          addOperation(patch, ADD, path + "/" + escape(field.getKey()), field.getValue());
+        }
+      }
+    } else if (source.isArray() && target.isArray()) {
+      int commonSize = Math.min(source.size(), target.size());
+      for (int i = 0; i < commonSize; ++i) {
+        diff(patch, path + "/" + i, source.get(i), target.get(i));
+      }
+      for (int i = commonSize; i < target.size(); ++i) {
+        addOperation(patch, ADD, path + "/" + i, target.get(i));
+      }
+      // Remove from the end, so that the remaining indexes stay valid:
+      for (int i = source.size() - 1; i >= commonSize; --i) {
+        addOperation(patch, REMOVE, path + "/" + i, null);
+      }
+    } else {
+      addOperation(patch, REPLACE, path, target);
+    }
+  }
+
+  private static void addOperation(ArrayNode patch, String op, String path, JsonNode value) {
+    ObjectNode operation = patch.addObject().put(OP, op).put(PATH, path);
+    if (value != null) {
+      operation.set(VALUE, value.deepCopy());
+    }
+  }
+
+  private static JsonNode applyOperation(JsonNode document, JsonNode operation) {
+    String op = operation.get(OP).asText();
+    List<String> tokens = parsePath(operation.get(PATH).asText());
+    JsonNode value = operation.has(VALUE) ? operation.get(VALUE).deepCopy() : null;
+    if (tokens.isEmpty()) {
+      if (REMOVE.equals(op)) {
+        throw new IllegalArgumentException("Cannot remove the document root");
+      }
+      return value;
+    }
+
+    JsonNode parent = document;
+    for (String token : tokens.subList(0, tokens.size() - 1)) {
+      parent = getChild(parent, token);
+    }
+    String lastToken = tokens.get(tokens.size() - 1);
+    if (parent.isObject()) {
+      ObjectNode object = (ObjectNode) parent;
+      if (!ADD.equals(op) && !object.has(lastToken)) {
+        throw new IllegalArgumentException(String.format("Field to %s doesn't exist: %s", op, operation));
+      }
+      if (REMOVE.equals(op)) {
+        object.remove(lastToken);
+      } else {
+        object.set(lastToken, value);
+      }
+    } else if (parent.isArray()) {
+      ArrayNode array = (ArrayNode) parent;
+      if (ADD.equals(op) && APPEND_INDEX.equals(lastToken)) {
+        array.add(value);
+        return document;
+      }
+      int index = parseIndex(lastToken, ADD.equals(op) ? array.size() + 1 : array.size());
+      if (ADD.equals(op)) {
+        array.insert(index, value);
+      } else if (REMOVE.equals(op)) {
+        array.remove(index);
+      } else {
+        array.set(index, value);
+      }
+    } else {
+      throw new IllegalArgumentException(String.format("Parent of path is not a container: %s", operation));
+    }
+    return document;
+  }
+
+  private static JsonNode getChild(JsonNode node, String token) {
+    JsonNode child;
+    if (node.isObject()) {
+      child = node.get(token);
+    } else if (node.isArray()) {
+      child = node.get(parseIndex(token, node.size()));
+    } else {
+      child = null;
+    }
+    if (child == null) {
+      throw new IllegalArgumentException(String.format("Path element '%s' doesn't exist", token));
+    }
+    return child;
+  }
+
+  private static int parseIndex(String token, int size) {
+    final int index;
+    try {
+      index = Integer.parseInt(token);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(String.format("Invalid array index: %s", token), e);
+    }
+    if (index < 0 || index >= size) {
+      throw new IllegalArgumentException(String.format("Array index %d is out of bounds", index));
+    }
+    return index;
+  }
+
+  /**
+   * Splits a JSON pointer (RFC 6901) into its unescaped elements. The empty pointer refers to the document root.
+   */
+  private static List<String> parsePath(String path) {
+    List<String> tokens = new ArrayList<>();
+    if (path.isEmpty()) {
+      return tokens;
+    }
+    if (!path.startsWith("/")) {
+      throw new IllegalArgumentException(String.format("Invalid path: %s", path));
+    }
+    for (String token : path.substring(1).split("/", -1)) {
+      tokens.add(token.replace("~1", "/").replace("~0", "~"));
+    }
+    return tokens;
+  }
+
+  private static String escape(String fieldName) {
+    return fieldName.replace("~", "~0").replace("/", "~1");
+  }
+}
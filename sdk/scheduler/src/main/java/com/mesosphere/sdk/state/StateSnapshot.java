@@ -0,0 +1,200 @@
+package com.mesosphere.sdk.state;
+
+import org.apache.mesos.Protos;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * An immutable view of the task data in a {@link StateStore}: the {@link Protos.TaskInfo} of each task, along with the
+ * {@link Protos.TaskStatus} and {@link GoalStateOverride.Status} stored for it. This allows read-only HTTP queries to
+ * be answered without going back to the underlying {@link com.mesosphere.sdk.storage.Persister} on every request.
+ * <p>
+ * Each snapshot has an entity tag which changes whenever the underlying task data may have changed. HTTP clients may
+ * send this tag back via {@code If-None-Match} to avoid receiving a response which they already have.
+ *
+ * @see StateStore#getSnapshot()
+ */
+public final class StateSnapshot {
+
+  private final String entityTag;
+
+  private final Map<String, Protos.TaskInfo> tasks;
+
+  private final Map<String, Protos.TaskStatus> statuses;
+
+  private final Map<String, GoalStateOverride.Status> goalOverrideStatuses;
+
+  private StateSnapshot(Builder builder) {
+    this.entityTag = builder.entityTag;
+    this.tasks = Collections.unmodifiableMap(new TreeMap<>(builder.tasks));
+    this.statuses = Collections.unmodifiableMap(new HashMap<>(builder.statuses));
+    this.goalOverrideStatuses = Collections.unmodifiableMap(new HashMap<>(builder.goalOverrideStatuses));
+  }
+
+  /**
+   * Returns a new snapshot of all the task data currently in the provided {@link StateStore}, with an empty entity
+   * tag. Callers which want a tagged snapshot should use {@link StateStore#getSnapshot()} instead.
+   *
+   * @throws StateStoreException if fetching the task data fails
+   */
+  public static StateSnapshot create(StateStore stateStore) throws StateStoreException {
+    return newBuilder()
+        .refreshTasks(stateStore, stateStore.fetchTaskNames())
+        .build();
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns a builder which starts with the content of this snapshot, for producing an updated copy.
+   */
+  public Builder toBuilder() {
+    Builder builder = new Builder();
+    builder.entityTag = entityTag;
+    builder.tasks.putAll(tasks);
+    builder.statuses.putAll(statuses);
+    builder.goalOverrideStatuses.putAll(goalOverrideStatuses);
+    return builder;
+  }
+
+  /**
+   * Returns an opaque value which differs between snapshots whose content may differ, suitable for use as an HTTP
+   * {@code ETag}.
+   */
+  public String getEntityTag() {
+    return entityTag;
+  }
+
+  /**
+   * Returns the names of all tasks, in sorted order.
+   */
+  public Collection<String> getTaskNames() {
+    return tasks.keySet();
+  }
+
+  /**
+   * Returns the {@link Protos.TaskInfo}s of all tasks, sorted by task name.
+   */
+  public Collection<Protos.TaskInfo> getTasks() {
+    return tasks.values();
+  }
+
+  /**
+   * Returns the {@link Protos.TaskInfo} for the specified task, or an empty {@link Optional} if it isn't present.
+   */
+  public Optional<Protos.TaskInfo> getTask(String taskName) {
+    return Optional.ofNullable(tasks.get(taskName));
+  }
+
+  /**
+   * Returns the {@link Protos.TaskStatus}es of all tasks which have one. This may have fewer entries than
+   * {@link #getTasks()}.
+   */
+  public Collection<Protos.TaskStatus> getStatuses() {
+    return statuses.values();
+  }
+
+  /**
+   * Returns the {@link Protos.TaskStatus} stored for the specified task, or an empty {@link Optional} if none is
+   * present.
+   */
+  public Optional<Protos.TaskStatus> getStatus(String taskName) {
+    return Optional.ofNullable(statuses.get(taskName));
+  }
+
+  /**
+   * Returns the goal state override status of the specified task, or {@link GoalStateOverride.Status#INACTIVE} if it
+   * has none.
+   */
+  public GoalStateOverride.Status getGoalOverrideStatus(String taskName) {
+    return goalOverrideStatuses.getOrDefault(taskName, GoalStateOverride.Status.INACTIVE);
+  }
+
+  /**
+   * Builder for {@link StateSnapshot}.
+   */
+  public static final class Builder {
+
+    private String entityTag = "";
+
+    private final Map<String, Protos.TaskInfo> tasks = new HashMap<>();
+
+    private final Map<String, Protos.TaskStatus> statuses = new HashMap<>();
+
+    private final Map<String, GoalStateOverride.Status> goalOverrideStatuses = new HashMap<>();
+
+    private Builder() {
+    }
+
+    public Builder entityTag(String entityTag) {
+      this.entityTag = entityTag;
+      return this;
+    }
+
+    /**
+     * Adds or replaces a task in the snapshot.
+     *
+     * @param taskInfo           the task's info
+     * @param taskStatus         the status stored for the task, if any
+     * @param goalOverrideStatus the task's goal state override status, or {@code null} if it has none
+     */
+    public Builder putTask(
+        Protos.TaskInfo taskInfo,
+        Optional<Protos.TaskStatus> taskStatus,
+        GoalStateOverride.Status goalOverrideStatus)
+    {
+      String taskName = taskInfo.getName();
+      tasks.put(taskName, taskInfo);
+      if (taskStatus.isPresent()) {
+        statuses.put(taskName, taskStatus.get());
+      } else {
+        statuses.remove(taskName);
+      }
+      if (goalOverrideStatus == null || GoalStateOverride.Status.INACTIVE.equals(goalOverrideStatus)) {
+        goalOverrideStatuses.remove(taskName);
+      } else {
+        goalOverrideStatuses.put(taskName, goalOverrideStatus);
+      }
+      return this;
+    }
+
+    /**
+     * Removes a task from the snapshot, or does nothing if it isn't present.
+     */
+    public Builder removeTask(String taskName) {
+      tasks.remove(taskName);
+      statuses.remove(taskName);
+      goalOverrideStatuses.remove(taskName);
+      return this;
+    }
+
+    /**
+     * Replaces the data for the specified tasks with their current data in the provided {@link StateStore}. Tasks
+     * which are no longer present in the {@link StateStore} are removed.
+     *
+     * @throws StateStoreException if fetching the task data fails
+     */
+    public Builder refreshTasks(StateStore stateStore, Collection<String> taskNames) throws StateStoreException {
+      for (String taskName : taskNames) {
+        Optional<Protos.TaskInfo> taskInfo = stateStore.fetchTask(taskName);
+        if (taskInfo.isPresent()) {
+          putTask(taskInfo.get(), stateStore.fetchStatus(taskName), stateStore.fetchGoalOverrideStatus(taskName));
+        } else {
+          removeTask(taskName);
+        }
+      }
+      return this;
+    }
+
+    public StateSnapshot build() {
+      return new StateSnapshot(this);
+    }
+  }
+}
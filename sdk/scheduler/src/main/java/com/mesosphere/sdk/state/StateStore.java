@@ -18,10 +18,17 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -79,6 +86,27 @@ public class StateStore {
 
   private final Logger logger;
 
+  private final DecodedTaskCache decodedTaskCache;
+
+  // Incremented after each write to task data, see getTasksVersion().
+  private final AtomicLong tasksVersion;
+
+  // Distinguishes the entity tags of this instance's snapshots from those of any previous scheduler process.
+  private final String snapshotEpoch;
+
+  // Names of tasks which were written since the last snapshot was built, see getSnapshot().
+  private final Set<String> snapshotChangedTaskNames;
+
+  // Set when all task data may have changed, so that the next snapshot is built from scratch.
+  private final AtomicBoolean snapshotInvalidated;
+
+  private final Object snapshotLock = new Object();
+
+  // Guarded by snapshotLock:
+  private StateSnapshot snapshot;
+
+  private long snapshotVersion;
+
   /**
    * Creates a new {@link StateStore} which uses the provided {@link Persister} to access
    * state data.
@@ -101,6 +129,11 @@ public class StateStore {
     this.logger = LoggingUtils.getLogger(getClass(), namespace);
     this.persister = persister;
     this.namespace = namespace.orElse("");
+    this.decodedTaskCache = new DecodedTaskCache();
+    this.tasksVersion = new AtomicLong();
+    this.snapshotEpoch = UUID.randomUUID().toString();
+    this.snapshotChangedTaskNames = ConcurrentHashMap.newKeySet();
+    this.snapshotInvalidated = new AtomicBoolean();
 
     StateStoreUtils.repairTaskIDs(this);
   }
@@ -212,6 +245,7 @@ public class StateStore {
    */
   public void storeTasks(Collection<Protos.TaskInfo> tasks) throws StateStoreException {
     List<Map<String, byte[]>> batchedTasks = new ArrayList<>();
+    Map<String, Protos.TaskInfo> tasksByPath = new HashMap<>();
     for (Protos.TaskInfo taskInfo : tasks) {
       if (batchedTasks.isEmpty()) {
         batchedTasks.add(new HashMap<>());
@@ -219,6 +253,7 @@ public class StateStore {
       String taskInfoPath = getTaskInfoPath(namespace, taskInfo.getName());
       byte[] taskBytes = taskInfo.toByteArray();
       validateValue(taskBytes);
+      tasksByPath.put(taskInfoPath, taskInfo);
       Map<String, byte[]> lastBatch = batchedTasks.get(batchedTasks.size() - 1);
       int totalPayload = lastBatch.values().stream().mapToInt(t -> t.length).sum();
       if (taskBytes.length + totalPayload < MAX_VALUE_LENGTH_BYTES) {
@@ -240,8 +275,21 @@ public class StateStore {
             logger.info("Batch {} payload is {}B", idx, taskBytesMap.values().stream().mapToInt(b -> b.length).sum());
             persister.setMany(taskBytesMap);
           } catch (PersisterException e) {
+            // Some of the tasks in this batch may have been partially written. Drop them from the cache so that
+            // they're reloaded from the persister on the next read.
+            taskBytesMap.keySet()
+                .forEach(path -> decodedTaskCache.invalidateTaskInfo(tasksByPath.get(path).getName()));
             throw new StateStoreException(e, String.format("Failed to store %d TaskInfos", taskBytesMap.size()));
+          } finally {
+            onTasksWritten(taskBytesMap.keySet().stream()
+                .map(path -> tasksByPath.get(path).getName())
+                .collect(Collectors.toList()));
           }
+          // Retain the decoded form of what was just written, to be returned by subsequent reads.
+          taskBytesMap.forEach((path, bytes) -> {
+            Protos.TaskInfo taskInfo = tasksByPath.get(path);
+            decodedTaskCache.putTaskInfo(taskInfo.getName(), taskInfo, bytes);
+          });
         });
   }
 
@@ -255,6 +303,87 @@ public class StateStore {
    *                             TaskInfo wasn't stored first
    */
   public void storeStatus(String taskName, Protos.TaskStatus status) throws StateStoreException {
+    checkStatus(taskName, status);
+
+    String path = getTaskStatusPath(namespace, taskName);
+    logger.debug("Storing status '{}' for '{}' in '{}'", status.getState(), taskName, path);
+
+    byte[] statusBytes = status.toByteArray();
+    try {
+      persister.set(path, statusBytes);
+    } catch (PersisterException e) {
+      decodedTaskCache.invalidateTaskStatus(taskName);
+      throw new StateStoreException(e);
+    } finally {
+      onTasksWritten(Collections.singleton(taskName));
+    }
+    decodedTaskCache.putTaskStatus(taskName, status, statusBytes);
+  }
+
+  /**
+   * Stores the TaskStatuses of several Tasks, as with {@link #storeStatus(String, Protos.TaskStatus)}. Statuses which
+   * fail validation are skipped and returned, while the remaining statuses are written together.
+   *
+   * @param statusesByTaskName The statuses to be stored, mapped by the names of their tasks
+   * @return Any statuses which were rejected, mapped by the names of their tasks to the reasons for rejection
+   * @throws StateStoreException if reading the current statuses or writing the valid statuses fails
+   */
+  public Map<String, StateStoreException> storeStatuses(Map<String, Protos.TaskStatus> statusesByTaskName)
+      throws StateStoreException
+  {
+    Map<String, StateStoreException> rejected = new HashMap<>();
+    Map<String, String> taskNamesByPath = new HashMap<>();
+    List<Map<String, byte[]>> batchedStatuses = new ArrayList<>();
+    batchedStatuses.add(new HashMap<>());
+    int lastBatchPayload = 0;
+    for (Map.Entry<String, Protos.TaskStatus> entry : statusesByTaskName.entrySet()) {
+      try {
+        checkStatus(entry.getKey(), entry.getValue());
+      } catch (StateStoreException e) {
+        if (e.getReason() == Reason.STORAGE_ERROR) {
+          // Failed to read the current status, rather than the new status being invalid.
+          throw e;
+        }
+        rejected.put(entry.getKey(), e);
+        continue;
+      }
+      String path = getTaskStatusPath(namespace, entry.getKey());
+      byte[] statusBytes = entry.getValue().toByteArray();
+      taskNamesByPath.put(path, entry.getKey());
+      if (statusBytes.length + lastBatchPayload >= MAX_VALUE_LENGTH_BYTES) {
+        batchedStatuses.add(new HashMap<>());
+        lastBatchPayload = 0;
+      }
+      batchedStatuses.get(batchedStatuses.size() - 1).put(path, statusBytes);
+      lastBatchPayload += statusBytes.length;
+    }
+
+    for (Map<String, byte[]> statusBytesMap : batchedStatuses) {
+      if (statusBytesMap.isEmpty()) {
+        continue;
+      }
+      try {
+        persister.setMany(statusBytesMap);
+      } catch (PersisterException e) {
+        statusBytesMap.keySet().forEach(path -> decodedTaskCache.invalidateTaskStatus(taskNamesByPath.get(path)));
+        throw new StateStoreException(e, String.format("Failed to store %d TaskStatuses", statusBytesMap.size()));
+      } finally {
+        onTasksWritten(statusBytesMap.keySet().stream().map(taskNamesByPath::get).collect(Collectors.toList()));
+      }
+      statusBytesMap.forEach((path, bytes) -> {
+        String taskName = taskNamesByPath.get(path);
+        decodedTaskCache.putTaskStatus(taskName, statusesByTaskName.get(taskName), bytes);
+      });
+    }
+    return rejected;
+  }
+
+  /**
+   * Checks that the provided status may be stored for the provided task, given the task's current status.
+   *
+   * @throws StateStoreException if the status should not be stored
+   */
+  private void checkStatus(String taskName, Protos.TaskStatus status) throws StateStoreException {
     Optional<Protos.TaskStatus> currentStatusOptional = fetchStatus(taskName);
     if (currentStatusOptional.isPresent()
         && (status.getState().equals(Protos.TaskState.TASK_LOST)
@@ -278,15 +407,6 @@ public class StateStore {
           Reason.NOT_FOUND,
           String.format("Dropping TaskStatus with unknown TaskID: %s", status));
     }
-
-    String path = getTaskStatusPath(namespace, taskName);
-    logger.debug("Storing status '{}' for '{}' in '{}'", status.getState(), taskName, path);
-
-    try {
-      persister.set(path, status.toByteArray());
-    } catch (PersisterException e) {
-      throw new StateStoreException(e);
-    }
   }
 
   /**
@@ -296,6 +416,7 @@ public class StateStore {
    * @throws StateStoreException when clearing the indicated Task's information fails
    */
   public void clearTask(String taskName) throws StateStoreException {
+    decodedTaskCache.invalidate(taskName);
     try {
       persister.recursiveDelete(getTaskPath(namespace, taskName));
     } catch (PersisterException e) {
@@ -305,9 +426,70 @@ public class StateStore {
       } else {
         throw new StateStoreException(e);
       }
+    } finally {
+      onTasksWritten(Collections.singleton(taskName));
     }
   }
 
+  /**
+   * Returns a counter which is incremented after every write to task data (TaskInfos, TaskStatuses, and goal state
+   * overrides) made via this instance, including writes which failed part way through. Callers may compare values
+   * of this counter to detect whether task data which they had previously fetched may have changed since. Writes
+   * made directly to the underlying {@link Persister}, or via another {@link StateStore}, are not counted.
+   */
+  public long getTasksVersion() {
+    return tasksVersion.get();
+  }
+
+  /**
+   * Returns an immutable snapshot of the current task data, for serving read-only queries. The snapshot is reused
+   * until task data is next written via this instance, after which only the tasks which were written are refetched.
+   * As with {@link #getTasksVersion()}, writes made directly to the underlying {@link Persister} or via another
+   * {@link StateStore} aren't reflected until the next write via this instance to the same task.
+   *
+   * @throws StateStoreException if fetching the task data fails
+   */
+  public StateSnapshot getSnapshot() throws StateStoreException {
+    synchronized (snapshotLock) {
+      // Read the version before fetching anything. Any write which completes after this point leaves a newer
+      // version, so that it's picked up by the next call.
+      long version = tasksVersion.get();
+      if (snapshot != null && snapshotVersion == version) {
+        return snapshot;
+      }
+      Collection<String> changedTaskNames = new ArrayList<>();
+      for (Iterator<String> iter = snapshotChangedTaskNames.iterator(); iter.hasNext(); ) {
+        changedTaskNames.add(iter.next());
+        iter.remove();
+      }
+      boolean invalidated = snapshotInvalidated.getAndSet(false);
+      try {
+        StateSnapshot.Builder builder;
+        if (snapshot == null || invalidated) {
+          builder = StateSnapshot.newBuilder().refreshTasks(this, fetchTaskNames());
+        } else {
+          builder = snapshot.toBuilder().refreshTasks(this, changedTaskNames);
+        }
+        snapshot = builder.entityTag(String.format("%s-%d", snapshotEpoch, version)).build();
+        snapshotVersion = version;
+      } catch (RuntimeException e) { // SUPPRESS CHECKSTYLE IllegalCatch
+        // The changed task names have already been consumed. Rebuild from scratch on the next call.
+        snapshot = null;
+        throw e;
+      }
+      return snapshot;
+    }
+  }
+
+  /**
+   * Records a write to the specified tasks, for {@link #getTasksVersion()} and {@link #getSnapshot()}. The names must
+   * be recorded before the version is incremented, so that a snapshot at the new version includes them.
+   */
+  private void onTasksWritten(Collection<String> taskNames) {
+    snapshotChangedTaskNames.addAll(taskNames);
+    tasksVersion.incrementAndGet();
+  }
+
   /**
    * Fetches all the Task names listed in the underlying storage. Note that these should always have a TaskInfo, but
    * may lack TaskStatus.
@@ -372,7 +554,7 @@ public class StateStore {
     try {
       byte[] bytes = persister.get(path);
       if (bytes.length > 0) {
-        return Optional.of(Protos.TaskInfo.parseFrom(bytes));
+        return Optional.of(decodedTaskCache.getTaskInfo(taskName, bytes));
       } else {
         throw new StateStoreException(Reason.SERIALIZATION_ERROR, String.format(
             "Empty TaskInfo for TaskName: %s", taskName));
@@ -380,6 +562,7 @@ public class StateStore {
     } catch (PersisterException e) {
       if (e.getReason() == Reason.NOT_FOUND) {
         logger.warn("No TaskInfo found for the requested name: {} at: {}", taskName, path);
+        decodedTaskCache.invalidateTaskInfo(taskName);
         return Optional.empty();
       } else {
         throw new StateStoreException(
@@ -404,11 +587,12 @@ public class StateStore {
     for (String taskName : fetchTaskNames()) {
       try {
         byte[] bytes = persister.get(getTaskStatusPath(namespace, taskName));
-        taskStatuses.add(Protos.TaskStatus.parseFrom(bytes));
+        taskStatuses.add(decodedTaskCache.getTaskStatus(taskName, bytes));
       } catch (PersisterException e) {
         if (e.getReason() == Reason.NOT_FOUND) {
           // The task node exists, but it doesn't contain a TaskStatus node. This may occur if
           // the only contents are a TaskInfo.
+          decodedTaskCache.invalidateTaskStatus(taskName);
           continue;
         } else {
           throw new StateStoreException(e);
@@ -434,7 +618,7 @@ public class StateStore {
     try {
       byte[] bytes = persister.get(path);
       if (bytes.length > 0) {
-        return Optional.of(Protos.TaskStatus.parseFrom(bytes));
+        return Optional.of(decodedTaskCache.getTaskStatus(taskName, bytes));
       } else {
         throw new StateStoreException(Reason.SERIALIZATION_ERROR, String.format(
             "Empty TaskStatus for TaskName: %s", taskName));
@@ -442,6 +626,7 @@ public class StateStore {
     } catch (PersisterException e) {
       if (e.getReason() == Reason.NOT_FOUND) {
         logger.info("No TaskStatus found for task: {}", taskName);
+        decodedTaskCache.invalidateTaskStatus(taskName);
         return Optional.empty();
       } else {
         throw new StateStoreException(e);
@@ -585,6 +770,8 @@ public class StateStore {
       }
     } catch (PersisterException e) {
       throw new StateStoreException(e);
+    } finally {
+      onTasksWritten(Collections.singleton(taskName));
     }
   }
 
@@ -630,6 +817,7 @@ public class StateStore {
    */
   public void deleteAllDataIfNamespaced() {
     if (!namespace.isEmpty()) {
+      decodedTaskCache.invalidateAll();
       try {
         // Delete data WITHIN THE NAMESPACE
         persister.recursiveDelete(PersisterUtils.getServiceNamespacedRoot(namespace));
@@ -639,6 +827,9 @@ public class StateStore {
         } else {
           throw new StateStoreException(e);
         }
+      } finally {
+        snapshotInvalidated.set(true);
+        tasksVersion.incrementAndGet();
       }
     }
   }
@@ -0,0 +1,270 @@
+package com.mesosphere.sdk.storage;
+
+import com.mesosphere.sdk.metrics.Metrics;
+import com.mesosphere.sdk.storage.StorageError.Reason;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A wrapper around another {@link Persister} which transparently encodes (typically compresses) any stored values
+ * above a size threshold. This reduces the size of large values such as serialized service configs and task infos,
+ * both in ZooKeeper and in any {@link PersisterCache} which is being wrapped.
+ * <p>
+ * Encoded values are prefixed with a header which identifies the {@link PersisterCodec} and the original length of
+ * the value. Values which lack the header are returned as-is, so data which was written before encoding was enabled
+ * (or below the threshold) remains readable. Values which have the header are decoded regardless of the threshold,
+ * so this wrapper should always be installed, with a threshold of {@link Integer#MAX_VALUE} when encoding is disabled.
+ * Encoding may then be enabled or disabled at any time.
+ * <p>
+ * When wrapping a {@link PersisterCache}, the cache hands back the same encoded array for a path until it's rewritten.
+ * The most recently decoded value for each path is kept alongside the encoded array that it came from, so that
+ * repeated reads return the same decoded array rather than decoding a fresh copy each time. This allows callers such as
+ * the {@link com.mesosphere.sdk.state.StateStore}'s decoded task cache to detect unchanged values by identity. The cost
+ * is that each large value is held in memory in both its encoded and decoded forms.
+ */
+public class CompressingPersister implements Persister {
+
+  /**
+   * Marks the start of an encoded value. Protobufs, JSON, and text never start with a zero byte, so existing values
+   * are very unlikely to start with this sequence. Any which do are stored behind an {@link #UNENCODED_ID} header.
+   */
+  private static final byte[] MAGIC = {0, 'P', 'C', 'D'};
+
+  /**
+   * The codec id for values which have the header, but whose content is stored as-is.
+   */
+  private static final byte UNENCODED_ID = 0;
+
+  private static final int HEADER_LENGTH = MAGIC.length + 1;
+
+  private static final int ENCODED_HEADER_LENGTH = HEADER_LENGTH + Integer.BYTES;
+
+  private final Persister persister;
+
+  private final PersisterCodec codec;
+
+  private final int thresholdBytes;
+
+  // The most recently decoded value for each path, along with the encoded array that it was decoded from.
+  private final Map<String, DecodedValue> decodedValues = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new instance which compresses values of at least {@code thresholdBytes} using
+   * {@link DeflatePersisterCodec}.
+   */
+  public CompressingPersister(Persister persister, int thresholdBytes) {
+    this(persister, new DeflatePersisterCodec(), thresholdBytes);
+  }
+
+  /**
+   * Creates a new instance which encodes values of at least {@code thresholdBytes} using the provided codec. Values
+   * are stored as-is if encoding them wouldn't reduce their size.
+   */
+  public CompressingPersister(Persister persister, PersisterCodec codec, int thresholdBytes) {
+    if (codec.getId() == UNENCODED_ID) {
+      throw new IllegalArgumentException(String.format("Codec id %d is reserved", UNENCODED_ID));
+    }
+    this.persister = persister;
+    this.codec = codec;
+    this.thresholdBytes = thresholdBytes;
+  }
+
+  /**
+   * Returns the underlying {@link Persister}, whose values may be encoded.
+   */
+  public Persister getDelegate() {
+    return persister;
+  }
+
+  @Override
+  public byte[] get(String path) throws PersisterException {
+    return decode(path, persister.get(path));
+  }
+
+  @Override
+  public Collection<String> getChildren(String path) throws PersisterException {
+    return persister.getChildren(path);
+  }
+
+  @Override
+  public void set(String path, byte[] bytes) throws PersisterException {
+    byte[] encoded = encode(path, bytes);
+    persister.set(path, encoded);
+    remember(path, encoded, bytes);
+  }
+
+  @Override
+  public Map<String, byte[]> getMany(Collection<String> paths) throws PersisterException {
+    Map<String, byte[]> values = new LinkedHashMap<>();
+    for (Map.Entry<String, byte[]> entry : persister.getMany(paths).entrySet()) {
+      values.put(entry.getKey(), decode(entry.getKey(), entry.getValue()));
+    }
+    return values;
+  }
+
+  @Override
+  public void setMany(Map<String, byte[]> pathBytesMap) throws PersisterException {
+    Map<String, byte[]> values = new LinkedHashMap<>();
+    for (Map.Entry<String, byte[]> entry : pathBytesMap.entrySet()) {
+      values.put(entry.getKey(), encode(entry.getKey(), entry.getValue()));
+    }
+    persister.setMany(values);
+    for (Map.Entry<String, byte[]> entry : pathBytesMap.entrySet()) {
+      remember(entry.getKey(), values.get(entry.getKey()), entry.getValue());
+    }
+  }
+
+  @Override
+  public void recursiveCopy(String srcPath, String destPath) throws PersisterException {
+    // Values are copied in their encoded form.
+    persister.recursiveCopy(srcPath, destPath);
+  }
+
+  @Override
+  public void recursiveDeleteMany(Collection<String> paths) throws PersisterException {
+    persister.recursiveDeleteMany(paths);
+    paths.forEach(this::forgetPathsUnder);
+  }
+
+  @Override
+  public void recursiveDelete(String path) throws PersisterException {
+    persister.recursiveDelete(path);
+    forgetPathsUnder(path);
+  }
+
+  @Override
+  public void close() {
+    persister.close();
+  }
+
+  private byte[] encode(String path, byte[] bytes) throws PersisterException {
+    if (bytes == null) {
+      return null;
+    }
+    if (bytes.length < thresholdBytes) {
+      return withoutEncoding(bytes);
+    }
+
+    long startNanos = System.nanoTime();
+    byte[] encoded;
+    try {
+      encoded = codec.encode(bytes);
+    } catch (IOException e) {
+      throw new PersisterException(
+          Reason.SERIALIZATION_ERROR, String.format("Failed to encode %d bytes for %s", bytes.length, path), e);
+    }
+    byte[] stored = ENCODED_HEADER_LENGTH + encoded.length < bytes.length
+        ? ByteBuffer.allocate(ENCODED_HEADER_LENGTH + encoded.length)
+            .put(MAGIC)
+            .put(codec.getId())
+            .putInt(bytes.length)
+            .put(encoded)
+            .array()
+        : withoutEncoding(bytes);
+    Metrics.recordPersisterEncode(bytes.length, stored.length, Duration.ofNanos(System.nanoTime() - startNanos));
+    return stored;
+  }
+
+  private byte[] decode(String path, byte[] bytes) throws PersisterException {
+    if (bytes == null || !hasHeader(bytes)) {
+      return bytes;
+    }
+    DecodedValue decodedValue = decodedValues.get(path);
+    if (decodedValue != null && decodedValue.encoded == bytes) {
+      // The underlying persister returned the same array that we last decoded (or wrote) for this path.
+      return decodedValue.decoded;
+    }
+    byte[] decoded = decodeHeader(path, bytes);
+    decodedValues.put(path, new DecodedValue(bytes, decoded));
+    return decoded;
+  }
+
+  private byte[] decodeHeader(String path, byte[] bytes) throws PersisterException {
+    byte id = bytes[MAGIC.length];
+    if (id == UNENCODED_ID) {
+      return Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+    }
+    int decodedLength = bytes.length >= ENCODED_HEADER_LENGTH
+        ? ByteBuffer.wrap(bytes, HEADER_LENGTH, Integer.BYTES).getInt()
+        : -1;
+    if (id != codec.getId() || decodedLength < 0) {
+      throw new PersisterException(Reason.SERIALIZATION_ERROR, String.format(
+          "Value at %s has an unsupported encoding: codec id %d, expected %d", path, id, codec.getId()));
+    }
+
+    long startNanos = System.nanoTime();
+    try {
+      byte[] decoded = codec.decode(bytes, ENCODED_HEADER_LENGTH, decodedLength);
+      Metrics.recordPersisterDecode(Duration.ofNanos(System.nanoTime() - startNanos));
+      return decoded;
+    } catch (IOException e) {
+      throw new PersisterException(
+          Reason.SERIALIZATION_ERROR, String.format("Failed to decode value at %s", path), e);
+    }
+  }
+
+  /**
+   * Keeps the original value of an encoded value that was just written, so that it's returned as-is when the
+   * underlying persister returns the same encoded array.
+   */
+  private void remember(String path, byte[] encoded, byte[] bytes) {
+    if (encoded == null || encoded == bytes) {
+      // Stored without a header: reads return the stored array as-is.
+      decodedValues.remove(path);
+    } else {
+      decodedValues.put(path, new DecodedValue(encoded, bytes));
+    }
+  }
+
+  private void forgetPathsUnder(String path) {
+    String prefix = path.endsWith(PersisterUtils.PATH_DELIM_STR) ? path : path + PersisterUtils.PATH_DELIM_STR;
+    decodedValues.keySet().removeIf(decodedPath -> decodedPath.equals(path) || decodedPath.startsWith(prefix));
+  }
+
+  /**
+   * Returns the value as-is, unless it happens to start with the header of an encoded value.
+   */
+  private static byte[] withoutEncoding(byte[] bytes) {
+    if (!hasHeader(bytes)) {
+      return bytes;
+    }
+    return ByteBuffer.allocate(HEADER_LENGTH + bytes.length)
+        .put(MAGIC)
+        .put(UNENCODED_ID)
+        .put(bytes)
+        .array();
+  }
+
+  private static boolean hasHeader(byte[] bytes) {
+    if (bytes.length < HEADER_LENGTH) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; ++i) {
+      if (bytes[i] != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A decoded value, along with the encoded array instance that it corresponds to.
+   */
+  private static final class DecodedValue {
+    private final byte[] encoded;
+
+    private final byte[] decoded;
+
+    private DecodedValue(byte[] encoded, byte[] decoded) {
+      this.encoded = encoded;
+      this.decoded = decoded;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.mesosphere.sdk.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link PersisterCodec} which compresses values using the JDK's DEFLATE implementation.
+ */
+public final class DeflatePersisterCodec implements PersisterCodec {
+
+  private static final byte ID = 1;
+
+  private final int level;
+
+  /**
+   * Creates a new instance which favors encoding speed over compression ratio. Stored values are typically JSON or
+   * protobufs with a lot of repetition, which compress well even at the fastest level.
+   */
+  public DeflatePersisterCodec() {
+    this(Deflater.BEST_SPEED);
+  }
+
+  /**
+   * Creates a new instance with the provided compression level, from {@link Deflater#BEST_SPEED} to
+   * {@link Deflater#BEST_COMPRESSION}.
+   */
+  public DeflatePersisterCodec(int level) {
+    this.level = level;
+  }
+
+  @Override
+  public byte getId() {
+    return ID;
+  }
+
+  @Override
+  public byte[] encode(byte[] bytes) {
+    Deflater deflater = new Deflater(level);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+      byte[] buffer = new byte[Math.min(bytes.length, 8192) + 64];
+      while (!deflater.finished()) {
+        output.write(buffer, 0, deflater.deflate(buffer));
+      }
+      return output.toByteArray();
+    } finally {
+      // Releases the native zlib resources immediately, rather than waiting for finalization.
+      deflater.end();
+    }
+  }
+
+  @Override
+  public byte[] decode(byte[] bytes, int offset, int decodedLength) throws IOException {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(bytes, offset, bytes.length - offset);
+      byte[] decoded = new byte[decodedLength];
+      int length = 0;
+      while (!inflater.finished()) {
+        int inflated = inflater.inflate(decoded, length, decodedLength - length);
+        length += inflated;
+        if (inflated == 0
+            && !inflater.finished()
+            && (length == decodedLength || inflater.needsInput() || inflater.needsDictionary()))
+        {
+          // Truncated data, or more data than expected: either way, no further progress can be made.
+          break;
+        }
+      }
+      if (!inflater.finished() || length != decodedLength) {
+        throw new IOException(String.format(
+            "Decompressed data doesn't match its expected length of %d bytes", decodedLength));
+      }
+      return decoded;
+    } catch (DataFormatException e) {
+      throw new IOException("Failed to decompress data", e);
+    } finally {
+      inflater.end();
+    }
+  }
+}
@@ -16,12 +16,18 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Implementation of {@link Persister} which stores the data in local memory. Mirrors the behavior of
  * {@link com.mesosphere.sdk.curator.CuratorPersister}.
+ * <p>
+ * When locking is disabled, operations against disjoint subtrees may still be performed concurrently, and reads may
+ * be performed concurrently with writes, where each node is read atomically. This allows callers to implement
+ * finer-grained locking of their own.
  */
 public final class MemPersister implements Persister {
 
@@ -99,8 +105,12 @@ public final class MemPersister implements Persister {
       curNode = curNode.children.get(element);
       if (curNode == null) {
         if (createIfMissing) {
-          curNode = new Node();
-          lastNode.children.put(element, curNode);
+          // Another writer may be creating the same parent for a sibling subtree:
+          Node newNode = new Node();
+          curNode = lastNode.children.putIfAbsent(element, newNode);
+          if (curNode == null) {
+            curNode = newNode;
+          }
         } else {
           return null;
         }
@@ -315,12 +325,13 @@ public final class MemPersister implements Persister {
   }
 
   private static final class Node {
-    private final Map<String, Node> children;
+    private final ConcurrentMap<String, Node> children;
 
-    private Optional<byte[]> data;
+    private volatile Optional<byte[]> data;
 
     private Node() {
-      this.children = new TreeMap<>();
+      // sorted for consistent ordering in getDebugString()
+      this.children = new ConcurrentSkipListMap<>();
       this.data = Optional.empty();
     }
   }
@@ -350,7 +361,8 @@ public final class MemPersister implements Persister {
     }
 
     /**
-     * Disables thread locking. This should only be invoked by {@link PersisterCache} which has its own locking.
+     * Disables thread locking. This should only be invoked by callers such as {@link PersisterCache} which have their
+     * own locking.
      * Calling this also implies disabling the exit-on-deadlock feature.
      *
      * @return this
@@ -1,120 +1,223 @@
 package com.mesosphere.sdk.storage;
 
+import com.mesosphere.sdk.metrics.Metrics;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
 import com.mesosphere.sdk.state.CycleDetectingLockUtils;
 
+import com.google.common.base.Splitter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * A transparent write-through cache for an underlying {@link Persister} instance. Each cache instance is thread-safe,
  * but there is no guarantee of consistent behavior across multiple cache instances.
+ * <p>
+ * The cache is loaded one top-level subtree at a time, where each service namespace counts as a separate subtree.
+ * Subtrees are loaded in priority order: the framework ID, the schema version, the service list, each service
+ * namespace in service list order, and then anything else. By default, everything is loaded upon first access. If
+ * incremental loading is enabled, then each access only waits for the subtrees which it touches, while the remaining
+ * subtrees are loaded in the background.
+ * <p>
+ * Once loaded, each subtree has its own lock, so that accesses to different service namespaces don't wait on each
+ * other. Reads within a single subtree are first attempted without any locking at all, and are only retried with the
+ * subtree's read lock if a write to that subtree was in progress. Accesses which span all subtrees (e.g. listing the
+ * root) take a lock against the cache as a whole.
  */
 public class PersisterCache implements Persister {
 
   private static final Logger LOGGER = LoggingUtils.getLogger(PersisterCache.class);
 
+  /**
+   * The node under which {@link com.mesosphere.sdk.scheduler.multi.ServiceStore} lists the services to be recovered.
+   */
+  private static final String SERVICE_LIST_ROOT_NAME = "ServiceList";
+
+  /**
+   * Top-level nodes which are loaded ahead of any service namespaces, in order. These are written by
+   * {@link com.mesosphere.sdk.state.FrameworkStore}, {@link com.mesosphere.sdk.state.SchemaVersionStore}, and
+   * {@link com.mesosphere.sdk.scheduler.multi.ServiceStore} respectively.
+   */
+  private static final List<String> PRIORITY_ROOT_NAMES =
+      Arrays.asList("FrameworkID", "SchemaVersion", SERVICE_LIST_ROOT_NAME);
+
+  /**
+   * The names of the load phases for each of {@link #PRIORITY_ROOT_NAMES}, for metrics.
+   */
+  private static final List<String> PRIORITY_PHASE_NAMES =
+      Arrays.asList("framework_id", "schema_version", "service_list");
+
+  private static final String SERVICES_PHASE_NAME = "services";
+
+  private static final String OTHER_PHASE_NAME = "other";
+
+  private static final String TOTAL_PHASE_NAME = "total";
+
   private final Persister persister;
 
+  private final boolean exitOnDeadlock;
+
+  /**
+   * Held for reading by any access to a loaded subtree, and held for writing when loading subtrees or when accessing
+   * paths which span all subtrees.
+   */
   private final Lock rlock;
 
   private final Lock rwlock;
 
-  private MemPersister cache;
+  private final PersisterLoader loader;
+
+  private final boolean incrementalLoad;
+
+  /**
+   * Top-level subtrees which haven't been loaded into the cache yet, in the order that they should be loaded.
+   */
+  private final Set<String> pendingRoots = new LinkedHashSet<>();
+
+  /**
+   * Locks for top-level subtrees which have been loaded, created on first access.
+   */
+  private final Map<String, Stripe> stripes = new ConcurrentHashMap<>();
+
+  /**
+   * Incremented whenever the cache is discarded, so that any background loading of the prior cache stops.
+   */
+  private long generation;
+
+  /**
+   * Incremented before and after any write which is made while holding {@link #rwlock}, such that it's odd while the
+   * write is in progress. Used to validate reads which were made without locking.
+   */
+  private volatile long exclusiveWriteVersion;
+
+  private volatile MemPersister cache;
 
   public PersisterCache(Persister persister, SchedulerConfig schedulerConfig) {
     this.persister = persister;
+    this.exitOnDeadlock = schedulerConfig.isDeadlockExitEnabled();
     ReadWriteLock lock = CycleDetectingLockUtils.newLock(schedulerConfig, PersisterCache.class);
     this.rlock = lock.readLock();
     this.rwlock = lock.writeLock();
+    this.loader = new PersisterLoader(persister, schedulerConfig.getStateCacheLoadParallelism());
+    this.incrementalLoad = schedulerConfig.isStateCacheIncrementalLoadEnabled();
+  }
+
+  /**
+   * Returns the top-level subtree containing the provided path, or an empty {@link Optional} if the path spans all
+   * subtrees.
+   */
+  private static Optional<String> getRoot(String path) {
+    List<String> elements = Splitter.on(PersisterUtils.PATH_DELIM).omitEmptyStrings().splitToList(path);
+    if (elements.isEmpty()) {
+      return Optional.empty();
+    }
+    if (elements.get(0).equals(PersisterUtils.SERVICE_NAMESPACE_ROOT_NAME)) {
+      return elements.size() == 1
+          ? Optional.empty()
+          : Optional.of(PersisterUtils.joinPaths(PersisterUtils.PATH_DELIM_STR, elements.get(0), elements.get(1)));
+    }
+    return Optional.of(PersisterUtils.joinPaths(PersisterUtils.PATH_DELIM_STR, elements.get(0)));
+  }
+
+  /**
+   * Returns the top-level subtrees containing the provided paths in sorted order, or an empty {@link Optional} if any
+   * of the paths span all subtrees.
+   */
+  private static Optional<Set<String>> getRoots(Collection<String> paths) {
+    Set<String> roots = new TreeSet<>();
+    for (String path : paths) {
+      Optional<String> root = getRoot(path);
+      if (!root.isPresent()) {
+        return Optional.empty();
+      }
+      roots.add(root.get());
+    }
+    return Optional.of(roots);
+  }
+
+  private static String getPhase(String root) {
+    int priorityIndex = PRIORITY_ROOT_NAMES.indexOf(root.substring(1));
+    if (priorityIndex >= 0) {
+      return PRIORITY_PHASE_NAMES.get(priorityIndex);
+    }
+    return root.startsWith(getServicesRootPath() + PersisterUtils.PATH_DELIM_STR)
+        ? SERVICES_PHASE_NAME
+        : OTHER_PHASE_NAME;
+  }
+
+  private static String getServicesRootPath() {
+    return PersisterUtils.joinPaths(PersisterUtils.PATH_DELIM_STR, PersisterUtils.SERVICE_NAMESPACE_ROOT_NAME);
   }
 
   @Override
   public byte[] get(String path) throws PersisterException {
-    rlock.lock();
-    try {
-      return getCache().get(path);
-    } finally {
-      rlock.unlock();
-    }
+    return read(Collections.singletonList(path), loadedCache -> loadedCache.get(path));
   }
 
   @Override
   public Collection<String> getChildren(String path) throws PersisterException {
-    rlock.lock();
-    try {
-      return getCache().getChildren(path);
-    } finally {
-      rlock.unlock();
-    }
+    return read(Collections.singletonList(path), loadedCache -> loadedCache.getChildren(path));
   }
 
   @Override
   public void set(String path, byte[] bytes) throws PersisterException {
-    rwlock.lock();
-    try {
+    write(Collections.singletonList(path), loadedCache -> {
       persister.set(path, bytes);
-      getCache().set(path, bytes);
-    } finally {
-      rwlock.unlock();
-    }
+      loadedCache.set(path, bytes);
+    });
   }
 
   @Override
   public Map<String, byte[]> getMany(Collection<String> paths) throws PersisterException {
-    rwlock.lock();
-    try {
-      return getCache().getMany(paths);
-    } finally {
-      rwlock.unlock();
-    }
+    return read(paths, loadedCache -> loadedCache.getMany(paths));
   }
 
   @Override
   public void setMany(Map<String, byte[]> pathBytesMap) throws PersisterException {
-    rwlock.lock();
-    try {
+    write(pathBytesMap.keySet(), loadedCache -> {
       persister.setMany(pathBytesMap);
-      getCache().setMany(pathBytesMap);
-    } finally {
-      rwlock.unlock();
-    }
+      loadedCache.setMany(pathBytesMap);
+    });
   }
 
   @Override
   public void recursiveCopy(String srcPath, String destPath) throws PersisterException {
-    rwlock.lock();
-    try {
+    write(Arrays.asList(srcPath, destPath), loadedCache -> {
       persister.recursiveCopy(srcPath, destPath);
-      getCache().recursiveCopy(srcPath, destPath);
-    } finally {
-      rwlock.unlock();
-    }
+      loadedCache.recursiveCopy(srcPath, destPath);
+    });
   }
 
   @Override
   public void recursiveDeleteMany(Collection<String> paths) throws PersisterException {
-    rwlock.lock();
-    try {
+    write(paths, loadedCache -> {
       persister.recursiveDeleteMany(paths);
-      getCache().recursiveDeleteMany(paths);
-    } finally {
-      rwlock.unlock();
-    }
+      loadedCache.recursiveDeleteMany(paths);
+    });
   }
 
   @Override
   public void recursiveDelete(String path) throws PersisterException {
-    rwlock.lock();
-    try {
+    write(Collections.singletonList(path), loadedCache -> {
       persister.recursiveDelete(path);
       try {
-        getCache().recursiveDelete(path);
+        loadedCache.recursiveDelete(path);
       } catch (PersisterException e) {
         // We don't throw an exception here if our 'data' cache lacks the value. In theory 'persister' should've
         // thrown in that case anyway -- so we're effectively replicating what the underlying persister does.
@@ -124,20 +227,23 @@ public class PersisterCache implements Persister {
             path
         );
       }
-    } finally {
-      rwlock.unlock();
-    }
+    });
   }
 
   @Override
   public void close() {
     rwlock.lock();
+    ++exclusiveWriteVersion;
     try {
+      ++generation;
+      pendingRoots.clear();
+      stripes.clear();
       persister.close();
       if (cache != null) {
         cache.close();
       }
     } finally {
+      ++exclusiveWriteVersion;
       rwlock.unlock();
     }
   }
@@ -147,27 +253,342 @@ public class PersisterCache implements Persister {
    */
   public void refresh() throws PersisterException {
     rwlock.lock();
+    ++exclusiveWriteVersion;
     try {
       if (cache != null) {
         LOGGER.info("Cache content before refresh:\n{}", cache.getDebugString());
       }
       cache = null;
+      stripes.clear();
+      ++generation;
       // recreate cache
       getCache();
     } finally {
+      ++exclusiveWriteVersion;
       rwlock.unlock();
     }
   }
 
+  /**
+   * Performs the provided read against the cache. Reads which are confined to a single loaded subtree are attempted
+   * without locking, and are only retried with locking if they overlapped with a write to that subtree.
+   */
+  private <T> T read(Collection<String> paths, CacheRead<T> read) throws PersisterException {
+    Optional<Set<String>> roots = getRoots(paths);
+    if (roots.isPresent() && roots.get().size() == 1) {
+      long exclusiveStamp = exclusiveWriteVersion;
+      Stripe stripe = stripes.get(roots.get().iterator().next());
+      MemPersister loadedCache = cache;
+      // Stripes only exist for loaded subtrees, and are discarded along with the cache:
+      if (stripe != null && loadedCache != null && isEven(exclusiveStamp)) {
+        long stripeStamp = stripe.version;
+        if (isEven(stripeStamp)) {
+          T result = null;
+          PersisterException error = null;
+          try {
+            result = read.apply(loadedCache);
+          } catch (PersisterException e) {
+            error = e;
+          }
+          if (stripe.version == stripeStamp && exclusiveWriteVersion == exclusiveStamp) {
+            if (error != null) {
+              throw error;
+            }
+            return result;
+          }
+        }
+      }
+    }
+
+    rlock.lock();
+    try {
+      if (isLoaded(roots)) {
+        // Paths which span all subtrees are read without stripe locks: each node is still read atomically.
+        List<Stripe> lockedStripes = lockStripes(roots.orElse(Collections.emptySet()), false);
+        try {
+          return read.apply(cache);
+        } finally {
+          unlockStripes(lockedStripes, false);
+        }
+      }
+    } finally {
+      rlock.unlock();
+    }
+    rwlock.lock();
+    try {
+      return read.apply(getCacheFor(paths));
+    } finally {
+      rwlock.unlock();
+    }
+  }
+
+  /**
+   * Performs the provided write against the underlying persister and the cache, while holding the write locks of
+   * the subtrees involved, or the write lock for the whole cache if the paths span all subtrees.
+   */
+  private void write(Collection<String> paths, CacheWrite write) throws PersisterException {
+    Optional<Set<String>> roots = getRoots(paths);
+    rlock.lock();
+    try {
+      if (roots.isPresent() && isLoaded(roots)) {
+        List<Stripe> lockedStripes = lockStripes(roots.get(), true);
+        try {
+          write.apply(cache);
+        } finally {
+          unlockStripes(lockedStripes, true);
+        }
+        return;
+      }
+    } finally {
+      rlock.unlock();
+    }
+    rwlock.lock();
+    try {
+      MemPersister loadedCache = getCacheFor(paths);
+      ++exclusiveWriteVersion;
+      try {
+        write.apply(loadedCache);
+      } finally {
+        ++exclusiveWriteVersion;
+      }
+    } finally {
+      rwlock.unlock();
+    }
+  }
+
+  private static boolean isEven(long version) {
+    return (version & 1) == 0;
+  }
+
+  /**
+   * Locks the stripes for the provided subtrees, which must have been loaded. Stripes are always locked in sorted
+   * order, so that accesses which span multiple subtrees cannot deadlock with each other. The caller must hold
+   * {@link #rlock}.
+   */
+  private List<Stripe> lockStripes(Set<String> sortedRoots, boolean forWrite) {
+    List<Stripe> lockedStripes = new ArrayList<>(sortedRoots.size());
+    for (String root : sortedRoots) {
+      Stripe stripe = stripes.computeIfAbsent(root, r -> new Stripe(
+          CycleDetectingLockUtils.newLock(exitOnDeadlock, PersisterCache.class)));
+      if (forWrite) {
+        stripe.rwlock.lock();
+        ++stripe.version;
+      } else {
+        stripe.rlock.lock();
+      }
+      lockedStripes.add(stripe);
+    }
+    return lockedStripes;
+  }
+
+  private static void unlockStripes(List<Stripe> lockedStripes, boolean forWrite) {
+    for (int i = lockedStripes.size() - 1; i >= 0; --i) {
+      Stripe stripe = lockedStripes.get(i);
+      if (forWrite) {
+        ++stripe.version;
+        stripe.rwlock.unlock();
+      } else {
+        stripe.rlock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Returns whether the provided subtrees have been loaded, where an empty {@link Optional} refers to all subtrees.
+   * The caller must hold a lock.
+   */
+  private boolean isLoaded(Optional<Set<String>> roots) {
+    if (cache == null) {
+      return false;
+    }
+    if (!roots.isPresent()) {
+      return pendingRoots.isEmpty();
+    }
+    for (String root : roots.get()) {
+      if (pendingRoots.contains(root)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the cache, after ensuring that the subtree containing the provided path has been loaded. The caller must
+   * hold the write lock.
+   */
+  private MemPersister getCacheFor(String path) throws PersisterException {
+    return getCacheFor(Collections.singletonList(path));
+  }
+
+  /**
+   * Returns the cache, after ensuring that the subtrees containing the provided paths have been loaded. The caller
+   * must hold the write lock.
+   */
+  private MemPersister getCacheFor(Collection<String> paths) throws PersisterException {
+    MemPersister loadedCache = getCache();
+    if (pendingRoots.isEmpty()) {
+      return loadedCache;
+    }
+    Set<String> rootsToLoad = new LinkedHashSet<>();
+    for (String path : paths) {
+      Optional<String> root = getRoot(path);
+      if (!root.isPresent()) {
+        loadRoots(new ArrayList<>(pendingRoots));
+        return loadedCache;
+      }
+      if (pendingRoots.contains(root.get())) {
+        rootsToLoad.add(root.get());
+      }
+    }
+    loadRoots(rootsToLoad);
+    return loadedCache;
+  }
+
+  /**
+   * Returns the cache, creating it if needed. The caller must hold the write lock.
+   */
   private MemPersister getCache() throws PersisterException {
     if (cache == null) {
+      long startNanos = System.nanoTime();
       // We already have our own locking, so we can disable locking in the underlying MemPersister:
-      cache = MemPersister.newBuilder()
+      MemPersister newCache = MemPersister.newBuilder()
           .disableLocking()
-          .setData(PersisterUtils.getAllData(persister))
           .build();
-      LOGGER.info("Loaded data from persister:\n{}", cache.getDebugString());
+      pendingRoots.clear();
+      pendingRoots.addAll(listRoots(newCache));
+      cache = newCache;
+      if (incrementalLoad) {
+        LOGGER.info("Loading {} subtrees from persister in the background", pendingRoots.size());
+        startBackgroundLoad(startNanos);
+      } else {
+        loadRoots(new ArrayList<>(pendingRoots));
+        Metrics.recordPersisterCacheLoad(TOTAL_PHASE_NAME, Duration.ofNanos(System.nanoTime() - startNanos));
+        LOGGER.info("Loaded data from persister:\n{}", cache.getDebugString());
+      }
     }
     return cache;
   }
+
+  /**
+   * Returns the top-level subtrees in the underlying persister, in the order that they should be loaded. Any data in
+   * the parent node of the service namespaces is stored directly into the provided cache.
+   */
+  private List<String> listRoots(MemPersister newCache) throws PersisterException {
+    Collection<String> topLevelNames = persister.getChildren(PersisterUtils.PATH_DELIM_STR);
+    List<String> roots = new ArrayList<>();
+    for (String name : PRIORITY_ROOT_NAMES) {
+      if (topLevelNames.contains(name)) {
+        roots.add(PersisterUtils.joinPaths(PersisterUtils.PATH_DELIM_STR, name));
+      }
+    }
+    if (topLevelNames.contains(PersisterUtils.SERVICE_NAMESPACE_ROOT_NAME)) {
+      String servicesRootPath = getServicesRootPath();
+      byte[] data = persister.get(servicesRootPath);
+      if (data != null) {
+        newCache.set(servicesRootPath, data);
+      }
+      // Load namespaces in the order that ServiceStore recovers them, followed by any others:
+      Set<String> namespaces = new LinkedHashSet<>();
+      if (topLevelNames.contains(SERVICE_LIST_ROOT_NAME)) {
+        namespaces.addAll(persister.getChildren(SERVICE_LIST_ROOT_NAME));
+      }
+      Collection<String> storedNamespaces = persister.getChildren(servicesRootPath);
+      namespaces.retainAll(storedNamespaces);
+      namespaces.addAll(storedNamespaces);
+      for (String namespace : namespaces) {
+        roots.add(PersisterUtils.joinPaths(servicesRootPath, namespace));
+      }
+    }
+    for (String name : topLevelNames) {
+      if (!PRIORITY_ROOT_NAMES.contains(name) && !name.equals(PersisterUtils.SERVICE_NAMESPACE_ROOT_NAME)) {
+        roots.add(PersisterUtils.joinPaths(PersisterUtils.PATH_DELIM_STR, name));
+      }
+    }
+    return roots;
+  }
+
+  /**
+   * Loads the provided subtrees into the cache, grouped by phase. The caller must hold the write lock. This doesn't
+   * need to invalidate reads made without locking, as those are only made against subtrees which are already loaded.
+   */
+  private void loadRoots(Collection<String> roots) throws PersisterException {
+    Map<String, List<String>> rootsByPhase = new LinkedHashMap<>();
+    for (String root : roots) {
+      rootsByPhase.computeIfAbsent(getPhase(root), phase -> new ArrayList<>()).add(root);
+    }
+    for (Map.Entry<String, List<String>> entry : rootsByPhase.entrySet()) {
+      long startNanos = System.nanoTime();
+      cache.setMany(loader.load(entry.getValue()));
+      pendingRoots.removeAll(entry.getValue());
+      Metrics.recordPersisterCacheLoad(entry.getKey(), Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+  }
+
+  private void startBackgroundLoad(long startNanos) {
+    long loadGeneration = generation;
+    new ThreadFactoryBuilder()
+        .setDaemon(true)
+        .setNameFormat("persister-cache-load")
+        .build()
+        .newThread(() -> loadInBackground(loadGeneration, startNanos))
+        .start();
+  }
+
+  /**
+   * Loads any pending subtrees one at a time, so that other accesses to the cache may proceed between them.
+   */
+  private void loadInBackground(long loadGeneration, long startNanos) {
+    while (true) {
+      rwlock.lock();
+      try {
+        if (generation != loadGeneration) {
+          return;
+        }
+        if (pendingRoots.isEmpty()) {
+          Metrics.recordPersisterCacheLoad(TOTAL_PHASE_NAME, Duration.ofNanos(System.nanoTime() - startNanos));
+          LOGGER.info("Finished loading data from persister");
+          return;
+        }
+        loadRoots(Collections.singletonList(pendingRoots.iterator().next()));
+      } catch (PersisterException e) {
+        LOGGER.error("Failed to load data from persister, remaining data will be loaded on demand", e);
+        return;
+      } finally {
+        rwlock.unlock();
+      }
+    }
+  }
+
+  /**
+   * A read against the cache.
+   */
+  private interface CacheRead<T> {
+    T apply(MemPersister loadedCache) throws PersisterException;
+  }
+
+  /**
+   * A write against both the underlying persister and the cache.
+   */
+  private interface CacheWrite {
+    void apply(MemPersister loadedCache) throws PersisterException;
+  }
+
+  /**
+   * The lock for a single top-level subtree.
+   */
+  private static final class Stripe {
+    private final Lock rlock;
+
+    private final Lock rwlock;
+
+    /**
+     * Incremented before and after each write to the subtree, such that it's odd while a write is in progress.
+     */
+    private volatile long version;
+
+    private Stripe(ReadWriteLock lock) {
+      this.rlock = lock.readLock();
+      this.rwlock = lock.writeLock();
+    }
+  }
 }
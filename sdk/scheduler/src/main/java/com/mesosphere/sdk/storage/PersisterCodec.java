@@ -0,0 +1,31 @@
+package com.mesosphere.sdk.storage;
+
+import java.io.IOException;
+
+/**
+ * An encoding which {@link CompressingPersister} may apply to stored values, e.g. a compression algorithm.
+ */
+public interface PersisterCodec {
+
+  /**
+   * Returns the id which identifies this codec within the header of values which it has encoded. This must be unique
+   * across codecs and must never change once values have been stored with it. Zero is reserved for values which are
+   * stored without any encoding.
+   */
+  byte getId();
+
+  /**
+   * Returns an encoded copy of the provided value.
+   *
+   * @throws IOException if the value couldn't be encoded
+   */
+  byte[] encode(byte[] bytes) throws IOException;
+
+  /**
+   * Returns the decoded value from the provided encoded data, which starts at {@code offset}.
+   *
+   * @param decodedLength the length of the original value, as recorded when it was encoded
+   * @throws IOException if the data couldn't be decoded, e.g. due to corruption
+   */
+  byte[] decode(byte[] bytes, int offset, int decodedLength) throws IOException;
+}
@@ -0,0 +1,167 @@
+package com.mesosphere.sdk.storage;
+
+import com.mesosphere.sdk.storage.StorageError.Reason;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk-loads the contents of a {@link Persister}, breadth-first. Rather than walking the tree one node at a time as
+ * {@link PersisterUtils#getAllData(Persister)} does, each level of the tree is fetched with a bounded number of
+ * concurrent {@link Persister#getChildren(String)} calls, and the data for the level is fetched in bulk via
+ * {@link Persister#getMany(Collection)}.
+ */
+public final class PersisterLoader {
+
+  /**
+   * The maximum number of paths to be requested in a single {@link Persister#getMany(Collection)} call.
+   */
+  private static final int GET_MANY_BATCH_SIZE = 500;
+
+  private final Persister persister;
+
+  private final int parallelism;
+
+  /**
+   * Creates a new loader for the provided persister.
+   *
+   * @param persister   the persister to be read, which must be thread-safe if {@code parallelism > 1}
+   * @param parallelism the maximum number of concurrent reads, or {@code <=1} to perform all reads in the calling
+   *                    thread
+   */
+  public PersisterLoader(Persister persister, int parallelism) {
+    this.persister = persister;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Returns all data under the provided root paths, including the data for the roots themselves, in a flat map. As
+   * with {@link PersisterUtils#getAllData(Persister)}, any nodes which lack data are omitted. Roots which don't exist
+   * are skipped.
+   *
+   * @param rootPaths paths whose contents should be loaded, where {@code /} refers to the entire tree
+   * @throws PersisterException if the underlying {@link Persister} couldn't be accessed
+   */
+  public Map<String, byte[]> load(Collection<String> rootPaths) throws PersisterException {
+    ExecutorService executor = parallelism > 1
+        ? Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("persister-loader-%d")
+            .build())
+        : null;
+    try {
+      // consistent ordering (mainly for tests)
+      Map<String, byte[]> allData = new TreeMap<>();
+      List<String> level = new ArrayList<>();
+      for (String rootPath : rootPaths) {
+        String path = PersisterUtils.joinPaths(PersisterUtils.PATH_DELIM_STR, rootPath);
+        level.add(path);
+      }
+      // The root of the tree itself never has data of interest:
+      List<String> levelWithData = new ArrayList<>(level);
+      levelWithData.remove(PersisterUtils.PATH_DELIM_STR);
+      putData(executor, levelWithData, allData);
+
+      while (!level.isEmpty()) {
+        List<String> nextLevel = new ArrayList<>();
+        for (List<String> children : run(executor, level, this::getChildPaths)) {
+          nextLevel.addAll(children);
+        }
+        putData(executor, nextLevel, allData);
+        level = nextLevel;
+      }
+      return allData;
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  private List<String> getChildPaths(String path) throws PersisterException {
+    Collection<String> children;
+    try {
+      children = persister.getChildren(path);
+    } catch (PersisterException e) {
+      if (e.getReason() == Reason.NOT_FOUND) {
+        // Root doesn't exist, or node was deleted while we were walking the tree.
+        return Collections.emptyList();
+      }
+      throw e;
+    }
+    List<String> childPaths = new ArrayList<>(children.size());
+    for (String child : children) {
+      childPaths.add(PersisterUtils.joinPaths(path, child));
+    }
+    return childPaths;
+  }
+
+  private void putData(ExecutorService executor, List<String> paths, Map<String, byte[]> allData)
+      throws PersisterException
+  {
+    List<List<String>> batches = Lists.partition(paths, GET_MANY_BATCH_SIZE);
+    for (Map<String, byte[]> batchData : run(executor, batches, persister::getMany)) {
+      for (Map.Entry<String, byte[]> entry : batchData.entrySet()) {
+        // omit empty parents which lack data of their own:
+        if (entry.getValue() != null) {
+          allData.put(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+  }
+
+  /**
+   * Applies the provided read to each of the inputs, using the executor if one is provided, and returns the results
+   * in the same order as the inputs.
+   */
+  private static <I, O> List<O> run(ExecutorService executor, List<I> inputs, Read<I, O> read)
+      throws PersisterException
+  {
+    List<O> results = new ArrayList<>(inputs.size());
+    if (executor == null || inputs.size() <= 1) {
+      for (I input : inputs) {
+        results.add(read.apply(input));
+      }
+      return results;
+    }
+
+    List<Future<O>> futures = new ArrayList<>(inputs.size());
+    for (I input : inputs) {
+      Callable<O> callable = () -> read.apply(input);
+      futures.add(executor.submit(callable));
+    }
+    try {
+      for (Future<O> future : futures) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PersisterException(Reason.STORAGE_ERROR, "Interrupted while loading data", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof PersisterException) {
+        throw (PersisterException) e.getCause();
+      }
+      throw new PersisterException(Reason.STORAGE_ERROR, e.getCause());
+    }
+    return results;
+  }
+
+  /**
+   * A read against the persister.
+   */
+  private interface Read<I, O> {
+    O apply(I input) throws PersisterException;
+  }
+}
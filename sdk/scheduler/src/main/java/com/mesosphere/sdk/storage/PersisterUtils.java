@@ -43,7 +43,7 @@ public final class PersisterUtils {
    * <p>
    * Service-namespaced data is stored under "Services/[namespace]/..."
    */
-  private static final String SERVICE_NAMESPACE_ROOT_NAME = "Services";
+  static final String SERVICE_NAMESPACE_ROOT_NAME = "Services";
 
   private static final Logger LOGGER = LoggingUtils.getLogger(PersisterUtils.class);
 
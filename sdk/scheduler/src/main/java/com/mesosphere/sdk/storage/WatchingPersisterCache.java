@@ -0,0 +1,505 @@
+package com.mesosphere.sdk.storage;
+
+import com.mesosphere.sdk.curator.CuratorPersister;
+import com.mesosphere.sdk.metrics.Metrics;
+import com.mesosphere.sdk.offer.LoggingUtils;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.state.CycleDetectingLockUtils;
+import com.mesosphere.sdk.storage.StorageError.Reason;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * A write-through cache for an underlying {@link CuratorPersister}, which is also kept up to date with changes made
+ * to ZooKeeper by other parties. Unlike {@link PersisterCache}, which must be fully reloaded via
+ * {@link PersisterCache#refresh()} to pick up external changes, this cache subscribes to ZooKeeper watches via a
+ * Curator {@link TreeCache}, and applies each node-level change as it arrives.
+ * <p>
+ * Writes and deletes made through this cache are visible to subsequent reads immediately, without waiting for the
+ * corresponding watch events. Until those events arrive, any events for the same paths are assumed to be older than
+ * the local change and are ignored, for up to {@link #PENDING_CHANGE_TIMEOUT}. After that, the affected paths are
+ * re-read from the {@link TreeCache}, so any external changes which were ignored in the meantime are picked up.
+ * <p>
+ * The number of watch events, the lag between a change being made in ZooKeeper and it being applied to the cache, and
+ * whether the cache is currently disconnected from ZooKeeper, are all reported as metrics.
+ */
+public class WatchingPersisterCache implements Persister {
+
+  private static final Logger LOGGER = LoggingUtils.getLogger(WatchingPersisterCache.class);
+
+  /**
+   * The maximum time to wait for the watch events for a local write or delete. After this, we assume that the local
+   * change was superseded by an external change, or that it didn't produce any events (e.g. deleting a path which
+   * didn't exist), and re-read the path from the {@link TreeCache}.
+   */
+  private static final Duration PENDING_CHANGE_TIMEOUT = Duration.ofSeconds(30);
+
+  /**
+   * The maximum time to wait for the initial contents of the cache to be fetched.
+   */
+  private static final Duration INITIALIZATION_TIMEOUT = Duration.ofMinutes(5);
+
+  private final Persister persister;
+
+  private final String rootPath;
+
+  private final TreeCache treeCache;
+
+  private final CountDownLatch initialized = new CountDownLatch(1);
+
+  private final long pendingChangeTimeoutNanos;
+
+  private final Lock rlock;
+
+  private final Lock rwlock;
+
+  // We already have our own locking, so we can disable locking in the underlying MemPersister:
+  private final MemPersister cache = MemPersister.newBuilder().disableLocking().build();
+
+  /**
+   * Local writes whose watch events haven't been received yet.
+   */
+  private final Map<String, PendingChange> pendingSets = new HashMap<>();
+
+  /**
+   * Local deletes whose watch events haven't been received yet.
+   */
+  private final Map<String, PendingChange> pendingDeletes = new HashMap<>();
+
+  // Whether any changes may be pending, and a lower bound for the time of the oldest one. These allow readers to check
+  // for expired changes without taking the write lock. Only updated while holding the write lock.
+  private volatile boolean changesPending;
+
+  private volatile long oldestChangeNanos;
+
+  public WatchingPersisterCache(CuratorPersister persister, SchedulerConfig schedulerConfig) {
+    this(persister, schedulerConfig, PENDING_CHANGE_TIMEOUT);
+  }
+
+  @VisibleForTesting
+  WatchingPersisterCache(CuratorPersister persister, SchedulerConfig schedulerConfig, Duration pendingChangeTimeout) {
+    this.persister = persister;
+    this.pendingChangeTimeoutNanos = pendingChangeTimeout.toNanos();
+    this.rootPath = persister.getServiceRootPath();
+    this.treeCache = persister.newTreeCache();
+    ReadWriteLock lock = CycleDetectingLockUtils.newLock(schedulerConfig, WatchingPersisterCache.class);
+    this.rlock = lock.readLock();
+    this.rwlock = lock.writeLock();
+
+    treeCache.getListenable().addListener((client, event) -> handleEvent(event));
+    try {
+      treeCache.start();
+    } catch (Exception e) { // SUPPRESS CHECKSTYLE IllegalCatch
+      throw new IllegalStateException("Failed to start watching ZK", e);
+    }
+  }
+
+  @Override
+  public byte[] get(String path) throws PersisterException {
+    awaitInitialized();
+    expirePendingChangesIfDue();
+    rlock.lock();
+    try {
+      return cache.get(path);
+    } finally {
+      rlock.unlock();
+    }
+  }
+
+  @Override
+  public Collection<String> getChildren(String path) throws PersisterException {
+    awaitInitialized();
+    expirePendingChangesIfDue();
+    rlock.lock();
+    try {
+      return cache.getChildren(path);
+    } finally {
+      rlock.unlock();
+    }
+  }
+
+  @Override
+  public void set(String path, byte[] bytes) throws PersisterException {
+    awaitInitialized();
+    rwlock.lock();
+    try {
+      expirePendingChanges();
+      persister.set(path, bytes);
+      cache.set(path, bytes);
+      addPendingChange(pendingSets, normalize(path), bytes);
+    } finally {
+      rwlock.unlock();
+    }
+  }
+
+  @Override
+  public Map<String, byte[]> getMany(Collection<String> paths) throws PersisterException {
+    awaitInitialized();
+    expirePendingChangesIfDue();
+    rlock.lock();
+    try {
+      return cache.getMany(paths);
+    } finally {
+      rlock.unlock();
+    }
+  }
+
+  @Override
+  public void setMany(Map<String, byte[]> pathBytesMap) throws PersisterException {
+    awaitInitialized();
+    rwlock.lock();
+    try {
+      expirePendingChanges();
+      persister.setMany(pathBytesMap);
+      cache.setMany(pathBytesMap);
+      for (Map.Entry<String, byte[]> entry : pathBytesMap.entrySet()) {
+        addPendingChange(pendingSets, normalize(entry.getKey()), entry.getValue());
+      }
+    } finally {
+      rwlock.unlock();
+    }
+  }
+
+  @Override
+  public void recursiveCopy(String srcPath, String destPath) throws PersisterException {
+    awaitInitialized();
+    rwlock.lock();
+    try {
+      expirePendingChanges();
+      persister.recursiveCopy(srcPath, destPath);
+      cache.recursiveCopy(srcPath, destPath);
+      // The copied nodes will show up as watch events, which are applied as-is.
+    } finally {
+      rwlock.unlock();
+    }
+  }
+
+  @Override
+  public void recursiveDeleteMany(Collection<String> paths) throws PersisterException {
+    awaitInitialized();
+    rwlock.lock();
+    try {
+      expirePendingChanges();
+      persister.recursiveDeleteMany(paths);
+      cache.recursiveDeleteMany(paths);
+      for (String path : paths) {
+        markDeleted(normalize(path));
+      }
+    } finally {
+      rwlock.unlock();
+    }
+  }
+
+  @Override
+  public void recursiveDelete(String path) throws PersisterException {
+    awaitInitialized();
+    rwlock.lock();
+    try {
+      expirePendingChanges();
+      persister.recursiveDelete(path);
+      try {
+        cache.recursiveDelete(path);
+      } catch (PersisterException e) {
+        // As with PersisterCache: The underlying persister would have thrown if the value was actually missing.
+        LOGGER.error(
+            "Didn't find value {} in cache to delete, but underlying storage had the value",
+            path
+        );
+      }
+      markDeleted(normalize(path));
+    } finally {
+      rwlock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    rwlock.lock();
+    try {
+      treeCache.close();
+      persister.close();
+      cache.close();
+    } finally {
+      rwlock.unlock();
+    }
+  }
+
+  /**
+   * Maps the provided path to the form used for paths in watch events: A leading slash, and no trailing slash.
+   */
+  private static String normalize(String path) {
+    String normalized = PersisterUtils.joinPaths(PersisterUtils.PATH_DELIM_STR, path);
+    while (normalized.length() > 1 && normalized.endsWith(PersisterUtils.PATH_DELIM_STR)) {
+      normalized = normalized.substring(0, normalized.length() - 1);
+    }
+    return normalized;
+  }
+
+  private void awaitInitialized() throws PersisterException {
+    try {
+      if (!initialized.await(INITIALIZATION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new PersisterException(Reason.STORAGE_ERROR, "Timed out waiting for initial data from ZK");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PersisterException(Reason.STORAGE_ERROR, "Interrupted while waiting for initial data from ZK", e);
+    }
+  }
+
+  /**
+   * Returns whether {@code path} is the same as {@code ancestor}, or is a descendant of it.
+   */
+  private static boolean isAtOrUnder(String path, String ancestor) {
+    if (ancestor.equals(PersisterUtils.PATH_DELIM_STR)) {
+      return true;
+    }
+    return path.equals(ancestor) || path.startsWith(ancestor + PersisterUtils.PATH_DELIM);
+  }
+
+  /**
+   * Maps the provided normalized path to the corresponding path in the {@link TreeCache}.
+   */
+  private String toTreeCachePath(String path) {
+    return path.equals(PersisterUtils.PATH_DELIM_STR) ? rootPath : rootPath + path;
+  }
+
+  private void markDeleted(String path) {
+    addPendingChange(pendingDeletes, path, null);
+    pendingSets.keySet().removeIf(pendingPath -> isAtOrUnder(pendingPath, path));
+  }
+
+  private void addPendingChange(Map<String, PendingChange> pendingChanges, String path, byte[] bytes) {
+    PendingChange change = new PendingChange(bytes);
+    if (!changesPending) {
+      oldestChangeNanos = change.changeNanos;
+      changesPending = true;
+    }
+    pendingChanges.put(path, change);
+  }
+
+  /**
+   * Expires any pending changes which are past the timeout. Only takes the write lock if there may be such changes.
+   */
+  private void expirePendingChangesIfDue() {
+    if (changesPending && System.nanoTime() - oldestChangeNanos > pendingChangeTimeoutNanos) {
+      rwlock.lock();
+      try {
+        expirePendingChanges();
+      } finally {
+        rwlock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Removes any pending changes which are past the timeout, and re-reads their paths from the {@link TreeCache}, which
+   * reflects any watch events that were ignored while the changes were pending. Must be called with the write lock.
+   */
+  private void expirePendingChanges() {
+    if (!changesPending) {
+      return;
+    }
+    long nowNanos = System.nanoTime();
+    // Sorted so that parents are reloaded before their children:
+    Set<String> expiredPaths = new TreeSet<>();
+    long oldestRemainingNanos = nowNanos;
+    for (Map<String, PendingChange> pendingChanges : Arrays.asList(pendingSets, pendingDeletes)) {
+      Iterator<Map.Entry<String, PendingChange>> iter = pendingChanges.entrySet().iterator();
+      while (iter.hasNext()) {
+        Map.Entry<String, PendingChange> entry = iter.next();
+        long changeNanos = entry.getValue().changeNanos;
+        if (nowNanos - changeNanos > pendingChangeTimeoutNanos) {
+          expiredPaths.add(entry.getKey());
+          iter.remove();
+        } else if (changeNanos - oldestRemainingNanos < 0) {
+          oldestRemainingNanos = changeNanos;
+        }
+      }
+    }
+    oldestChangeNanos = oldestRemainingNanos;
+    changesPending = !pendingSets.isEmpty() || !pendingDeletes.isEmpty();
+
+    for (String path : expiredPaths) {
+      LOGGER.warn("Didn't receive watch events for local change to {}, reloading it from ZK watch data", path);
+      reloadFromTreeCache(path);
+    }
+  }
+
+  /**
+   * Replaces the cached data at and below the provided path with the current content of the {@link TreeCache}, then
+   * reapplies any local changes in that subtree which are still pending.
+   */
+  private void reloadFromTreeCache(String path) {
+    removeFromCache(path);
+    copyFromTreeCache(path);
+    // Deletes are reapplied first: A write which is pending alongside a delete of the same path or a parent must have
+    // happened after the delete, as the delete would have cleared any earlier pending writes.
+    for (String pendingPath : pendingDeletes.keySet()) {
+      if (isAtOrUnder(pendingPath, path)) {
+        removeFromCache(pendingPath);
+      }
+    }
+    for (Map.Entry<String, PendingChange> entry : pendingSets.entrySet()) {
+      if (isAtOrUnder(entry.getKey(), path)) {
+        cache.set(entry.getKey(), entry.getValue().bytes);
+      }
+    }
+  }
+
+  private void copyFromTreeCache(String path) {
+    String treeCachePath = toTreeCachePath(path);
+    ChildData data = treeCache.getCurrentData(treeCachePath);
+    if (data == null) {
+      return;
+    }
+    if (data.getData() != null && !path.equals(PersisterUtils.PATH_DELIM_STR)) {
+      cache.set(path, data.getData());
+    }
+    Map<String, ChildData> children = treeCache.getCurrentChildren(treeCachePath);
+    if (children != null) {
+      for (String child : children.keySet()) {
+        copyFromTreeCache(PersisterUtils.joinPaths(path, child));
+      }
+    }
+  }
+
+  private void removeFromCache(String path) {
+    try {
+      cache.recursiveDelete(path);
+    } catch (PersisterException e) {
+      // Not present in the cache.
+    }
+  }
+
+  /**
+   * Applies the provided watch event to the cache. Events are delivered serially by the {@link TreeCache}.
+   */
+  private void handleEvent(TreeCacheEvent event) {
+    switch (event.getType()) {
+      case INITIALIZED:
+        LOGGER.info("Loaded data from ZK:\n{}", cache.getDebugString());
+        initialized.countDown();
+        return;
+      case CONNECTION_SUSPENDED:
+      case CONNECTION_LOST:
+        LOGGER.warn("Lost connection to ZK ({}), cached data may be stale until reconnected", event.getType());
+        Metrics.setPersisterWatchStale(true);
+        return;
+      case CONNECTION_RECONNECTED:
+        LOGGER.info("Reconnected to ZK, resuming updates to cached data");
+        Metrics.setPersisterWatchStale(false);
+        return;
+      case NODE_ADDED:
+      case NODE_UPDATED:
+      case NODE_REMOVED:
+        break;
+      default:
+        LOGGER.warn("Ignoring unexpected watch event: {}", event);
+        return;
+    }
+
+    ChildData data = event.getData();
+    if (!data.getPath().startsWith(rootPath + PersisterUtils.PATH_DELIM)) {
+      // The root node itself is not represented in the cache.
+      return;
+    }
+    String path = normalize(data.getPath().substring(rootPath.length()));
+
+    Metrics.incrementPersisterWatchEvents();
+    if (initialized.getCount() == 0 && event.getType() != TreeCacheEvent.Type.NODE_REMOVED && data.getStat() != null) {
+      Metrics.recordPersisterWatchLag(Duration.ofMillis(
+          Math.max(0, System.currentTimeMillis() - data.getStat().getMtime())));
+    }
+
+    rwlock.lock();
+    try {
+      expirePendingChanges();
+      if (event.getType() == TreeCacheEvent.Type.NODE_REMOVED) {
+        applyRemove(path);
+      } else {
+        applyUpdate(path, data.getData());
+      }
+    } finally {
+      rwlock.unlock();
+    }
+  }
+
+  private void applyUpdate(String path, byte[] bytes) {
+    PendingChange pendingSet = pendingSets.get(path);
+    if (pendingSet != null) {
+      if (!Arrays.equals(pendingSet.bytes, bytes)) {
+        // This event predates our own write. If it's actually newer, it's picked up when the write expires.
+        return;
+      }
+      // This is the event for our own write: we're now caught up.
+      pendingSets.remove(path);
+    } else if (isUnderPendingDelete(path)) {
+      // This event predates our own delete of the path or one of its parents.
+      return;
+    }
+    if (bytes == null) {
+      // Nodes without data are only represented as parents of other nodes, as with PersisterUtils.getAllData().
+      return;
+    }
+    cache.set(path, bytes);
+  }
+
+  private void applyRemove(String path) {
+    pendingDeletes.remove(path);
+    if (pendingSets.containsKey(path)) {
+      // This event predates our own write.
+      return;
+    }
+    // May have already been removed, e.g. by our own delete of a parent.
+    removeFromCache(path);
+  }
+
+  private boolean isUnderPendingDelete(String path) {
+    if (pendingDeletes.isEmpty()) {
+      return false;
+    }
+    if (pendingDeletes.containsKey(PersisterUtils.PATH_DELIM_STR)) {
+      return true;
+    }
+    String ancestor = path;
+    while (!ancestor.isEmpty()) {
+      if (pendingDeletes.containsKey(ancestor)) {
+        return true;
+      }
+      ancestor = ancestor.substring(0, ancestor.lastIndexOf(PersisterUtils.PATH_DELIM));
+    }
+    return false;
+  }
+
+  /**
+   * A local write or delete which hasn't yet been observed via a watch event.
+   */
+  private static final class PendingChange {
+    // The written value, or null for a delete.
+    private final byte[] bytes;
+
+    private final long changeNanos;
+
+    private PendingChange(byte[] bytes) {
+      this.bytes = bytes;
+      this.changeNanos = System.nanoTime();
+    }
+  }
+}
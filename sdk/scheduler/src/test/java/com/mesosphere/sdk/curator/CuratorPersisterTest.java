@@ -16,7 +16,12 @@ import com.mesosphere.sdk.testutils.TestConstants;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.when;
@@ -217,6 +222,119 @@ public class CuratorPersisterTest {
         persister.setMany(SET_MANY_MAP);
     }
 
+    @Test
+    public void testGetManyWithMissingPaths() throws Exception {
+        CuratorTestUtils.clear(testZk);
+        when(mockServiceSpec.getZookeeperConnection()).thenReturn(testZk.getConnectString());
+        Persister persister = CuratorPersister.newBuilder(mockServiceSpec).disableLock().build();
+        persister.set(PATH_1, DATA_1);
+        persister.set(PATH_SUB_2, DATA_SUB_2);
+
+        Map<String, byte[]> result = persister.getMany(Arrays.asList(PATH_1, PATH_2, PATH_SUB_2));
+        assertEquals(3, result.size());
+        assertArrayEquals(DATA_1, result.get(PATH_1));
+        assertTrue(result.containsKey(PATH_2));
+        assertNull(result.get(PATH_2));
+        assertArrayEquals(DATA_SUB_2, result.get(PATH_SUB_2));
+    }
+
+    @Test
+    public void testSetManyAfterExternalDelete() throws Exception {
+        CuratorTestUtils.clear(testZk);
+        when(mockServiceSpec.getZookeeperConnection()).thenReturn(testZk.getConnectString());
+        Persister persister = CuratorPersister.newBuilder(mockServiceSpec).disableLock().build();
+        persister.setMany(SET_MANY_MAP);
+
+        // Another client deletes nodes which the persister has previously written:
+        Persister otherPersister = CuratorPersister.newBuilder(mockServiceSpec).disableLock().build();
+        otherPersister.recursiveDelete(PATH_SUB_PARENT);
+
+        persister.setMany(SET_MANY_MAP);
+        assertArrayEquals(DATA_1, persister.get(PATH_1));
+        assertArrayEquals(DATA_2, persister.get(PATH_2));
+        assertArrayEquals(DATA_SUB_1, persister.get(PATH_SUB_1));
+        assertArrayEquals(DATA_SUB_2, persister.get(PATH_SUB_2));
+    }
+
+    @Test
+    public void testBatchedWritesFromManyThreads() throws Exception {
+        CuratorTestUtils.clear(testZk);
+        when(mockServiceSpec.getZookeeperConnection()).thenReturn(testZk.getConnectString());
+        Persister persister = CuratorPersister.newBuilder(mockServiceSpec)
+                .disableLock()
+                .setWriteBatchWindow(Duration.ofMillis(5))
+                .build();
+
+        final int threadCount = 8;
+        final int writesPerThread = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; ++i) {
+            final int thread = i;
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < writesPerThread; ++j) {
+                    String path = String.format("/thread-%d/%d", thread, j);
+                    persister.set(path, path.getBytes(StandardCharsets.UTF_8));
+                    // Overwrite of a value which may be queued in the same batch:
+                    persister.set(path, (path + "-updated").getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        for (int i = 0; i < threadCount; ++i) {
+            for (int j = 0; j < writesPerThread; ++j) {
+                String path = String.format("/thread-%d/%d", i, j);
+                assertArrayEquals((path + "-updated").getBytes(StandardCharsets.UTF_8), persister.get(path));
+            }
+        }
+        persister.close();
+    }
+
+    @Test
+    public void testBatchedWriteFailureOnlyFailsItsCaller() throws Exception {
+        CuratorTestUtils.clear(testZk);
+        when(mockServiceSpec.getZookeeperConnection()).thenReturn(testZk.getConnectString());
+        Persister aclPersister = CuratorPersister.newBuilder(mockServiceSpec)
+                .disableLock()
+                .setCredentials("testuser", "testpw")
+                .build();
+        aclPersister.set(PATH_1, DATA_1);
+
+        Persister persister = CuratorPersister.newBuilder(mockServiceSpec)
+                .disableLock()
+                .setWriteBatchWindow(Duration.ofMillis(100))
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> forbiddenWrite = executor.submit(() -> {
+            persister.set(PATH_1, DATA_2);
+            return null;
+        });
+        Future<?> allowedWrite = executor.submit(() -> {
+            persister.set("/other", DATA_2);
+            return null;
+        });
+        executor.shutdown();
+
+        allowedWrite.get();
+        assertArrayEquals(DATA_2, persister.get("/other"));
+        try {
+            forbiddenWrite.get();
+            fail("Should have failed with auth exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof PersisterException);
+        }
+        assertArrayEquals(DATA_1, persister.get(PATH_1));
+
+        // Delete ACL'ed data so that other tests don't have ACL problems trying to clear it:
+        aclPersister.recursiveDelete(PATH_PARENT);
+        persister.close();
+    }
+
     // Uses a real ZK instance to ensure that our integration works as expected:
     @Test
     public void testAclBehavior() throws Exception {
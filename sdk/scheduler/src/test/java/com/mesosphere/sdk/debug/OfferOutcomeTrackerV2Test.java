@@ -1,9 +1,12 @@
 package com.mesosphere.sdk.debug;
 
 import org.apache.mesos.Protos;
+import org.json.JSONObject;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class OfferOutcomeTrackerV2Test {
 
@@ -37,6 +40,26 @@ public class OfferOutcomeTrackerV2Test {
     assert tracker.getSummary().getRejectedCount() == 3;
   }
 
+  @Test
+  public void testOutcomesRenderedOnDemand() {
+    OfferOutcomeTrackerV2 tracker = new OfferOutcomeTrackerV2();
+    AtomicInteger renderCount = new AtomicInteger();
+    tracker.getSummary().addOffer(new OfferOutcomeTrackerV2.OfferOutcomeV2(
+        "instance-name",
+        false,
+        () -> {
+          renderCount.incrementAndGet();
+          return "rendered-offer";
+        },
+        () -> Collections.singletonList("FAIL(stage):reason")));
+    Assert.assertEquals(0, renderCount.get());
+
+    JSONObject outcome = tracker.getSummary().toJson().getJSONObject(0);
+    Assert.assertEquals(1, renderCount.get());
+    Assert.assertEquals("rendered-offer", outcome.getString("offer"));
+    Assert.assertEquals("FAIL(stage):reason", outcome.getJSONArray("explanation").getString(0));
+  }
+
   @Test
   public void testRejectedAgents() {
     OfferOutcomeTrackerV2 tracker = new OfferOutcomeTrackerV2();
@@ -55,6 +55,7 @@ public class FrameworkSchedulerTest extends DefaultCapabilitiesTestSuite {
                 mockFrameworkStore,
                 mockMesosEventClient,
                 mockOfferProcessor,
+                new TaskStatusProcessor(mockMesosEventClient, 0),
                 mockImplicitReconciler)
                 .disableThreading();
     }
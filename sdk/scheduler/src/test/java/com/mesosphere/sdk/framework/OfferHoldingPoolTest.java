@@ -0,0 +1,113 @@
+package com.mesosphere.sdk.framework;
+
+import com.mesosphere.sdk.metrics.Metrics;
+import com.mesosphere.sdk.testutils.TestConstants;
+import com.codahale.metrics.Counter;
+import org.apache.mesos.Protos;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class tests the {@link OfferHoldingPool}.
+ */
+public class OfferHoldingPoolTest {
+    private static final int TEST_CAPACITY = 2;
+    private static final Duration TEST_HOLD_DURATION = Duration.ofSeconds(10);
+
+    private AtomicLong nanos;
+    private OfferHoldingPool pool;
+
+    @Before
+    public void beforeEach() {
+        nanos = new AtomicLong(0);
+        pool = new OfferHoldingPool(TEST_CAPACITY, TEST_HOLD_DURATION, nanos::get);
+    }
+
+    @Test
+    public void testHoldOffers() {
+        Assert.assertTrue(pool.isEmpty());
+        Protos.Offer offer1 = getOffer();
+        Protos.Offer offer2 = getOffer();
+        Assert.assertEquals(Collections.emptyList(), pool.hold(Arrays.asList(offer1, offer2)));
+        Assert.assertFalse(pool.isEmpty());
+        Assert.assertEquals(Arrays.asList(offer1, offer2), pool.getOffers());
+        // Offers remain held after they're retrieved:
+        Assert.assertEquals(Arrays.asList(offer1, offer2), pool.getOffers());
+    }
+
+    @Test
+    public void testHoldEvictsOldestOffers() {
+        Protos.Offer offer1 = getOffer();
+        Protos.Offer offer2 = getOffer();
+        Protos.Offer offer3 = getOffer();
+        pool.hold(Arrays.asList(offer1, offer2));
+        // Holding an offer again doesn't change its position:
+        Assert.assertEquals(Collections.singletonList(offer1), pool.hold(Arrays.asList(offer1, offer3)));
+        Assert.assertEquals(Arrays.asList(offer2, offer3), pool.getOffers());
+    }
+
+    @Test
+    public void testRemoveExpired() {
+        Protos.Offer offer1 = getOffer();
+        Protos.Offer offer2 = getOffer();
+        pool.hold(Collections.singletonList(offer1));
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        pool.hold(Collections.singletonList(offer2));
+
+        nanos.addAndGet(TEST_HOLD_DURATION.minusSeconds(5).toNanos());
+        Assert.assertEquals(Collections.emptyList(), pool.removeExpired());
+        nanos.addAndGet(1);
+        Assert.assertEquals(Collections.singletonList(offer1), pool.removeExpired());
+        Assert.assertEquals(Collections.singletonList(offer2), pool.getOffers());
+    }
+
+    @Test
+    public void testReleaseCountsHits() {
+        Counter hits = Metrics.getRegistry().counter("offers.held.hits");
+        long hitsBefore = hits.getCount();
+        Protos.Offer offer1 = getOffer();
+        Protos.Offer offer2 = getOffer();
+        pool.hold(Arrays.asList(offer1, offer2));
+
+        // Offers which weren't held don't count as hits:
+        pool.release(Arrays.asList(offer1.getId(), getOffer().getId()));
+        Assert.assertEquals(1, hits.getCount() - hitsBefore);
+        Assert.assertEquals(Collections.singletonList(offer2), pool.getOffers());
+    }
+
+    @Test
+    public void testRemoveRescinded() {
+        Protos.Offer offer1 = getOffer();
+        Protos.Offer offer2 = getOffer();
+        pool.hold(Arrays.asList(offer1, offer2));
+        Assert.assertTrue(pool.remove(offer1.getId()));
+        Assert.assertFalse(pool.remove(offer1.getId()));
+        Assert.assertEquals(Collections.singletonList(offer2), pool.getOffers());
+    }
+
+    @Test
+    public void testRemoveAll() {
+        Protos.Offer offer1 = getOffer();
+        Protos.Offer offer2 = getOffer();
+        pool.hold(Arrays.asList(offer1, offer2));
+        Assert.assertEquals(Arrays.asList(offer1, offer2), pool.removeAll());
+        Assert.assertTrue(pool.isEmpty());
+        Assert.assertEquals(Collections.emptyList(), pool.removeAll());
+    }
+
+    private static Protos.Offer getOffer() {
+        return Protos.Offer.newBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue(UUID.randomUUID().toString()))
+                .setFrameworkId(TestConstants.FRAMEWORK_ID)
+                .setSlaveId(TestConstants.AGENT_ID)
+                .setHostname(TestConstants.HOSTNAME)
+                .build();
+    }
+}
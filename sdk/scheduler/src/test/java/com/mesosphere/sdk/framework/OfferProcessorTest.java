@@ -1,5 +1,6 @@
 package com.mesosphere.sdk.framework;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -12,6 +13,7 @@ import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import com.codahale.metrics.Counter;
 import org.apache.mesos.Protos;
 import org.apache.mesos.SchedulerDriver;
 import org.junit.Assert;
@@ -25,6 +27,7 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.slf4j.Logger;
 
+import com.mesosphere.sdk.metrics.Metrics;
 import com.mesosphere.sdk.offer.Constants;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.OfferRecommendation;
@@ -70,7 +73,8 @@ public class OfferProcessorTest {
         when(mockSchedulerConfig.isSuppressEnabled()).thenReturn(true);
         when(mockMesosEventClient.getClientStatus()).thenReturn(ClientStatusResponse.launching(false));
 
-        processor = new OfferProcessor(mockMesosEventClient, mockPersister, mockSchedulerConfig);
+        processor = new OfferProcessor(
+                mockMesosEventClient, mockPersister, mockSchedulerConfig, Collections.singleton(TestConstants.ROLE));
     }
 
     @Test
@@ -192,6 +196,97 @@ public class OfferProcessorTest {
         verify(mockSchedulerDriver, never()).declineOffer(any(), any());
     }
 
+    @Test
+    public void testOfferBatchesGroupedByAgent() throws InterruptedException {
+        when(mockSchedulerConfig.getOfferBatchSize()).thenReturn(1);
+        List<List<Protos.Offer>> receivedBatches = new ArrayList<>();
+        when(mockMesosEventClient.offers(any())).thenAnswer(new Answer<OfferResponse>() {
+            @Override
+            public OfferResponse answer(InvocationOnMock invocation) throws Throwable {
+                receivedBatches.add(new ArrayList<>(getOffersArgument(invocation)));
+                return OfferResponse.processed(Collections.emptyList());
+            }
+        });
+        when(mockMesosEventClient.getUnexpectedResources(any()))
+                .thenReturn(UnexpectedResourcesResponse.processed(Collections.emptyList()));
+        processor = new OfferProcessor(
+                mockMesosEventClient, mockPersister, mockSchedulerConfig, Collections.singleton(TestConstants.ROLE));
+        processor.disableThreading().setOfferQueueSize(0).start();
+
+        Protos.Offer offer1 = getOffer();
+        Protos.Offer offer2 = getOffer().toBuilder().setSlaveId(Protos.SlaveID.newBuilder().setValue("other")).build();
+        Protos.Offer offer3 = getOffer();
+        processor.enqueue(Arrays.asList(offer1, offer2, offer3));
+        processor.awaitOffersProcessed();
+
+        // All offers were processed, with the first agent's offers evaluated together:
+        Assert.assertEquals(
+                Arrays.asList(Arrays.asList(offer1, offer3), Collections.singletonList(offer2)), receivedBatches);
+    }
+
+    @Test
+    public void testRescindedOffers() throws InterruptedException {
+        Counter rescindedQueued = Metrics.getRegistry().counter("offers.rescinded.queued");
+        Counter rescindedEvaluated = Metrics.getRegistry().counter("offers.rescinded.after_evaluation");
+        long queuedBefore = rescindedQueued.getCount();
+        long evaluatedBefore = rescindedEvaluated.getCount();
+
+        // Offers are queued but not processed, as the processor hasn't been started:
+        Protos.Offer offer = getOffer();
+        processor.enqueue(Collections.singletonList(offer));
+        processor.dequeue(offer.getId());
+        // The rescinded offer no longer needs to be processed:
+        processor.awaitOffersProcessed();
+        Assert.assertEquals(1, rescindedQueued.getCount() - queuedBefore);
+        Assert.assertEquals(0, rescindedEvaluated.getCount() - evaluatedBefore);
+
+        // An offer which is no longer queued has already been taken for evaluation:
+        processor.dequeue(offer.getId());
+        Assert.assertEquals(1, rescindedQueued.getCount() - queuedBefore);
+        Assert.assertEquals(1, rescindedEvaluated.getCount() - evaluatedBefore);
+    }
+
+    @Test
+    public void testUnusedOffersHeld() throws InterruptedException {
+        when(mockSchedulerConfig.getOfferHoldDuration()).thenReturn(Optional.of(Duration.ofMinutes(1)));
+        when(mockSchedulerConfig.getOfferHoldCapacity()).thenReturn(10);
+        Protos.Offer heldOffer = getOffer();
+        Protos.Offer newOffer = getOffer();
+        List<List<Protos.Offer>> receivedBatches = new ArrayList<>();
+        when(mockMesosEventClient.offers(any())).thenAnswer(new Answer<OfferResponse>() {
+            @Override
+            public OfferResponse answer(InvocationOnMock invocation) throws Throwable {
+                receivedBatches.add(new ArrayList<>(getOffersArgument(invocation)));
+                // The held offer is only used once a second offer has arrived:
+                return receivedBatches.size() == 1
+                        ? OfferResponse.processed(Collections.emptyList())
+                        : consumeOffer(heldOffer.getId()).answer(invocation);
+            }
+        });
+        when(mockMesosEventClient.getUnexpectedResources(any()))
+                .thenReturn(UnexpectedResourcesResponse.processed(Collections.emptyList()));
+        processor = new OfferProcessor(
+                mockMesosEventClient, mockPersister, mockSchedulerConfig, Collections.singleton(TestConstants.ROLE));
+        processor.disableThreading().setOfferQueueSize(0).start();
+
+        Counter rescindedEvaluated = Metrics.getRegistry().counter("offers.rescinded.after_evaluation");
+        long evaluatedBefore = rescindedEvaluated.getCount();
+
+        // The unused offer is held rather than declined, and is evaluated again alongside the next offer:
+        processor.enqueue(Collections.singletonList(heldOffer));
+        processor.enqueue(Collections.singletonList(newOffer));
+        Assert.assertEquals(
+                Arrays.asList(Collections.singletonList(heldOffer), Arrays.asList(newOffer, heldOffer)),
+                receivedBatches);
+        verify(mockSchedulerDriver, times(1)).acceptOffers(offerIdCaptor.capture(), any(), any());
+        Assert.assertEquals(Collections.singleton(heldOffer.getId()), offerIdCaptor.getValue());
+
+        // The unused new offer is now held, until it's rescinded:
+        processor.dequeue(newOffer.getId());
+        Assert.assertEquals(1, rescindedEvaluated.getCount() - evaluatedBefore);
+        verify(mockSchedulerDriver, never()).declineOffer(any(), any());
+    }
+
     private Set<String> sendOffers(int threadCount, int offersPerThread) throws InterruptedException {
         // Hammer scheduler with offers, and check that they were all forwarded as expected
         Set<String> sentOfferIds = new HashSet<>();
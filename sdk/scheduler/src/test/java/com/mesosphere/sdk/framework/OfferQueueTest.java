@@ -6,8 +6,12 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * This class tests the {@link OfferQueue}.
@@ -34,11 +38,11 @@ public class OfferQueueTest {
         OfferQueue offerQueue = new OfferQueue();
         int capacity = offerQueue.getRemainingCapacity();
         for (int i = 0; i < capacity; i++) {
-            Assert.assertTrue(offerQueue.offer(getOffer()));
+            Assert.assertTrue(offerQueue.offer(getOffer(UUID.randomUUID().toString())));
         }
 
         Assert.assertEquals(0, offerQueue.getRemainingCapacity());
-        Assert.assertFalse(offerQueue.offer(getOffer()));
+        Assert.assertFalse(offerQueue.offer(getOffer(UUID.randomUUID().toString())));
     }
 
     @Test
@@ -55,7 +59,7 @@ public class OfferQueueTest {
         OfferQueue offerQueue = new OfferQueue(TEST_CAPACITY);
         int halfCapacity = offerQueue.getRemainingCapacity() / 2;
         for (int i = 0; i < halfCapacity; i++) {
-            offerQueue.offer(getOffer());
+            offerQueue.offer(getOffer(UUID.randomUUID().toString()));
         }
 
         List<Protos.Offer> offers = offerQueue.takeAll(Duration.ZERO);
@@ -68,7 +72,7 @@ public class OfferQueueTest {
         OfferQueue offerQueue = new OfferQueue(TEST_CAPACITY);
         int capacity = offerQueue.getRemainingCapacity();
         for (int i = 0; i < capacity; i++) {
-            offerQueue.offer(getOffer());
+            offerQueue.offer(getOffer(UUID.randomUUID().toString()));
         }
 
         List<Protos.Offer> offers = offerQueue.takeAll(Duration.ZERO);
@@ -120,6 +124,84 @@ public class OfferQueueTest {
         Assert.assertEquals(remainingCapacity + 1, offerQueue.getRemainingCapacity());
     }
 
+    @Test
+    public void testRemoveTakenOffer() {
+        OfferQueue offerQueue = new OfferQueue();
+        offerQueue.offer(getOffer());
+        Assert.assertEquals(1, offerQueue.takeAll(Duration.ZERO).size());
+        Assert.assertFalse(offerQueue.remove(TestConstants.OFFER_ID));
+    }
+
+    @Test
+    public void testDuplicateOfferReplaced() {
+        OfferQueue offerQueue = new OfferQueue(TEST_CAPACITY);
+        Assert.assertTrue(offerQueue.offer(getOffer()));
+        Protos.Offer updatedOffer = getOffer().toBuilder().setHostname("other-host").build();
+        Assert.assertTrue(offerQueue.offer(updatedOffer));
+        Assert.assertEquals(1, offerQueue.getSize());
+        Assert.assertEquals(Collections.singletonList(updatedOffer), offerQueue.takeAll(Duration.ZERO));
+    }
+
+    @Test
+    public void testTakeBatchGroupedByAgent() {
+        OfferQueue offerQueue = new OfferQueue(TEST_CAPACITY);
+        Protos.Offer agent1Offer1 = getOffer("offer-1", "agent-1");
+        Protos.Offer agent2Offer1 = getOffer("offer-2", "agent-2");
+        Protos.Offer agent1Offer2 = getOffer("offer-3", "agent-1");
+        Protos.Offer agent3Offer1 = getOffer("offer-4", "agent-3");
+        Protos.Offer agent2Offer2 = getOffer("offer-5", "agent-2");
+        for (Protos.Offer offer : Arrays.asList(agent1Offer1, agent2Offer1, agent1Offer2, agent3Offer1, agent2Offer2)) {
+            offerQueue.offer(offer);
+        }
+
+        // Each batch is filled with whole agents, oldest first:
+        Assert.assertEquals(Arrays.asList(agent1Offer1, agent1Offer2), getOffers(offerQueue.take(Duration.ZERO, 1)));
+        Assert.assertEquals(Arrays.asList(agent2Offer1, agent2Offer2, agent3Offer1),
+                getOffers(offerQueue.take(Duration.ZERO, 3)));
+        Assert.assertTrue(offerQueue.isEmpty());
+    }
+
+    @Test
+    public void testRemoveFromAgentBatch() {
+        OfferQueue offerQueue = new OfferQueue(TEST_CAPACITY);
+        Protos.Offer agent1Offer1 = getOffer("offer-1", "agent-1");
+        Protos.Offer agent1Offer2 = getOffer("offer-2", "agent-1");
+        Protos.Offer agent2Offer1 = getOffer("offer-3", "agent-2");
+        for (Protos.Offer offer : Arrays.asList(agent1Offer1, agent1Offer2, agent2Offer1)) {
+            offerQueue.offer(offer);
+        }
+
+        Assert.assertTrue(offerQueue.remove(agent1Offer1.getId()));
+        Assert.assertEquals(Collections.singletonList(agent1Offer2), getOffers(offerQueue.take(Duration.ZERO, 1)));
+        Assert.assertTrue(offerQueue.remove(agent2Offer1.getId()));
+        Assert.assertTrue(offerQueue.take(Duration.ZERO, 1).isEmpty());
+    }
+
+    @Test
+    public void testWaitTime() {
+        AtomicLong nanos = new AtomicLong(0);
+        OfferQueue offerQueue = new OfferQueue(TEST_CAPACITY, nanos::get);
+        offerQueue.offer(getOffer("offer-1", "agent-1"));
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        offerQueue.offer(getOffer("offer-2", "agent-2"));
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        List<OfferQueue.QueuedOffer> offers = offerQueue.take(Duration.ZERO, 0);
+        Assert.assertEquals(2, offers.size());
+        Assert.assertEquals(Duration.ofSeconds(6), offers.get(0).getWaitTime());
+        Assert.assertEquals(Duration.ofSeconds(1), offers.get(1).getWaitTime());
+    }
+
+    private static List<Protos.Offer> getOffers(List<OfferQueue.QueuedOffer> queuedOffers) {
+        return queuedOffers.stream().map(OfferQueue.QueuedOffer::getOffer).collect(Collectors.toList());
+    }
+
+    private Protos.Offer getOffer(String id, String agentId) {
+        return getOffer(id).toBuilder()
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue(agentId))
+                .build();
+    }
+
     private Protos.Offer getOffer() {
         return getOffer(TestConstants.OFFER_ID.getValue());
     }
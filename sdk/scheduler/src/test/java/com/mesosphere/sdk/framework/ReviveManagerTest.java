@@ -1,5 +1,6 @@
 package com.mesosphere.sdk.framework;
 
+import org.apache.mesos.Protos;
 import org.apache.mesos.SchedulerDriver;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,6 +10,9 @@ import org.mockito.MockitoAnnotations;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 
 import static org.mockito.Mockito.*;
 
@@ -17,6 +21,10 @@ import static org.mockito.Mockito.*;
  */
 public class ReviveManagerTest {
 
+    private static final String ROLE_A = "role-a";
+    private static final String ROLE_B = "role-b";
+    private static final Collection<String> ROLES = Collections.singleton(ROLE_A);
+
     @Mock private SchedulerDriver driver;
     @Mock private SchedulerConfig mockSchedulerConfig;
 
@@ -40,9 +48,9 @@ public class ReviveManagerTest {
     public void dontReviveWhenThrottled() {
         ReviveManager manager = getReviveManager();
 
-        manager.requestRevive();
+        manager.requestRevive(ROLES);
         manager.reviveIfRequested();
-        manager.requestRevive();
+        manager.requestRevive(ROLES);
         manager.reviveIfRequested();
 
         verify(driver, times(1)).reviveOffers();
@@ -52,11 +60,11 @@ public class ReviveManagerTest {
     public void dontReviveAcrossManagers() {
         // Both managers should share the same underlying token bucket:
         TokenBucket tokenBucket = TokenBucket.newBuilder().acquireInterval(Duration.ofDays(1)).build();
-        ReviveManager a = new ReviveManager(tokenBucket, mockSchedulerConfig);
-        ReviveManager b = new ReviveManager(tokenBucket, mockSchedulerConfig);
+        ReviveManager a = new ReviveManager(() -> tokenBucket, ROLES, mockSchedulerConfig);
+        ReviveManager b = new ReviveManager(() -> tokenBucket, ROLES, mockSchedulerConfig);
 
-        a.requestRevive();
-        b.requestRevive();
+        a.requestRevive(ROLES);
+        b.requestRevive(ROLES);
         a.reviveIfRequested(); // pass
         b.reviveIfRequested(); // throttled
 
@@ -66,32 +74,32 @@ public class ReviveManagerTest {
     @Test
     public void suppressRevive() {
         ReviveManager manager = new ReviveManager(
-                TokenBucket.newBuilder().acquireInterval(Duration.ZERO).build(), mockSchedulerConfig);
+                () -> TokenBucket.newBuilder().acquireInterval(Duration.ZERO).build(), ROLES, mockSchedulerConfig);
 
         // Suppress:
-        manager.suppressIfActive();
+        manager.suppressIfActive(ROLES);
         verify(driver, times(1)).suppressOffers();
 
         // Revive:
-        manager.requestReviveIfSuppressed();
+        manager.requestReviveIfSuppressed(ROLES);
         manager.reviveIfRequested();
         verify(driver, times(1)).reviveOffers();
 
         // Revive again, because previous revive apparently didn't go through:
-        manager.requestReviveIfSuppressed();
+        manager.requestReviveIfSuppressed(ROLES);
         manager.reviveIfRequested();
         verify(driver, times(2)).reviveOffers();
 
         // Finally get an offer, un-suppress must've worked.
-        manager.notifyOffersReceived();
+        manager.notifyOffersReceived(getOffers(ROLE_A));
 
         // Now that we aren't suppressed, revive is not triggered by just needing offers:
-        manager.requestReviveIfSuppressed();
+        manager.requestReviveIfSuppressed(ROLES);
         manager.reviveIfRequested();
         verify(driver, times(2)).reviveOffers();
 
         // .. but still revives if specifically requested (due to new work):
-        manager.requestRevive();
+        manager.requestRevive(ROLES);
         manager.reviveIfRequested();
         verify(driver, times(3)).reviveOffers();
     }
@@ -99,17 +107,17 @@ public class ReviveManagerTest {
     @Test
     public void dontSuppressWhenSuppressed() {
         ReviveManager manager = getReviveManager();
-        manager.suppressIfActive();
-        manager.suppressIfActive();
+        manager.suppressIfActive(ROLES);
+        manager.suppressIfActive(ROLES);
         verify(driver, times(1)).suppressOffers();
     }
 
     @Test
     public void resSuppressOnOfferReceived() {
         ReviveManager manager = getReviveManager();
-        manager.suppressIfActive();
-        manager.notifyOffersReceived();
-        manager.suppressIfActive();
+        manager.suppressIfActive(ROLES);
+        manager.notifyOffersReceived(getOffers(ROLE_A));
+        manager.suppressIfActive(ROLES);
         verify(driver, times(2)).suppressOffers();
     }
 
@@ -117,12 +125,69 @@ public class ReviveManagerTest {
     public void dontSuppressWhenDisabled() {
         when(mockSchedulerConfig.isSuppressEnabled()).thenReturn(false);
         ReviveManager manager = getReviveManager();
-        manager.suppressIfActive();
+        manager.suppressIfActive(ROLES);
+        verify(driver, never()).suppressOffers();
+    }
+
+    @Test
+    public void suppressReviveSingleRole() {
+        ReviveManager manager = getReviveManager(Arrays.asList(ROLE_A, ROLE_B));
+
+        // Only role-b is idle:
+        manager.suppressIfActive(Collections.singleton(ROLE_B));
+        verify(driver).suppressOffers(Collections.singleton(ROLE_B));
         verify(driver, never()).suppressOffers();
+
+        // Now role-a is idle too, so everything is suppressed:
+        manager.suppressIfActive(Arrays.asList(ROLE_A, ROLE_B));
+        verify(driver).suppressOffers();
+
+        // Work appears for role-a. Only role-a is revived:
+        manager.requestReviveIfSuppressed(Collections.singleton(ROLE_A));
+        manager.reviveIfRequested();
+        verify(driver).reviveOffers(Collections.singleton(ROLE_A));
+        verify(driver, never()).reviveOffers();
+
+        // Offers for role-a are received, so it's no longer suppressed while role-b still is:
+        manager.notifyOffersReceived(getOffers(ROLE_A));
+        manager.requestReviveIfSuppressed(Arrays.asList(ROLE_A, ROLE_B));
+        manager.reviveIfRequested();
+        verify(driver).reviveOffers(Collections.singleton(ROLE_B));
+    }
+
+    @Test
+    public void reviveThrottledPerRole() {
+        ReviveManager manager = getReviveManager(Arrays.asList(ROLE_A, ROLE_B));
+
+        manager.requestRevive(Collections.singleton(ROLE_A));
+        manager.reviveIfRequested();
+        verify(driver).reviveOffers(Collections.singleton(ROLE_A));
+
+        // role-a is throttled, but role-b has its own token bucket:
+        manager.requestRevive(Arrays.asList(ROLE_A, ROLE_B));
+        manager.reviveIfRequested();
+        verify(driver).reviveOffers(Collections.singleton(ROLE_B));
+        verify(driver, never()).reviveOffers();
     }
 
     private ReviveManager getReviveManager() {
+        return getReviveManager(ROLES);
+    }
+
+    private ReviveManager getReviveManager(Collection<String> frameworkRoles) {
         return new ReviveManager(
-                TokenBucket.newBuilder().acquireInterval(Duration.ofDays(1)).build(), mockSchedulerConfig);
+                () -> TokenBucket.newBuilder().acquireInterval(Duration.ofDays(1)).build(),
+                frameworkRoles,
+                mockSchedulerConfig);
+    }
+
+    private static Collection<Protos.Offer> getOffers(String role) {
+        return Collections.singletonList(Protos.Offer.newBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue("offer"))
+                .setFrameworkId(Protos.FrameworkID.newBuilder().setValue("framework"))
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue("agent"))
+                .setHostname("host")
+                .setAllocationInfo(Protos.Resource.AllocationInfo.newBuilder().setRole(role))
+                .build());
     }
 }
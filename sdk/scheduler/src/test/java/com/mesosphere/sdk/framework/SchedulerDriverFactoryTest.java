@@ -218,7 +218,8 @@ public class SchedulerDriverFactoryTest {
                 final FrameworkInfo frameworkInfo,
                 final String masterUrl,
                 final Credential credential,
-                final String mesosAPIVersion) {
+                final String mesosAPIVersion,
+                final boolean implicitAcknowledgements) {
             createCalls++;
             if (credential != null) {
                 lastCallHadCredential = true;
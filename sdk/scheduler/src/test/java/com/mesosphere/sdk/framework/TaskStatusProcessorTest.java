@@ -0,0 +1,221 @@
+package com.mesosphere.sdk.framework;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.mesos.Protos;
+import org.apache.mesos.SchedulerDriver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.google.protobuf.ByteString;
+import com.mesosphere.sdk.http.types.EndpointProducer;
+import com.mesosphere.sdk.offer.CommonIdUtils;
+import com.mesosphere.sdk.scheduler.AbstractScheduler;
+import com.mesosphere.sdk.scheduler.MesosEventClient;
+import com.mesosphere.sdk.scheduler.MesosEventClient.TaskStatusResponse;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.scheduler.multi.MultiServiceEventClient;
+import com.mesosphere.sdk.scheduler.multi.MultiServiceManager;
+import com.mesosphere.sdk.scheduler.plan.Step;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.state.ConfigStore;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.state.StateStoreUtils;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.storage.Persister;
+import com.mesosphere.sdk.storage.PersisterException;
+import com.mesosphere.sdk.storage.StorageError.Reason;
+import com.mesosphere.sdk.testutils.SchedulerConfigTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+
+import static org.mockito.Mockito.*;
+
+public class TaskStatusProcessorTest {
+
+    private static final Protos.TaskID TASK_ID_1 = Protos.TaskID.newBuilder().setValue("task-1").build();
+    private static final Protos.TaskID TASK_ID_2 = Protos.TaskID.newBuilder().setValue("task-2").build();
+
+    @Mock private MesosEventClient mockMesosEventClient;
+    @Mock private SchedulerDriver mockSchedulerDriver;
+    @Mock private ServiceSpec mockServiceSpec;
+    @Mock private MultiServiceEventClient.UninstallCallback mockUninstallCallback;
+    @Captor private ArgumentCaptor<List<Protos.TaskStatus>> statusesCaptor;
+
+    @Before
+    public void beforeEach() {
+        MockitoAnnotations.initMocks(this);
+        Driver.setDriver(mockSchedulerDriver);
+    }
+
+    @Test
+    public void testUnbatchedNotAcknowledged() throws InterruptedException {
+        Protos.TaskStatus status = getStatus(TASK_ID_1, Protos.TaskState.TASK_RUNNING, 1);
+        when(mockMesosEventClient.taskStatus(status)).thenReturn(TaskStatusResponse.processed());
+
+        new TaskStatusProcessor(mockMesosEventClient, 0).disableThreading().enqueue(status);
+
+        verify(mockMesosEventClient).taskStatus(status);
+        verify(mockMesosEventClient, never()).taskStatuses(any());
+        // Left to the driver to acknowledge implicitly:
+        verify(mockSchedulerDriver, never()).acknowledgeStatusUpdate(any());
+    }
+
+    @Test
+    public void testBatchCoalescedAndAcknowledged() throws InterruptedException {
+        Protos.TaskStatus staging = getStatus(TASK_ID_1, Protos.TaskState.TASK_STAGING, 1);
+        Protos.TaskStatus running = getStatus(TASK_ID_1, Protos.TaskState.TASK_RUNNING, 2);
+        Protos.TaskStatus other = getStatus(TASK_ID_2, Protos.TaskState.TASK_RUNNING, 1);
+        when(mockMesosEventClient.taskStatuses(any()))
+                .thenReturn(Arrays.asList(TaskStatusResponse.processed(), TaskStatusResponse.processed()));
+
+        // Not started, so statuses are left in the queue until we process them below:
+        TaskStatusProcessor processor = new TaskStatusProcessor(mockMesosEventClient, 10);
+        processor.enqueue(running);
+        processor.enqueue(other);
+        processor.enqueue(staging);
+        verify(mockMesosEventClient, never()).taskStatuses(any());
+
+        processor.processQueuedStatuses(Duration.ZERO);
+
+        // Only the latest status for each task is processed, while every received status is acknowledged:
+        verify(mockMesosEventClient).taskStatuses(statusesCaptor.capture());
+        Assert.assertEquals(Arrays.asList(running, other), statusesCaptor.getValue());
+        verify(mockSchedulerDriver).acknowledgeStatusUpdate(staging);
+        verify(mockSchedulerDriver).acknowledgeStatusUpdate(running);
+        verify(mockSchedulerDriver).acknowledgeStatusUpdate(other);
+    }
+
+    @Test
+    public void testBatchUnknownTaskKilled() throws InterruptedException {
+        Protos.TaskStatus status = getStatus(TASK_ID_1, Protos.TaskState.TASK_RUNNING, 1);
+        when(mockMesosEventClient.taskStatuses(any()))
+                .thenReturn(Collections.singletonList(TaskStatusResponse.unknownTask()));
+
+        new TaskStatusProcessor(mockMesosEventClient, 10).disableThreading().enqueue(status);
+
+        verify(mockSchedulerDriver).killTask(TASK_ID_1);
+        verify(mockSchedulerDriver).acknowledgeStatusUpdate(status);
+    }
+
+    @Test
+    public void testBatchStorageFailureNotAcknowledged() throws InterruptedException {
+        Protos.TaskStatus status = getStatus(TASK_ID_1, Protos.TaskState.TASK_RUNNING, 1);
+        when(mockMesosEventClient.taskStatuses(any()))
+                .thenThrow(new StateStoreException(Reason.STORAGE_ERROR, "test failure"));
+
+        new TaskStatusProcessor(mockMesosEventClient, 10).disableThreading().enqueue(status);
+
+        verify(mockSchedulerDriver, never()).acknowledgeStatusUpdate(any());
+    }
+
+    @Test
+    public void testMultiServiceStorageFailureNotAcknowledged() throws Exception {
+        String serviceName = "failing-service";
+        Protos.TaskID taskId = CommonIdUtils.toTaskId(serviceName, TestConstants.TASK_NAME);
+        Persister persister = spy(MemPersister.newBuilder().build());
+        StateStore stateStore = new StateStore(persister);
+        stateStore.storeTasks(Collections.singleton(TestConstants.TASK_INFO.toBuilder().setTaskId(taskId).build()));
+        doThrow(new PersisterException(Reason.STORAGE_ERROR, "test failure")).when(persister).set(any(), any());
+        doThrow(new PersisterException(Reason.STORAGE_ERROR, "test failure")).when(persister).setMany(any());
+
+        SchedulerConfig schedulerConfig = SchedulerConfigTestUtils.getTestSchedulerConfig();
+        when(mockServiceSpec.getName()).thenReturn(serviceName);
+        MultiServiceManager multiServiceManager = new MultiServiceManager(schedulerConfig)
+                .putService(new TestScheduler(mockServiceSpec, schedulerConfig, stateStore));
+        MultiServiceEventClient client = new MultiServiceEventClient(
+                TestConstants.SERVICE_NAME,
+                schedulerConfig,
+                multiServiceManager,
+                MemPersister.newBuilder().build(),
+                Collections.emptyList(),
+                mockUninstallCallback);
+
+        // The status for another service's task would be acknowledged alone, but is held back along with the rest:
+        Protos.TaskStatus status = getStatus(taskId, Protos.TaskState.TASK_RUNNING, 1);
+        Protos.TaskStatus unknownStatus = getStatus(
+                CommonIdUtils.toTaskId("other-service", TestConstants.TASK_NAME), Protos.TaskState.TASK_RUNNING, 1);
+        TaskStatusProcessor processor = new TaskStatusProcessor(client, 10).disableThreading();
+        processor.enqueue(status);
+        processor.enqueue(unknownStatus);
+
+        Assert.assertFalse(stateStore.fetchStatus(TestConstants.TASK_NAME).isPresent());
+        verify(mockSchedulerDriver, never()).acknowledgeStatusUpdate(any());
+    }
+
+    private static Protos.TaskStatus getStatus(Protos.TaskID taskId, Protos.TaskState state, double timestamp) {
+        return Protos.TaskStatus.newBuilder()
+                .setTaskId(taskId)
+                .setState(state)
+                .setTimestamp(timestamp)
+                .setUuid(ByteString.copyFromUtf8(taskId.getValue() + "-" + state))
+                .build();
+    }
+
+    /**
+     * A minimal service which stores each status it receives.
+     */
+    private static class TestScheduler extends AbstractScheduler {
+
+        private TestScheduler(ServiceSpec serviceSpec, SchedulerConfig schedulerConfig, StateStore stateStore) {
+            super(serviceSpec, schedulerConfig, stateStore, null, Optional.empty(), Optional.empty());
+        }
+
+        @Override
+        public Collection<Object> getHTTPEndpoints() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Map<String, EndpointProducer> getCustomEndpoints() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public ConfigStore<ServiceSpec> getConfigStore() {
+            return null;
+        }
+
+        @Override
+        protected void registeredWithMesos() {
+            // Intentionally empty.
+        }
+
+        @Override
+        public void unregistered() {
+            // Intentionally empty.
+        }
+
+        @Override
+        protected ClientStatusResponse getStatus() {
+            return ClientStatusResponse.launching(false);
+        }
+
+        @Override
+        protected OfferResponse processOffers(Collection<Protos.Offer> offers, Collection<Step> steps) {
+            return OfferResponse.processed(Collections.emptyList());
+        }
+
+        @Override
+        protected void processStatusUpdate(Protos.TaskStatus status) throws Exception {
+            String taskName = StateStoreUtils.fetchTaskInfo(getStateStore(), status).getName();
+            getStateStore().storeStatus(taskName, status);
+        }
+
+        @Override
+        public UnexpectedResourcesResponse getUnexpectedResources(Collection<Protos.Offer> unusedOffers) {
+            return UnexpectedResourcesResponse.processed(Collections.emptyList());
+        }
+    }
+}
@@ -9,6 +9,7 @@ import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Optional;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -36,6 +37,29 @@ public class ResponseUtilsTest {
                 jsonOkResponse(obj));
     }
 
+    @Test
+    public void testConditionalResponse() {
+        Response r = ResponseUtils.conditionalResponse(Optional.empty(), "tag", () -> jsonOkResponse(new JSONArray()));
+        assertEquals(200, r.getStatus());
+        assertEquals("tag", r.getEntityTag().getValue());
+
+        r = ResponseUtils.conditionalResponse(Optional.of("\"other\""), "tag", () -> jsonOkResponse(new JSONArray()));
+        assertEquals(200, r.getStatus());
+
+        for (String ifNoneMatch : Arrays.asList("\"tag\"", "W/\"tag\"", "\"other\", \"tag\"", "*")) {
+            r = ResponseUtils.conditionalResponse(Optional.of(ifNoneMatch), "tag", () -> {
+                throw new IllegalStateException("should not be called");
+            });
+            assertEquals(ifNoneMatch, 304, r.getStatus());
+            assertEquals("tag", r.getEntityTag().getValue());
+        }
+
+        // Error responses aren't tagged:
+        r = ResponseUtils.conditionalResponse(Optional.empty(), "tag", () -> Response.serverError().build());
+        assertEquals(500, r.getStatus());
+        assertEquals(null, r.getEntityTag());
+    }
+
     private static void checkJsonOkResponse(String expectedContent, Response r) {
         assertEquals(200, r.getStatus());
         assertEquals(MediaType.APPLICATION_JSON_TYPE, r.getMediaType());
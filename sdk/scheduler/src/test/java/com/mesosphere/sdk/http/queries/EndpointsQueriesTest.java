@@ -4,6 +4,8 @@ import com.mesosphere.sdk.http.types.EndpointProducer;
 import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
 import com.mesosphere.sdk.state.ConfigStoreException;
+import com.mesosphere.sdk.state.GoalStateOverride;
+import com.mesosphere.sdk.state.StateSnapshot;
 import com.mesosphere.sdk.state.StateStore;
 import com.mesosphere.sdk.testutils.OfferTestUtils;
 import com.mesosphere.sdk.testutils.SchedulerConfigTestUtils;
@@ -169,6 +171,14 @@ public class EndpointsQueriesTest {
         for (TaskInfo taskInfo : TASK_INFOS) {
             when(mockStateStore.fetchStatus(taskInfo.getName())).thenReturn(Optional.empty());
         }
+        when(mockStateStore.getSnapshot()).thenAnswer(invocation -> {
+            StateSnapshot.Builder builder = StateSnapshot.newBuilder();
+            for (TaskInfo taskInfo : mockStateStore.fetchTasks()) {
+                builder.putTask(
+                        taskInfo, mockStateStore.fetchStatus(taskInfo.getName()), GoalStateOverride.Status.INACTIVE);
+            }
+            return builder.build();
+        });
     }
 
     @Test
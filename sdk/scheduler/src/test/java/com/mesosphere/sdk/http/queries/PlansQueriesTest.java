@@ -176,11 +176,11 @@ public class PlansQueriesTest {
 
         response = PlansQueries.interrupt(planManagers, planName, phaseId.toString());
         validateCommandResult(response, "interrupt");
-        verify(mockPhaseStrategy).interrupt();
+        verify(mockPhase).interrupt();
 
         response = PlansQueries.interrupt(planManagers, planName, phaseName);
         validateCommandResult(response, "interrupt");
-        verify(mockPhaseStrategy, times(2)).interrupt();
+        verify(mockPhase, times(2)).interrupt();
     }
 
     @Test
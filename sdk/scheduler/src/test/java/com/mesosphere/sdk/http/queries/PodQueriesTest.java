@@ -9,6 +9,7 @@ import com.mesosphere.sdk.scheduler.recovery.RecoveryType;
 import com.mesosphere.sdk.specification.ServiceSpec;
 import com.mesosphere.sdk.state.ConfigStore;
 import com.mesosphere.sdk.state.GoalStateOverride;
+import com.mesosphere.sdk.state.StateSnapshot;
 import com.mesosphere.sdk.state.StateStore;
 import com.mesosphere.sdk.testutils.TaskTestUtils;
 import com.mesosphere.sdk.testutils.TestConstants;
@@ -29,7 +30,9 @@ import org.mockito.MockitoAnnotations;
 import javax.ws.rs.core.Response;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -133,6 +136,8 @@ public class PodQueriesTest {
     public void beforeEach() {
         MockitoAnnotations.initMocks(this);
         Driver.setDriver(mockDriver);
+        // Build snapshots from whatever the individual fetch calls are stubbed to return:
+        when(mockStateStore.getSnapshot()).thenAnswer(invocation -> getSnapshot(mockStateStore));
     }
 
     @Test
@@ -149,6 +154,21 @@ public class PodQueriesTest {
         assertEquals("UNKNOWN_POD_test-task-name", json.get(3));
     }
 
+    @Test
+    public void testGetPodNamesNotModified() {
+        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
+        Response response = PodQueries.list(mockStateStore, Optional.empty());
+        assertEquals(200, response.getStatus());
+        String entityTag = response.getEntityTag().getValue();
+
+        response = PodQueries.list(mockStateStore, Optional.of("\"" + entityTag + "\""));
+        assertEquals(304, response.getStatus());
+        assertEquals(entityTag, response.getEntityTag().getValue());
+
+        response = PodQueries.list(mockStateStore, Optional.of("\"other\""));
+        assertEquals(200, response.getStatus());
+    }
+
     @Test
     public void testGetAllPodStatuses() throws Exception {
         when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
@@ -540,4 +560,17 @@ public class PodQueriesTest {
         verify(mockFailureSetter, times(1)).setFailure(mockConfigStore, mockStateStore, expectedFailedTasks);
         verifyNoMoreInteractions(mockFailureSetter);
     }
+
+    private static StateSnapshot getSnapshot(StateStore stateStore) {
+        Map<Protos.TaskID, TaskStatus> statusesById = new HashMap<>();
+        stateStore.fetchStatuses().forEach(status -> statusesById.put(status.getTaskId(), status));
+        StateSnapshot.Builder builder = StateSnapshot.newBuilder().entityTag("test-tag");
+        for (TaskInfo taskInfo : stateStore.fetchTasks()) {
+            builder.putTask(
+                    taskInfo,
+                    Optional.ofNullable(statusesById.get(taskInfo.getTaskId())),
+                    stateStore.fetchGoalOverrideStatus(taskInfo.getName()));
+        }
+        return builder.build();
+    }
 }
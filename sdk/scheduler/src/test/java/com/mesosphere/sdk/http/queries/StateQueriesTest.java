@@ -10,6 +10,7 @@ import org.apache.mesos.Protos;
 import com.mesosphere.sdk.http.ResponseUtils;
 import com.mesosphere.sdk.http.types.StringPropertyDeserializer;
 import com.mesosphere.sdk.state.FrameworkStore;
+import com.mesosphere.sdk.state.StateSnapshot;
 import com.mesosphere.sdk.state.StateStore;
 import com.mesosphere.sdk.state.StateStoreException;
 import com.mesosphere.sdk.storage.StorageError.Reason;
@@ -49,6 +50,7 @@ public class StateQueriesTest {
     @Before
     public void beforeEach() {
         MockitoAnnotations.initMocks(this);
+        when(mockStateStore.getSnapshot()).thenAnswer(invocation -> StateSnapshot.create(mockStateStore));
     }
 
     @Test
@@ -0,0 +1,29 @@
+package com.mesosphere.sdk.offer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LogBudgetTest {
+
+    @Test
+    public void testLimited() {
+        LogBudget budget = new LogBudget(2);
+        Assert.assertTrue(budget.consume());
+        Assert.assertTrue(budget.consume());
+        Assert.assertFalse(budget.consume());
+        Assert.assertFalse(budget.consume());
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertFalse(new LogBudget(0).consume());
+    }
+
+    @Test
+    public void testUnlimited() {
+        LogBudget budget = new LogBudget(-1);
+        for (int i = 0; i < 1000; ++i) {
+            Assert.assertTrue(budget.consume());
+        }
+    }
+}
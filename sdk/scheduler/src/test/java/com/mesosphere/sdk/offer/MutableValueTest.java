@@ -0,0 +1,139 @@
+package com.mesosphere.sdk.offer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.mesos.Protos.Value;
+import org.apache.mesos.Protos.Value.Range;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MutableValue}.
+ */
+public class MutableValueTest {
+
+    @Test
+    public void testScalarArithmetic() {
+        MutableValue value = MutableValue.zero(Value.Type.SCALAR);
+        value.add(getScalar(1.1));
+        value.add(getScalar(2.2));
+        assertEquals(3.3, value.toProto().getScalar().getValue(), 0.0);
+        assertTrue(value.contains(getScalar(3.3)));
+        assertFalse(value.contains(getScalar(3.301)));
+
+        value.subtract(getScalar(0.3));
+        assertEquals(3.0, value.toProto().getScalar().getValue(), 0.0);
+        value.subtract(getScalar(3.0));
+        assertEquals(ValueUtils.getZero(Value.Type.SCALAR), value.toProto());
+    }
+
+    @Test
+    public void testMergeRanges() {
+        MutableValue value = MutableValue.of(getRanges(getRange(10, 20), getRange(30, 40)));
+        value.add(getRanges(getRange(21, 25), getRange(1, 5), getRange(35, 50)));
+        assertEquals(
+                Arrays.asList(getRange(1, 5), getRange(10, 25), getRange(30, 50)),
+                value.toProto().getRanges().getRangeList());
+    }
+
+    @Test
+    public void testSubtractRanges() {
+        MutableValue value = MutableValue.of(getRanges(getRange(1, 10), getRange(20, 30)));
+
+        // split a range
+        value.subtract(getRanges(getRange(4, 5)));
+        assertEquals(
+                Arrays.asList(getRange(1, 3), getRange(6, 10), getRange(20, 30)),
+                value.toProto().getRanges().getRangeList());
+
+        // trim the tail of one range, drop another, and trim the head of a third
+        value.subtract(getRanges(getRange(3, 21)));
+        assertEquals(
+                Arrays.asList(getRange(1, 2), getRange(22, 30)),
+                value.toProto().getRanges().getRangeList());
+
+        // remove a range which isn't present
+        value.subtract(getRanges(getRange(15, 17)));
+        assertEquals(
+                Arrays.asList(getRange(1, 2), getRange(22, 30)),
+                value.toProto().getRanges().getRangeList());
+
+        // remove everything
+        value.subtract(getRanges(getRange(0, 100)));
+        assertTrue(value.toProto().getRanges().getRangeList().isEmpty());
+    }
+
+    @Test
+    public void testContainsRanges() {
+        MutableValue value = MutableValue.of(getRanges(getRange(1, 10), getRange(11, 15), getRange(20, 30)));
+        assertTrue(value.contains(getRanges(getRange(1, 15))));
+        assertTrue(value.contains(getRanges(getRange(5, 5), getRange(25, 30))));
+        assertTrue(value.contains(getRanges()));
+        assertFalse(value.contains(getRanges(getRange(15, 20))));
+        assertFalse(value.contains(getRanges(getRange(5, 5), getRange(31, 31))));
+    }
+
+    @Test
+    public void testMatchesValueUtils() {
+        Random random = new Random(0);
+        for (int i = 0; i < 1000; ++i) {
+            Value minuend = getRandomRanges(random);
+            Value subtrahend = getRandomRanges(random);
+
+            MutableValue value = MutableValue.of(minuend);
+            assertEquals(
+                    ValueUtils.compare(ValueUtils.subtract(subtrahend, minuend), ValueUtils.getZero(Value.Type.RANGES)) <= 0,
+                    value.contains(subtrahend));
+
+            value.subtract(subtrahend);
+            assertTrue(ValueUtils.equal(ValueUtils.subtract(minuend, subtrahend), value.toProto()));
+
+            value.add(subtrahend);
+            assertTrue(ValueUtils.equal(ValueUtils.add(minuend, subtrahend), value.toProto()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMismatchedTypes() {
+        MutableValue.zero(Value.Type.SCALAR).add(getRanges(getRange(1, 2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedType() {
+        MutableValue.zero(Value.Type.SET);
+    }
+
+    private static Value getRandomRanges(Random random) {
+        List<Range> ranges = new ArrayList<>();
+        int count = random.nextInt(5);
+        for (int i = 0; i < count; ++i) {
+            int begin = random.nextInt(100);
+            ranges.add(getRange(begin, begin + random.nextInt(20)));
+        }
+        return getRanges(ranges.toArray(new Range[0]));
+    }
+
+    private static Value getScalar(double value) {
+        return Value.newBuilder()
+                .setType(Value.Type.SCALAR)
+                .setScalar(Value.Scalar.newBuilder().setValue(value))
+                .build();
+    }
+
+    private static Value getRanges(Range... ranges) {
+        return Value.newBuilder()
+                .setType(Value.Type.RANGES)
+                .setRanges(Value.Ranges.newBuilder().addAllRange(Arrays.asList(ranges)))
+                .build();
+    }
+
+    private static Range getRange(long begin, long end) {
+        return Range.newBuilder().setBegin(begin).setEnd(end).build();
+    }
+}
@@ -111,4 +111,17 @@ public class OfferAccepterTest {
         Assert.assertEquals(Arrays.asList(DESTROY_A.getOperation().get(), UNRESERVE_A.getOperation().get()), operationCalls.get(0));
         Assert.assertEquals(Arrays.asList(DESTROY_B.getOperation().get(), UNRESERVE_B.getOperation().get()), operationCalls.get(1));
     }
+
+    @Test
+    public void testAcceptWithLogBudget() {
+        Driver.setDriver(mockDriver);
+
+        // Operations past the budget are only logged at DEBUG, but are still accepted:
+        new OfferAccepter(1).accept(ALL_RECOMMENDATIONS);
+
+        verify(mockDriver, times(2)).acceptOffers(offerIdCaptor.capture(), operationCaptor.capture(), any());
+        List<Collection<Protos.Offer.Operation>> operationCalls = operationCaptor.getAllValues();
+        Assert.assertEquals(Arrays.asList(DESTROY_A.getOperation().get(), UNRESERVE_A.getOperation().get()), operationCalls.get(0));
+        Assert.assertEquals(Arrays.asList(DESTROY_B.getOperation().get(), UNRESERVE_B.getOperation().get()), operationCalls.get(1));
+    }
 }
@@ -0,0 +1,76 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirementTestUtils;
+import com.mesosphere.sdk.testutils.*;
+import org.apache.mesos.Protos;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the reuse of offer-independent evaluation state by {@link OfferEvaluator}.
+ */
+public class OfferEvaluatorContextTest extends OfferEvaluatorTestBase {
+
+    @Before
+    public void beforeEach() throws Exception {
+        super.beforeEach();
+        stateStore = Mockito.spy(stateStore);
+        evaluator = new OfferEvaluator(
+                frameworkStore,
+                stateStore,
+                Optional.empty(),
+                TestConstants.SERVICE_NAME,
+                targetConfig,
+                PodTestUtils.getTemplateUrlFactory(),
+                SchedulerConfigTestUtils.getTestSchedulerConfig(),
+                Optional.empty());
+    }
+
+    @Test
+    public void testContextReusedUntilTasksChange() throws Exception {
+        PodInstanceRequirement podInstanceRequirement = PodInstanceRequirementTestUtils.getCpuRequirement(1.0);
+        List<Protos.Offer> insufficientOffers =
+                Collections.singletonList(OfferTestUtils.getCompleteOffer(ResourceTestUtils.getUnreservedCpus(0.5)));
+
+        // Repeated cycles which fail to find resources don't refetch anything:
+        for (int i = 0; i < 3; ++i) {
+            Assert.assertTrue(evaluator.evaluate(podInstanceRequirement, insufficientOffers).isEmpty());
+        }
+        verify(stateStore, times(1)).fetchTasks();
+
+        // An equal requirement from a new step is treated the same:
+        Assert.assertTrue(evaluator.evaluate(
+                PodInstanceRequirementTestUtils.getCpuRequirement(1.0), insufficientOffers).isEmpty());
+        verify(stateStore, times(1)).fetchTasks();
+
+        // Launching the pod stores its tasks, after which the pod is evaluated as an existing pod:
+        Assert.assertFalse(recordLaunchWithCompleteOfferedResources(
+                podInstanceRequirement, ResourceTestUtils.getUnreservedCpus(1.0)).isEmpty());
+        verify(stateStore, times(1)).fetchTasks();
+        evaluator.evaluate(podInstanceRequirement, insufficientOffers);
+        verify(stateStore, times(2)).fetchTasks();
+    }
+
+    @Test
+    public void testContextPerRequirement() throws Exception {
+        List<Protos.Offer> insufficientOffers =
+                Collections.singletonList(OfferTestUtils.getCompleteOffer(ResourceTestUtils.getUnreservedCpus(0.5)));
+
+        evaluator.evaluate(PodInstanceRequirementTestUtils.getCpuRequirement(1.0), insufficientOffers);
+        evaluator.evaluate(PodInstanceRequirementTestUtils.getCpuRequirement(2.0), insufficientOffers);
+        verify(stateStore, times(2)).fetchTasks();
+
+        evaluator.evaluate(PodInstanceRequirementTestUtils.getCpuRequirement(1.0), insufficientOffers);
+        evaluator.evaluate(PodInstanceRequirementTestUtils.getCpuRequirement(2.0), insufficientOffers);
+        verify(stateStore, times(2)).fetchTasks();
+    }
+}
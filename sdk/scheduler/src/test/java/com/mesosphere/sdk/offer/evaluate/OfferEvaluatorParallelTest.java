@@ -0,0 +1,104 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.offer.OfferRecommendation;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirementTestUtils;
+import com.mesosphere.sdk.testutils.*;
+import org.apache.mesos.Protos;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Tests for {@link OfferEvaluator} when offers are evaluated in parallel.
+ */
+public class OfferEvaluatorParallelTest extends OfferEvaluatorTestBase {
+
+    @Before
+    public void beforeEach() throws Exception {
+        super.beforeEach();
+        SchedulerConfig schedulerConfig = SchedulerConfigTestUtils.getTestSchedulerConfig();
+        Mockito.when(schedulerConfig.getOfferEvaluationParallelism()).thenReturn(4);
+        evaluator = new OfferEvaluator(
+                frameworkStore,
+                stateStore,
+                Optional.empty(),
+                TestConstants.SERVICE_NAME,
+                targetConfig,
+                PodTestUtils.getTemplateUrlFactory(),
+                schedulerConfig,
+                Optional.empty());
+    }
+
+    @Test
+    public void testFirstPassingOfferIsSelected() throws Exception {
+        PodInstanceRequirement podInstanceRequirement = PodInstanceRequirementTestUtils.getCpuRequirement(1.0);
+        List<Protos.Offer> offers = Arrays.asList(
+                getOffer("insufficient-1", 0.5),
+                getOffer("insufficient-2", 0.5),
+                getOffer("sufficient-1", 2.0),
+                getOffer("insufficient-3", 0.5),
+                getOffer("sufficient-2", 3.0));
+
+        // Repeat to give any ordering issues a chance to show up:
+        for (int i = 0; i < 20; ++i) {
+            List<OfferRecommendation> recommendations = evaluator.evaluate(podInstanceRequirement, offers);
+            Assert.assertFalse(recommendations.isEmpty());
+            for (OfferRecommendation recommendation : recommendations) {
+                Assert.assertEquals("sufficient-1", recommendation.getOfferId().getValue());
+            }
+        }
+    }
+
+    @Test
+    public void testNoPassingOffers() throws Exception {
+        PodInstanceRequirement podInstanceRequirement = PodInstanceRequirementTestUtils.getCpuRequirement(1.0);
+        List<Protos.Offer> offers = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            offers.add(getOffer("insufficient-" + i, 0.5));
+        }
+        Assert.assertTrue(evaluator.evaluate(podInstanceRequirement, offers).isEmpty());
+    }
+
+    @Test
+    public void testMatchesSerialEvaluation() throws Exception {
+        PodInstanceRequirement podInstanceRequirement = PodInstanceRequirementTestUtils.getCpuRequirement(1.0);
+        List<Protos.Offer> offers = Arrays.asList(
+                getOffer("insufficient-1", 0.5),
+                getOffer("sufficient-1", 1.5),
+                getOffer("sufficient-2", 2.0));
+
+        OfferEvaluator serialEvaluator = new OfferEvaluator(
+                frameworkStore,
+                stateStore,
+                Optional.empty(),
+                TestConstants.SERVICE_NAME,
+                targetConfig,
+                PodTestUtils.getTemplateUrlFactory(),
+                SchedulerConfigTestUtils.getTestSchedulerConfig(),
+                Optional.empty());
+        List<OfferRecommendation> serialRecommendations = serialEvaluator.evaluate(podInstanceRequirement, offers);
+        List<OfferRecommendation> parallelRecommendations = evaluator.evaluate(podInstanceRequirement, offers);
+
+        Assert.assertEquals(serialRecommendations.size(), parallelRecommendations.size());
+        for (int i = 0; i < serialRecommendations.size(); ++i) {
+            Assert.assertEquals(
+                    serialRecommendations.get(i).getClass(), parallelRecommendations.get(i).getClass());
+            Assert.assertEquals(
+                    serialRecommendations.get(i).getOfferId(), parallelRecommendations.get(i).getOfferId());
+        }
+    }
+
+    private static Protos.Offer getOffer(String offerId, double cpus) {
+        return OfferTestUtils.getCompleteOffer(ResourceTestUtils.getUnreservedCpus(cpus)).toBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue(offerId))
+                .build();
+    }
+}
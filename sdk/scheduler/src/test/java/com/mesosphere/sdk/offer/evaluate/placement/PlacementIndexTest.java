@@ -0,0 +1,130 @@
+package com.mesosphere.sdk.offer.evaluate.placement;
+
+import com.mesosphere.sdk.offer.CommonIdUtils;
+import com.mesosphere.sdk.offer.InvalidRequirementException;
+import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirementTestUtils;
+import com.mesosphere.sdk.specification.PodInstance;
+import com.mesosphere.sdk.testutils.DefaultCapabilitiesTestSuite;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.TaskInfo;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link PlacementIndex}.
+ */
+public class PlacementIndexTest extends DefaultCapabilitiesTestSuite {
+    private static PodInstance POD;
+
+    @BeforeClass
+    public static void beforeAll() throws InvalidRequirementException {
+        POD = PodInstanceRequirementTestUtils.getCpuRequirement(1.0).getPodInstance();
+    }
+
+    @Test
+    public void testKeyCounts() {
+        List<TaskInfo> tasks = Arrays.asList(
+                getTaskInfo("1", "host1"),
+                getTaskInfo("2", "host1"),
+                getTaskInfo("3", "host2"),
+                getTaskInfo("ignored", "host3"));
+        PlacementIndex index = new PlacementIndex(tasks, POD);
+        MaxPerRule rule = new MaxPerHostnameRule(2);
+
+        PlacementIndex.KeyCounts counts = index.getKeyCounts(
+                rule, RegexMatcher.create("[0-9]"), task -> rule.getKeys(task));
+        Assert.assertEquals(2, counts.get("host1"));
+        Assert.assertEquals(1, counts.get("host2"));
+        Assert.assertEquals(0, counts.get("host3"));
+        Assert.assertEquals(1, counts.getMin());
+        Assert.assertEquals(2, counts.getMax());
+        Assert.assertEquals(2, counts.getKeyCount());
+    }
+
+    @Test
+    public void testEmptyKeyCounts() {
+        PlacementIndex index = new PlacementIndex(Collections.emptyList(), POD);
+        PlacementIndex.KeyCounts counts = index.getKeyCounts(
+                new MaxPerHostnameRule(1), AnyMatcher.create(), task -> Collections.singletonList("foo"));
+        Assert.assertEquals(0, counts.getMin());
+        Assert.assertEquals(0, counts.getMax());
+        Assert.assertEquals(0, counts.getKeyCount());
+    }
+
+    @Test
+    public void testKeyCountsAreComputedOncePerRule() {
+        List<TaskInfo> tasks = Arrays.asList(getTaskInfo("1", "host1"), getTaskInfo("2", "host2"));
+        PlacementIndex index = new PlacementIndex(tasks, POD);
+        PlacementRule rule1 = new MaxPerHostnameRule(1);
+        PlacementRule rule2 = new MaxPerHostnameRule(1);
+
+        AtomicInteger calls = new AtomicInteger();
+        PlacementIndex.KeyCounts counts = index.getKeyCounts(rule1, AnyMatcher.create(), task -> {
+            calls.incrementAndGet();
+            return Collections.singletonList(task.getName());
+        });
+        Assert.assertEquals(2, calls.get());
+        Assert.assertSame(counts, index.getKeyCounts(rule1, AnyMatcher.create(), task -> {
+            calls.incrementAndGet();
+            return Collections.singletonList(task.getName());
+        }));
+        Assert.assertEquals(2, calls.get());
+
+        // A separate rule instance gets separate counts, even if it's equal:
+        index.getKeyCounts(rule2, AnyMatcher.create(), task -> {
+            calls.incrementAndGet();
+            return Collections.emptyList();
+        });
+        Assert.assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testIndexedFilterMatchesUnindexedFilter() {
+        List<PlacementRule> rules = Arrays.asList(
+                new MaxPerHostnameRule(1),
+                new MaxPerHostnameRule(2),
+                new RoundRobinByHostnameRule(Optional.of(3)),
+                new AndRule(new MaxPerHostnameRule(2), new RoundRobinByHostnameRule(Optional.empty())),
+                new NotRule(new MaxPerHostnameRule(1)));
+        List<TaskInfo> tasks = new ArrayList<>();
+        tasks.add(getTaskInfo("1", "host1"));
+        tasks.add(getTaskInfo("2", "host1"));
+        tasks.add(getTaskInfo("3", "host2"));
+
+        for (PlacementRule rule : rules) {
+            PlacementIndex index = new PlacementIndex(tasks, POD);
+            for (String host : Arrays.asList("host1", "host2", "host3")) {
+                Offer offer = offerWithHost(host);
+                Assert.assertEquals(
+                        String.format("%s on %s", rule, host),
+                        rule.filter(offer, POD, tasks).isPassing(),
+                        rule.filter(offer, POD, index).isPassing());
+            }
+        }
+    }
+
+    private static TaskInfo getTaskInfo(String name, String host) {
+        TaskInfo.Builder infoBuilder = TaskTestUtils.getTaskInfo(Collections.emptyList()).toBuilder()
+                .setName(name)
+                .setTaskId(CommonIdUtils.toTaskId(TestConstants.SERVICE_NAME, name));
+        infoBuilder.setLabels(new TaskLabelWriter(infoBuilder).setHostname(offerWithHost(host)).toProto());
+        return infoBuilder.build();
+    }
+
+    private static Offer offerWithHost(String host) {
+        return OfferTestUtils.getEmptyOfferBuilder().setHostname(host).build();
+    }
+}
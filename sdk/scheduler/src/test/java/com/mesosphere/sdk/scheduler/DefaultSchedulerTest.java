@@ -21,10 +21,12 @@ import com.mesosphere.sdk.specification.*;
 import com.mesosphere.sdk.state.FrameworkStore;
 import com.mesosphere.sdk.state.PersistentLaunchRecorder;
 import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreException;
 import com.mesosphere.sdk.state.StateStoreUtils;
 import com.mesosphere.sdk.storage.MemPersister;
 import com.mesosphere.sdk.storage.Persister;
 import com.mesosphere.sdk.storage.PersisterException;
+import com.mesosphere.sdk.storage.StorageError;
 import com.mesosphere.sdk.testutils.OfferTestUtils;
 import com.mesosphere.sdk.testutils.ResourceTestUtils;
 import com.mesosphere.sdk.testutils.SchedulerConfigTestUtils;
@@ -68,6 +70,7 @@ public class DefaultSchedulerTest {
     @Mock private SchedulerConfig mockSchedulerConfig;
 
     private static final String TASK_IP = "9.9.9.9";
+    private static final Set<String> ROLES = Collections.singleton(TestConstants.ROLE);
 
     private static final int TASK_A_COUNT = 1;
     private static final String TASK_A_POD_NAME = "POD-A";
@@ -218,7 +221,7 @@ public class DefaultSchedulerTest {
     @Test
     public void testEmptyOffers() {
         // Kick getClientStatus() before calling offers():
-        Assert.assertEquals(ClientStatusResponse.footprint(true), defaultScheduler.getClientStatus());
+        Assert.assertEquals(ClientStatusResponse.footprint(true).withRoles(ROLES), defaultScheduler.getClientStatus());
 
         // Reconcile already triggered via registration during setup:
         OfferResponse offerResponse = defaultScheduler.offers(Collections.emptyList());
@@ -251,7 +254,7 @@ public class DefaultSchedulerTest {
         Assert.assertTrue(stepTaskA0.isPending());
 
         // Kick getClientStatus() before calling offers():
-        Assert.assertEquals(ClientStatusResponse.footprint(true), defaultScheduler.getClientStatus());
+        Assert.assertEquals(ClientStatusResponse.footprint(true).withRoles(ROLES), defaultScheduler.getClientStatus());
 
         // Offer insufficient Resource and wait for step state transition
         UUID offerId = UUID.randomUUID();
@@ -303,7 +306,7 @@ public class DefaultSchedulerTest {
         Assert.assertTrue(stepTaskA0.isPending());
 
         // Kick getClientStatus() before calling offers():
-        Assert.assertEquals(ClientStatusResponse.footprint(true), defaultScheduler.getClientStatus());
+        Assert.assertEquals(ClientStatusResponse.footprint(true).withRoles(ROLES), defaultScheduler.getClientStatus());
 
         // Offer sufficient Resources and wait for its acceptance
         Protos.Offer offer1 = getSufficientOfferForTaskA();
@@ -364,7 +367,7 @@ public class DefaultSchedulerTest {
                 .build();
 
         // Kick getClientStatus() before calling offers():
-        Assert.assertEquals(ClientStatusResponse.footprint(true), defaultScheduler.getClientStatus());
+        Assert.assertEquals(ClientStatusResponse.footprint(true).withRoles(ROLES), defaultScheduler.getClientStatus());
 
         Collection<Protos.Offer> offers = Arrays.asList(offerA, offerB, offerC);
         response = defaultScheduler.offers(offers);
@@ -402,7 +405,7 @@ public class DefaultSchedulerTest {
         Assert.assertTrue(stepTaskA0.isPending());
 
         // Kick getClientStatus() before calling offers():
-        Assert.assertEquals(ClientStatusResponse.footprint(true), defaultScheduler.getClientStatus());
+        Assert.assertEquals(ClientStatusResponse.footprint(true).withRoles(ROLES), defaultScheduler.getClientStatus());
 
         // Offer sufficient Resource and wait for its acceptance
         Protos.Offer offer1 = getSufficientOfferForTaskA();
@@ -452,7 +455,7 @@ public class DefaultSchedulerTest {
         Protos.Offer insufficientOffer = OfferTestUtils.getCompleteOffer(neededAdditionalResource);
 
         // Kick getClientStatus() before calling offers():
-        Assert.assertEquals(ClientStatusResponse.footprint(true), defaultScheduler.getClientStatus());
+        Assert.assertEquals(ClientStatusResponse.footprint(true).withRoles(ROLES), defaultScheduler.getClientStatus());
 
         // First attempt doesn't do anything because reconciliation hadn't completed yet
         Collection<Protos.Offer> offers = Arrays.asList(insufficientOffer);
@@ -469,7 +472,7 @@ public class DefaultSchedulerTest {
         statusUpdate(launchedTaskId, Protos.TaskState.TASK_RUNNING);
 
         // Kick getClientStatus() before calling offers():
-        Assert.assertEquals(ClientStatusResponse.footprint(false), defaultScheduler.getClientStatus());
+        Assert.assertEquals(ClientStatusResponse.footprint(false).withRoles(ROLES), defaultScheduler.getClientStatus());
 
         // Second attempt after reconciliation results in triggering task relaunch
         response = defaultScheduler.offers(offers);
@@ -485,7 +488,7 @@ public class DefaultSchedulerTest {
         Assert.assertEquals(0, getRecoveryPlan().getChildren().size());
 
         // Kick getClientStatus() before calling offers():
-        Assert.assertEquals(ClientStatusResponse.footprint(false), defaultScheduler.getClientStatus());
+        Assert.assertEquals(ClientStatusResponse.footprint(false).withRoles(ROLES), defaultScheduler.getClientStatus());
 
         Protos.Offer expectedOffer = OfferTestUtils.getCompleteOffer(expectedResources);
         response = defaultScheduler.offers(Arrays.asList(expectedOffer));
@@ -538,6 +541,23 @@ public class DefaultSchedulerTest {
         return Collections.emptyList();
     }
 
+    @Test
+    public void testTaskStatusesStorageFailureThrown() throws Exception {
+        List<Protos.TaskID> taskIds = install();
+        persister = spy(persister);
+        defaultScheduler = getScheduler(getServiceSpec(podA, podB));
+        doThrow(new PersisterException(StorageError.Reason.STORAGE_ERROR, "test failure")).when(persister).get(any());
+
+        // Failing to read the task must not be treated as the task being unknown, which would have the status acked:
+        try {
+            defaultScheduler.taskStatuses(Collections.singletonList(
+                    getTaskStatus(taskIds.get(0), Protos.TaskState.TASK_FAILED)));
+            Assert.fail("Expected storage failure to be thrown");
+        } catch (StateStoreException e) {
+            Assert.assertEquals(StorageError.Reason.STORAGE_ERROR, e.getReason());
+        }
+    }
+
     @Test
     public void testTaskIpIsStoredOnInstall() throws Exception {
         install();
@@ -618,7 +638,7 @@ public class DefaultSchedulerTest {
         Assert.assertTrue(getRecoveryPlan().isComplete());
 
         // Kick getClientStatus() before calling offers():
-        Assert.assertEquals(ClientStatusResponse.footprint(true), defaultScheduler.getClientStatus());
+        Assert.assertEquals(ClientStatusResponse.footprint(true).withRoles(ROLES), defaultScheduler.getClientStatus());
 
         // Deployment hasn't finished, so service isn't FINISHED:
         OfferResponse offerResponse = defaultScheduler.offers(Collections.emptyList());
@@ -645,7 +665,7 @@ public class DefaultSchedulerTest {
         // Implementation detail: Now that the recovery action is pending, the scheduler should have reverted to a
         // launching state so that it starts getting offers again. In practice, though, by this point it would already
         // be switched over to an UninstallScheduler at this point.
-        Assert.assertEquals(ClientStatusResponse.launching(true), defaultScheduler.getClientStatus());
+        Assert.assertEquals(ClientStatusResponse.launching(true).withRoles(ROLES), defaultScheduler.getClientStatus());
         Assert.assertTrue(getDeploymentPlan().isComplete());
         Assert.assertFalse(getRecoveryPlan().isComplete());
         Assert.assertEquals(Arrays.asList(Status.PENDING), getStepStatuses(getRecoveryPlan()));
@@ -653,7 +673,7 @@ public class DefaultSchedulerTest {
         Assert.assertEquals(OfferResponse.Result.PROCESSED, defaultScheduler.offers(Collections.emptyList()).result);
 
         // After giving offers a kick, we're running again:
-        Assert.assertEquals(ClientStatusResponse.launching(false), defaultScheduler.getClientStatus());
+        Assert.assertEquals(ClientStatusResponse.launching(false).withRoles(ROLES), defaultScheduler.getClientStatus());
         Assert.assertTrue(getDeploymentPlan().isComplete());
         Assert.assertFalse(getRecoveryPlan().isComplete());
     }
@@ -861,7 +881,7 @@ public class DefaultSchedulerTest {
             throws Exception {
 
         // Kick getClientStatus() in preparation for the following offers() call
-        Assert.assertEquals(ClientStatusResponse.footprint(hasNewWork), defaultScheduler.getClientStatus());
+        Assert.assertEquals(ClientStatusResponse.footprint(hasNewWork).withRoles(ROLES), defaultScheduler.getClientStatus());
 
         // After updating plan state, get first Step associated with Task A-0
         Step step = getDeploymentPlan().getChildren().get(phaseIndex).getChildren().get(stepIndex);
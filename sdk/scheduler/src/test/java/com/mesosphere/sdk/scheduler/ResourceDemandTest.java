@@ -0,0 +1,94 @@
+package com.mesosphere.sdk.scheduler;
+
+import com.mesosphere.sdk.scheduler.plan.DefaultPodInstance;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.scheduler.plan.Step;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import com.mesosphere.sdk.testutils.TestPodFactory;
+import org.apache.mesos.Protos;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ResourceDemand}.
+ */
+public class ResourceDemandTest {
+
+    @Test
+    public void testSufficientOffer() {
+        ResourceDemand demand = ResourceDemand.fromSteps(Collections.singletonList(getStep(1, 1000, 2000))).get();
+        Assert.assertEquals(Optional.empty(), demand.getShortfall(getOffer(1, 1000, 2000)));
+    }
+
+    @Test
+    public void testInsufficientOffer() {
+        ResourceDemand demand = ResourceDemand.fromSteps(Collections.singletonList(getStep(4, 1000, 2000))).get();
+        Assert.assertEquals(Optional.of("insufficient cpus"), demand.getShortfall(getOffer(1, 1000, 2000)));
+        Assert.assertEquals(Optional.of("insufficient disk"), demand.getShortfall(getOffer(4, 1000, 10)));
+    }
+
+    @Test
+    public void testMinimumOfSteps() {
+        ResourceDemand demand = ResourceDemand.fromSteps(
+                Arrays.asList(getStep(4, 100, 2000), getStep(1, 1000, 2000))).get();
+        // Neither step would fit, but it's cheaper to leave that to the evaluator:
+        Assert.assertEquals(Optional.empty(), demand.getShortfall(getOffer(1, 100, 2000)));
+        Assert.assertEquals(Optional.of("insufficient mem"), demand.getShortfall(getOffer(4, 10, 2000)));
+    }
+
+    @Test
+    public void testOtherRoleNotConsumable() {
+        ResourceDemand demand = ResourceDemand.fromSteps(Collections.singletonList(getStep(1, 1000, 2000))).get();
+        Protos.Offer offer = getOffer(1, 1000, 2000);
+        Protos.Offer.Builder offerBuilder = offer.toBuilder();
+        offerBuilder.getResourcesBuilder(0).getAllocationInfoBuilder().setRole("other-role");
+        Assert.assertEquals(Optional.of("insufficient cpus"), demand.getShortfall(offerBuilder.build()));
+    }
+
+    @Test
+    public void testNoPendingSteps() {
+        ResourceDemand demand = ResourceDemand.fromSteps(Collections.emptyList()).get();
+        Assert.assertEquals(Optional.of("no pending steps"), demand.getShortfall(getOffer(1, 1000, 2000)));
+    }
+
+    @Test
+    public void testStepWithoutRequirementIsUnbounded() {
+        Step step = mock(Step.class);
+        when(step.getPodInstanceRequirement()).thenReturn(Optional.empty());
+        Assert.assertFalse(ResourceDemand.fromSteps(Arrays.asList(getStep(1, 1000, 2000), step)).isPresent());
+    }
+
+    private static Step getStep(double cpus, double mem, double disk) {
+        PodSpec podSpec = TestPodFactory.getPodSpec(
+                TestConstants.POD_TYPE,
+                TestConstants.RESOURCE_SET_ID,
+                TestConstants.TASK_NAME,
+                TestConstants.TASK_CMD,
+                TestConstants.SERVICE_USER,
+                1,
+                cpus,
+                mem,
+                disk);
+        Step step = mock(Step.class);
+        when(step.getPodInstanceRequirement()).thenReturn(Optional.of(PodInstanceRequirement.newBuilder(
+                new DefaultPodInstance(podSpec, 0),
+                Collections.singletonList(TestConstants.TASK_NAME)).build()));
+        return step;
+    }
+
+    private static Protos.Offer getOffer(double cpus, double mem, double disk) {
+        return OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpus(cpus),
+                ResourceTestUtils.getUnreservedMem(mem),
+                ResourceTestUtils.getUnreservedDisk(disk)));
+    }
+}
@@ -16,13 +16,17 @@ import com.mesosphere.sdk.offer.CommonIdUtils;
 import com.mesosphere.sdk.offer.Constants;
 import com.mesosphere.sdk.offer.OfferRecommendation;
 import com.mesosphere.sdk.offer.ReserveOfferRecommendation;
+import com.mesosphere.sdk.offer.taskdata.AuxLabelAccess;
 import com.mesosphere.sdk.scheduler.MesosEventClient.OfferResponse;
 import com.mesosphere.sdk.scheduler.MesosEventClient.ClientStatusResponse;
 import com.mesosphere.sdk.scheduler.MesosEventClient.TaskStatusResponse;
+import com.mesosphere.sdk.scheduler.ResourceDemand;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
 import com.mesosphere.sdk.scheduler.uninstall.DeregisterStep;
 import com.mesosphere.sdk.specification.ServiceSpec;
 import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.storage.StorageError.Reason;
 import com.mesosphere.sdk.testutils.TestConstants;
 
 import static org.mockito.Mockito.*;
@@ -264,6 +268,22 @@ public class MultiServiceEventClientTest {
         verify(mockMultiServiceManager).uninstallServices(Arrays.asList("2", "4"));
     }
 
+    @Test
+    public void workingRolesAreCombined() throws Exception {
+        when(mockMultiServiceManager.sharedLockAndGetServices()).thenReturn(Arrays.asList(mockClient1, mockClient2));
+        when(mockClient1.getClientStatus())
+                .thenReturn(ClientStatusResponse.launching(false).withRoles(Collections.singleton("role-a")));
+        when(mockClient2.getClientStatus())
+                .thenReturn(ClientStatusResponse.launching(true).withRoles(Collections.singleton("role-b")));
+        Assert.assertEquals(
+                ClientStatusResponse.launching(true).withRoles(Arrays.asList("role-a", "role-b")),
+                client.getClientStatus());
+
+        // Services which don't specify their roles may need offers for any role:
+        when(mockClient2.getClientStatus()).thenReturn(ClientStatusResponse.footprint(true));
+        Assert.assertEquals(ClientStatusResponse.footprint(true), client.getClientStatus());
+    }
+
     @Test
     public void emptyOffersHitAllServices() throws Exception {
         Collection<AbstractScheduler> services =
@@ -372,6 +392,72 @@ public class MultiServiceEventClientTest {
                 middleOffer)); // 8 ate last
     }
 
+    @Test
+    public void offerReservationsToServicesConcurrently() {
+        when(mockSchedulerConfig.getMultiServiceOfferParallelism()).thenReturn(4);
+        client = buildClient(false);
+
+        // Client 1: no change to offers
+        // Client 2,3: consumes the first offer
+        when(mockClient1.offers(any())).then(NO_CHANGES);
+        when(mockClient1.getClientStatus()).thenReturn(ClientStatusResponse.launching(false));
+        when(mockClient2.offers(any())).then(CONSUME_FIRST_OFFER);
+        when(mockClient2.getClientStatus()).thenReturn(ClientStatusResponse.launching(false));
+        when(mockClient3.offers(any())).then(CONSUME_FIRST_OFFER);
+        when(mockClient3.getClientStatus()).thenReturn(ClientStatusResponse.launching(false));
+        when(mockMultiServiceManager.sharedLockAndGetServices()).thenReturn(Arrays.asList(
+                mockClient1, mockClient2, mockClient3));
+
+        Assert.assertEquals(ClientStatusResponse.launching(false), client.getClientStatus());
+
+        // Offer 1 has reservations for 3, offer 2 is unreserved, offer 3 has reservations for both 2 and 3.
+        Protos.Offer offer1 = getReservedOffer(1, "3");
+        Protos.Offer offer2 = getOffer(2);
+        Protos.Offer offer3 = getReservedOffer(3, "3", "2");
+        OfferResponse response = client.offers(Arrays.asList(offer1, offer2, offer3));
+        Assert.assertEquals(OfferResponse.Result.PROCESSED, response.result);
+        // Reserved offers are consumed first, then the remaining offer is consumed in the usual order:
+        Assert.assertEquals(3, response.recommendations.size());
+        Assert.assertEquals("3", response.recommendations.get(0).getOfferId().getValue());
+        Assert.assertEquals("1", response.recommendations.get(1).getOfferId().getValue());
+        Assert.assertEquals("2", response.recommendations.get(2).getOfferId().getValue());
+
+        // Offer 3 goes to 2, which was selected before 3:
+        verify(mockClient2).offers(Collections.singletonList(offer3));
+        verify(mockClient3).offers(Collections.singletonList(offer1));
+        // The unreserved offer is then given to each service in turn:
+        verify(mockClient1).offers(Collections.singletonList(offer2));
+        verify(mockClient2).offers(Collections.singletonList(offer2));
+        // 3 already had its turn, and there are no offers left to give it:
+        verify(mockClient3, times(1)).offers(any());
+    }
+
+    @Test
+    public void offersFilteredByDemand() {
+        ResourceDemand mockDemand = mock(ResourceDemand.class);
+        when(mockDemand.getShortfall(any())).thenReturn(Optional.empty());
+        when(mockDemand.getShortfall(getOffer(1))).thenReturn(Optional.of("insufficient cpus"));
+        when(mockClient1.offers(any())).then(NO_CHANGES);
+        when(mockClient1.getClientStatus()).thenReturn(ClientStatusResponse.launching(false));
+        when(mockClient1.getOfferDemand()).thenReturn(Optional.of(mockDemand));
+        when(mockClient2.offers(any())).then(NO_CHANGES);
+        when(mockClient2.getClientStatus()).thenReturn(ClientStatusResponse.launching(false));
+        when(mockMultiServiceManager.sharedLockAndGetServices()).thenReturn(Arrays.asList(mockClient1, mockClient2));
+
+        Assert.assertEquals(ClientStatusResponse.launching(false), client.getClientStatus());
+
+        OfferResponse response = client.offers(Arrays.asList(getOffer(1), getOffer(2)));
+        Assert.assertEquals(OfferResponse.Result.PROCESSED, response.result);
+        // Client 1 doesn't see the offer which can't meet its demand, while client 2 has no known demand:
+        verify(mockClient1).offers(Collections.singletonList(getOffer(2)));
+        verify(mockClient2).offers(Arrays.asList(getOffer(1), getOffer(2)));
+
+        // Client 1 is still given an empty list of offers to turn the crank:
+        response = client.offers(Collections.singletonList(getOffer(1)));
+        Assert.assertEquals(OfferResponse.Result.PROCESSED, response.result);
+        verify(mockClient1).offers(Collections.emptyList());
+    }
+
     @Test
     public void offerSomeClientsNotReady() {
         when(mockClient1.getClientStatus()).thenReturn(ClientStatusResponse.launching(false));
@@ -530,6 +616,48 @@ public class MultiServiceEventClientTest {
         verify(mockClient3, times(1)).taskStatus(status);
     }
 
+    @Test
+    public void taskStatusesGroupedByService() {
+        Protos.TaskStatus status2a = buildStatus("2");
+        Protos.TaskStatus status3 = buildStatus("3");
+        Protos.TaskStatus statusUnknown = buildStatus("4");
+        Protos.TaskStatus status2b = Protos.TaskStatus.newBuilder(buildStatus("2"))
+                .setTaskId(CommonIdUtils.toTaskId("2", "bar"))
+                .build();
+        when(mockMultiServiceManager.getMatchingService(status2a)).thenReturn(Optional.of(mockClient2));
+        when(mockMultiServiceManager.getMatchingService(status2b)).thenReturn(Optional.of(mockClient2));
+        when(mockMultiServiceManager.getMatchingService(status3)).thenReturn(Optional.of(mockClient3));
+        when(mockMultiServiceManager.getMatchingService(statusUnknown)).thenReturn(Optional.empty());
+        when(mockMultiServiceManager.getServiceSanitized(any())).thenReturn(Optional.empty());
+        when(mockClient2.taskStatuses(any()))
+                .thenReturn(Arrays.asList(TaskStatusResponse.processed(), TaskStatusResponse.unknownTask()));
+        when(mockClient3.taskStatuses(any())).thenReturn(Collections.singletonList(TaskStatusResponse.processed()));
+
+        List<TaskStatusResponse> responses =
+                client.taskStatuses(Arrays.asList(status2a, status3, statusUnknown, status2b));
+
+        // Each service is given all of its statuses at once, and the responses are returned in the original order:
+        verify(mockClient2, times(1)).taskStatuses(Arrays.asList(status2a, status2b));
+        verify(mockClient3, times(1)).taskStatuses(Collections.singletonList(status3));
+        verify(mockClient2, never()).taskStatus(any());
+        verify(mockClient3, never()).taskStatus(any());
+        Assert.assertEquals(4, responses.size());
+        Assert.assertEquals(TaskStatusResponse.Result.PROCESSED, responses.get(0).result);
+        Assert.assertEquals(TaskStatusResponse.Result.PROCESSED, responses.get(1).result);
+        Assert.assertEquals(TaskStatusResponse.Result.UNKNOWN_TASK, responses.get(2).result);
+        Assert.assertEquals(TaskStatusResponse.Result.UNKNOWN_TASK, responses.get(3).result);
+    }
+
+    @Test(expected = StateStoreException.class)
+    public void taskStatusesStorageFailurePropagated() {
+        Protos.TaskStatus status = buildStatus("2");
+        when(mockMultiServiceManager.getMatchingService(status)).thenReturn(Optional.of(mockClient2));
+        when(mockClient2.taskStatuses(any()))
+                .thenThrow(new StateStoreException(Reason.STORAGE_ERROR, "test failure"));
+
+        client.taskStatuses(Collections.singletonList(status));
+    }
+
     private MultiServiceEventClient buildClient(boolean uninstalling) {
         return new MultiServiceEventClient(
                 TestConstants.SERVICE_NAME,
@@ -567,6 +695,16 @@ public class MultiServiceEventClientTest {
                 .build();
     }
 
+    private static Protos.Offer getReservedOffer(int id, String... serviceNames) {
+        Protos.Offer.Builder builder = getOffer(id).toBuilder();
+        for (String serviceName : serviceNames) {
+            Protos.Resource.Builder resourceBuilder = getUnreservedCpus(1).toBuilder();
+            AuxLabelAccess.setResourceNamespace(resourceBuilder.addReservationsBuilder(), serviceName);
+            builder.addResources(resourceBuilder);
+        }
+        return builder.build();
+    }
+
     @SuppressWarnings("unchecked")
     private static List<Protos.Offer> getOffersArgument(InvocationOnMock invocation) {
         return (List<Protos.Offer>) invocation.getArguments()[0];
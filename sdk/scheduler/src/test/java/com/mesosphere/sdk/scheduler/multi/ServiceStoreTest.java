@@ -10,6 +10,7 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.mesosphere.sdk.metrics.Metrics;
 import com.mesosphere.sdk.scheduler.AbstractScheduler;
 import com.mesosphere.sdk.specification.ServiceSpec;
 import com.mesosphere.sdk.storage.MemPersister;
@@ -146,4 +147,27 @@ public class ServiceStoreTest {
         Assert.assertFalse(recovered.contains(mockSchedulerFoo));
         Assert.assertTrue(recovered.contains(mockSchedulerBar));
     }
+
+    @Test
+    public void testRecoverParallelFactoryFails() throws Exception {
+        Assert.assertEquals(mockSchedulerFoo, store.put(FOO_CONTEXT));
+        Assert.assertEquals(mockSchedulerBar, store.put(BAR_CONTEXT));
+        long priorBarBuilds = Metrics.getRegistry().timer("services.recovery.build.bar").getCount();
+        long priorFailures = Metrics.getRegistry().counter("services.recovery.failures").getCount();
+
+        store = new ServiceStore(persister, mockServiceFactory, 4);
+
+        // A failure of 'foo' shouldn't affect 'bar', even when they're recovered concurrently:
+        when(mockServiceFactory.buildService(FOO_CONTEXT)).thenThrow(new Exception("BANG"));
+        Collection<AbstractScheduler> recovered = store.recover();
+        Assert.assertEquals(1, recovered.size());
+        Assert.assertTrue(recovered.contains(mockSchedulerBar));
+        verify(mockServiceFactory, times(2)).buildService(FOO_CONTEXT);
+        verify(mockServiceFactory, times(2)).buildService(BAR_CONTEXT);
+
+        // Build time is recorded for each service, along with the failure:
+        Assert.assertEquals(priorBarBuilds + 1,
+                Metrics.getRegistry().timer("services.recovery.build.bar").getCount());
+        Assert.assertEquals(priorFailures + 1, Metrics.getRegistry().counter("services.recovery.failures").getCount());
+    }
 }
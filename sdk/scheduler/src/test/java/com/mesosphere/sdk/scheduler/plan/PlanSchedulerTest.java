@@ -85,14 +85,30 @@ public class PlanSchedulerTest {
     public void testEvaluateNoRecommendations() throws InvalidRequirementException, IOException {
         TestOfferStep step = new TestOfferStep(podInstanceRequirement);
         step.setStatus(Status.PENDING);
-        when(mockOfferEvaluator.evaluate(podInstanceRequirement, OFFERS)).thenReturn(new ArrayList<>());
+        when(mockOfferEvaluator.evaluate(eq(podInstanceRequirement), eq(OFFERS), any())).thenReturn(new ArrayList<>());
 
         assertTrue(scheduler.resourceOffers(OFFERS, Arrays.asList(step)).isEmpty());
         assertTrue(step.recommendations.isEmpty());
-        verify(mockOfferEvaluator).evaluate(podInstanceRequirement, OFFERS);
+        verify(mockOfferEvaluator).evaluate(eq(podInstanceRequirement), eq(OFFERS), any());
         assertTrue(step.isPrepared());
     }
 
+    @Test
+    public void testLogBudgetSharedAcrossSteps() throws InvalidRequirementException, IOException {
+        LogBudget logBudget = new LogBudget(1);
+        when(mockOfferEvaluator.newLogBudget()).thenReturn(logBudget);
+        TestOfferStep step1 = new TestOfferStep(podInstanceRequirement);
+        step1.setStatus(Status.PENDING);
+        TestOfferStep step2 = new TestOfferStep(podInstanceRequirement);
+        step2.setStatus(Status.PENDING);
+        when(mockOfferEvaluator.evaluate(any(), any(), any())).thenReturn(new ArrayList<>());
+
+        assertTrue(scheduler.resourceOffers(OFFERS, Arrays.asList(step1, step2)).isEmpty());
+        // A single budget is used for the whole offer cycle:
+        verify(mockOfferEvaluator, times(1)).newLogBudget();
+        verify(mockOfferEvaluator, times(2)).evaluate(eq(podInstanceRequirement), eq(OFFERS), same(logBudget));
+    }
+
     private static class TestOfferStep extends TestStep {
         private final PodInstanceRequirement podInstanceRequirement;
         private Collection<OfferRecommendation> recommendations;
@@ -0,0 +1,96 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import com.mesosphere.sdk.scheduler.plan.strategy.ParallelStrategy;
+import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the cached statuses of {@link DefaultPhase} and {@link DefaultPlan}.
+ */
+public class StatusCacheTest {
+
+    private TestStep step1;
+    private TestStep step2;
+    private DefaultPhase phase;
+    private DefaultPlan plan;
+
+    @Before
+    public void beforeEach() {
+        step1 = new TestStep();
+        step2 = new TestStep();
+        phase = new DefaultPhase(
+                "phase", Arrays.asList(step1, step2), new SerialStrategy<>(), Collections.emptyList());
+        plan = new DefaultPlan("plan", Collections.singletonList(phase));
+    }
+
+    @Test
+    public void testStatusCached() {
+        Assert.assertEquals(Status.PENDING, plan.getStatus());
+        Assert.assertTrue(phase.isStatusStable());
+        Assert.assertTrue(plan.isStatusStable());
+    }
+
+    @Test
+    public void testStepChangesPropagated() {
+        Assert.assertEquals(Status.PENDING, plan.getStatus());
+
+        step1.setStatus(Status.COMPLETE);
+        Assert.assertFalse(phase.isStatusStable());
+        Assert.assertFalse(plan.isStatusStable());
+        Assert.assertEquals(Status.IN_PROGRESS, plan.getStatus());
+        Assert.assertEquals(Status.IN_PROGRESS, phase.getStatus());
+
+        step2.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Status.COMPLETE, plan.getStatus());
+        Assert.assertEquals(Status.COMPLETE, phase.getStatus());
+    }
+
+    @Test
+    public void testDelayedStepNotCached() {
+        step1.setStatus(Status.DELAYED);
+        step2.setStatus(Status.DELAYED);
+        Assert.assertEquals(Status.DELAYED, plan.getStatus());
+        Assert.assertFalse(phase.isStatusStable());
+        Assert.assertFalse(plan.isStatusStable());
+    }
+
+    @Test
+    public void testInterruptReflected() {
+        Assert.assertEquals(Status.PENDING, plan.getStatus());
+
+        phase.interrupt();
+        Assert.assertEquals(Status.WAITING, phase.getStatus());
+        Assert.assertEquals(Status.WAITING, plan.getStatus());
+
+        phase.proceed();
+        Assert.assertEquals(Status.PENDING, plan.getStatus());
+
+        // Strategies may also be interrupted directly:
+        plan.getStrategy().interrupt();
+        Assert.assertEquals(Status.WAITING, plan.getStatus());
+        plan.getStrategy().proceed();
+        Assert.assertEquals(Status.PENDING, plan.getStatus());
+    }
+
+    @Test
+    public void testNonObservableChildrenNotCached() {
+        Step mockStep = Mockito.mock(Step.class);
+        when(mockStep.getStatus()).thenReturn(Status.COMPLETE);
+        DefaultPhase mockPhase = new DefaultPhase(
+                "mock-phase", Collections.singletonList(mockStep), new ParallelStrategy<>(), Collections.emptyList());
+
+        Assert.assertEquals(Status.COMPLETE, mockPhase.getStatus());
+        Assert.assertFalse(mockPhase.isStatusStable());
+
+        when(mockStep.getStatus()).thenReturn(Status.ERROR);
+        Assert.assertEquals(Status.ERROR, mockPhase.getStatus());
+    }
+}
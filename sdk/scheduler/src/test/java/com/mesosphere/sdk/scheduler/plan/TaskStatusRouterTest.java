@@ -0,0 +1,105 @@
+package com.mesosphere.sdk.scheduler.plan;
+
+import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
+import org.apache.mesos.Protos;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link TaskStatusRouter}.
+ */
+public class TaskStatusRouterTest {
+
+    private static final Protos.TaskID TASK_ID_1 = Protos.TaskID.newBuilder().setValue("task-1").build();
+    private static final Protos.TaskID TASK_ID_2 = Protos.TaskID.newBuilder().setValue("task-2").build();
+    private static final Protos.TaskID UNKNOWN_TASK_ID = Protos.TaskID.newBuilder().setValue("unknown").build();
+
+    @Mock private RoutableStep mockStep1;
+    @Mock private RoutableStep mockStep2;
+    @Mock private Step mockUnroutedStep;
+
+    private Consumer<Collection<Protos.TaskID>> step1Listener;
+    private TaskStatusRouter router;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void beforeEach() {
+        MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> {
+            step1Listener = invocation.getArgument(0);
+            step1Listener.accept(Collections.singletonList(TASK_ID_1));
+            return null;
+        }).when(mockStep1).addTaskIdListener(any());
+        doAnswer(invocation -> {
+            ((Consumer<Collection<Protos.TaskID>>) invocation.getArgument(0))
+                    .accept(Collections.singletonList(TASK_ID_2));
+            return null;
+        }).when(mockStep2).addTaskIdListener(any());
+
+        Phase phase = new DefaultPhase(
+                "phase",
+                Arrays.asList(mockStep1, mockStep2, mockUnroutedStep),
+                new SerialStrategy<>(),
+                Collections.emptyList());
+        router = new TaskStatusRouter(new DefaultPlan("plan", Collections.singletonList(phase)));
+    }
+
+    @Test
+    public void testRoutedToOwner() {
+        Protos.TaskStatus status = getStatus(TASK_ID_1);
+        router.update(status);
+        verify(mockStep1).update(status);
+        verify(mockStep2, never()).update(any());
+        verify(mockUnroutedStep).update(status);
+    }
+
+    @Test
+    public void testUnknownTaskBroadcast() {
+        Protos.TaskStatus status = getStatus(UNKNOWN_TASK_ID);
+        router.update(status);
+        verify(mockStep1).update(status);
+        verify(mockStep2).update(status);
+        verify(mockUnroutedStep).update(status);
+    }
+
+    @Test
+    public void testReindexedOnRelaunch() {
+        step1Listener.accept(Collections.singletonList(UNKNOWN_TASK_ID));
+
+        Protos.TaskStatus oldStatus = getStatus(TASK_ID_1);
+        router.update(oldStatus);
+        // No longer owned by any step, so it's broadcast:
+        verify(mockStep1).update(oldStatus);
+        verify(mockStep2).update(oldStatus);
+
+        Protos.TaskStatus newStatus = getStatus(UNKNOWN_TASK_ID);
+        router.update(newStatus);
+        verify(mockStep1).update(newStatus);
+        verify(mockStep2, never()).update(newStatus);
+    }
+
+    @Test
+    public void testCustomPlanBroadcast() {
+        Plan mockPlan = mock(Plan.class);
+        Protos.TaskStatus status = getStatus(TASK_ID_1);
+        new TaskStatusRouter(mockPlan).update(status);
+        verify(mockPlan).update(status);
+    }
+
+    private static Protos.TaskStatus getStatus(Protos.TaskID taskId) {
+        return Protos.TaskStatus.newBuilder()
+                .setTaskId(taskId)
+                .setState(Protos.TaskState.TASK_RUNNING)
+                .build();
+    }
+}
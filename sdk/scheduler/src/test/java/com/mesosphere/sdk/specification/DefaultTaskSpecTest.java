@@ -14,7 +14,34 @@ import java.util.Collections;
 public class DefaultTaskSpecTest {
     @Test
     public void cloneTaskSpec() {
-        DefaultTaskSpec original = DefaultTaskSpec.newBuilder()
+        DefaultTaskSpec original = getTaskSpec();
+        DefaultTaskSpec clone = DefaultTaskSpec.newBuilder(original).build();
+        Assert.assertEquals(original, clone);
+        Assert.assertEquals(original.hashCode(), clone.hashCode());
+    }
+
+    @Test
+    public void testHashCodeConsistentWithEquals() {
+        DefaultTaskSpec original = getTaskSpec();
+
+        // The resource set id isn't compared, so it mustn't affect the hash either:
+        DefaultTaskSpec renamedResourceSet = DefaultTaskSpec.newBuilder(original)
+                .resourceSet(DefaultResourceSet.newBuilder((DefaultResourceSet) original.getResourceSet())
+                        .id("other-rs-id")
+                        .build())
+                .build();
+        Assert.assertEquals(original, renamedResourceSet);
+        Assert.assertEquals(original.hashCode(), renamedResourceSet.hashCode());
+
+        DefaultTaskSpec changedCommand = DefaultTaskSpec.newBuilder(original)
+                .commandSpec(DefaultCommandSpec.newBuilder(Collections.emptyMap()).value("./other-cmd").build())
+                .build();
+        Assert.assertNotEquals(original, changedCommand);
+        Assert.assertNotEquals(changedCommand, original);
+    }
+
+    private static DefaultTaskSpec getTaskSpec() {
+        return DefaultTaskSpec.newBuilder()
                 .name("task")
                 .goalState(GoalState.RUNNING)
                 .essential(false)
@@ -65,8 +92,5 @@ public class DefaultTaskSpecTest {
                 .sharedMemory("PRIVATE")
                 .sharedMemorySize(256)
                 .build();
-
-        DefaultTaskSpec clone = DefaultTaskSpec.newBuilder(original).build();
-        Assert.assertEquals(original, clone);
     }
 }
@@ -1,6 +1,8 @@
 package com.mesosphere.sdk.state;
 
+import com.codahale.metrics.Counter;
 import com.mesosphere.sdk.config.StringConfiguration;
+import com.mesosphere.sdk.metrics.Metrics;
 import com.mesosphere.sdk.storage.MemPersister;
 import com.mesosphere.sdk.storage.Persister;
 import com.mesosphere.sdk.storage.PersisterException;
@@ -11,7 +13,9 @@ import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -148,6 +152,201 @@ public class ConfigStoreTest {
         Assert.assertTrue(store.hasKey(testId));
     }
 
+    @Test
+    public void testFetchUsesCache() throws Exception {
+        UUID testId = store.store(testConfig);
+        Counter hits = Metrics.getRegistry().counter("configs.cache.hits");
+        Counter misses = Metrics.getRegistry().counter("configs.cache.misses");
+
+        // Config was cached when it was stored:
+        long hitsBefore = hits.getCount();
+        long missesBefore = misses.getCount();
+        Assert.assertSame(testConfig, store.fetch(testId));
+        Assert.assertEquals(1, hits.getCount() - hitsBefore);
+        Assert.assertEquals(0, misses.getCount() - missesBefore);
+
+        // A separate store against the same persister must parse the config on the first fetch only:
+        ConfigStore<StringConfiguration> store2 =
+                new ConfigStore<StringConfiguration>(new StringConfiguration.Factory(), persister);
+        hitsBefore = hits.getCount();
+        missesBefore = misses.getCount();
+        StringConfiguration fetched = store2.fetch(testId);
+        Assert.assertEquals(testConfig, fetched);
+        Assert.assertSame(fetched, store2.fetch(testId));
+        Assert.assertEquals(1, hits.getCount() - hitsBefore);
+        Assert.assertEquals(1, misses.getCount() - missesBefore);
+    }
+
+    @Test
+    public void testCacheIsBounded() throws Exception {
+        store = new ConfigStore<StringConfiguration>(
+                new StringConfiguration.Factory(), persister, Optional.empty(), 2);
+        UUID id1 = store.store(new StringConfiguration("one"));
+        UUID id2 = store.store(new StringConfiguration("two"));
+        UUID id3 = store.store(new StringConfiguration("three"));
+        Counter misses = Metrics.getRegistry().counter("configs.cache.misses");
+
+        // The least recently used config was evicted but is still retrievable from storage:
+        long missesBefore = misses.getCount();
+        store.fetch(id3);
+        store.fetch(id2);
+        Assert.assertEquals(0, misses.getCount() - missesBefore);
+        Assert.assertEquals(new StringConfiguration("one"), store.fetch(id1));
+        Assert.assertEquals(1, misses.getCount() - missesBefore);
+    }
+
+    @Test(expected=ConfigStoreException.class)
+    public void testClearEvictsCache() throws Exception {
+        UUID testId = store.store(testConfig);
+        Assert.assertSame(testConfig, store.fetch(testId));
+        store.clear(testId);
+        store.fetch(testId);
+    }
+
+    @Test
+    public void testDeltaEncodedStoreFetch() throws Exception {
+        store = getDeltaStore();
+        StringConfiguration config1 = getJsonConfig(100, "one");
+        StringConfiguration config2 = getJsonConfig(100, "two");
+        UUID id1 = store.store(config1);
+        store.setTargetConfig(id1);
+        UUID id2 = store.store(config2);
+
+        // Both configs share the same base, and the second only contains the difference:
+        Assert.assertEquals(1, persister.getChildren("Configurations/Bases").size());
+        byte[] stored2 = persister.get("Configurations/" + id2);
+        Assert.assertTrue(new String(stored2, StandardCharsets.UTF_8).startsWith("CONFIG-DELTA-V1\n"));
+        Assert.assertTrue(stored2.length < config2.getBytes().length / 10);
+
+        // Bases aren't listed as configurations:
+        Assert.assertEquals(2, store.list().size());
+
+        // A separate store is able to materialize both configs, regardless of whether it stores deltas itself:
+        ConfigStore<StringConfiguration> store2 =
+                new ConfigStore<StringConfiguration>(new StringConfiguration.Factory(), persister);
+        Assert.assertEquals(config1, store2.fetch(id1));
+        Assert.assertEquals(config2, store2.fetch(id2));
+    }
+
+    @Test
+    public void testDeltaEncodingRebase() throws Exception {
+        store = getDeltaStore();
+        UUID id1 = store.store(getJsonConfig(100, "one"));
+        store.setTargetConfig(id1);
+        // A config which shares nothing with the base is stored against a new base:
+        StringConfiguration config2 = getJsonConfig(100, "two", "other");
+        UUID id2 = store.store(config2);
+        Assert.assertEquals(2, persister.getChildren("Configurations/Bases").size());
+        Assert.assertEquals(config2, getDeltaStore().fetch(id2));
+
+        // Bases are cleaned up once they're no longer referenced:
+        store.clear(id1);
+        Assert.assertEquals(1, persister.getChildren("Configurations/Bases").size());
+        Assert.assertEquals(config2, getDeltaStore().fetch(id2));
+        store.clear(id2);
+        Assert.assertTrue(persister.getChildren("Configurations/Bases").isEmpty());
+    }
+
+    @Test
+    public void testDeltaEncodingSkipsNonJson() throws Exception {
+        store = getDeltaStore();
+        UUID id = store.store(testConfig);
+        Assert.assertArrayEquals(testConfig.getBytes(), persister.get("Configurations/" + id));
+        checkPathNotFound("Configurations/Bases");
+    }
+
+    @Test
+    public void testValidate() throws Exception {
+        store = getDeltaStore();
+        UUID fullId = new ConfigStore<StringConfiguration>(new StringConfiguration.Factory(), persister)
+                .store(getJsonConfig(10, "full"));
+        UUID id1 = store.store(getJsonConfig(100, "one"));
+        store.setTargetConfig(id1);
+        UUID id2 = store.store(getJsonConfig(100, "two"));
+
+        ConfigStore<StringConfiguration> store2 = getDeltaStore();
+        for (UUID id : store2.list()) {
+            store2.validate(id);
+        }
+
+        // Delta-encoded configs are invalid once their base is missing:
+        String basePath = "Configurations/Bases/" + persister.getChildren("Configurations/Bases").iterator().next();
+        persister.recursiveDelete(basePath);
+        store2 = getDeltaStore();
+        store2.validate(fullId);
+        checkValidateFails(store2, id1, StorageError.Reason.NOT_FOUND);
+        checkValidateFails(store2, id2, StorageError.Reason.NOT_FOUND);
+
+        // ... or if the delta itself is corrupt:
+        persister.set(basePath, getJsonConfig(100, "one").getBytes());
+        persister.set("Configurations/" + id2, "CONFIG-DELTA-V1\n{\"base\":".getBytes(StandardCharsets.UTF_8));
+        store2 = getDeltaStore();
+        store2.validate(id1);
+        checkValidateFails(store2, id2, StorageError.Reason.SERIALIZATION_ERROR);
+    }
+
+    @Test
+    public void testValidateAppliesDelta() throws Exception {
+        store = getDeltaStore();
+        UUID id1 = store.store(getJsonConfig(100, "one"));
+        store.setTargetConfig(id1);
+        UUID id2 = store.store(getJsonConfig(100, "two"));
+
+        // The base is still readable, but the second config's patch no longer matches it:
+        String basePath = "Configurations/Bases/" + persister.getChildren("Configurations/Bases").iterator().next();
+        persister.set(basePath, "{\"name\":\"svc\"}".getBytes(StandardCharsets.UTF_8));
+        ConfigStore<StringConfiguration> store2 = getDeltaStore();
+        checkValidateFails(store2, id2, StorageError.Reason.SERIALIZATION_ERROR);
+    }
+
+    @Test
+    public void testClearAll() throws Exception {
+        store = getDeltaStore();
+        UUID id1 = store.store(getJsonConfig(100, "one"));
+        store.setTargetConfig(id1);
+        UUID id2 = store.store(getJsonConfig(100, "two"));
+        UUID id3 = store.store(getJsonConfig(100, "three", "other"));
+        Assert.assertEquals(2, persister.getChildren("Configurations/Bases").size());
+
+        // Missing configs are skipped, and the base which is no longer referenced is cleaned up:
+        store.clearAll(Arrays.asList(id1, id2, UUID.randomUUID()));
+        Assert.assertEquals(Collections.singletonList(id3), new ArrayList<>(store.list()));
+        Assert.assertEquals(1, persister.getChildren("Configurations/Bases").size());
+        Assert.assertEquals(getJsonConfig(100, "three", "other"), getDeltaStore().fetch(id3));
+
+        store.clearAll(Collections.emptyList());
+        Assert.assertEquals(1, persister.getChildren("Configurations/Bases").size());
+    }
+
+    private ConfigStore<StringConfiguration> getDeltaStore() {
+        return new ConfigStore<StringConfiguration>(
+                new StringConfiguration.Factory(), persister, Optional.empty(), ConfigStore.DEFAULT_CACHE_SIZE, true);
+    }
+
+    private static StringConfiguration getJsonConfig(int podCount, String option) {
+        return getJsonConfig(podCount, option, "pod");
+    }
+
+    /**
+     * Returns a compact JSON config, matching how materialized configs are serialized.
+     */
+    private static StringConfiguration getJsonConfig(int podCount, String option, String podPrefix) {
+        StringBuilder sb = new StringBuilder("{\"name\":\"svc\",\"option\":\"").append(option).append("\",\"pods\":[");
+        sb.append(String.join(",", Collections.nCopies(podCount,
+                "{\"type\":\"" + podPrefix + "\",\"count\":3,\"cpus\":1.5,\"env\":{\"KEY\":\"" + podPrefix + "\"}}")));
+        return new StringConfiguration(sb.append("]}").toString());
+    }
+
+    private static void checkValidateFails(
+            ConfigStore<StringConfiguration> store, UUID id, StorageError.Reason reason) {
+        try {
+            store.validate(id);
+            Assert.fail("Expected validation failure for " + id);
+        } catch (ConfigStoreException e) {
+            Assert.assertEquals(reason, e.getReason());
+        }
+    }
+
     private void checkPathNotFound(String path) {
         try {
             persister.get(path);
@@ -0,0 +1,80 @@
+package com.mesosphere.sdk.state;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link JsonPatch}.
+ */
+public class JsonPatchTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void testDiffApply() throws Exception {
+        JsonNode source = MAPPER.readTree(
+                "{\"a/b\":{\"c~d\":[1,2,3]},\"removed\":1,\"nested\":{\"x\":{\"y\":true}}}");
+        JsonNode target = MAPPER.readTree(
+                "{\"a/b\":{\"c~d\":[1,5]},\"nested\":{\"x\":{\"y\":false}},\"added\":[{}]}");
+        String sourceStr = source.toString();
+
+        JsonNode patch = JsonPatch.diff(source, target);
+        Assert.assertEquals(MAPPER.readTree("[" +
+                "{\"op\":\"replace\",\"path\":\"/a~1b/c~0d/1\",\"value\":5}," +
+                "{\"op\":\"remove\",\"path\":\"/a~1b/c~0d/2\"}," +
+                "{\"op\":\"remove\",\"path\":\"/removed\"}," +
+                "{\"op\":\"replace\",\"path\":\"/nested/x/y\",\"value\":false}," +
+                "{\"op\":\"add\",\"path\":\"/added\",\"value\":[{}]}]"), patch);
+        Assert.assertEquals(target, JsonPatch.apply(source, patch));
+        Assert.assertEquals(target, JsonPatch.apply(source, MAPPER.readTree(patch.toString())));
+        // The source is left as-is:
+        Assert.assertEquals(sourceStr, source.toString());
+    }
+
+    @Test
+    public void testDiffEqual() throws Exception {
+        JsonNode node = MAPPER.readTree("{\"a\":[1,{\"b\":null}]}");
+        Assert.assertEquals(0, JsonPatch.diff(node, node.deepCopy()).size());
+    }
+
+    @Test
+    public void testDiffGrowArray() throws Exception {
+        JsonNode source = MAPPER.readTree("[1]");
+        JsonNode target = MAPPER.readTree("[2,3,4]");
+        Assert.assertEquals(target, JsonPatch.apply(source, JsonPatch.diff(source, target)));
+        Assert.assertEquals(source, JsonPatch.apply(target, JsonPatch.diff(target, source)));
+    }
+
+    @Test
+    public void testReplaceRoot() throws Exception {
+        JsonNode source = MAPPER.readTree("{\"a\":1}");
+        JsonNode target = MAPPER.readTree("[1]");
+        Assert.assertEquals(target, JsonPatch.apply(source, JsonPatch.diff(source, target)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testApplyMissingPath() throws Exception {
+        JsonPatch.apply(
+                MAPPER.readTree("{\"a\":1}"),
+                MAPPER.readTree("[{\"op\":\"replace\",\"path\":\"/b/c\",\"value\":1}]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testApplyIndexOutOfBounds() throws Exception {
+        JsonPatch.apply(
+                MAPPER.readTree("{\"a\":[1]}"),
+                MAPPER.readTree("[{\"op\":\"remove\",\"path\":\"/a/1\"}]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidateUnsupportedOperation() throws Exception {
+        JsonPatch.validate(MAPPER.readTree("[{\"op\":\"move\",\"from\":\"/a\",\"path\":\"/b\"}]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidateMissingValue() throws Exception {
+        JsonPatch.validate(MAPPER.readTree("[{\"op\":\"add\",\"path\":\"/b\"}]"));
+    }
+}
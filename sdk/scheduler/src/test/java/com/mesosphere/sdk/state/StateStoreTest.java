@@ -167,6 +167,64 @@ public class StateStoreTest {
         assertTrue(PersisterUtils.getAllKeys(persister).isEmpty());
     }
 
+    @Test
+    public void testTasksVersion() throws Exception {
+        long version = store.getTasksVersion();
+        store.storeProperty(GOOD_PROPERTY_KEY, PROPERTY_VALUE.getBytes(StandardCharsets.UTF_8));
+        store.fetchTasks();
+        assertEquals(version, store.getTasksVersion());
+
+        store.storeTasks(createTasks(TestConstants.TASK_NAME));
+        assertTrue(store.getTasksVersion() > version);
+        version = store.getTasksVersion();
+
+        store.storeGoalOverrideStatus(TestConstants.TASK_NAME, GoalStateOverride.Status.INACTIVE);
+        assertTrue(store.getTasksVersion() > version);
+        version = store.getTasksVersion();
+
+        store.clearTask(TestConstants.TASK_NAME);
+        assertTrue(store.getTasksVersion() > version);
+    }
+
+    @Test
+    public void testSnapshotUpdatedOnWrite() throws Exception {
+        String otherTaskName = TestConstants.TASK_NAME + "-other";
+        store.storeTasks(createTasks(TestConstants.TASK_NAME, otherTaskName));
+        StateSnapshot snapshot = store.getSnapshot();
+        assertEquals(Arrays.asList(TestConstants.TASK_NAME, otherTaskName), new ArrayList<>(snapshot.getTaskNames()));
+        assertFalse(snapshot.getStatus(TestConstants.TASK_NAME).isPresent());
+
+        // Reused until something is written:
+        store.storeProperty(GOOD_PROPERTY_KEY, PROPERTY_VALUE.getBytes(StandardCharsets.UTF_8));
+        assertSame(snapshot, store.getSnapshot());
+
+        store.storeStatus(TestConstants.TASK_NAME, TASK_STATUS);
+        GoalStateOverride.Status pausing = GoalStateOverride.PAUSED.newStatus(GoalStateOverride.Progress.PENDING);
+        store.storeGoalOverrideStatus(otherTaskName, pausing);
+        StateSnapshot updated = store.getSnapshot();
+        assertNotEquals(snapshot.getEntityTag(), updated.getEntityTag());
+        assertSame(TASK_STATUS, updated.getStatus(TestConstants.TASK_NAME).get());
+        assertEquals(pausing, updated.getGoalOverrideStatus(otherTaskName));
+        assertEquals(GoalStateOverride.Status.INACTIVE, updated.getGoalOverrideStatus(TestConstants.TASK_NAME));
+        // The earlier snapshot is unaffected:
+        assertFalse(snapshot.getStatus(TestConstants.TASK_NAME).isPresent());
+
+        store.clearTask(otherTaskName);
+        assertEquals(
+                Collections.singletonList(TestConstants.TASK_NAME),
+                new ArrayList<>(store.getSnapshot().getTaskNames()));
+    }
+
+    @Test
+    public void testSnapshotAfterNamespaceDeleted() throws Exception {
+        store = new StateStore(persister, Optional.of(NAMESPACE));
+        store.storeTasks(createTasks(TestConstants.TASK_NAME));
+        assertEquals(1, store.getSnapshot().getTasks().size());
+
+        store.deleteAllDataIfNamespaced();
+        assertTrue(store.getSnapshot().getTasks().isEmpty());
+    }
+
     @Test
     public void testClearMissingTask() throws Exception {
         store.clearTask(TestConstants.TASK_NAME);
@@ -315,6 +373,28 @@ public class StateStoreTest {
         assertTrue(store.fetchStatuses().isEmpty());
     }
 
+    @Test
+    public void testStoreMultipleStatusesTogether() throws Exception {
+        Protos.TaskInfo taskA = createTask("a");
+        Protos.TaskInfo taskB = createTask("b");
+        store.storeTasks(Arrays.asList(taskA, taskB));
+        store.storeStatus(taskB.getName(), TASK_STATUS.toBuilder().setState(Protos.TaskState.TASK_FAILED).build());
+
+        Map<String, Protos.TaskStatus> statuses = new HashMap<>();
+        statuses.put(taskA.getName(), TASK_STATUS);
+        // Rejected: task is already in a terminal state
+        statuses.put(taskB.getName(), TASK_STATUS.toBuilder().setState(Protos.TaskState.TASK_LOST).build());
+        Map<String, StateStoreException> rejected = store.storeStatuses(statuses);
+
+        assertEquals(Collections.singleton(taskB.getName()), rejected.keySet());
+        assertEquals(TASK_STATUS, store.fetchStatus("a").get());
+        assertEquals(Protos.TaskState.TASK_FAILED, store.fetchStatus("b").get().getState());
+
+        // Written through to the persister:
+        store = new StateStore(persister);
+        assertEquals(TASK_STATUS, store.fetchStatus("a").get());
+    }
+
     @Test
     public void testStoreStatusSucceedsOnUUIDChangeWithTaskInfoUpdate() throws Exception {
         Protos.TaskInfo task = createTask(TestConstants.TASK_NAME);
@@ -565,6 +645,57 @@ public class StateStoreTest {
         assertTrue(store2.fetchStatus(TestConstants.TASK_NAME).isPresent());
     }
 
+    @Test
+    public void testFetchReturnsDecodedInstances() throws Exception {
+        Protos.TaskInfo task = createTask(TestConstants.TASK_NAME);
+        store.storeTasks(Collections.singletonList(task));
+        store.storeStatus(TestConstants.TASK_NAME, TASK_STATUS);
+
+        // The written objects are returned as-is, without being re-parsed:
+        assertSame(task, store.fetchTask(TestConstants.TASK_NAME).get());
+        assertSame(TASK_STATUS, store.fetchStatus(TestConstants.TASK_NAME).get());
+        assertSame(task, store.fetchTasks().iterator().next());
+        assertSame(TASK_STATUS, store.fetchStatuses().iterator().next());
+
+        // Reads from a separate store instance are parsed once and then reused:
+        StateStore store2 = new StateStore(persister);
+        Protos.TaskInfo fetchedTask = store2.fetchTask(TestConstants.TASK_NAME).get();
+        assertEquals(task, fetchedTask);
+        assertSame(fetchedTask, store2.fetchTask(TestConstants.TASK_NAME).get());
+    }
+
+    @Test
+    public void testFetchDetectsExternalWrites() throws Exception {
+        store.storeTasks(createTasks(TestConstants.TASK_NAME));
+        store.storeStatus(TestConstants.TASK_NAME, TASK_STATUS);
+        assertEquals(TASK_STATUS, store.fetchStatus(TestConstants.TASK_NAME).get());
+
+        // Update the status through a different store instance against the same persister:
+        Protos.TaskStatus runningStatus = TASK_STATUS.toBuilder().setState(Protos.TaskState.TASK_RUNNING).build();
+        new StateStore(persister).storeStatus(TestConstants.TASK_NAME, runningStatus);
+        assertEquals(runningStatus, store.fetchStatus(TestConstants.TASK_NAME).get());
+
+        // Clear the task through a different store instance against the same persister:
+        new StateStore(persister).clearTask(TestConstants.TASK_NAME);
+        assertFalse(store.fetchTask(TestConstants.TASK_NAME).isPresent());
+        assertFalse(store.fetchStatus(TestConstants.TASK_NAME).isPresent());
+    }
+
+    @Test
+    public void testStoreClearStoreReturnsLatest() throws Exception {
+        store.storeTasks(createTasks(TestConstants.TASK_NAME));
+        store.storeStatus(TestConstants.TASK_NAME, TASK_STATUS);
+        store.clearTask(TestConstants.TASK_NAME);
+        assertFalse(store.fetchStatus(TestConstants.TASK_NAME).isPresent());
+
+        Protos.TaskInfo updatedTask = createTask(TestConstants.TASK_NAME).toBuilder()
+                .setTaskId(CommonIdUtils.toTaskId(TestConstants.SERVICE_NAME, TestConstants.TASK_NAME))
+                .build();
+        store.storeTasks(Collections.singletonList(updatedTask));
+        assertSame(updatedTask, store.fetchTask(TestConstants.TASK_NAME).get());
+        assertFalse(store.fetchStatus(TestConstants.TASK_NAME).isPresent());
+    }
+
     private static Collection<Protos.TaskInfo> createTasks(String... taskNames) {
         List<Protos.TaskInfo> taskInfos = new ArrayList<>();
         for (String taskName : taskNames) {
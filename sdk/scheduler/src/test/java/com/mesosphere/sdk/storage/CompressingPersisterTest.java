@@ -0,0 +1,180 @@
+package com.mesosphere.sdk.storage;
+
+import com.mesosphere.sdk.framework.EnvStore;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.storage.StorageError.Reason;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests for {@link CompressingPersister}.
+ */
+public class CompressingPersisterTest {
+
+    private static final int THRESHOLD = 100;
+    private static final byte[] SMALL_VALUE = "small".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LARGE_VALUE = repeat("{\"key\": \"value\"}", 100);
+
+    private Persister underlying;
+    private Persister persister;
+
+    @Before
+    public void beforeEach() {
+        underlying = MemPersister.newBuilder().build();
+        persister = new CompressingPersister(underlying, THRESHOLD);
+    }
+
+    @Test
+    public void testSmallValueStoredAsIs() throws Exception {
+        persister.set("/small", SMALL_VALUE);
+        Assert.assertArrayEquals(SMALL_VALUE, underlying.get("/small"));
+        Assert.assertArrayEquals(SMALL_VALUE, persister.get("/small"));
+    }
+
+    @Test
+    public void testLargeValueCompressed() throws Exception {
+        persister.set("/large", LARGE_VALUE);
+        Assert.assertTrue(underlying.get("/large").length < LARGE_VALUE.length / 10);
+        Assert.assertArrayEquals(LARGE_VALUE, persister.get("/large"));
+    }
+
+    @Test
+    public void testIncompressibleValueStoredAsIs() throws Exception {
+        byte[] random = new byte[THRESHOLD * 10];
+        new Random(0).nextBytes(random);
+        random[0] = 1; // avoid an accidental header
+        persister.set("/random", random);
+        Assert.assertArrayEquals(random, underlying.get("/random"));
+        Assert.assertArrayEquals(random, persister.get("/random"));
+    }
+
+    @Test
+    public void testExistingValuesReadable() throws Exception {
+        underlying.set("/small", SMALL_VALUE);
+        underlying.set("/large", LARGE_VALUE);
+        underlying.set("/parent/child", SMALL_VALUE);
+        Assert.assertArrayEquals(SMALL_VALUE, persister.get("/small"));
+        Assert.assertArrayEquals(LARGE_VALUE, persister.get("/large"));
+        Assert.assertNull(persister.get("/parent"));
+    }
+
+    @Test
+    public void testCompressedValuesReadableWithCompressionDisabled() throws Exception {
+        persister.set("/large", LARGE_VALUE);
+        persister.set("/small", SMALL_VALUE);
+
+        // As built by the scheduler after PERSISTER_COMPRESSION_THRESHOLD_BYTES has been unset:
+        SchedulerConfig schedulerConfig = SchedulerConfig.fromEnvStore(EnvStore.fromMap(Collections.emptyMap()));
+        Persister disabled = new CompressingPersister(underlying, schedulerConfig.getPersisterCompressionThreshold());
+        Assert.assertArrayEquals(LARGE_VALUE, disabled.get("/large"));
+        Assert.assertArrayEquals(SMALL_VALUE, disabled.get("/small"));
+
+        // New values are stored as-is:
+        disabled.set("/large2", LARGE_VALUE);
+        Assert.assertArrayEquals(LARGE_VALUE, underlying.get("/large2"));
+        Assert.assertArrayEquals(LARGE_VALUE, disabled.get("/large2"));
+    }
+
+    @Test
+    public void testValueWithHeaderPreserved() throws Exception {
+        // A small value which starts like an encoded value:
+        byte[] value = {0, 'P', 'C', 'D', 1, 2, 3};
+        persister.set("/value", value);
+        Assert.assertArrayEquals(value, persister.get("/value"));
+        Assert.assertFalse(Arrays.equals(value, underlying.get("/value")));
+    }
+
+    @Test
+    public void testGetSetMany() throws Exception {
+        Map<String, byte[]> values = new HashMap<>();
+        values.put("/small", SMALL_VALUE);
+        values.put("/large", LARGE_VALUE);
+        persister.setMany(values);
+        Assert.assertArrayEquals(SMALL_VALUE, underlying.get("/small"));
+        Assert.assertTrue(underlying.get("/large").length < LARGE_VALUE.length);
+
+        Map<String, byte[]> result = persister.getMany(Arrays.asList("/small", "/large", "/missing"));
+        Assert.assertEquals(3, result.size());
+        Assert.assertArrayEquals(SMALL_VALUE, result.get("/small"));
+        Assert.assertArrayEquals(LARGE_VALUE, result.get("/large"));
+        Assert.assertNull(result.get("/missing"));
+    }
+
+    @Test
+    public void testRepeatedReadsReturnSameDecodedValue() throws Exception {
+        persister.set("/large", LARGE_VALUE);
+        // While the stored value is unchanged, the written value is returned as-is:
+        Assert.assertSame(LARGE_VALUE, persister.get("/large"));
+        Assert.assertSame(LARGE_VALUE, persister.getMany(Collections.singletonList("/large")).get("/large"));
+
+        // A value which was replaced underneath is decoded again, and then reused by later reads:
+        underlying.set("/large", underlying.get("/large").clone());
+        byte[] decoded = persister.get("/large");
+        Assert.assertNotSame(LARGE_VALUE, decoded);
+        Assert.assertArrayEquals(LARGE_VALUE, decoded);
+        Assert.assertSame(decoded, persister.get("/large"));
+
+        persister.recursiveDelete("/large");
+        persister.set("/large", SMALL_VALUE);
+        Assert.assertSame(SMALL_VALUE, persister.get("/large"));
+    }
+
+    @Test
+    public void testCompressedValueNotReadableWithOtherCodec() throws Exception {
+        persister.set("/large", LARGE_VALUE);
+        PersisterCodec deflate = new DeflatePersisterCodec();
+        PersisterCodec otherCodec = new PersisterCodec() {
+            @Override
+            public byte getId() {
+                return 2;
+            }
+
+            @Override
+            public byte[] encode(byte[] bytes) throws IOException {
+                return deflate.encode(bytes);
+            }
+
+            @Override
+            public byte[] decode(byte[] bytes, int offset, int decodedLength) throws IOException {
+                return deflate.decode(bytes, offset, decodedLength);
+            }
+        };
+        try {
+            new CompressingPersister(underlying, otherCodec, THRESHOLD).get("/large");
+            Assert.fail("Expected exception");
+        } catch (PersisterException e) {
+            Assert.assertEquals(Reason.SERIALIZATION_ERROR, e.getReason());
+        }
+    }
+
+    @Test
+    public void testCorruptValue() throws Exception {
+        persister.set("/large", LARGE_VALUE);
+        byte[] stored = underlying.get("/large");
+        underlying.set("/large", Arrays.copyOf(stored, stored.length - 4));
+        try {
+            persister.get("/large");
+            Assert.fail("Expected exception");
+        } catch (PersisterException e) {
+            Assert.assertEquals(Reason.SERIALIZATION_ERROR, e.getReason());
+        }
+    }
+
+    private static byte[] repeat(String str, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; ++i) {
+            sb.append(str);
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
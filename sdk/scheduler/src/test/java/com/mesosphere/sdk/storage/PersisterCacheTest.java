@@ -2,6 +2,7 @@ package com.mesosphere.sdk.storage;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -310,6 +311,93 @@ public class PersisterCacheTest {
         runThreads(threads);
     }
 
+    @Test
+    public void testMultithreadedNamespaces() throws InterruptedException {
+        Collection<Runnable> threads = new ArrayList<>();
+        for (int i = 0; i < 4; ++i) {
+            final String path1 = String.format("Services/svc-%d/%s", i, KEY);
+            final String path2 = String.format("Services/svc-%d/%s", i, KEY2);
+            // Writer: always updates both values together
+            threads.add(() -> {
+                try {
+                    for (int j = 0; j < 200; ++j) {
+                        byte[] val = String.valueOf(j).getBytes(StandardCharsets.UTF_8);
+                        Map<String, byte[]> values = new TreeMap<>();
+                        values.put(path1, val);
+                        values.put(path2, val);
+                        cache.setMany(values);
+                    }
+                } catch (PersisterException e) {
+                    fail(e.getMessage());
+                }
+            });
+            // Reader: must never observe a partial update, whether or not it's retried with locking
+            threads.add(() -> {
+                try {
+                    for (int j = 0; j < 200; ++j) {
+                        Map<String, byte[]> values = cache.getMany(Arrays.asList(path1, path2));
+                        assertArrayEquals(values.get(path1), values.get(path2));
+                        cache.getChildren("Services");
+                    }
+                } catch (PersisterException e) {
+                    fail(e.getMessage());
+                }
+            });
+        }
+        runThreads(threads);
+
+        for (int i = 0; i < 4; ++i) {
+            byte[] expected = "199".getBytes(StandardCharsets.UTF_8);
+            assertArrayEquals(expected, cache.get(String.format("Services/svc-%d/%s", i, KEY)));
+            assertArrayEquals(expected, cache.get(String.format("Services/svc-%d/%s", i, KEY2)));
+        }
+        assertEquals(PersisterUtils.getAllData(persister), PersisterUtils.getAllData(cache));
+    }
+
+    @Test
+    public void testLoadsPriorityNodesFirst() throws PersisterException {
+        persister.set("Services/other/Tasks/node-0/TaskInfo", VAL);
+        persister.set("Services/recovered/Tasks/node-0/TaskInfo", VAL2);
+        persister.set("ServiceList/recovered/Context", VAL);
+        persister.set("SchemaVersion", VAL);
+        persister.set("FrameworkID", VAL2);
+        persister.set("Misc", VAL);
+        Persister spyPersister = Mockito.spy(persister);
+        cache = new PersisterCache(spyPersister, mockSchedulerConfig);
+
+        assertArrayEquals(VAL, cache.get("Misc"));
+
+        InOrder inOrder = Mockito.inOrder(spyPersister);
+        inOrder.verify(spyPersister).getMany(Collections.singletonList("/FrameworkID"));
+        inOrder.verify(spyPersister).getMany(Collections.singletonList("/SchemaVersion"));
+        inOrder.verify(spyPersister).getMany(Collections.singletonList("/ServiceList"));
+        // Services listed in the ServiceList come first:
+        inOrder.verify(spyPersister).getMany(Arrays.asList("/Services/recovered", "/Services/other"));
+        inOrder.verify(spyPersister).getMany(Collections.singletonList("/Misc"));
+        assertEquals(PersisterUtils.getAllData(persister), PersisterUtils.getAllData(cache));
+    }
+
+    @Test
+    public void testIncrementalLoad() throws Exception {
+        for (int i = 0; i < 20; ++i) {
+            persister.set(String.format("Services/svc-%d/Tasks/node-0/TaskInfo", i), VAL);
+        }
+        persister.set("FrameworkID", VAL2);
+        when(mockSchedulerConfig.isStateCacheIncrementalLoadEnabled()).thenReturn(true);
+        when(mockSchedulerConfig.getStateCacheLoadParallelism()).thenReturn(4);
+        cache = new PersisterCache(persister, mockSchedulerConfig);
+
+        // Reads and writes are correct regardless of whether the background load has reached them yet:
+        assertArrayEquals(VAL2, cache.get("FrameworkID"));
+        cache.set("Services/svc-19/Tasks/node-0/TaskInfo", VAL2);
+        assertArrayEquals(VAL2, cache.get("Services/svc-19/Tasks/node-0/TaskInfo"));
+        assertArrayEquals(VAL, cache.get("Services/svc-18/Tasks/node-0/TaskInfo"));
+
+        // Whole-tree reads wait for everything to be loaded:
+        assertEquals(PersisterUtils.getAllData(persister), PersisterUtils.getAllData(cache));
+        assertEquals(PersisterUtils.getAllKeys(persister), PersisterUtils.getAllKeys(cache));
+    }
+
     private static void runThreads(Collection<Runnable> runnables) throws InterruptedException {
         final Object lock = new Object();
         final List<Throwable> errors = new ArrayList<>();
@@ -0,0 +1,57 @@
+package com.mesosphere.sdk.storage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PersisterLoader}
+ */
+public class PersisterLoaderTest {
+
+    private static final byte[] VAL = "someval".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] VAL2 = "someval2".getBytes(StandardCharsets.UTF_8);
+
+    private Persister persister;
+
+    @Before
+    public void beforeEach() throws Exception {
+        persister = MemPersister.newBuilder().build();
+        persister.set("FrameworkID", VAL);
+        persister.set("Services/a/Tasks/node-0/TaskInfo", VAL);
+        persister.set("Services/a/Tasks/node-0/TaskStatus", VAL2);
+        persister.set("Services/b/ConfigTarget", VAL2);
+        for (int i = 0; i < 1200; ++i) {
+            persister.set(String.format("Tasks/node-%d/TaskInfo", i), VAL);
+        }
+    }
+
+    @Test
+    public void testLoadAllMatchesGetAllData() throws Exception {
+        Map<String, byte[]> expected = PersisterUtils.getAllData(persister);
+        assertEquals(expected, new PersisterLoader(persister, 0).load(Collections.singletonList("/")));
+        assertEquals(expected, new PersisterLoader(persister, 4).load(Collections.singletonList("/")));
+    }
+
+    @Test
+    public void testLoadRoots() throws Exception {
+        Map<String, byte[]> expected = new TreeMap<>();
+        expected.put("/FrameworkID", VAL);
+        expected.put("/Services/a/Tasks/node-0/TaskInfo", VAL);
+        expected.put("/Services/a/Tasks/node-0/TaskStatus", VAL2);
+
+        Map<String, byte[]> loaded = new PersisterLoader(persister, 4)
+                .load(Arrays.asList("FrameworkID", "/Services/a", "/Missing"));
+        assertEquals(expected.keySet(), loaded.keySet());
+        for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), loaded.get(entry.getKey()));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.mesosphere.sdk.storage;
+
+import org.apache.curator.test.TestingServer;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.mesosphere.sdk.curator.CuratorPersister;
+import com.mesosphere.sdk.curator.CuratorTestUtils;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.storage.StorageError.Reason;
+import com.mesosphere.sdk.testutils.TestConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link WatchingPersisterCache}
+ */
+public class WatchingPersisterCacheTest {
+
+    private static final long WATCH_TIMEOUT_MS = 10000;
+    private static final long WATCH_POLL_MS = 50;
+    private static final Duration PENDING_CHANGE_TIMEOUT = Duration.ofMillis(500);
+
+    private static final String KEY = "/key";
+    private static final byte[] VAL = "someval".getBytes(StandardCharsets.UTF_8);
+    private static final String KEY2 = "/parent/key2";
+    private static final byte[] VAL2 = "someval2".getBytes(StandardCharsets.UTF_8);
+
+    private static TestingServer testZk;
+
+    @Mock private SchedulerConfig mockSchedulerConfig;
+    private Persister externalPersister;
+    private WatchingPersisterCache cache;
+
+    @BeforeClass
+    public static void beforeAll() throws Exception {
+        testZk = new TestingServer();
+    }
+
+    @AfterClass
+    public static void afterAll() throws Exception {
+        testZk.close();
+    }
+
+    @Before
+    public void beforeEach() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(mockSchedulerConfig.isDeadlockExitEnabled()).thenReturn(true);
+        CuratorTestUtils.clear(testZk);
+        externalPersister = newCuratorPersister();
+    }
+
+    @After
+    public void afterEach() {
+        if (cache != null) {
+            cache.close();
+        }
+        externalPersister.close();
+    }
+
+    @Test
+    public void testInitialData() throws Exception {
+        externalPersister.set(KEY, VAL);
+        externalPersister.set(KEY2, VAL2);
+        cache = new WatchingPersisterCache(newCuratorPersister(), mockSchedulerConfig);
+
+        assertTrue(PersisterUtils.getAllKeys(cache).containsAll(Arrays.asList(KEY, KEY2)));
+        assertArrayEquals(VAL, cache.get(KEY));
+        assertArrayEquals(VAL2, cache.get(KEY2));
+    }
+
+    @Test
+    public void testLocalWritesVisibleImmediately() throws Exception {
+        cache = new WatchingPersisterCache(newCuratorPersister(), mockSchedulerConfig);
+
+        cache.set(KEY, VAL);
+        assertArrayEquals(VAL, cache.get(KEY));
+        assertArrayEquals(VAL, externalPersister.get(KEY));
+
+        cache.set(KEY, VAL2);
+        assertArrayEquals(VAL2, cache.get(KEY));
+
+        cache.recursiveDelete(KEY);
+        assertNotFound(KEY);
+        cache.set(KEY2, VAL);
+        assertArrayEquals(VAL, cache.get(KEY2));
+        assertFalse(PersisterUtils.getAllKeys(cache).contains(KEY));
+    }
+
+    @Test
+    public void testExternalWritesApplied() throws Exception {
+        cache = new WatchingPersisterCache(newCuratorPersister(), mockSchedulerConfig);
+        assertTrue(PersisterUtils.getAllKeys(cache).isEmpty());
+
+        externalPersister.set(KEY, VAL);
+        externalPersister.set(KEY2, VAL2);
+        awaitValue(KEY, VAL);
+        awaitValue(KEY2, VAL2);
+
+        externalPersister.set(KEY, VAL2);
+        awaitValue(KEY, VAL2);
+    }
+
+    @Test
+    public void testExternalDeletesApplied() throws Exception {
+        externalPersister.set(KEY, VAL);
+        externalPersister.set(KEY2, VAL2);
+        cache = new WatchingPersisterCache(newCuratorPersister(), mockSchedulerConfig);
+        assertArrayEquals(VAL2, cache.get(KEY2));
+
+        externalPersister.recursiveDelete("/parent");
+        awaitValue(KEY2, null);
+        assertNotFound("/parent");
+        assertArrayEquals(VAL, cache.get(KEY));
+    }
+
+    @Test
+    public void testLocalWriteAfterExternalWrite() throws Exception {
+        cache = new WatchingPersisterCache(newCuratorPersister(), mockSchedulerConfig);
+
+        externalPersister.set(KEY, VAL);
+        awaitValue(KEY, VAL);
+        cache.set(KEY, VAL2);
+        // Any late events for the external write must not clobber the newer local write:
+        Thread.sleep(WATCH_POLL_MS * 10);
+        assertArrayEquals(VAL2, cache.get(KEY));
+        assertArrayEquals(VAL2, externalPersister.get(KEY));
+    }
+
+    @Test
+    public void testExternalWriteAfterDeletingMissingPath() throws Exception {
+        externalPersister.set(KEY2, VAL2);
+        cache = new WatchingPersisterCache(newCuratorPersister(), mockSchedulerConfig, PENDING_CHANGE_TIMEOUT);
+
+        // Deleting a path which doesn't exist doesn't produce any watch events:
+        cache.recursiveDeleteMany(Collections.singletonList(KEY));
+        assertNotFound(KEY);
+        externalPersister.set(KEY, VAL);
+        // The external write may be ignored while the local delete is pending, but is picked up once it expires:
+        awaitValue(KEY, VAL);
+        assertArrayEquals(VAL2, cache.get(KEY2));
+
+        // Later external writes are applied as they arrive:
+        externalPersister.set(KEY, VAL2);
+        awaitValue(KEY, VAL2);
+    }
+
+    private static CuratorPersister newCuratorPersister() {
+        return CuratorPersister.newBuilder(TestConstants.SERVICE_NAME, testZk.getConnectString())
+                .disableLock()
+                .build();
+    }
+
+    /**
+     * Waits for the provided value to show up in the cache, or for the path to be removed if the value is null.
+     */
+    private void awaitValue(String path, byte[] expected) throws Exception {
+        long deadline = System.currentTimeMillis() + WATCH_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            byte[] actual;
+            try {
+                actual = cache.get(path);
+            } catch (PersisterException e) {
+                assertEquals(Reason.NOT_FOUND, e.getReason());
+                actual = null;
+            }
+            if (Arrays.equals(expected, actual)) {
+                return;
+            }
+            Thread.sleep(WATCH_POLL_MS);
+        }
+        fail(String.format("Timed out waiting for %s to be updated in the cache", path));
+    }
+
+    private void assertNotFound(String path) {
+        try {
+            cache.get(path);
+            fail("Expected NOT_FOUND for " + path);
+        } catch (PersisterException e) {
+            assertEquals(Reason.NOT_FOUND, e.getReason());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.mesosphere.sdk.testutils;
 
 import com.mesosphere.sdk.offer.Constants;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.state.ConfigStore;
 
 import org.apache.mesos.Protos;
 import org.json.JSONObject;
@@ -37,6 +38,8 @@ public class SchedulerConfigTestUtils {
         when(schedulerConfig.getMultiServiceRemovalTimeout()).thenReturn(Duration.ofSeconds(60));
         when(schedulerConfig.getSchedulerIP()).thenReturn("127.0.0.1");
         when(schedulerConfig.getBuildInfo()).thenReturn(new JSONObject());
+        when(schedulerConfig.getConfigCacheSize()).thenReturn(ConfigStore.DEFAULT_CACHE_SIZE);
+        when(schedulerConfig.getOfferLogBudget()).thenReturn(-1);
         Map<String, Protos.Value> map = new TreeMap<>();
         map.put(Constants.CPUS_RESOURCE_TYPE, scalar(0.1));
         map.put(Constants.DISK_RESOURCE_TYPE, scalar(256));
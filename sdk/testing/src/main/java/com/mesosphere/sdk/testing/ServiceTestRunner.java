@@ -18,6 +18,7 @@ import com.mesosphere.sdk.scheduler.recovery.RecoveryPlanOverriderFactory;
 import com.mesosphere.sdk.specification.*;
 import com.mesosphere.sdk.specification.yaml.RawServiceSpec;
 import com.mesosphere.sdk.specification.yaml.TemplateUtils;
+import com.mesosphere.sdk.state.ConfigStore;
 import com.mesosphere.sdk.state.FrameworkStore;
 import com.mesosphere.sdk.storage.MemPersister;
 import com.mesosphere.sdk.storage.Persister;
@@ -304,6 +305,7 @@ public class ServiceTestRunner {
         Mockito.when(mockSchedulerConfig.getMarathonName()).thenReturn("test-marathon");
         Mockito.when(mockSchedulerConfig.getSchedulerRegion()).thenReturn(Optional.of("test-scheduler-region"));
         Mockito.when(mockSchedulerConfig.isSuppressEnabled()).thenReturn(true);
+        Mockito.when(mockSchedulerConfig.getConfigCacheSize()).thenReturn(ConfigStore.DEFAULT_CACHE_SIZE);
         Mockito.when(mockSchedulerConfig.getExecutorResources())
                 .thenReturn(Collections.singletonMap(Constants.CPUS_RESOURCE_TYPE, EXECUTOR_CPUS));
         Mockito.when(mockSchedulerConfig.getServiceNamespace()).thenReturn(Optional.of("test-namespace"));